@@ -30,6 +30,7 @@ import de.unijena.cheminf.mortar.gui.util.GuiUtil;
 import de.unijena.cheminf.mortar.gui.views.HistogramView;
 import de.unijena.cheminf.mortar.message.Message;
 import de.unijena.cheminf.mortar.model.data.FragmentDataModel;
+import de.unijena.cheminf.mortar.model.depict.DepictionCache;
 import de.unijena.cheminf.mortar.model.depict.DepictionUtil;
 import de.unijena.cheminf.mortar.model.util.ChemUtil;
 import de.unijena.cheminf.mortar.model.util.CollectionUtil;
@@ -957,7 +958,8 @@ public class HistogramViewController implements IViewToolController {
                     //Note: the used depiction method returns an error image if image creation fails, so nothing else to do here
                 }
             }
-            Image tmpImage = DepictionUtil.depictImageWithZoomAndFillToFitAndWhiteBackground(
+            String tmpDepictionKey = DepictionCache.createKey(aSmiles, this.imageZoomFactor, this.imageWidth, this.imageHeight, true, true);
+            Image tmpImage = DepictionUtil.depictImageWithCache(tmpDepictionKey,
                     this.atomContainerForDisplayCache,
                     this.imageZoomFactor,
                     this.imageWidth,
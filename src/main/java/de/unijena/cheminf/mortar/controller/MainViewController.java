@@ -24,6 +24,7 @@ import de.unijena.cheminf.mortar.gui.controls.CustomPaginationSkin;
 import de.unijena.cheminf.mortar.gui.controls.GridTabForTableView;
 import de.unijena.cheminf.mortar.gui.util.GuiDefinitions;
 import de.unijena.cheminf.mortar.gui.util.GuiUtil;
+import de.unijena.cheminf.mortar.gui.util.TableViewSorter;
 import de.unijena.cheminf.mortar.gui.views.FragmentsDataTableView;
 import de.unijena.cheminf.mortar.gui.views.IDataTableView;
 import de.unijena.cheminf.mortar.gui.views.ItemizationDataTableView;
@@ -32,11 +33,14 @@ import de.unijena.cheminf.mortar.gui.views.MoleculesDataTableView;
 import de.unijena.cheminf.mortar.message.Message;
 import de.unijena.cheminf.mortar.model.data.FragmentDataModel;
 import de.unijena.cheminf.mortar.model.data.MoleculeDataModel;
+import de.unijena.cheminf.mortar.model.data.MoleculeSelectionModel;
+import de.unijena.cheminf.mortar.model.depict.DepictionUtil;
 import de.unijena.cheminf.mortar.model.fragmentation.FragmentationService;
 import de.unijena.cheminf.mortar.model.fragmentation.algorithm.IMoleculeFragmenter;
 import de.unijena.cheminf.mortar.model.io.ChemFileTypes;
 import de.unijena.cheminf.mortar.model.io.Exporter;
 import de.unijena.cheminf.mortar.model.io.Importer;
+import de.unijena.cheminf.mortar.model.io.SessionFile;
 import de.unijena.cheminf.mortar.model.settings.SettingsContainer;
 import de.unijena.cheminf.mortar.model.util.BasicDefinitions;
 import de.unijena.cheminf.mortar.model.util.ChemUtil;
@@ -44,8 +48,10 @@ import de.unijena.cheminf.mortar.model.util.CollectionUtil;
 import de.unijena.cheminf.mortar.model.util.FileUtil;
 import de.unijena.cheminf.mortar.model.util.LogUtil;
 
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Platform;
-import javafx.beans.Observable;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
@@ -77,15 +83,16 @@ import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
 import javafx.stage.Stage;
 import javafx.stage.WindowEvent;
-
-import org.openscience.cdk.interfaces.IAtomContainer;
-import org.openscience.cdk.interfaces.IAtomContainerSet;
+import javafx.util.Duration;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -123,6 +130,10 @@ public class MainViewController {
      * ObservableList to hold MoleculeDataModels for visualisation in MoleculesDataTableView
      */
     private ObservableList<MoleculeDataModel> moleculeDataModelList;
+    /**
+     * Shared selection model of the molecules in moleculeDataModelList
+     */
+    private MoleculeSelectionModel moleculeSelectionModel;
     /**
      * MoleculesDataTableView to show imported molecules
      */
@@ -155,6 +166,11 @@ public class MainViewController {
      * Boolean value whether fragmentation is running
      */
     private boolean isFragmentationRunning;
+    /**
+     * Boolean value whether a session is being saved, fragmentations are not started meanwhile because they change
+     * the fragments of the molecules that are written
+     */
+    private boolean isSessionSaveRunning;
     /**
      * Task for parallel fragmentation
      */
@@ -170,7 +186,15 @@ public class MainViewController {
     /**
      * Task for molecule file import
      */
-    private Task<IAtomContainerSet> importTask;
+    private Task<List<MoleculeDataModel>> importTask;
+    /**
+     * Timeline adding the molecules imported so far to the molecules tab while the import is running
+     */
+    private Timeline importUpdateTimeline;
+    /**
+     * Name of the imported data set, used as default name of session files
+     */
+    private String dataSetName;
     /**
      * Thread for molecule exports, so GUI thread is always responsive
      */
@@ -222,7 +246,8 @@ public class MainViewController {
             throw new IllegalArgumentException("The given application directory is neither no directory or does not exist");
         }
         //</editor-fold>
-        this.moleculeDataModelList = FXCollections.observableArrayList(param -> new Observable[]{param.selectionProperty()});
+        this.moleculeDataModelList = FXCollections.observableArrayList();
+        this.moleculeSelectionModel = new MoleculeSelectionModel();
         this.primaryStage = aStage;
         this.mainView = aMainView;
         this.settingsContainer = new SettingsContainer();
@@ -232,6 +257,7 @@ public class MainViewController {
         this.fragmentationService.reloadActiveFragmenterAndPipeline();
         this.viewToolsManager = new ViewToolsManager();
         this.viewToolsManager.reloadViewToolsSettings();
+        this.loadPersistedCaches();
         //<editor-fold desc="show MainView inside of primaryStage" defaultstate="collapsed">
         this.mainTabPane = new TabPane();
         this.mainView.getMainCenterPane().getChildren().add(this.mainTabPane);
@@ -265,7 +291,19 @@ public class MainViewController {
         );
         this.mainView.getMainMenuBar().getOpenMenuItem().addEventHandler(
                 EventType.ROOT,
-                anEvent -> this.importMoleculeFile(this.primaryStage)
+                anEvent -> this.importMoleculeFile(this.primaryStage, false)
+        );
+        this.mainView.getMainMenuBar().getOpenDirectoryMenuItem().addEventHandler(
+                EventType.ROOT,
+                anEvent -> this.importMoleculeFile(this.primaryStage, true)
+        );
+        this.mainView.getMainMenuBar().getOpenSessionMenuItem().addEventHandler(
+                EventType.ROOT,
+                anEvent -> this.openSession()
+        );
+        this.mainView.getMainMenuBar().getSaveSessionMenuItem().addEventHandler(
+                EventType.ROOT,
+                anEvent -> this.saveSession()
         );
         this.mainView.getMainMenuBar().getCancelImportMenuItem().addEventHandler(
                 EventType.ROOT,
@@ -286,6 +324,10 @@ public class MainViewController {
         this.mainView.getMainMenuBar().getFragmentsExportToPDBMenuItem().addEventHandler(
                 EventType.ROOT,
                 anEvent -> this.exportFile(Exporter.ExportTypes.PDB_FILE));
+        //fragments export to PDB files in a ZIP archive
+        this.mainView.getMainMenuBar().getFragmentsExportToPDBZipMenuItem().addEventHandler(
+                EventType.ROOT,
+                anEvent -> this.exportFile(Exporter.ExportTypes.PDB_ZIP_FILE));
         //fragments export to PDF
         this.mainView.getMainMenuBar().getFragmentsExportToPDFMenuItem().addEventHandler(
                 EventType.ROOT,
@@ -298,6 +340,10 @@ public class MainViewController {
         this.mainView.getMainMenuBar().getFragmentsExportToSeparateSDFsMenuItem().addEventHandler(
                 EventType.ROOT,
                 anEvent -> this.exportFile(Exporter.ExportTypes.SD_FILE));
+        //fragments export to separate SDFs in a ZIP archive
+        this.mainView.getMainMenuBar().getFragmentsExportToSDFsZipMenuItem().addEventHandler(
+                EventType.ROOT,
+                anEvent -> this.exportFile(Exporter.ExportTypes.SD_ZIP_FILE));
         //items export to CSV
         this.mainView.getMainMenuBar().getItemsExportToCSVMenuItem().addEventHandler(
                 EventType.ROOT,
@@ -306,6 +352,10 @@ public class MainViewController {
         this.mainView.getMainMenuBar().getItemsExportToPDFMenuItem().addEventHandler(
                 EventType.ROOT,
                 anEvent -> this.exportFile(Exporter.ExportTypes.ITEM_PDF_FILE));
+        //items export to sparse matrix
+        this.mainView.getMainMenuBar().getItemsExportToSparseMatrixMenuItem().addEventHandler(
+                EventType.ROOT,
+                anEvent -> this.exportFile(Exporter.ExportTypes.ITEM_SPARSE_MATRIX_FILE));
         //</editor-fold>
         this.mainView.getMainMenuBar().getFragmentationSettingsMenuItem().addEventHandler(
                 EventType.ROOT,
@@ -344,6 +394,10 @@ public class MainViewController {
                 keyEvent.consume();
                 return;
             }
+            if (tmpGrid.getPagination() == null) {
+                //no pagination, the keys are left to the table view for scrolling
+                return;
+            }
             if (GuiDefinitions.KEY_CODE_LAST_PAGE.match(keyEvent) || keyEvent.getCode() == KeyCode.END) {
                 tmpGrid.getPagination().setCurrentPageIndex(tmpGrid.getPagination().getPageCount() - 1);
                 keyEvent.consume();
@@ -394,6 +448,7 @@ public class MainViewController {
         this.viewToolsManager.persistViewToolsSettings();
         this.fragmentationService.persistFragmenterSettings();
         this.fragmentationService.persistSelectedFragmenterAndPipeline();
+        this.persistCaches();
         if (this.isFragmentationRunning) {
             this.interruptFragmentation();
         }
@@ -403,6 +458,74 @@ public class MainViewController {
     }
     //
 
+    /**
+     * Loads the layout coordinate cache persisted in the last session and opens the thumbnail store of persisted
+     * depictions in a background thread if the respective settings are activated. Layouts and depictions that cannot
+     * be read are simply computed again.
+     */
+    private void loadPersistedCaches() {
+        boolean tmpIsLayoutCoordinateCachePersisted = this.settingsContainer.getPersistLayoutCoordinateCacheSetting();
+        boolean tmpAreDepictionsPersisted = this.settingsContainer.getPersistDepictionsSetting();
+        if (!tmpIsLayoutCoordinateCachePersisted && !tmpAreDepictionsPersisted) {
+            return;
+        }
+        Thread tmpLoaderThread = new Thread(() -> {
+            if (tmpAreDepictionsPersisted) {
+                try {
+                    DepictionUtil.openThumbnailStore(new File(FileUtil.getCacheDirPath() + BasicDefinitions.THUMBNAIL_STORE_FILE_NAME));
+                } catch (IOException | SecurityException anException) {
+                    MainViewController.LOGGER.log(Level.WARNING, anException.toString(), anException);
+                }
+            }
+            if (tmpIsLayoutCoordinateCachePersisted) {
+                try {
+                    ChemUtil.getLayoutCoordinateCache().readFromFile(ChemUtil.getLayoutCoordinateCacheFile());
+                } catch (IOException | SecurityException anException) {
+                    MainViewController.LOGGER.log(Level.WARNING, anException.toString(), anException);
+                }
+            }
+        });
+        tmpLoaderThread.setName(ThreadType.CACHE_THREAD.getThreadName());
+        tmpLoaderThread.setUncaughtExceptionHandler(LogUtil.getUncaughtExceptionHandler());
+        tmpLoaderThread.setDaemon(true);
+        tmpLoaderThread.setPriority(Thread.MIN_PRIORITY);
+        tmpLoaderThread.start();
+    }
+    //
+
+    /**
+     * Closes the thumbnail store of persisted depictions and writes the layout coordinate cache to the application data
+     * directory if the respective setting is activated and new layouts were computed in this session. If one of the
+     * settings is deactivated, the respective file persisted before is deleted.
+     */
+    private void persistCaches() {
+        DepictionUtil.closeThumbnailStore();
+        try {
+            File tmpThumbnailStoreFile = new File(FileUtil.getCacheDirPath() + BasicDefinitions.THUMBNAIL_STORE_FILE_NAME);
+            if (!this.settingsContainer.getPersistDepictionsSetting() && tmpThumbnailStoreFile.isFile()
+                    && !tmpThumbnailStoreFile.delete()) {
+                MainViewController.LOGGER.log(Level.WARNING, "Thumbnail store file could not be deleted.");
+            }
+        } catch (SecurityException anException) {
+            MainViewController.LOGGER.log(Level.WARNING, anException.toString(), anException);
+        }
+        try {
+            File tmpCacheFile = ChemUtil.getLayoutCoordinateCacheFile();
+            if (!this.settingsContainer.getPersistLayoutCoordinateCacheSetting()) {
+                if (tmpCacheFile.isFile() && !tmpCacheFile.delete()) {
+                    MainViewController.LOGGER.log(Level.WARNING, "Layout coordinate cache file could not be deleted.");
+                }
+                return;
+            }
+            if (ChemUtil.getLayoutCoordinateCache().hasChanged()) {
+                ChemUtil.getLayoutCoordinateCache().writeToFile(tmpCacheFile);
+            }
+        } catch (IOException | SecurityException anException) {
+            MainViewController.LOGGER.log(Level.WARNING, anException.toString(), anException);
+        }
+    }
+    //
+
     /**
      * Opens a dialog to warn the user of possible data loss and stopping a running fragmentation, e.g. when a new
      * molecule set should be imported or the application shut down. Returns true if "OK" was clicked, "false" for cancel
@@ -439,11 +562,13 @@ public class MainViewController {
     //
 
     /**
-     * Loads molecule file and opens molecules tab
+     * Loads the chosen molecule files or the molecule files of the chosen directory as one molecule set and opens
+     * molecules tab
      *
      * @param aParentStage Stage
+     * @param isDirectoryImport true to choose a directory, false to choose one or more files
      */
-    private void importMoleculeFile(Stage aParentStage) {
+    private void importMoleculeFile(Stage aParentStage, boolean isDirectoryImport) {
         if (this.moleculeDataModelList.size() > 0) {
             if (!this.isFragmentationStopAndDataLossConfirmed()) {
                 return;
@@ -451,8 +576,8 @@ public class MainViewController {
             this.fragmentationService.clearCache();
         }
         Importer tmpImporter = new Importer(this.settingsContainer);
-        File tmpFile = tmpImporter.openFile(aParentStage);
-        if (Objects.isNull(tmpFile)) {
+        List<File> tmpFileList = isDirectoryImport ? tmpImporter.openDirectory(aParentStage) : tmpImporter.openFiles(aParentStage);
+        if (Objects.isNull(tmpFileList) || tmpFileList.isEmpty()) {
             return;
         }
         if (this.isFragmentationRunning) {
@@ -467,18 +592,25 @@ public class MainViewController {
         this.clearGuiAndCollections();
         this.importTask = new Task<>() {
             @Override
-            protected IAtomContainerSet call() throws Exception {
-                IAtomContainerSet tmpSet = tmpImporter.importMoleculeFile(tmpFile);
-                return tmpSet;
+            protected List<MoleculeDataModel> call() throws Exception {
+                //preprocessing and conversion into data models are done here, off the JavaFX GUI thread
+                List<MoleculeDataModel> tmpList = tmpImporter.importMoleculeDataModels(tmpFileList);
+                return tmpList;
             }
         };
+        //the molecules imported so far are added a few times per second, coalescing the published batches into one
+        // list change event per update
+        this.importUpdateTimeline = new Timeline(new KeyFrame(Duration.millis(GuiDefinitions.IMPORT_GUI_UPDATE_INTERVAL),
+                anEvent -> this.addImportedMolecules(tmpImporter)));
+        this.importUpdateTimeline.setCycleCount(Animation.INDEFINITE);
         this.importTask.setOnSucceeded(event -> {
             //note: setOnSucceeded() takes place in the JavaFX GUI thread again but still runLater() is necessary to wait
             // for the thread to be free for the update
             Platform.runLater(() -> {
-                IAtomContainerSet tmpAtomContainerSet = null;
+                this.importUpdateTimeline.stop();
+                List<MoleculeDataModel> tmpImportedMoleculeDataModelList = null;
                 try {
-                    tmpAtomContainerSet = importTask.get();
+                    tmpImportedMoleculeDataModelList = importTask.get();
                 } catch (InterruptedException | ExecutionException anException) {
                     MainViewController.LOGGER.log(Level.SEVERE, anException.toString(), anException);
                     GuiUtil.guiExceptionAlert(Message.get("Error.ExceptionAlert.Title"),
@@ -487,47 +619,51 @@ public class MainViewController {
                             anException);
                     this.updateStatusBar(this.importerThread, Message.get("Status.importFailed"));
                 }
-                if (tmpAtomContainerSet == null || tmpAtomContainerSet.isEmpty()) {
+                Map<File, String> tmpFailedFiles = tmpImporter.getFailedFiles();
+                if (!tmpFailedFiles.isEmpty()) {
+                    StringBuilder tmpStringBuilder = new StringBuilder();
+                    for (Map.Entry<File, String> tmpFailedFile : tmpFailedFiles.entrySet()) {
+                        tmpStringBuilder.append(tmpFailedFile.getKey().getName()).append(": ").append(tmpFailedFile.getValue()).append("\n");
+                    }
+                    GuiUtil.guiExpandableAlert(
+                            Message.get("Importer.FilesNotImported.title"),
+                            Message.get("Importer.FilesNotImported.header"),
+                            Message.get("Importer.FilesNotImported.text"),
+                            tmpFailedFiles.size() + " " + Message.get("Importer.FilesNotImported.label"),
+                            tmpStringBuilder.toString()
+                    );
+                }
+                if (tmpImportedMoleculeDataModelList == null || tmpImportedMoleculeDataModelList.isEmpty()) {
+                    this.clearGuiAndCollections();
                     this.updateStatusBar(this.importerThread, Message.get("Status.importFailed"));
+                    this.mainView.getStatusBar().getProgressBar().setProgress(-1.0);
                     this.isImportRunningProperty.setValue(false);
                     return;
                 }
-                this.mainView.getMainMenuBar().getExportMenu().setDisable(true);
-                this.mainView.getMainMenuBar().getHistogramViewerMenuItem().setDisable(true);
-                this.mainView.getMainMenuBar().getOverviewViewMenuItem().setDisable(false);
-                this.primaryStage.setTitle(Message.get("Title.text") + " - " + tmpImporter.getFileName() + " - " + tmpAtomContainerSet.getAtomContainerCount() +
-                        " " + Message.get((tmpAtomContainerSet.getAtomContainerCount() == 1 ? "Title.molecule" : "Title.molecules")));
-                int tmpExceptionCount = 0;
-                for (IAtomContainer tmpAtomContainer : tmpAtomContainerSet.atomContainers()) {
-                    //returns null if no SMILES code could be created
-                    String tmpSmiles = ChemUtil.createUniqueSmiles(tmpAtomContainer);
-                    if (tmpSmiles == null) {
-                        tmpExceptionCount++;
-                        continue;
-                    }
-                    MoleculeDataModel tmpMoleculeDataModel;
-                    if (this.settingsContainer.getKeepAtomContainerInDataModelSetting()) {
-                        tmpMoleculeDataModel = new MoleculeDataModel(tmpAtomContainer);
-                    } else {
-                        tmpMoleculeDataModel = new MoleculeDataModel(tmpSmiles, tmpAtomContainer.getTitle(), tmpAtomContainer.getProperties());
-                    }
-                    tmpMoleculeDataModel.setName(tmpAtomContainer.getProperty(Importer.MOLECULE_NAME_PROPERTY_KEY));
-                    this.moleculeDataModelList.add(tmpMoleculeDataModel);
-                }
-                MainViewController.LOGGER.log(Level.INFO, "Imported " + tmpAtomContainerSet.getAtomContainerCount() + " molecules from file: " + tmpImporter.getFileName()
-                        + " " + tmpExceptionCount + " molecules could not be parsed into the internal data model.");
+                this.addImportedMolecules(tmpImporter);
+                this.dataSetName = tmpImporter.getFileName();
+                this.primaryStage.setTitle(Message.get("Title.text") + " - " + tmpImporter.getFileName() + " - " + this.moleculeDataModelList.size() +
+                        " " + Message.get((this.moleculeDataModelList.size() == 1 ? "Title.molecule" : "Title.molecules")));
+                this.fragmentationButton.setDisable(false);
+                MainViewController.LOGGER.log(Level.INFO, "Imported " + this.moleculeDataModelList.size() + " molecules from file: " + tmpImporter.getFileName());
                 this.updateStatusBar(this.importerThread, Message.get("Status.imported"));
+                this.mainView.getStatusBar().getProgressBar().setProgress(-1.0);
                 this.isImportRunningProperty.setValue(false);
-                this.mainView.getMainCenterPane().setStyle("-fx-background-image: none");
-                this.openMoleculesTab();
             });
         });
         this.importTask.setOnCancelled(event -> {
+            this.importUpdateTimeline.stop();
+            //a partially imported data set is not kept
+            this.clearGuiAndCollections();
             this.updateStatusBar(this.importerThread, Message.get("Status.canceled"));
+            this.mainView.getStatusBar().getProgressBar().setProgress(-1.0);
             this.isImportRunningProperty.setValue(false);
         });
         this.importTask.setOnFailed(event -> {
+            this.importUpdateTimeline.stop();
+            this.clearGuiAndCollections();
             this.updateStatusBar(this.importerThread, Message.get("Status.importFailed"));
+            this.mainView.getStatusBar().getProgressBar().setProgress(-1.0);
             this.isImportRunningProperty.setValue(false);
             LogUtil.getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), event.getSource().getException());
         });
@@ -539,6 +675,188 @@ public class MainViewController {
         this.isImportRunningProperty.setValue(true);
         this.updateStatusBar(this.importerThread, Message.get("Status.importing"));
         this.importerThread.start();
+        this.importUpdateTimeline.play();
+    }
+    //
+
+    /**
+     * Reloads the molecules and fragmentation results of a session file chosen by the user, see {@link SessionFile}.
+     * The file is read in a background thread; the molecules tab and the tabs of the fragmentations are opened
+     * afterwards.
+     */
+    private void openSession() {
+        if (this.moleculeDataModelList.size() > 0) {
+            if (!this.isFragmentationStopAndDataLossConfirmed()) {
+                return;
+            }
+        }
+        File tmpFile = new Importer(this.settingsContainer).openSessionFile(this.primaryStage);
+        if (tmpFile == null) {
+            return;
+        }
+        if (this.isFragmentationRunning) {
+            this.interruptFragmentation();
+        }
+        if (this.isImportRunningProperty.get()) {
+            this.interruptImport();
+        }
+        if (this.isExportRunningProperty.get()) {
+            this.interruptExport();
+        }
+        this.fragmentationService.clearCache();
+        this.clearGuiAndCollections();
+        Task<SessionFile> tmpSessionTask = new Task<>() {
+            @Override
+            protected SessionFile call() throws Exception {
+                return SessionFile.readFromFile(tmpFile);
+            }
+        };
+        Thread tmpSessionThread = new Thread(tmpSessionTask);
+        tmpSessionTask.setOnSucceeded(event -> {
+            SessionFile tmpSession = tmpSessionTask.getValue();
+            for (MoleculeDataModel tmpMoleculeDataModel : tmpSession.getMoleculeDataModelList()) {
+                this.moleculeSelectionModel.register(tmpMoleculeDataModel);
+            }
+            this.moleculeDataModelList.addAll(tmpSession.getMoleculeDataModelList());
+            this.dataSetName = tmpSession.getDataSetName();
+            this.primaryStage.setTitle(Message.get("Title.text") + " - " + this.dataSetName + " - " + this.moleculeDataModelList.size() +
+                    " " + Message.get((this.moleculeDataModelList.size() == 1 ? "Title.molecule" : "Title.molecules")));
+            this.mainView.getMainCenterPane().setStyle("-fx-background-image: none");
+            this.mainView.getMainMenuBar().getOverviewViewMenuItem().setDisable(false);
+            this.openMoleculesTab();
+            this.fragmentationService.restoreFragmentations(tmpSession.getFragmentDataModelListMap());
+            for (Map.Entry<String, List<FragmentDataModel>> tmpEntry : tmpSession.getFragmentDataModelListMap().entrySet()) {
+                this.mapOfFragmentDataModelLists.put(tmpEntry.getKey(), FXCollections.observableArrayList(tmpEntry.getValue()));
+                this.addFragmentationResultTabs(tmpEntry.getKey());
+            }
+            boolean tmpHasFragmentations = !tmpSession.getFragmentDataModelListMap().isEmpty();
+            this.mainView.getMainMenuBar().getExportMenu().setDisable(!tmpHasFragmentations);
+            this.mainView.getMainMenuBar().getHistogramViewerMenuItem().setDisable(!tmpHasFragmentations);
+            this.updateStatusBar(tmpSessionThread, Message.get("Status.imported"));
+        });
+        tmpSessionTask.setOnFailed(event -> {
+            this.clearGuiAndCollections();
+            this.updateStatusBar(tmpSessionThread, Message.get("Status.importFailed"));
+            Throwable tmpException = event.getSource().getException();
+            MainViewController.LOGGER.log(Level.SEVERE, tmpException.toString(), tmpException);
+            GuiUtil.guiExceptionAlert(Message.get("Error.ExceptionAlert.Title"),
+                    Message.get("Importer.SessionImportExceptionAlert.Header"),
+                    Message.get("Importer.FileImportExceptionAlert.Text") + "\n" + FileUtil.getAppDirPath() + File.separator + BasicDefinitions.LOG_FILES_DIRECTORY + File.separator,
+                    tmpException instanceof Exception ? (Exception) tmpException : new Exception(tmpException));
+        });
+        tmpSessionThread.setName(ThreadType.SESSION_THREAD.getThreadName());
+        tmpSessionThread.setUncaughtExceptionHandler(LogUtil.getUncaughtExceptionHandler());
+        tmpSessionThread.setDaemon(false);
+        this.updateStatusBar(tmpSessionThread, Message.get("Status.session"));
+        tmpSessionThread.start();
+    }
+    //
+
+    /**
+     * Saves the molecules and the results of the finished fragmentations to a session file chosen by the user, see
+     * {@link SessionFile}. The file is written in a background thread.
+     */
+    private void saveSession() {
+        if (this.moleculeDataModelList.isEmpty() || this.isImportRunningProperty.get() || this.isFragmentationRunning
+                || this.isSessionSaveRunning) {
+            GuiUtil.guiMessageAlert(
+                    Alert.AlertType.INFORMATION,
+                    Message.get("Exporter.MessageAlert.NoDataAvailable.title"),
+                    Message.get("Exporter.MessageAlert.NoDataAvailable.header"),
+                    null
+            );
+            return;
+        }
+        File tmpFile = new Exporter(this.settingsContainer).chooseSessionFile(this.primaryStage,
+                Objects.requireNonNullElse(this.dataSetName, "Session") + SessionFile.SESSION_FILE_EXTENSION);
+        if (tmpFile == null) {
+            return;
+        }
+        //fragmentations in the order they were run
+        LinkedHashMap<String, List<FragmentDataModel>> tmpFragmentDataModelListMap = new LinkedHashMap<>();
+        for (String tmpFragmentationName : this.fragmentationService.getExistingFragmentations()) {
+            if (this.mapOfFragmentDataModelLists.containsKey(tmpFragmentationName)) {
+                tmpFragmentDataModelListMap.put(tmpFragmentationName, new ArrayList<>(this.mapOfFragmentDataModelLists.get(tmpFragmentationName)));
+            }
+        }
+        SessionFile tmpSession = new SessionFile(this.dataSetName, new ArrayList<>(this.moleculeDataModelList), tmpFragmentDataModelListMap);
+        Task<Void> tmpSessionTask = new Task<>() {
+            @Override
+            protected Void call() throws Exception {
+                //deflating at the fastest level keeps writing I/O-bound and the files considerably smaller
+                tmpSession.writeToFile(tmpFile, true);
+                return null;
+            }
+        };
+        Thread tmpSessionThread = new Thread(tmpSessionTask);
+        tmpSessionTask.setOnSucceeded(event -> {
+            this.finishSessionSave();
+            this.updateStatusBar(tmpSessionThread, Message.get("Status.sessionSaved"));
+        });
+        tmpSessionTask.setOnFailed(event -> {
+            this.finishSessionSave();
+            this.updateStatusBar(tmpSessionThread, Message.get("Status.failed"));
+            LogUtil.getUncaughtExceptionHandler().uncaughtException(tmpSessionThread, event.getSource().getException());
+        });
+        tmpSessionThread.setName(ThreadType.SESSION_THREAD.getThreadName());
+        tmpSessionThread.setUncaughtExceptionHandler(LogUtil.getUncaughtExceptionHandler());
+        tmpSessionThread.setDaemon(false);
+        //the fragments of the molecules are read while the session is written
+        this.isSessionSaveRunning = true;
+        this.fragmentationButton.setDisable(true);
+        this.updateStatusBar(tmpSessionThread, Message.get("Status.session"));
+        tmpSessionThread.start();
+    }
+    //
+
+    /**
+     * Enables fragmentations again after a session has been saved or saving it failed.
+     */
+    private void finishSessionSave() {
+        this.isSessionSaveRunning = false;
+        this.fragmentationButton.setDisable(this.isImportRunningProperty.get() || this.isFragmentationRunning);
+    }
+    //
+
+    /**
+     * Adds the molecules published by the given importer since the last call to the molecule data model list, opens
+     * the molecules tab with the first published molecules and updates the import progress shown in the status bar.
+     * Fragmentation, export and the histogram stay disabled until the import has finished.
+     *
+     * @param anImporter Importer of the running import
+     */
+    private void addImportedMolecules(Importer anImporter) {
+        this.mainView.getStatusBar().getProgressBar().setProgress(anImporter.getImportProgress());
+        List<MoleculeDataModel> tmpImportedMoleculeDataModelList = anImporter.pollImportedMoleculeDataModels();
+        if (tmpImportedMoleculeDataModelList.isEmpty()) {
+            return;
+        }
+        for (MoleculeDataModel tmpMoleculeDataModel : tmpImportedMoleculeDataModelList) {
+            this.moleculeSelectionModel.register(tmpMoleculeDataModel);
+        }
+        boolean tmpIsFirstBatch = this.moleculeDataModelList.isEmpty();
+        //one list change event for all batches published since the last update
+        this.moleculeDataModelList.addAll(tmpImportedMoleculeDataModelList);
+        if (tmpIsFirstBatch) {
+            this.mainView.getMainMenuBar().getExportMenu().setDisable(true);
+            this.mainView.getMainMenuBar().getHistogramViewerMenuItem().setDisable(true);
+            this.mainView.getMainMenuBar().getOverviewViewMenuItem().setDisable(false);
+            this.mainView.getMainCenterPane().setStyle("-fx-background-image: none");
+            this.openMoleculesTab();
+            this.fragmentationButton.setDisable(this.isImportRunningProperty.get());
+            return;
+        }
+        for (Tab tmpTab : this.mainTabPane.getTabs()) {
+            if (!tmpTab.getId().equals(TabNames.MOLECULES.name()) || ((GridTabForTableView) tmpTab).getPagination() == null) {
+                continue;
+            }
+            int tmpRowsPerPage = this.settingsContainer.getRowsPerPageSetting();
+            int tmpPageCount = this.moleculeDataModelList.size() / tmpRowsPerPage;
+            if (this.moleculeDataModelList.size() % tmpRowsPerPage > 0) {
+                tmpPageCount++;
+            }
+            ((GridTabForTableView) tmpTab).getPagination().setPageCount(tmpPageCount);
+        }
     }
     //
 
@@ -560,6 +878,8 @@ public class MainViewController {
             case FRAGMENT_PDF_FILE:
             case SINGLE_SD_FILE:
             case SD_FILE:
+            case SD_ZIP_FILE:
+            case PDB_ZIP_FILE:
                 if (this.getItemsListOfSelectedFragmenterByTabId(TabNames.FRAGMENTS) == null ||
                         this.getItemsListOfSelectedFragmenterByTabId(TabNames.FRAGMENTS).size() == 0 ||
                         ((GridTabForTableView) mainTabPane.getSelectionModel().getSelectedItem()).getFragmentationNameOutOfTitle() == null) {
@@ -574,6 +894,7 @@ public class MainViewController {
                 break;
             case ITEM_CSV_FILE:
             case ITEM_PDF_FILE:
+            case ITEM_SPARSE_MATRIX_FILE:
                 if (this.getItemsListOfSelectedFragmenterByTabId(TabNames.ITEMIZATION) == null ||
                         this.getItemsListOfSelectedFragmenterByTabId(TabNames.ITEMIZATION).size() == 0 ||
                         this.moleculeDataModelList == null || this.moleculeDataModelList.size() == 0 ||
@@ -599,6 +920,7 @@ public class MainViewController {
         boolean tmpGenerate2dAtomCoordinates = false;
         switch (anExportType) {
             case PDB_FILE:
+            case PDB_ZIP_FILE:
             case SINGLE_SD_FILE:
                 if (!ChemUtil.checkMoleculeListForCoordinates(getItemsListOfSelectedFragmenterByTabId(TabNames.FRAGMENTS))) {
                     ButtonType tmpConfirmationResult = GuiUtil.guiConfirmationAlert(
@@ -651,6 +973,20 @@ public class MainViewController {
                                 ChemFileTypes.SDF,
                                 false
                         );
+                    case SD_ZIP_FILE:
+                        return tmpExporter.exportFragmentsAsZipArchive(
+                                getItemsListOfSelectedFragmenterByTabId(TabNames.FRAGMENTS),
+                                ((GridTabForTableView) mainTabPane.getSelectionModel().getSelectedItem()).getFragmentationNameOutOfTitle(),
+                                ChemFileTypes.SDF,
+                                false
+                        );
+                    case PDB_ZIP_FILE:
+                        return tmpExporter.exportFragmentsAsZipArchive(
+                                getItemsListOfSelectedFragmenterByTabId(TabNames.FRAGMENTS),
+                                ((GridTabForTableView) mainTabPane.getSelectionModel().getSelectedItem()).getFragmentationNameOutOfTitle(),
+                                ChemFileTypes.PDB,
+                                tmpGenerate2dAtomCoordinatesFinal
+                        );
                     case ITEM_CSV_FILE:
                         return tmpExporter.exportCsvFile(
                                 moleculeDataModelList,
@@ -665,20 +1001,30 @@ public class MainViewController {
                                 ((GridTabForTableView) mainTabPane.getSelectionModel().getSelectedItem()).getFragmentationNameOutOfTitle(),
                                 TabNames.ITEMIZATION
                         );
+                    case ITEM_SPARSE_MATRIX_FILE:
+                        return tmpExporter.exportSparseMatrixFile(
+                                moleculeDataModelList,
+                                getItemsListOfSelectedFragmenterByTabId(TabNames.FRAGMENTS),
+                                ((GridTabForTableView) mainTabPane.getSelectionModel().getSelectedItem()).getFragmentationNameOutOfTitle(),
+                                settingsContainer.getCsvExportSeparatorSetting()
+                        );
                 }
                 return null;
             }
         };
         this.exportTask.setOnSucceeded(event -> {
             this.isExportRunningProperty.setValue(false);
-            this.updateStatusBar(this.exporterThread, Message.get("Status.finished"));
             List<String> tmpFailedExportFragments = this.exportTask.getValue();
             if (tmpFailedExportFragments == null) {
+                //the export failed, partially written files have been deleted
+                this.updateStatusBar(this.exporterThread, Message.get("Status.failed"));
                 GuiUtil.guiMessageAlert(Alert.AlertType.WARNING,
                         Message.get("Exporter.FragmentsTab.ExportNotPossible.title"),
                         Message.get("Exporter.FragmentsTab.ExportNotPossible.header"),
                         null);
+                return;
             }
+            this.updateStatusBar(this.exporterThread, Message.get("Status.finished"));
             if (tmpFailedExportFragments.size() > 0) {
                 StringBuilder tmpStringBuilder = new StringBuilder();
                 for (String tmpFragmentName : tmpFailedExportFragments) {
@@ -782,8 +1128,18 @@ public class MainViewController {
     private void openGlobalSettingsView() {
         SettingsViewController tmpSettingsViewController = new SettingsViewController(this.primaryStage, this.settingsContainer);
         Platform.runLater(() -> {
+            if (tmpSettingsViewController.haveSettingsChanged()) {
+                DepictionUtil.getDepictionCache().clear();
+                if (!this.settingsContainer.getPersistDepictionsSetting()) {
+                    DepictionUtil.discardThumbnailStore();
+                }
+            }
             if (tmpSettingsViewController.hasRowsPerPageChanged()) {
                 for (Tab tmpTab : this.mainTabPane.getTabs()) {
+                    if (((GridTabForTableView) tmpTab).getPagination() == null) {
+                        //rows per page setting is not used by tabs without pagination
+                        continue;
+                    }
                     TableView tmpTableView = ((GridTabForTableView) tmpTab).getTableView();
                     int tmpListSize = 0;
                     tmpListSize = ((IDataTableView) tmpTableView).getItemsList().size();
@@ -861,7 +1217,7 @@ public class MainViewController {
                     //getting the data for the overview view
                     List<MoleculeDataModel> tmpDataForOverviewView = new ArrayList<>();
                     int tmpSelectedRowIndex = ((TableView<?>) tmpSelectedTab.getTableView()).getSelectionModel().getSelectedCells().get(0).getRow();
-                    int tmpIndexInDataList = tmpSelectedTab.getPagination().getCurrentPageIndex() * this.settingsContainer.getRowsPerPageSetting() + tmpSelectedRowIndex;
+                    int tmpIndexInDataList = this.getIndexInItemsListOfTab(tmpSelectedTab, tmpSelectedRowIndex);
                     //adding the fragment itself
                     tmpDataForOverviewView.add(((IDataTableView) tmpSelectedTab.getTableView()).getItemsList().get(tmpIndexInDataList));
                     //adding the sample of parent molecules
@@ -887,7 +1243,7 @@ public class MainViewController {
                     //getting the data for the overview view
                     List<MoleculeDataModel> tmpDataForOverviewView = new ArrayList<>();
                     int tmpSelectedRowIndex = ((TableView<?>) tmpSelectedTab.getTableView()).getSelectionModel().getSelectedCells().get(0).getRow();
-                    int tmpIndexInDataList = tmpSelectedTab.getPagination().getCurrentPageIndex() * this.settingsContainer.getRowsPerPageSetting() + tmpSelectedRowIndex;
+                    int tmpIndexInDataList = this.getIndexInItemsListOfTab(tmpSelectedTab, tmpSelectedRowIndex);
                     //adding the item itself
                     tmpDataForOverviewView.add(((IDataTableView) tmpSelectedTab.getTableView()).getItemsList().get(tmpIndexInDataList));
                     //adding the sample of fragments
@@ -912,23 +1268,27 @@ public class MainViewController {
         int tmpIndexOfMoleculeDataModelToReturnTo = this.viewToolsManager.getCachedIndexOfStructureInMoleculeDataModelList();
         //since -1 is returned, if no specific structure should be shown
         if (tmpIndexOfMoleculeDataModelToReturnTo >= 0) {
-            //go to page showing the structure of the MoleculeDataModel with the given index
-            int tmpNewPageIndex = tmpIndexOfMoleculeDataModelToReturnTo / this.settingsContainer.getRowsPerPageSetting();
-            ((GridTabForTableView) this.mainTabPane.getSelectionModel().getSelectedItem()).getPagination()
-                    .setCurrentPageIndex(tmpNewPageIndex);
-            TableView tmpSelectedTabTableView = ((GridTabForTableView) this.mainTabPane.getSelectionModel()
-                    .getSelectedItem()).getTableView();
+            GridTabForTableView tmpSelectedTab = (GridTabForTableView) this.mainTabPane.getSelectionModel().getSelectedItem();
+            TableView tmpSelectedTabTableView = tmpSelectedTab.getTableView();
+            int tmpRowIndexOfStructure;
+            if (tmpSelectedTab.getPagination() == null) {
+                //no pagination, scroll to the row of the structure
+                tmpRowIndexOfStructure = tmpIndexOfMoleculeDataModelToReturnTo;
+                tmpSelectedTabTableView.scrollTo(tmpRowIndexOfStructure);
+            } else {
+                //go to page showing the structure of the MoleculeDataModel with the given index
+                int tmpNewPageIndex = tmpIndexOfMoleculeDataModelToReturnTo / this.settingsContainer.getRowsPerPageSetting();
+                tmpSelectedTab.getPagination().setCurrentPageIndex(tmpNewPageIndex);
+                tmpRowIndexOfStructure = tmpIndexOfMoleculeDataModelToReturnTo
+                        % this.settingsContainer.getRowsPerPageSetting();
+            }
             if (tmpSelectedTabTableView.getClass() == MoleculesDataTableView.class) {
                 //select structure cell
-                int tmpRowIndexOfStructure = tmpIndexOfMoleculeDataModelToReturnTo
-                        % this.settingsContainer.getRowsPerPageSetting();
                 tmpSelectedTabTableView.getSelectionModel().clearSelection();
                 tmpSelectedTabTableView.getSelectionModel().select(tmpRowIndexOfStructure,
                         ((MoleculesDataTableView) tmpSelectedTabTableView).getStructureColumn());
             } else if (tmpSelectedTabTableView.getClass() == FragmentsDataTableView.class) {
                 //select structure cell
-                int tmpRowIndexOfStructure = tmpIndexOfMoleculeDataModelToReturnTo
-                        % this.settingsContainer.getRowsPerPageSetting();
                 tmpSelectedTabTableView.getSelectionModel().clearSelection();
                 tmpSelectedTabTableView.getSelectionModel().select(tmpRowIndexOfStructure,
                         ((FragmentsDataTableView) tmpSelectedTabTableView).getStructureColumn());
@@ -944,22 +1304,29 @@ public class MainViewController {
     private void openMoleculesTab() {
         this.moleculesDataTableView = new MoleculesDataTableView();
         this.moleculesDataTableView.setItemsList(this.moleculeDataModelList);
+        this.moleculesDataTableView.setMoleculeSelectionModel(this.moleculeSelectionModel);
         GridTabForTableView tmpMoleculesTab = new GridTabForTableView(Message.get("MainTabPane.moleculesTab.title"), TabNames.MOLECULES.name(), this.moleculesDataTableView);
         this.mainTabPane.getTabs().add(tmpMoleculesTab);
         int tmpRowsPerPage = this.settingsContainer.getRowsPerPageSetting();
-        int tmpPageCount = this.moleculeDataModelList.size() / tmpRowsPerPage;
-        if (this.moleculeDataModelList.size() % tmpRowsPerPage > 0) {
-            tmpPageCount++;
-        }
-        if(this.moleculeDataModelList.size() == 0){
-            tmpPageCount = 1;
+        Pagination tmpPagination = null;
+        if (this.settingsContainer.getUsePaginationSetting()) {
+            int tmpPageCount = this.moleculeDataModelList.size() / tmpRowsPerPage;
+            if (this.moleculeDataModelList.size() % tmpRowsPerPage > 0) {
+                tmpPageCount++;
+            }
+            if(this.moleculeDataModelList.size() == 0){
+                tmpPageCount = 1;
+            }
+            tmpPagination = new Pagination(tmpPageCount, 0);
+            tmpPagination.setSkin(new CustomPaginationSkin(tmpPagination));
+            tmpPagination.setPageFactory((pageIndex) -> this.moleculesDataTableView.createMoleculeTableViewPage(pageIndex, this.settingsContainer));
+            VBox.setVgrow(tmpPagination, Priority.ALWAYS);
+            HBox.setHgrow(tmpPagination, Priority.ALWAYS);
+            tmpMoleculesTab.addPaginationToGridPane(tmpPagination);
+        } else {
+            tmpMoleculesTab.addTableViewNodeToGridPane(this.moleculesDataTableView.createMoleculeTableViewWithoutPagination());
         }
-        Pagination tmpPagination = new Pagination(tmpPageCount, 0);
-        tmpPagination.setSkin(new CustomPaginationSkin(tmpPagination));
-        tmpPagination.setPageFactory((pageIndex) -> this.moleculesDataTableView.createMoleculeTableViewPage(pageIndex, this.settingsContainer));
-        VBox.setVgrow(tmpPagination, Priority.ALWAYS);
-        HBox.setHgrow(tmpPagination, Priority.ALWAYS);
-        tmpMoleculesTab.addPaginationToGridPane(tmpPagination);
+        Pagination tmpFinalPagination = tmpPagination;
         HBox tmpFragmentationButtonsHBox = new HBox();
         tmpFragmentationButtonsHBox.setPadding(new Insets(GuiDefinitions.GUI_INSETS_VALUE, GuiDefinitions.GUI_INSETS_VALUE, GuiDefinitions.GUI_INSETS_VALUE, GuiDefinitions.GUI_INSETS_VALUE));
         tmpFragmentationButtonsHBox.setSpacing(GuiDefinitions.GUI_SPACING_VALUE);
@@ -1013,10 +1380,16 @@ public class MainViewController {
                 GuiUtil.copySelectedTableViewCellsToClipboard(this.moleculesDataTableView);
             }
         });
+        TableViewSorter tmpTableViewSorter = new TableViewSorter(this.moleculesDataTableView);
         this.moleculesDataTableView.setOnSort((EventHandler<SortEvent<TableView>>) event -> {
-            GuiUtil.sortTableViewGlobally(event, tmpPagination, tmpRowsPerPage);
+            tmpTableViewSorter.sortTableViewGlobally(event, tmpFinalPagination, tmpRowsPerPage);
          });
-        this.moleculesDataTableView.widthProperty().addListener((observable, oldValue, newValue) -> {
+        GuiUtil.addDebouncedResizeListener(this.moleculesDataTableView.widthProperty(), () -> {
+            if (tmpFinalPagination == null) {
+                //without pagination, the image width is set by the cell value factory of each visible row
+                this.moleculesDataTableView.refresh();
+                return;
+            }
             for(Object tmpObject : this.moleculesDataTableView.getItems()) {
                 ((MoleculeDataModel) tmpObject).setStructureImageWidth(this.moleculesDataTableView.getStructureColumn().getWidth());
             }
@@ -1028,6 +1401,7 @@ public class MainViewController {
      * Cancels import task and interrupts the corresponding thread
      */
     private void interruptImport() {
+        this.importUpdateTimeline.stop();
         this.importTask.cancel();
         this.importerThread.interrupt();
     }
@@ -1065,6 +1439,9 @@ public class MainViewController {
      * Starts fragmentation task and opens fragment and itemization tabs
      */
     private void startFragmentation(boolean isPipelining) {
+        if (this.isSessionSaveRunning) {
+            return;
+        }
         long tmpStartTime = System.nanoTime();
         this.cancelFragmentationButton.setPrefWidth(GuiDefinitions.GUI_BUTTON_WIDTH_VALUE);
         this.cancelFragmentationButton.setMinWidth(GuiDefinitions.GUI_BUTTON_WIDTH_VALUE);
@@ -1183,19 +1560,25 @@ public class MainViewController {
         }
         tmpFragmentsDataTableView.setItemsList(tmpList);
         int tmpRowsPerPage = this.settingsContainer.getRowsPerPageSetting();
-        int tmpPageCount = tmpList.size() / tmpRowsPerPage;
-        if (tmpList.size() % tmpRowsPerPage > 0) {
-            tmpPageCount++;
-        }
-        if(tmpList.isEmpty() || tmpList.size() == 0){
-            tmpPageCount = 1;
+        Pagination tmpPagination = null;
+        if (this.settingsContainer.getUsePaginationSetting()) {
+            int tmpPageCount = tmpList.size() / tmpRowsPerPage;
+            if (tmpList.size() % tmpRowsPerPage > 0) {
+                tmpPageCount++;
+            }
+            if(tmpList.isEmpty() || tmpList.size() == 0){
+                tmpPageCount = 1;
+            }
+            tmpPagination = new Pagination(tmpPageCount, 0);
+            tmpPagination.setSkin(new CustomPaginationSkin(tmpPagination));
+            tmpPagination.setPageFactory((pageIndex) -> tmpFragmentsDataTableView.createFragmentsTableViewPage(pageIndex, this.settingsContainer));
+            VBox.setVgrow(tmpPagination, Priority.ALWAYS);
+            HBox.setHgrow(tmpPagination, Priority.ALWAYS);
+            tmpFragmentsTab.addPaginationToGridPane(tmpPagination);
+        } else {
+            tmpFragmentsTab.addTableViewNodeToGridPane(tmpFragmentsDataTableView.createFragmentsTableViewWithoutPagination());
         }
-        Pagination tmpPagination = new Pagination(tmpPageCount, 0);
-        tmpPagination.setSkin(new CustomPaginationSkin(tmpPagination));
-        tmpPagination.setPageFactory((pageIndex) -> tmpFragmentsDataTableView.createFragmentsTableViewPage(pageIndex, this.settingsContainer));
-        VBox.setVgrow(tmpPagination, Priority.ALWAYS);
-        HBox.setHgrow(tmpPagination, Priority.ALWAYS);
-        tmpFragmentsTab.addPaginationToGridPane(tmpPagination);
+        Pagination tmpFinalPagination = tmpPagination;
         Button tmpExportCsvButton = GuiUtil.getButtonOfStandardSize(Message.get("MainTabPane.fragments.buttonCSV.txt"));
         tmpExportCsvButton.setTooltip(new Tooltip(Message.get("MainTabPane.fragments.buttonCSV.tooltip")));
         Button tmpExportPdfButton = GuiUtil.getButtonOfStandardSize(Message.get("MainTabPane.fragments.buttonPDF.txt"));
@@ -1229,10 +1612,16 @@ public class MainViewController {
             tmpOpenOverviewViewButton.setDisable(true);
             tmpOpenHistogramViewButton.setDisable(true);
         }
+        TableViewSorter tmpTableViewSorter = new TableViewSorter(tmpFragmentsDataTableView);
         tmpFragmentsDataTableView.setOnSort((EventHandler<SortEvent<TableView>>) event -> {
-            GuiUtil.sortTableViewGlobally(event, tmpPagination, tmpRowsPerPage);
+            tmpTableViewSorter.sortTableViewGlobally(event, tmpFinalPagination, tmpRowsPerPage);
         });
-        tmpFragmentsDataTableView.widthProperty().addListener((observable, oldValue, newValue) -> {
+        GuiUtil.addDebouncedResizeListener(tmpFragmentsDataTableView.widthProperty(), () -> {
+            if (tmpFinalPagination == null) {
+                //without pagination, the image width is set by the cell value factory of each visible row
+                tmpFragmentsDataTableView.refresh();
+                return;
+            }
             for(Object tmpObject : tmpFragmentsDataTableView.getItems()) {
                 ((MoleculeDataModel) tmpObject).setStructureImageWidth(tmpFragmentsDataTableView.getStructureColumn().getWidth());
                 ((FragmentDataModel) tmpObject).getFirstParentMolecule().setStructureImageWidth(tmpFragmentsDataTableView.getParentMolColumn().getWidth());
@@ -1259,23 +1648,30 @@ public class MainViewController {
        int tmpAmount = GuiUtil.getLargestNumberOfFragmentsForGivenMoleculeListAndFragmentationName(this.moleculeDataModelList, aFragmentationName);
         ItemizationDataTableView tmpItemizationDataTableView = new ItemizationDataTableView(tmpAmount, aFragmentationName);
         tmpItemizationDataTableView.setItemsList(
-                this.moleculeDataModelList.stream().filter(x -> x.hasMoleculeUndergoneSpecificFragmentation(aFragmentationName)).collect(Collectors.toList()));
+                this.moleculeDataModelList.stream().filter(x -> x.hasMoleculeUndergoneSpecificFragmentation(aFragmentationName))
+                        .collect(Collectors.toCollection(FXCollections::observableArrayList)));
         GridTabForTableView tmpItemizationTab = new GridTabForTableView(Message.get("MainTabPane.itemizationTab.title") + " - " + aFragmentationName, TabNames.ITEMIZATION.name(), tmpItemizationDataTableView);
         this.mainTabPane.getTabs().add(tmpItemizationTab);
         int tmpRowsPerPage = this.settingsContainer.getRowsPerPageSetting();
-        int tmpPageCount = this.moleculeDataModelList.size() / tmpRowsPerPage;
-        if (this.moleculeDataModelList.size() % tmpRowsPerPage > 0) {
-            tmpPageCount++;
-        }
-        if(this.moleculeDataModelList.isEmpty() || this.moleculeDataModelList.size() == 0){
-            tmpPageCount = 1;
+        Pagination tmpPagination = null;
+        if (this.settingsContainer.getUsePaginationSetting()) {
+            int tmpPageCount = this.moleculeDataModelList.size() / tmpRowsPerPage;
+            if (this.moleculeDataModelList.size() % tmpRowsPerPage > 0) {
+                tmpPageCount++;
+            }
+            if(this.moleculeDataModelList.isEmpty() || this.moleculeDataModelList.size() == 0){
+                tmpPageCount = 1;
+            }
+            tmpPagination = new Pagination(tmpPageCount, 0);
+            tmpPagination.setSkin(new CustomPaginationSkin(tmpPagination));
+            tmpPagination.setPageFactory((pageIndex) -> tmpItemizationDataTableView.createItemizationTableViewPage(pageIndex, aFragmentationName, this.settingsContainer));
+            VBox.setVgrow(tmpPagination, Priority.ALWAYS);
+            HBox.setHgrow(tmpPagination, Priority.ALWAYS);
+            tmpItemizationTab.addPaginationToGridPane(tmpPagination);
+        } else {
+            tmpItemizationTab.addTableViewNodeToGridPane(tmpItemizationDataTableView.createItemizationTableViewWithoutPagination());
         }
-        Pagination tmpPagination = new Pagination(tmpPageCount, 0);
-        tmpPagination.setSkin(new CustomPaginationSkin(tmpPagination));
-        tmpPagination.setPageFactory((pageIndex) -> tmpItemizationDataTableView.createItemizationTableViewPage(pageIndex, aFragmentationName, this.settingsContainer));
-        VBox.setVgrow(tmpPagination, Priority.ALWAYS);
-        HBox.setHgrow(tmpPagination, Priority.ALWAYS);
-        tmpItemizationTab.addPaginationToGridPane(tmpPagination);
+        Pagination tmpFinalPagination = tmpPagination;
         Button tmpItemizationTabExportPDfButton = GuiUtil.getButtonOfStandardSize(Message.get("MainTabPane.itemizationTab.pdfButton.txt"));
         tmpItemizationTabExportPDfButton.setTooltip(new Tooltip(Message.get("MainTabPane.itemizationTab.pdfButton.tooltip")));
         Button tmpItemizationExportCsvButton = GuiUtil.getButtonOfStandardSize(Message.get("MainTabPane.itemizationTab.csvButton.txt"));
@@ -1302,10 +1698,16 @@ public class MainViewController {
         tmpViewButtonsHBox.getChildren().add(tmpOpenHistogramViewButton);
         tmpItemizationTab.addNodeToGridPane(tmpViewButtonsHBox, 2, 1, 1, 1);
         tmpOpenHistogramViewButton.setOnAction(event -> this.openHistogramView());
+        TableViewSorter tmpTableViewSorter = new TableViewSorter(tmpItemizationDataTableView);
         tmpItemizationDataTableView.setOnSort((EventHandler<SortEvent<TableView>>) event -> {
-            GuiUtil.sortTableViewGlobally(event, tmpPagination, tmpRowsPerPage);
+            tmpTableViewSorter.sortTableViewGlobally(event, tmpFinalPagination, tmpRowsPerPage);
         });
-        tmpItemizationDataTableView.widthProperty().addListener((observable, oldValue, newValue) -> {
+        GuiUtil.addDebouncedResizeListener(tmpItemizationDataTableView.widthProperty(), () -> {
+            if (tmpFinalPagination == null) {
+                //without pagination, the image width is set by the cell value factory of each visible row
+                tmpItemizationDataTableView.refresh();
+                return;
+            }
             for(Object tmpObject : tmpItemizationDataTableView.getItems()) {
                 ((MoleculeDataModel) tmpObject).setStructureImageWidth(tmpItemizationDataTableView.getMoleculeStructureColumn().getWidth());
             }
@@ -1324,13 +1726,37 @@ public class MainViewController {
         return tmpItemizationTab;
     }
     //
+    /**
+     * Returns the index in the items list of the table view of the given tab for the given row index of the table view,
+     * taking the current page into account if the tab uses pagination
+     *
+     * @param aTab GridTabForTableView
+     * @param aRowIndex row index in the table view
+     * @return index in the items list
+     */
+    private int getIndexInItemsListOfTab(GridTabForTableView aTab, int aRowIndex) {
+        if (aTab.getPagination() == null) {
+            return aRowIndex;
+        }
+        return aTab.getPagination().getCurrentPageIndex() * this.settingsContainer.getRowsPerPageSetting() + aRowIndex;
+    }
+    //
     /**
      * Clears the gui and all collections
      */
     private void clearGuiAndCollections() {
         this.moleculeDataModelList.clear();
+        this.moleculeSelectionModel = new MoleculeSelectionModel();
         this.mapOfFragmentDataModelLists.clear();
+        if (this.moleculesDataTableView != null) {
+            this.moleculesDataTableView.setMoleculeSelectionModel(null);
+        }
         this.moleculesDataTableView = null;
+        for (Tab tmpTab : this.mainTabPane.getTabs()) {
+            if (tmpTab instanceof GridTabForTableView) {
+                DepictionUtil.getRenderingService().cancelPrerendering(((GridTabForTableView) tmpTab).getTableView());
+            }
+        }
         this.mainTabPane.getTabs().clear();
     }
     //
@@ -1394,6 +1820,8 @@ public class MainViewController {
                 return Message.get("Status.importing");
             case EXPORT_THREAD:
                 return Message.get("Status.exporting");
+            case SESSION_THREAD:
+                return Message.get("Status.session");
             default:
                 return "Could not find message";
         }
@@ -1417,7 +1845,15 @@ public class MainViewController {
         /**
          * enum value for export thread
          */
-        EXPORT_THREAD("Export_Thread");
+        EXPORT_THREAD("Export_Thread"),
+        /**
+         * enum value for thread loading the persisted caches
+         */
+        CACHE_THREAD("Cache_Thread"),
+        /**
+         * enum value for thread reading or writing a session file
+         */
+        SESSION_THREAD("Session_Thread");
 
         private String threadName;
 
@@ -32,6 +32,7 @@ import de.unijena.cheminf.mortar.gui.util.GuiUtil;
 import de.unijena.cheminf.mortar.gui.views.OverviewView;
 import de.unijena.cheminf.mortar.message.Message;
 import de.unijena.cheminf.mortar.model.data.MoleculeDataModel;
+import de.unijena.cheminf.mortar.model.depict.DepictionRenderingService;
 import de.unijena.cheminf.mortar.model.depict.DepictionUtil;
 
 import javafx.application.Platform;
@@ -251,6 +252,10 @@ public class OverviewViewController implements IViewToolController {
      * Boolean value to distinguish between drag from mouse click events.
      */
     private boolean dragFlag;
+    /**
+     * Index of the page shown last, used to determine the paging direction for rendering adjacent pages in advance.
+     */
+    private int lastPageIndex;
     //</editor-fold>
     //
     //<editor-fold desc="Constructor" defaultstate="collapsed">
@@ -692,6 +697,7 @@ public class OverviewViewController implements IViewToolController {
         // separately in resetCachedIndexOfStructureInMoleculeDataModelList()
         this.structureContextMenu = null;
         this.scheduledThreadPoolExecutor.shutdown();
+        DepictionUtil.getRenderingService().cancelPrerendering(this);
         this.scheduledThreadPoolExecutor = new ScheduledThreadPoolExecutor(1);
         this.scheduledThreadPoolExecutor.setRemoveOnCancelPolicy(true);
         this.dragFlag = false;
@@ -766,20 +772,14 @@ public class OverviewViewController implements IViewToolController {
                             //depiction of structure image
                             final Node tmpFinalContentNode;
                             if (!(tmpIterator == 0 && !this.withShowInMainViewOption)) {
-                                tmpFinalContentNode = new ImageView(
-                                        DepictionUtil.depictImageWithZoomAndFillToFitAndWhiteBackground(
-                                                tmpMoleculeDataModel.getAtomContainer(), 1.0, tmpImageWidth,
-                                                tmpImageHeight, true, true
-                                        )
+                                tmpFinalContentNode = DepictionUtil.getRenderingService().createStructureImageView(
+                                        tmpMoleculeDataModel, 1.0, tmpImageWidth, tmpImageHeight, true, true
                                 );
                             } else {
                                 //highlighting first structure in parent molecules and item overview view
                                 StackPane tmpStackPane = new StackPane(
-                                        new ImageView(
-                                                DepictionUtil.depictImageWithZoomAndFillToFitAndWhiteBackground(
-                                                        tmpMoleculeDataModel.getAtomContainer(), 1.0, tmpImageWidth,
-                                                        tmpImageHeight, true, false
-                                                )
+                                        DepictionUtil.getRenderingService().createStructureImageView(
+                                                tmpMoleculeDataModel, 1.0, tmpImageWidth, tmpImageHeight, true, false
                                         )
                                 );
                                 tmpStackPane.setMinWidth(tmpImageWidth);
@@ -833,7 +833,13 @@ public class OverviewViewController implements IViewToolController {
                             });
                             //
                             tmpContentNode = tmpFinalContentNode;
-                        } catch (CDKException | NullPointerException anException) {
+                        } catch (IndexOutOfBoundsException anIndexOutOfBoundsException) {
+                            //should not happen
+                            OverviewViewController.LOGGER.log(Level.SEVERE, anIndexOutOfBoundsException.toString(),
+                                    anIndexOutOfBoundsException);
+                            break generationOfStructureImagesLoop;
+                        } catch (NullPointerException anException) {
+                            //failures of the background depiction show an error image, a missing molecule shows the error label
                             OverviewViewController.LOGGER.log(Level.WARNING, anException.toString(), anException);
                             //Error label to be shown when a structure can not be depicted
                             Label tmpErrorLabel = new Label(Message.get("OverviewView.ErrorLabel.text"));
@@ -846,11 +852,6 @@ public class OverviewViewController implements IViewToolController {
                             tmpErrorLabel.setTooltip(tmpErrorLabelTooltip);
                             tmpContentNode = new StackPane(tmpErrorLabel);
                             tmpContentNode.disableProperty().set(true);
-                        } catch (IndexOutOfBoundsException anIndexOutOfBoundsException) {
-                            //should not happen
-                            OverviewViewController.LOGGER.log(Level.SEVERE, anIndexOutOfBoundsException.toString(),
-                                    anIndexOutOfBoundsException);
-                            break generationOfStructureImagesLoop;
                         }
                         //setting the shadow effect
                         if (tmpDrawImagesWithShadow) {
@@ -875,6 +876,20 @@ public class OverviewViewController implements IViewToolController {
                         tmpIterator++;
                     }
                 }
+                //rendering the structure images of the adjacent pages into the depiction cache in the background
+                DepictionRenderingService tmpRenderingService = DepictionUtil.getRenderingService();
+                tmpRenderingService.cancelPrerendering(this);
+                int tmpStructuresPerPage = aRowsPerPage * aColumnsPerPage;
+                int tmpPageCount = (this.moleculeDataModelList.size() + tmpStructuresPerPage - 1) / tmpStructuresPerPage;
+                for (int tmpAdjacentPageIndex : DepictionRenderingService.getAdjacentPageIndices(aPageIndex,
+                        this.lastPageIndex, tmpPageCount)) {
+                    int tmpAdjacentFromIndex = tmpAdjacentPageIndex * tmpStructuresPerPage;
+                    int tmpAdjacentToIndex = Math.min(tmpAdjacentFromIndex + tmpStructuresPerPage,
+                            this.moleculeDataModelList.size());
+                    tmpRenderingService.prerender(this, this.moleculeDataModelList.subList(tmpAdjacentFromIndex,
+                            tmpAdjacentToIndex), 1.0, tmpImageWidth, tmpImageHeight, true, true);
+                }
+                this.lastPageIndex = aPageIndex;
             } else {
                 //informing the user if the image dimensions fell below the defined limit
                 this.overviewView.getStructureGridPane().add(this.overviewView.getImageDimensionsBelowLimitVBox(),
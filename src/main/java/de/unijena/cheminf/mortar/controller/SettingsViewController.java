@@ -36,6 +36,7 @@ import javafx.stage.Stage;
 import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * SettingsViewController
@@ -76,6 +77,10 @@ public class SettingsViewController {
      * Boolean value to check if the keepAtomContainerInDataModel property has changed
      */
     private boolean hasKeepAtomContainerInDataModelChanged;
+    /**
+     * Boolean value to check if any settings property has changed
+     */
+    private boolean haveSettingsChanged;
     //</editor-fold>
     //
     /**
@@ -133,6 +138,12 @@ public class SettingsViewController {
                     != (int) this.recentProperties.get(this.settingsContainer.rowsPerPageSettingProperty().getName());
             this.hasKeepAtomContainerInDataModelChanged = this.settingsContainer.keepAtomContainerInDataModelSettingProperty().getValue()
                     != this.recentProperties.get(this.settingsContainer.keepAtomContainerInDataModelSettingProperty().getName());
+            for (Property tmpProperty : this.settingsContainer.settingsProperties()) {
+                if (!Objects.equals(tmpProperty.getValue(), this.recentProperties.get(tmpProperty.getName()))) {
+                    this.haveSettingsChanged = true;
+                    break;
+                }
+            }
             this.settingsViewStage.close();
         });
         //cancel button
@@ -176,5 +187,13 @@ public class SettingsViewController {
     public boolean hasKeepAtomContainerInDataModelChanged() {
         return this.hasKeepAtomContainerInDataModelChanged;
     }
+    //
+    /**
+     * Returns boolean value whether any settings property has been changed and applied or not.
+     * @return haveSettingsChanged
+     */
+    public boolean haveSettingsChanged() {
+        return this.haveSettingsChanged;
+    }
     //</editor-fold>
 }
@@ -24,6 +24,7 @@ import de.unijena.cheminf.mortar.controller.TabNames;
 import de.unijena.cheminf.mortar.gui.util.GuiDefinitions;
 
 import javafx.geometry.HPos;
+import javafx.scene.Node;
 import javafx.scene.control.Pagination;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TableView;
@@ -120,7 +121,7 @@ public class GridTabForTableView extends Tab {
      * @param aColSpan index how many cols should this node span
      * @param aRowSpan index how many rows should this node span
      */
-    public void addNodeToGridPane(javafx.scene.Node aNode, int aColIndex, int aRowIndex, int aColSpan, int aRowSpan){
+    public void addNodeToGridPane(Node aNode, int aColIndex, int aRowIndex, int aColSpan, int aRowSpan){
         this.gridPane.add(aNode, aColIndex, aRowIndex, aColSpan, aRowSpan);
     }
     //
@@ -135,6 +136,17 @@ public class GridTabForTableView extends Tab {
         this.addNodeToGridPane(this.pagination, 0, 0, 3, 2);
     }
     //
+    /**
+     * Adds the given node holding the table view to the GridPane in place of a pagination, used if all rows should be
+     * shown in one virtualised table view
+     *
+     * @param aTableViewNode Node which holds the table view
+     */
+    public void addTableViewNodeToGridPane(Node aTableViewNode) {
+        this.pagination = null;
+        this.addNodeToGridPane(aTableViewNode, 0, 0, 3, 2);
+    }
+    //
     /**
      * Sets the given string as title of this tab
      *
@@ -146,7 +158,7 @@ public class GridTabForTableView extends Tab {
     //
     /**
      * Returns Pagination
-     * @return pagination
+     * @return pagination or null if the table view is shown without pagination
      */
     public Pagination getPagination(){
         return this.pagination;
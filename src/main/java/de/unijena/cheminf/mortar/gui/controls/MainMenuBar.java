@@ -46,6 +46,18 @@ public class MainMenuBar extends MenuBar {
      * MenuItem to import molecules
      */
     private MenuItem openMenuItem;
+    /**
+     * MenuItem to import the molecules of all files of a directory
+     */
+    private MenuItem openDirectoryMenuItem;
+    /**
+     * MenuItem to reload a saved session
+     */
+    private MenuItem openSessionMenuItem;
+    /**
+     * MenuItem to save the molecules and fragmentation results as session
+     */
+    private MenuItem saveSessionMenuItem;
     /**
      * MenuItem for export
      */
@@ -62,6 +74,10 @@ public class MainMenuBar extends MenuBar {
      * MenuItem to export fragments as pdb file
      */
     private MenuItem fragmentsExportToPDBMenuItem;
+    /**
+     * MenuItem to export fragments as pdb files in a zip archive
+     */
+    private MenuItem fragmentsExportToPDBZipMenuItem;
     /**
      * MenuItem to export fragments as pdf file
      */
@@ -78,6 +94,10 @@ public class MainMenuBar extends MenuBar {
      * MenuItem to export fragments as sd file separately
      */
     private MenuItem fragmentsExportToSeparateSDFsMenuItem;
+    /**
+     * MenuItem to export fragments as sd files in a zip archive
+     */
+    private MenuItem fragmentsExportToSDFsZipMenuItem;
     /**
      * Menu for items export
      */
@@ -90,6 +110,10 @@ public class MainMenuBar extends MenuBar {
      * MenuItem to export fragments as pdf file
      */
     private MenuItem itemsExportToPDFMenuItem;
+    /**
+     * MenuItem to export items as sparse matrix file
+     */
+    private MenuItem itemsExportToSparseMatrixMenuItem;
     /**
      * MenuItem to exit app
      */
@@ -160,7 +184,10 @@ public class MainMenuBar extends MenuBar {
         //fileMenu
         this.fileMenu = new Menu(Message.get("MainView.menuBar.fileMenu.text"));
         this.openMenuItem = new MenuItem(Message.get("MainView.menuBar.fileMenu.openMenuItem.text"));
+        this.openDirectoryMenuItem = new MenuItem(Message.get("MainView.menuBar.fileMenu.openDirectoryMenuItem.text"));
         this.cancelImportMenuItem = new MenuItem(Message.get("MainView.menuBar.fileMenu.openMenuItem.cancel"));
+        this.openSessionMenuItem = new MenuItem(Message.get("MainView.menuBar.fileMenu.openSessionMenuItem.text"));
+        this.saveSessionMenuItem = new MenuItem(Message.get("MainView.menuBar.fileMenu.saveSessionMenuItem.text"));
         this.exportMenu = new Menu(Message.get("MainView.menuBar.fileMenu.exportMenu.text"));
         this.cancelExportMenuItem = new MenuItem(Message.get("MainView.menuBar.fileMenu.exportMenu.cancel"));
         //<editor-fold desc="exportMenu components" defaultstate="collapsed">
@@ -169,15 +196,18 @@ public class MainMenuBar extends MenuBar {
         //components
         this.fragmentsExportToCSVMenuItem = new MenuItem(Message.get("MainView.menuBar.fileMenu.exportMenu.CSV.text"));
         this.fragmentsExportToPDBMenuItem = new MenuItem(Message.get("MainView.menuBar.fileMenu.exportMenu.PDB.text"));
+        this.fragmentsExportToPDBZipMenuItem = new MenuItem(Message.get("MainView.menuBar.fileMenu.exportMenu.PDBZip.text"));
         this.fragmentsExportToPDFMenuItem = new MenuItem(Message.get("MainView.menuBar.fileMenu.exportMenu.PDF.text"));
         this.fragmentsExportToSDFMenu = new Menu(Message.get("MainView.menuBar.fileMenu.exportMenu.SDF.text"));
         this.fragmentsExportToSingleSDFMenuItem = new MenuItem(Message.get("MainView.menuBar.fileMenu.exportMenu.singleFile.text"));
         this.fragmentsExportToSeparateSDFsMenuItem = new MenuItem(Message.get("MainView.menuBar.fileMenu.exportMenu.separateFiles.text"));
+        this.fragmentsExportToSDFsZipMenuItem = new MenuItem(Message.get("MainView.menuBar.fileMenu.exportMenu.zipArchive.text"));
         //itemsExportMenu
         this.itemsExportMenu = new Menu(Message.get("MainView.menuBar.fileMenu.exportMenu.itemsExportMenu.text"));
         //components
         this.itemsExportToCSVMenuItem = new MenuItem(Message.get("MainView.menuBar.fileMenu.exportMenu.CSV.text"));
         this.itemsExportToPDFMenuItem = new MenuItem(Message.get("MainView.menuBar.fileMenu.exportMenu.PDF.text"));
+        this.itemsExportToSparseMatrixMenuItem = new MenuItem(Message.get("MainView.menuBar.fileMenu.exportMenu.sparseMatrix.text"));
         //</editor-fold>
         this.exitMenuItem = new MenuItem(Message.get("MainView.menuBar.fileMenu.exitMenuItem.text"));
         //settingsMenu
@@ -212,8 +242,14 @@ public class MainMenuBar extends MenuBar {
         this.getMenus().add(this.fileMenu);
         //openMenuItem
         this.fileMenu.getItems().add(this.openMenuItem);
+        this.fileMenu.getItems().add(this.openDirectoryMenuItem);
         this.fileMenu.getItems().add(this.cancelImportMenuItem);
         this.cancelImportMenuItem.setVisible(false);
+        //session menu items
+        this.fileMenu.getItems().add(new SeparatorMenuItem());
+        this.fileMenu.getItems().add(this.openSessionMenuItem);
+        this.fileMenu.getItems().add(this.saveSessionMenuItem);
+        this.fileMenu.getItems().add(new SeparatorMenuItem());
         //exportMenu
         this.fileMenu.getItems().add(this.exportMenu);
         this.fileMenu.getItems().add(this.cancelExportMenuItem);
@@ -266,16 +302,19 @@ public class MainMenuBar extends MenuBar {
         this.exportMenu.getItems().add(this.fragmentsExportMenu);
         this.fragmentsExportMenu.getItems().add(this.fragmentsExportToCSVMenuItem);
         this.fragmentsExportMenu.getItems().add(this.fragmentsExportToPDBMenuItem);
+        this.fragmentsExportMenu.getItems().add(this.fragmentsExportToPDBZipMenuItem);
         this.fragmentsExportMenu.getItems().add(this.fragmentsExportToPDFMenuItem);
         this.fragmentsExportMenu.getItems().add(this.fragmentsExportToSDFMenu);
         this.fragmentsExportToSDFMenu.getItems().add(this.fragmentsExportToSingleSDFMenuItem);
         this.fragmentsExportToSDFMenu.getItems().add(this.fragmentsExportToSeparateSDFsMenuItem);
+        this.fragmentsExportToSDFMenu.getItems().add(this.fragmentsExportToSDFsZipMenuItem);
 //        this.exportMenu.show();
         //</editor-fold>
         //<editor-fold desc="itemsExportMenu" defaultstate="collapsed">
         this.exportMenu.getItems().add(this.itemsExportMenu);
         this.itemsExportMenu.getItems().add(this.itemsExportToCSVMenuItem);
         this.itemsExportMenu.getItems().add(this.itemsExportToPDFMenuItem);
+        this.itemsExportMenu.getItems().add(this.itemsExportToSparseMatrixMenuItem);
         //</editor-fold>
     }
     //</editor-fold>
@@ -292,6 +331,36 @@ public class MainMenuBar extends MenuBar {
         return this.openMenuItem;
     }
     //</editor-fold>
+    //<editor-fold desc="getOpenDirectoryMenuItem" defaultstate="collapsed">
+    /**
+     * Returns the menu item that is supposed to open the molecule files of a directory as one molecule set
+     *
+     * @return the menu item that should open the molecule files of a directory
+     */
+    public MenuItem getOpenDirectoryMenuItem() {
+        return this.openDirectoryMenuItem;
+    }
+    //</editor-fold>
+    //<editor-fold desc="getOpenSessionMenuItem" defaultstate="collapsed">
+    /**
+     * Returns the menu item that is supposed to reload a saved session
+     *
+     * @return the menu item that should reload a saved session
+     */
+    public MenuItem getOpenSessionMenuItem() {
+        return this.openSessionMenuItem;
+    }
+    //</editor-fold>
+    //<editor-fold desc="getSaveSessionMenuItem" defaultstate="collapsed">
+    /**
+     * Returns the menu item that is supposed to save the molecules and fragmentation results as session
+     *
+     * @return the menu item that should save a session
+     */
+    public MenuItem getSaveSessionMenuItem() {
+        return this.saveSessionMenuItem;
+    }
+    //</editor-fold>
     //<editor-fold desc="getExportMenu" defaultstate="collapsed">
     /**
      * Returns the menu that is supposed to open a list of export options
@@ -332,6 +401,16 @@ public class MainMenuBar extends MenuBar {
         return this.fragmentsExportToPDBMenuItem;
     }
     //</editor-fold>
+    //<editor-fold desc="getFragmentsExportToPDBZipMenuItem" defaultstate="collapsed">
+    /**
+     * Returns the menu item that is supposed to export the fragments to PDB files in a ZIP archive
+     *
+     * @return the menu item that should export the fragments to PDB files in a ZIP archive
+     */
+    public MenuItem getFragmentsExportToPDBZipMenuItem() {
+        return this.fragmentsExportToPDBZipMenuItem;
+    }
+    //</editor-fold>
     //<editor-fold desc="getFragmentsExportToPDFMenuItem" defaultstate="collapsed">
     /**
      * Returns the menu item that is supposed to export the fragments to a PDF
@@ -372,6 +451,16 @@ public class MainMenuBar extends MenuBar {
         return this.fragmentsExportToSeparateSDFsMenuItem;
     }
     //</editor-fold>
+    //<editor-fold desc="getFragmentsExportToSDFsZipMenuItem" defaultstate="collapsed">
+    /**
+     * Returns the menu item that is supposed to export the fragments to separate SD files in a ZIP archive
+     *
+     * @return the menu item that should export the fragments to separate SD files in a ZIP archive
+     */
+    public MenuItem getFragmentsExportToSDFsZipMenuItem() {
+        return this.fragmentsExportToSDFsZipMenuItem;
+    }
+    //</editor-fold>
     //<editor-fold desc="getItemsExportMenu" defaultstate="collapsed">
     /**
      * Returns the menu that is supposed to open a list of items export options
@@ -402,6 +491,16 @@ public class MainMenuBar extends MenuBar {
         return this.itemsExportToPDFMenuItem;
     }
     //</editor-fold>
+    //<editor-fold desc="getItemsExportToSparseMatrixMenuItem" defaultstate="collapsed">
+    /**
+     * Returns the menu item that is supposed to export the items to a sparse molecule x fragment matrix file
+     *
+     * @return the menu item that should export the items to a sparse matrix file
+     */
+    public MenuItem getItemsExportToSparseMatrixMenuItem() {
+        return this.itemsExportToSparseMatrixMenuItem;
+    }
+    //</editor-fold>
     //<editor-fold desc="getExitMenuItem" defaultstate="collapsed">
     /**
      * Returns the menu item that is supposed to shut down the application
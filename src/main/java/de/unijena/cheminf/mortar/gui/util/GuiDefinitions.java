@@ -96,6 +96,10 @@ public final class GuiDefinitions {
      * Height of the control panel of pagination
      */
     public static final double GUI_PAGINATION_CONTROL_PANEL_HEIGHT = 45.0;
+    /**
+     * Fixed row height of table views that show all items without pagination
+     */
+    public static final double GUI_TABLE_VIEW_FIXED_ROW_HEIGHT = 150.0;
     /**
      * Width of the third column of gid panes used to align nodes
      */
@@ -140,4 +144,12 @@ public final class GuiDefinitions {
      * Width for the text field in the pagination control box
      */
     public static final double PAGINATION_TEXT_FIELD_WIDTH = 40.0;
+    /**
+     * Interval in which molecules imported so far are added to the molecules tab and the import progress is updated (in ms)
+     */
+    public static final int IMPORT_GUI_UPDATE_INTERVAL = 250;
+    /**
+     * Time after the last size change of a table view until the structure image sizes of its items are updated (in ms)
+     */
+    public static final int TABLE_VIEW_RESIZE_DEBOUNCE_DELAY = 150;
 }
@@ -28,22 +28,19 @@ import de.unijena.cheminf.mortar.model.data.FragmentDataModel;
 import de.unijena.cheminf.mortar.model.data.MoleculeDataModel;
 import de.unijena.cheminf.mortar.model.depict.DepictionUtil;
 import de.unijena.cheminf.mortar.model.settings.SettingsContainer;
-import de.unijena.cheminf.mortar.model.util.CollectionUtil;
 
+import javafx.animation.PauseTransition;
+import javafx.beans.value.ObservableValue;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Control;
 import javafx.scene.control.Hyperlink;
 import javafx.scene.control.Label;
-import javafx.scene.control.Pagination;
-import javafx.scene.control.SortEvent;
-import javafx.scene.control.TableColumn;
 import javafx.scene.control.TablePosition;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextFormatter;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.Clipboard;
@@ -52,6 +49,7 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
+import javafx.util.Duration;
 import javafx.util.StringConverter;
 
 import org.openscience.cdk.exception.CDKException;
@@ -202,25 +200,6 @@ public class GuiUtil {
         }
     }
     //
-    /**
-     * Sorts the items of the TableView over all pages of the pagination and adds
-     *
-     * @param anEvent SortEvent {@literal <}TableView {@literal >}
-     * @param tmpPagination Pagination
-     * @param tmpRowsPerPage int
-     */
-    public static void sortTableViewGlobally(SortEvent<TableView> anEvent, Pagination tmpPagination, int tmpRowsPerPage){
-        if(anEvent == null || anEvent.getSource().getSortOrder().size() == 0)
-            return;
-        String tmpSortProp = ((PropertyValueFactory)((TableColumn) anEvent.getSource().getSortOrder().get(0)).cellValueFactoryProperty().getValue()).getProperty().toString();
-        TableColumn.SortType tmpSortType = ((TableColumn) anEvent.getSource().getSortOrder().get(0)).getSortType();
-        CollectionUtil.sortGivenFragmentListByPropertyAndSortType(((IDataTableView)anEvent.getSource()).getItemsList(), tmpSortProp, tmpSortType.toString());
-        int fromIndex = tmpPagination.getCurrentPageIndex() * tmpRowsPerPage;
-        int toIndex = Math.min(fromIndex + tmpRowsPerPage, ((IDataTableView)anEvent.getSource()).getItemsList().size());
-        anEvent.getSource().getItems().clear();
-        anEvent.getSource().getItems().addAll(((IDataTableView)anEvent.getSource()).getItemsList().subList(fromIndex,toIndex));
-    }
-    //
     /**
      * Binds height and width property of the child control to the parent pane properties
      *
@@ -421,6 +400,33 @@ public class GuiUtil {
         }
     }
     //
+    /**
+     * Adds a listener to the given size property of a table view that runs the given action once the size has not
+     * changed for {@link GuiDefinitions#TABLE_VIEW_RESIZE_DEBOUNCE_DELAY} ms, instead of on every resize event. Meant
+     * for actions that update the structure image sizes of the items shown and refresh the table view.
+     *
+     * @param aSizeProperty width or height property of the table view
+     * @param anAction action to run on the JavaFX application thread after resizing
+     */
+    public static void addDebouncedResizeListener(ObservableValue<? extends Number> aSizeProperty, Runnable anAction){
+        Objects.requireNonNull(aSizeProperty, "aSizeProperty (instance of ObservableValue) is null");
+        Objects.requireNonNull(anAction, "anAction (instance of Runnable) is null");
+        PauseTransition tmpPauseTransition = new PauseTransition(Duration.millis(GuiDefinitions.TABLE_VIEW_RESIZE_DEBOUNCE_DELAY));
+        tmpPauseTransition.setOnFinished(event -> anAction.run());
+        aSizeProperty.addListener((observable, oldValue, newValue) -> tmpPauseTransition.playFromStart());
+    }
+    //
+    /**
+     * Returns the height of the structure images in table views that show all items without pagination. Their rows
+     * have the fixed height {@link GuiDefinitions#GUI_TABLE_VIEW_FIXED_ROW_HEIGHT}, independent of the table view height.
+     *
+     * @return height of the structure images
+     */
+    public static double getStructureImageHeightWithoutPagination(){
+        return Math.max(GuiDefinitions.GUI_TABLE_VIEW_FIXED_ROW_HEIGHT - GuiDefinitions.GUI_SPACING_VALUE,
+                GuiDefinitions.GUI_STRUCTURE_IMAGE_MIN_HEIGHT);
+    }
+    //
     /**
      * Sets the height for structure images to each MoleculeDataModel object of the items list of the tableView.
      * If image height is too small it will be set to GuiDefinitions.GUI_STRUCTURE_IMAGE_MIN_HEIGHT (50.0)
@@ -0,0 +1,243 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.gui.util;
+
+import de.unijena.cheminf.mortar.gui.views.IDataTableView;
+import de.unijena.cheminf.mortar.model.data.MoleculeDataModel;
+import de.unijena.cheminf.mortar.model.util.CollectionUtil;
+import de.unijena.cheminf.mortar.model.util.LogUtil;
+
+import javafx.concurrent.Task;
+import javafx.scene.control.Pagination;
+import javafx.scene.control.SortEvent;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sorts the items of a table view over all pages of its pagination. The comparator of the sorted column is created
+ * once per sort, the items are sorted in parallel in a background thread, and the sorted orders are cached per column
+ * and sort type, so that returning to a column that was already sorted does not require sorting again. The cached
+ * orders are only valid for the items they were created from; they are discarded if the items list of the table view
+ * is replaced or its elements change, e.g. by a new import of the same number of molecules. The result of a sort is
+ * discarded if the items change while it runs, e.g. because molecules are still added by a running import.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class TableViewSorter {
+    //<editor-fold desc="private static final constants" defaultstate="collapsed">
+    /**
+     * Logger of this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(TableViewSorter.class.getName());
+    /**
+     * Name of the threads running the sort tasks.
+     */
+    private static final String SORT_THREAD_NAME = "Table view sort thread";
+    //</editor-fold>
+    //
+    //<editor-fold desc="private class variables" defaultstate="collapsed">
+    /**
+     * Table view whose items are sorted, must implement {@link IDataTableView}
+     */
+    private final TableView tableView;
+    /**
+     * Cache of sorted items, keys are the property name of the sorted column and the sort type
+     */
+    private final HashMap<String, MoleculeDataModel[]> sortedItemsCache;
+    /**
+     * Items list the cached orders were created from
+     */
+    private List<MoleculeDataModel> cachedItemsList;
+    /**
+     * Order-independent checksum of the elements of the items list the cached orders were created from
+     */
+    private long cachedItemsChecksum;
+    /**
+     * Task of the most recent sort, results of older tasks are discarded
+     */
+    private Task<MoleculeDataModel[]> sortTask;
+    //</editor-fold>
+    //
+    /**
+     * Constructor
+     *
+     * @param aTableView TableView whose items should be sorted, must implement {@link IDataTableView}
+     * @throws NullPointerException if the table view is null
+     * @throws IllegalArgumentException if the table view does not implement IDataTableView
+     */
+    public TableViewSorter(TableView aTableView) throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(aTableView, "aTableView (instance of TableView) is null");
+        if (!(aTableView instanceof IDataTableView)) {
+            throw new IllegalArgumentException("aTableView does not implement IDataTableView.");
+        }
+        this.tableView = aTableView;
+        this.sortedItemsCache = new HashMap<>();
+        this.cachedItemsList = null;
+        this.cachedItemsChecksum = 0L;
+        this.sortTask = null;
+    }
+    //
+    //<editor-fold desc="public methods" defaultstate="collapsed">
+    /**
+     * Sorts the items of the table view over all pages of the pagination according to the first column of the sort
+     * order and shows the current page again. The event is consumed to skip the default sort policy of the table view.
+     * If the sorted order is not cached yet, the sort runs in a background thread and the table view is updated when
+     * it is finished, unless the items have changed in the meantime.
+     *
+     * @param anEvent SortEvent {@literal <}TableView {@literal >}
+     * @param aPagination Pagination or null if the table view shows all items without pagination
+     * @param aRowsPerPage int
+     */
+    public void sortTableViewGlobally(SortEvent<TableView> anEvent, Pagination aPagination, int aRowsPerPage) {
+        if (anEvent == null) {
+            return;
+        }
+        anEvent.consume();
+        if (this.tableView.getSortOrder().isEmpty()) {
+            return;
+        }
+        TableColumn tmpColumn = (TableColumn) this.tableView.getSortOrder().get(0);
+        if (!(tmpColumn.getCellValueFactory() instanceof PropertyValueFactory)) {
+            return;
+        }
+        String tmpProperty = ((PropertyValueFactory) tmpColumn.getCellValueFactory()).getProperty();
+        String tmpSortType = tmpColumn.getSortType().toString();
+        String tmpCacheKey = tmpProperty + "_" + tmpSortType;
+        if (this.sortTask != null && this.sortTask.isRunning()) {
+            this.sortTask.cancel();
+        }
+        this.sortTask = null;
+        List<MoleculeDataModel> tmpItemsList = ((IDataTableView) this.tableView).getItemsList();
+        long tmpItemsChecksum = TableViewSorter.calculateItemsChecksum(tmpItemsList);
+        if (tmpItemsList != this.cachedItemsList || tmpItemsChecksum != this.cachedItemsChecksum) {
+            this.clearCache();
+            this.cachedItemsList = tmpItemsList;
+            this.cachedItemsChecksum = tmpItemsChecksum;
+        }
+        MoleculeDataModel[] tmpCachedItems = this.sortedItemsCache.get(tmpCacheKey);
+        if (tmpCachedItems != null && tmpCachedItems.length == tmpItemsList.size()) {
+            this.applySortedItems(tmpCachedItems, aPagination, aRowsPerPage);
+            return;
+        }
+        Comparator<MoleculeDataModel> tmpComparator;
+        try {
+            tmpComparator = CollectionUtil.getComparatorByPropertyAndSortType(tmpProperty, tmpSortType);
+        } catch (IllegalArgumentException anException) {
+            TableViewSorter.LOGGER.log(Level.WARNING, anException.toString(), anException);
+            return;
+        }
+        //the snapshot is taken in the GUI thread, the list is not touched by the sort thread
+        List<MoleculeDataModel> tmpSnapshot = new ArrayList<>(tmpItemsList);
+        Task<MoleculeDataModel[]> tmpSortTask = new Task<>() {
+            @Override
+            protected MoleculeDataModel[] call() {
+                return CollectionUtil.getSortedArray(tmpSnapshot, tmpComparator);
+            }
+        };
+        tmpSortTask.setOnSucceeded(event -> {
+            if (this.sortTask != tmpSortTask) {
+                //another sort has been requested in the meantime
+                return;
+            }
+            this.sortTask = null;
+            if (((IDataTableView) this.tableView).getItemsList() != tmpItemsList
+                    || tmpItemsList.size() != tmpSnapshot.size()
+                    || TableViewSorter.calculateItemsChecksum(tmpItemsList) != tmpItemsChecksum) {
+                //the items have changed while sorting, e.g. by a running import, the result is stale
+                TableViewSorter.LOGGER.log(Level.INFO, "Sort result discarded, the items of the table view changed while sorting.");
+                return;
+            }
+            MoleculeDataModel[] tmpSortedItems = tmpSortTask.getValue();
+            if (tmpItemsList == this.cachedItemsList && tmpItemsChecksum == this.cachedItemsChecksum) {
+                this.sortedItemsCache.put(tmpCacheKey, tmpSortedItems);
+            }
+            this.applySortedItems(tmpSortedItems, aPagination, aRowsPerPage);
+        });
+        tmpSortTask.setOnFailed(event -> TableViewSorter.LOGGER.log(Level.SEVERE,
+                tmpSortTask.getException().toString(), tmpSortTask.getException()));
+        this.sortTask = tmpSortTask;
+        Thread tmpSortThread = new Thread(tmpSortTask);
+        tmpSortThread.setName(TableViewSorter.SORT_THREAD_NAME);
+        tmpSortThread.setUncaughtExceptionHandler(LogUtil.getUncaughtExceptionHandler());
+        tmpSortThread.setDaemon(true);
+        tmpSortThread.start();
+    }
+    //
+    /**
+     * Clears the cached sorted orders, e.g. if the items of the table view have changed
+     */
+    public void clearCache() {
+        this.sortedItemsCache.clear();
+        this.cachedItemsList = null;
+        this.cachedItemsChecksum = 0L;
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private methods" defaultstate="collapsed">
+    /**
+     * Sets the given sorted items as content of the items list of the table view and shows the current page again.
+     *
+     * @param aSortedItems sorted items
+     * @param aPagination Pagination or null if the table view shows all items without pagination
+     * @param aRowsPerPage int
+     */
+    private void applySortedItems(MoleculeDataModel[] aSortedItems, Pagination aPagination, int aRowsPerPage) {
+        List<MoleculeDataModel> tmpItemsList = ((IDataTableView) this.tableView).getItemsList();
+        CollectionUtil.setListContent(tmpItemsList, aSortedItems);
+        if (aPagination == null) {
+            //the table view shows the items list itself, possibly through a wrapper that is not notified of the change
+            this.tableView.refresh();
+            return;
+        }
+        int tmpFromIndex = aPagination.getCurrentPageIndex() * aRowsPerPage;
+        int tmpToIndex = Math.min(tmpFromIndex + aRowsPerPage, tmpItemsList.size());
+        this.tableView.getItems().setAll(tmpItemsList.subList(tmpFromIndex, tmpToIndex));
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private static methods" defaultstate="collapsed">
+    /**
+     * Calculates a checksum of the identities of the elements of the given list that does not depend on their order,
+     * so sorting the list does not change it but replacing elements does.
+     *
+     * @param anItemsList items list
+     * @return checksum
+     */
+    private static long calculateItemsChecksum(List<MoleculeDataModel> anItemsList) {
+        long tmpChecksum = anItemsList.size();
+        for (MoleculeDataModel tmpItem : anItemsList) {
+            //spreads the 32-bit identity hash codes over 64 bits to make collisions of the sum unlikely
+            tmpChecksum += System.identityHashCode(tmpItem) * 0x9E3779B97F4A7C15L;
+        }
+        return tmpChecksum;
+    }
+    //</editor-fold>
+}
@@ -20,13 +20,19 @@
 
 package de.unijena.cheminf.mortar.gui.views;
 
+import de.unijena.cheminf.mortar.gui.util.GuiDefinitions;
 import de.unijena.cheminf.mortar.gui.util.GuiUtil;
 import de.unijena.cheminf.mortar.message.Message;
 import de.unijena.cheminf.mortar.model.data.FragmentDataModel;
 import de.unijena.cheminf.mortar.model.data.MoleculeDataModel;
+import de.unijena.cheminf.mortar.model.depict.DepictionRenderingService;
+import de.unijena.cheminf.mortar.model.depict.DepictionUtil;
+import de.unijena.cheminf.mortar.model.util.BasicDefinitions;
 import de.unijena.cheminf.mortar.model.settings.SettingsContainer;
 
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.scene.Node;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.Control;
@@ -45,6 +51,7 @@ import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
 
 import java.text.DecimalFormat;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -104,6 +111,10 @@ public class FragmentsDataTableView extends TableView implements IDataTableView{
      * MenuItem of ContextMenu to open an overview view with the parent molecules of the row of the selected cell
      */
     private MenuItem overviewViewMenuItem;
+    /**
+     * Index of the page shown last, used to determine the paging direction
+     */
+    private int lastPageIndex;
     //</editor-fold>
     //
     /**
@@ -276,24 +287,95 @@ public class FragmentsDataTableView extends TableView implements IDataTableView{
         int toIndex = Math.min(fromIndex + tmpRowsPerPage, this.itemsList.size());
         this.setItems(FXCollections.observableArrayList(this.itemsList.subList(fromIndex, toIndex)));
         this.scrollTo(0);
+        this.prerenderAdjacentPages(aPageIndex, tmpRowsPerPage);
+        return new BorderPane(this);
+    }
+    //
+    /**
+     * Creates and returns a node which holds this table view showing all fragments without pagination. The table view
+     * only creates cells for the visible rows and reuses them while scrolling. The structure image sizes are set to a
+     * fragment only when its cells are updated, so resizing the table view only needs a refresh of the visible rows.
+     * Meant to be called once per tab instead of a page factory.
+     *
+     * @return Node BorderPane which holds the TableView
+     */
+    public Node createFragmentsTableViewWithoutPagination() {
+        this.setFixedCellSize(GuiDefinitions.GUI_TABLE_VIEW_FIXED_ROW_HEIGHT);
+        double tmpImageHeight = GuiUtil.getStructureImageHeightWithoutPagination();
+        this.structureColumn.setCellValueFactory(cellData -> {
+            FragmentDataModel tmpFragmentDataModel = cellData.getValue();
+            tmpFragmentDataModel.setStructureImageWidth(this.structureColumn.getWidth());
+            tmpFragmentDataModel.setStructureImageHeight(tmpImageHeight);
+            return new SimpleObjectProperty<>(tmpFragmentDataModel.getStructure());
+        });
+        this.parentMolColumn.setCellValueFactory(cellData -> {
+            FragmentDataModel tmpFragmentDataModel = cellData.getValue();
+            //the parent molecule is depicted with the image height of the fragment
+            tmpFragmentDataModel.setStructureImageHeight(tmpImageHeight);
+            return new SimpleObjectProperty(tmpFragmentDataModel.getParentMoleculeStructure());
+        });
+        if (this.itemsList instanceof ObservableList) {
+            this.setItems((ObservableList) this.itemsList);
+        } else {
+            this.setItems(FXCollections.observableList(this.itemsList));
+        }
         return new BorderPane(this);
     }
     //
     /**
      * Adds a change listener to the height property of table view which sets the height for structure images to
-     * each MoleculeDataModel object of the items list and refreshes the table view
-     * If image height is too small it will be set to GuiDefinitions.GUI_STRUCTURE_IMAGE_MIN_HEIGHT (50.0)
+     * each MoleculeDataModel object of the items list and refreshes the table view, once the height has stopped
+     * changing, see {@link GuiUtil#addDebouncedResizeListener(javafx.beans.value.ObservableValue, Runnable)}
+     * If image height is too small it will be set to GuiDefinitions.GUI_STRUCTURE_IMAGE_MIN_HEIGHT (50.0).
+     * Without pagination, the rows have a fixed height and the structure image sizes are set by the cell value
+     * factories of the visible rows, so no listener is added.
      *
      * @param aSettingsContainer SettingsContainer
      */
     public void addTableViewHeightListener(SettingsContainer aSettingsContainer){
-        this.heightProperty().addListener((observable, oldValue, newValue) -> {
-            GuiUtil.setImageStructureHeight(this, newValue.doubleValue(), aSettingsContainer);
+        if(this.getFixedCellSize() > 0){
+            return;
+        }
+        GuiUtil.addDebouncedResizeListener(this.heightProperty(), () -> {
+            GuiUtil.setImageStructureHeight(this, this.getHeight(), aSettingsContainer);
             this.refresh();
         });
     }
     //</editor-fold>
     //
+    //<editor-fold desc="private methods" defaultstate="collapsed">
+    /**
+     * Renders the fragment and parent molecule structure images of the pages adjacent to the given one into the
+     * depiction cache in the background, the page in paging direction first. Pending rendering for previously shown
+     * pages is cancelled.
+     *
+     * @param aPageIndex index of the shown page
+     * @param aRowsPerPage number of rows per page
+     */
+    private void prerenderAdjacentPages(int aPageIndex, int aRowsPerPage) {
+        DepictionRenderingService tmpRenderingService = DepictionUtil.getRenderingService();
+        tmpRenderingService.cancelPrerendering(this);
+        int tmpPageCount = (this.itemsList.size() + aRowsPerPage - 1) / aRowsPerPage;
+        for (int tmpAdjacentPageIndex : DepictionRenderingService.getAdjacentPageIndices(aPageIndex, this.lastPageIndex, tmpPageCount)) {
+            int tmpFromIndex = tmpAdjacentPageIndex * aRowsPerPage;
+            int tmpToIndex = Math.min(tmpFromIndex + aRowsPerPage, this.itemsList.size());
+            List<MoleculeDataModel> tmpItems = this.itemsList.subList(tmpFromIndex, tmpToIndex);
+            double tmpHeight = tmpItems.get(0).getStructureImageHeight();
+            tmpRenderingService.prerender(this, tmpItems, 1.0, this.structureColumn.getWidth(), tmpHeight, true, false);
+            List<MoleculeDataModel> tmpParentMolecules = new ArrayList<>(tmpItems.size());
+            for (MoleculeDataModel tmpItem : tmpItems) {
+                MoleculeDataModel tmpParentMolecule = ((FragmentDataModel) tmpItem).getFirstParentMolecule();
+                if (tmpParentMolecule != null) {
+                    tmpParentMolecules.add(tmpParentMolecule);
+                }
+            }
+            tmpRenderingService.prerender(this, tmpParentMolecules, 1.0, BasicDefinitions.DEFAULT_IMAGE_WIDTH_DEFAULT,
+                    tmpHeight, false, false);
+        }
+        this.lastPageIndex = aPageIndex;
+    }
+    //</editor-fold>
+    //
     //<editor-fold desc="properties" defaultstate="collapsed">
     /**
      * Returns the column that shows the 2d structure
@@ -20,14 +20,19 @@
 
 package de.unijena.cheminf.mortar.gui.views;
 
+import de.unijena.cheminf.mortar.gui.util.GuiDefinitions;
 import de.unijena.cheminf.mortar.gui.util.GuiUtil;
 import de.unijena.cheminf.mortar.message.Message;
 import de.unijena.cheminf.mortar.model.data.FragmentDataModel;
 import de.unijena.cheminf.mortar.model.data.MoleculeDataModel;
+import de.unijena.cheminf.mortar.model.depict.DepictionRenderingService;
+import de.unijena.cheminf.mortar.model.depict.DepictionUtil;
 import de.unijena.cheminf.mortar.model.settings.SettingsContainer;
 
 import javafx.beans.binding.Bindings;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.scene.Node;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.MenuItem;
@@ -85,6 +90,10 @@ public class ItemizationDataTableView extends TableView implements IDataTableVie
      * MenuItem of ContextMenu to open an overview view with the item and its fragments
      */
     private MenuItem overviewViewMenuItem;
+    /**
+     * Index of the page shown last, used to determine the paging direction
+     */
+    private int lastPageIndex;
     //</editor-fold>
     //
     /**
@@ -164,19 +173,55 @@ public class ItemizationDataTableView extends TableView implements IDataTableVie
         }
         this.setItems(FXCollections.observableArrayList(this.itemsList.subList(fromIndex, toIndex)));
         this.scrollTo(0);
+        this.prerenderAdjacentPages(aPageIndex, tmpRowsPerPage);
+        return new BorderPane(this);
+    }
+    //
+    /**
+     * Creates and returns a node which holds this table view showing all items without pagination. The fragment
+     * structure columns are created once for the largest number of fragments of all items. The table view only creates
+     * cells for the visible rows and reuses them while scrolling. The structure image sizes are set to a molecule and
+     * its fragments only when their cells are updated, so resizing the table view only needs a refresh of the visible
+     * rows. Meant to be called once per tab instead of a page factory.
+     *
+     * @return Node BorderPane which holds the TableView
+     */
+    public Node createItemizationTableViewWithoutPagination(){
+        //the fixed cell size has to be set first, the fragment structure columns depend on it
+        this.setFixedCellSize(GuiDefinitions.GUI_TABLE_VIEW_FIXED_ROW_HEIGHT);
+        int tmpItemAmount = GuiUtil.getLargestNumberOfFragmentsForGivenMoleculeListAndFragmentationName(this.itemsList, this.fragmentationName);
+        this.resetFragmentStructureColumns(tmpItemAmount);
+        double tmpImageHeight = GuiUtil.getStructureImageHeightWithoutPagination();
+        this.moleculeStructureColumn.setCellValueFactory(cellData -> {
+            MoleculeDataModel tmpMoleculeDataModel = cellData.getValue();
+            tmpMoleculeDataModel.setStructureImageWidth(this.moleculeStructureColumn.getWidth());
+            tmpMoleculeDataModel.setStructureImageHeight(tmpImageHeight);
+            return new SimpleObjectProperty(tmpMoleculeDataModel.getStructure());
+        });
+        if (this.itemsList instanceof ObservableList) {
+            this.setItems((ObservableList) this.itemsList);
+        } else {
+            this.setItems(FXCollections.observableList(this.itemsList));
+        }
         return new BorderPane(this);
     }
     //
     /**
      * Adds a change listener to the height property of table view which sets the height for structure images to
-     * each MoleculeDataModel object of the items list and refreshes the table view
-     * If image height is too small it will be set to GuiDefinitions.GUI_STRUCTURE_IMAGE_MIN_HEIGHT (50.0)
+     * each MoleculeDataModel object of the items list and refreshes the table view, once the height has stopped
+     * changing, see {@link GuiUtil#addDebouncedResizeListener(javafx.beans.value.ObservableValue, Runnable)}
+     * If image height is too small it will be set to GuiDefinitions.GUI_STRUCTURE_IMAGE_MIN_HEIGHT (50.0).
+     * Without pagination, the rows have a fixed height and the structure image sizes are set by the cell value
+     * factories of the visible rows, so no listener is added.
      *
      * @param aSettingsContainer SettingsContainer
      */
     public void addTableViewHeightListener(SettingsContainer aSettingsContainer){
-        this.heightProperty().addListener((observable, oldValue, newValue) -> {
-            GuiUtil.setImageStructureHeight(this, newValue.doubleValue(),aSettingsContainer);
+        if(this.getFixedCellSize() > 0){
+            return;
+        }
+        GuiUtil.addDebouncedResizeListener(this.heightProperty(), () -> {
+            GuiUtil.setImageStructureHeight(this, this.getHeight(), aSettingsContainer);
             this.refresh();
         });
     }
@@ -207,6 +252,10 @@ public class ItemizationDataTableView extends TableView implements IDataTableVie
                 if(!cellData.getValue().hasMoleculeUndergoneSpecificFragmentation(this.fragmentationName)){
                     return null;
                 }
+                if(this.getFixedCellSize() > 0){
+                    //without pagination, the image height is set only to the fragments of the visible rows
+                    tmpFragment.setStructureImageHeight(GuiUtil.getStructureImageHeightWithoutPagination());
+                }
                 String tmpFrequency = cellData.getValue().getFragmentFrequencyOfSpecificAlgorithm(this.fragmentationName).get(tmpFragment.getUniqueSmiles()).toString();
                 return tmpFragment.getStructureWithText(tmpFrequency);
             }));
@@ -214,6 +263,28 @@ public class ItemizationDataTableView extends TableView implements IDataTableVie
             this.fragmentStructureColumn.getColumns().add(tmpColumn);
         }
     }
+    //
+    /**
+     * Renders the molecule structure images of the pages adjacent to the given one into the depiction cache in the
+     * background, the page in paging direction first. Pending rendering for previously shown pages is cancelled. The
+     * fragment images with their frequencies are not cached and therefore not rendered in advance.
+     *
+     * @param aPageIndex index of the shown page
+     * @param aRowsPerPage number of rows per page
+     */
+    private void prerenderAdjacentPages(int aPageIndex, int aRowsPerPage) {
+        DepictionRenderingService tmpRenderingService = DepictionUtil.getRenderingService();
+        tmpRenderingService.cancelPrerendering(this);
+        int tmpPageCount = (this.itemsList.size() + aRowsPerPage - 1) / aRowsPerPage;
+        for (int tmpAdjacentPageIndex : DepictionRenderingService.getAdjacentPageIndices(aPageIndex, this.lastPageIndex, tmpPageCount)) {
+            int tmpFromIndex = tmpAdjacentPageIndex * aRowsPerPage;
+            int tmpToIndex = Math.min(tmpFromIndex + aRowsPerPage, this.itemsList.size());
+            List<MoleculeDataModel> tmpItems = this.itemsList.subList(tmpFromIndex, tmpToIndex);
+            tmpRenderingService.prerender(this, tmpItems, 1.0, this.moleculeStructureColumn.getWidth(),
+                    tmpItems.get(0).getStructureImageHeight(), true, false);
+        }
+        this.lastPageIndex = aPageIndex;
+    }
     //</editor-fold>
     //
     //<editor-fold desc="public properties" defaultstate="collapsed">
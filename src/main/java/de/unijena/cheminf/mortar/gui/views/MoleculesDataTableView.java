@@ -24,10 +24,16 @@ import de.unijena.cheminf.mortar.gui.util.GuiDefinitions;
 import de.unijena.cheminf.mortar.gui.util.GuiUtil;
 import de.unijena.cheminf.mortar.message.Message;
 import de.unijena.cheminf.mortar.model.data.MoleculeDataModel;
+import de.unijena.cheminf.mortar.model.data.MoleculeSelectionModel;
+import de.unijena.cheminf.mortar.model.depict.DepictionRenderingService;
+import de.unijena.cheminf.mortar.model.depict.DepictionUtil;
 import de.unijena.cheminf.mortar.model.settings.SettingsContainer;
 
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
-import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.scene.Node;
 import javafx.scene.control.CheckBox;
@@ -81,7 +87,22 @@ public class MoleculesDataTableView extends TableView implements IDataTableView
      * MenuItem of ContextMenu to copy selected cell to clipboard
      */
     private MenuItem copyMenuItem;
-    private boolean selectionAllCheckBoxAction;
+    /**
+     * MenuItem of ContextMenu to invert the selection of all molecules
+     */
+    private MenuItem invertSelectionMenuItem;
+    /**
+     * Shared selection model of the molecules shown in this table view
+     */
+    private MoleculeSelectionModel moleculeSelectionModel;
+    /**
+     * Listener on the selected count of the selection model to update the select all checkbox
+     */
+    private final ChangeListener<Number> selectedCountListener;
+    /**
+     * Index of the page shown last, used to determine the paging direction
+     */
+    private int lastPageIndex;
     //</editor-fold>
     //
     /**
@@ -104,8 +125,21 @@ public class MoleculesDataTableView extends TableView implements IDataTableView
         this.selectionColumn.setResizable(false);
         this.selectionColumn.setEditable(true);
         this.selectionColumn.setSortable(false);
-        this.selectionColumn.setCellValueFactory(new PropertyValueFactory<>("selection"));
+        //properties are only created for the visible rows and are discarded when the cell is reused
+        this.selectionColumn.setCellValueFactory(cellData -> this.createSelectionProperty(cellData.getValue()));
         this.selectionColumn.setCellFactory(tc -> new CheckBoxTableCell<>());
+        this.selectAllCheckBox.setOnAction(event -> {
+            if (this.moleculeSelectionModel == null) {
+                return;
+            }
+            if (this.selectAllCheckBox.isSelected()) {
+                this.moleculeSelectionModel.selectAll();
+            } else {
+                this.moleculeSelectionModel.clearSelection();
+            }
+            this.refresh();
+        });
+        this.selectedCountListener = (observable, oldValue, newValue) -> this.updateSelectAllCheckBox();
         //-nameColumn
         this.nameColumn = new TableColumn<>(Message.get("MainTabPane.moleculesTab.tableView.nameColumn.header"));
         this.nameColumn.setMinWidth(150); //magic number
@@ -138,6 +172,16 @@ public class MoleculesDataTableView extends TableView implements IDataTableView
         this.copyMenuItem = new MenuItem(Message.get("TableView.contextMenu.copyMenuItem"));
         this.copyMenuItem.setGraphic(new ImageView(new Image("de/unijena/cheminf/mortar/images/copy_icon_16x16.png")));
         this.contextMenu.getItems().add(this.copyMenuItem);
+        //-invertSelectionMenuItem
+        this.invertSelectionMenuItem = new MenuItem(Message.get("TableView.contextMenu.moleculesTab.invertSelectionMenuItem"));
+        this.invertSelectionMenuItem.setOnAction(event -> {
+            if (this.moleculeSelectionModel == null) {
+                return;
+            }
+            this.moleculeSelectionModel.invertSelection();
+            this.refresh();
+        });
+        this.contextMenu.getItems().add(this.invertSelectionMenuItem);
     }
     //
     //<editor-fold desc="public methods" defaultstate="collapsed">
@@ -153,69 +197,115 @@ public class MoleculesDataTableView extends TableView implements IDataTableView
         int tmpRowsPerPage = aSettingsContainer.getRowsPerPageSetting();
         int tmpFromIndex = aPageIndex * tmpRowsPerPage;
         int tmpToIndex = Math.min(tmpFromIndex + tmpRowsPerPage, this.itemsObservableList.size());
-        this.getSelectAllCheckBox().setOnAction(event -> {
-            this.selectionAllCheckBoxAction = true;
-            for (int i = 0; i < this.itemsObservableList.size(); i++) {
-                if(this.getSelectAllCheckBox().isSelected()){
-                    this.itemsObservableList.get(i).setSelection(true);
-                }
-                else if(!this.getSelectAllCheckBox().isSelected()){
-                    this.itemsObservableList.get(i).setSelection(false);
-                }
-            }
-            this.selectionAllCheckBoxAction = false;
-        });
-        this.itemsObservableList.addListener((ListChangeListener) change ->{
-            if(this.selectionAllCheckBoxAction){
-                // No further action needed with column checkbox data when the select all checkbox is operated on
-                return;
-            }
-            while(change.next()){
-                if(change.wasUpdated()){
-                    int checked = 0;
-                    for(MoleculeDataModel tmpMoleculeDataModel : this.itemsObservableList){
-                        if(tmpMoleculeDataModel.isSelected())
-                            checked++;
-                    }
-                    if(checked == this.itemsObservableList.size()){
-                        this.getSelectAllCheckBox().setSelected(true);
-                        this.getSelectAllCheckBox().setIndeterminate(false);
-                    }
-                    else if(checked == 0){
-                        this.getSelectAllCheckBox().setSelected(false);
-                        this.getSelectAllCheckBox().setIndeterminate(false);
-                    }
-                    else if(checked > 0){
-                        this.getSelectAllCheckBox().setSelected(false);
-                        this.getSelectAllCheckBox().setIndeterminate(true);
-                    }
-                }
-            }
-        });
         List<MoleculeDataModel> tmpItems = this.itemsObservableList.subList(tmpFromIndex, tmpToIndex);
         for(MoleculeDataModel tmpMoleculeDataModel : tmpItems){
             tmpMoleculeDataModel.setStructureImageWidth(this.structureColumn.getWidth());
         }
         this.setItems(FXCollections.observableArrayList(this.itemsObservableList.subList(tmpFromIndex, tmpToIndex)));
         this.scrollTo(0);
+        this.prerenderAdjacentPages(aPageIndex, tmpRowsPerPage);
+        return new BorderPane(this);
+    }
+    //
+    /**
+     * Creates a node which holds this table view showing all imported molecules without pagination. The table view
+     * only creates cells for the visible rows and reuses them while scrolling, the structure images are depicted when a
+     * cell becomes visible. The structure image size is set to a molecule only when its cell is updated, so resizing
+     * the table view only needs a refresh of the visible rows. Meant to be called once per tab instead of a page
+     * factory.
+     *
+     * @return Node BorderPane which holds the TableView
+     */
+    public Node createMoleculeTableViewWithoutPagination(){
+        this.setFixedCellSize(GuiDefinitions.GUI_TABLE_VIEW_FIXED_ROW_HEIGHT);
+        double tmpImageHeight = GuiUtil.getStructureImageHeightWithoutPagination();
+        this.structureColumn.setCellValueFactory(cellData -> {
+            MoleculeDataModel tmpMoleculeDataModel = cellData.getValue();
+            tmpMoleculeDataModel.setStructureImageWidth(this.structureColumn.getWidth());
+            tmpMoleculeDataModel.setStructureImageHeight(tmpImageHeight);
+            return new SimpleObjectProperty(tmpMoleculeDataModel.getStructure());
+        });
+        this.setItems(this.itemsObservableList);
         return new BorderPane(this);
     }
     //
     /**
      * Adds a change listener to the height property of table view which sets the height for structure images to
-     * each MoleculeDataModel object of the items list and refreshes the table view
-     * If image height is too small it will be set to GuiDefinitions.GUI_STRUCTURE_IMAGE_MIN_HEIGHT (50.0)
+     * each MoleculeDataModel object of the items list and refreshes the table view, once the height has stopped
+     * changing, see {@link GuiUtil#addDebouncedResizeListener(javafx.beans.value.ObservableValue, Runnable)}
+     * If image height is too small it will be set to GuiDefinitions.GUI_STRUCTURE_IMAGE_MIN_HEIGHT (50.0).
+     * Without pagination, the rows have a fixed height and the structure image sizes are set by the cell value
+     * factories of the visible rows, so no listener is added.
      *
      * @param aSettingsContainer SettingsContainer
      */
     public void addTableViewHeightListener(SettingsContainer aSettingsContainer){
-        this.heightProperty().addListener((observable, oldValue, newValue) -> {
-            GuiUtil.setImageStructureHeight(this, newValue.doubleValue(), aSettingsContainer);
+        if(this.getFixedCellSize() > 0){
+            return;
+        }
+        GuiUtil.addDebouncedResizeListener(this.heightProperty(), () -> {
+            GuiUtil.setImageStructureHeight(this, this.getHeight(), aSettingsContainer);
             this.refresh();
         });
     }
     //</editor-fold>
     //
+    //<editor-fold desc="private methods" defaultstate="collapsed">
+    /**
+     * Creates a property reflecting the selection state of the given molecule for the check box cell of a visible row.
+     * Changes of the property are written through to the molecule and thereby to the shared selection model.
+     *
+     * @param aMoleculeDataModel MoleculeDataModel of the row
+     * @return BooleanProperty
+     */
+    private BooleanProperty createSelectionProperty(MoleculeDataModel aMoleculeDataModel) {
+        BooleanProperty tmpSelectionProperty = new SimpleBooleanProperty(aMoleculeDataModel.isSelected());
+        tmpSelectionProperty.addListener((observable, oldValue, newValue) -> aMoleculeDataModel.setSelection(newValue));
+        return tmpSelectionProperty;
+    }
+    //
+    /**
+     * Sets the state of the select all checkbox in the table header according to the number of selected molecules
+     */
+    private void updateSelectAllCheckBox() {
+        if (this.moleculeSelectionModel == null) {
+            return;
+        }
+        int tmpSelectedCount = this.moleculeSelectionModel.getSelectedCount();
+        if (this.moleculeSelectionModel.isAllSelected()) {
+            this.selectAllCheckBox.setSelected(true);
+            this.selectAllCheckBox.setIndeterminate(false);
+        } else if (tmpSelectedCount == 0) {
+            this.selectAllCheckBox.setSelected(false);
+            this.selectAllCheckBox.setIndeterminate(false);
+        } else {
+            this.selectAllCheckBox.setSelected(false);
+            this.selectAllCheckBox.setIndeterminate(true);
+        }
+    }
+    //
+    /**
+     * Renders the structure images of the pages adjacent to the given one into the depiction cache in the background,
+     * the page in paging direction first. Pending rendering for previously shown pages is cancelled.
+     *
+     * @param aPageIndex index of the shown page
+     * @param aRowsPerPage number of rows per page
+     */
+    private void prerenderAdjacentPages(int aPageIndex, int aRowsPerPage) {
+        DepictionRenderingService tmpRenderingService = DepictionUtil.getRenderingService();
+        tmpRenderingService.cancelPrerendering(this);
+        int tmpPageCount = (this.itemsObservableList.size() + aRowsPerPage - 1) / aRowsPerPage;
+        for (int tmpAdjacentPageIndex : DepictionRenderingService.getAdjacentPageIndices(aPageIndex, this.lastPageIndex, tmpPageCount)) {
+            int tmpFromIndex = tmpAdjacentPageIndex * aRowsPerPage;
+            int tmpToIndex = Math.min(tmpFromIndex + aRowsPerPage, this.itemsObservableList.size());
+            List<MoleculeDataModel> tmpItems = this.itemsObservableList.subList(tmpFromIndex, tmpToIndex);
+            tmpRenderingService.prerender(this, tmpItems, 1.0, this.structureColumn.getWidth(),
+                    tmpItems.get(0).getStructureImageHeight(), true, false);
+        }
+        this.lastPageIndex = aPageIndex;
+    }
+    //</editor-fold>
+    //
     //<editor-fold desc="properties" defaulstate="collapsed">
     /**
      * Returns the column which holds the checkbox to select the corresponding item
@@ -253,6 +343,15 @@ public class MoleculesDataTableView extends TableView implements IDataTableView
         return this.copyMenuItem;
     }
     //
+    /**
+     * Returns menu item to invert the selection of all molecules
+     *
+     * @return MenuItem
+     */
+    public MenuItem getInvertSelectionMenuItem(){
+        return this.invertSelectionMenuItem;
+    }
+    //
     /**
      * Returns checkbox to de/select all molecules
      *
@@ -278,5 +377,31 @@ public class MoleculesDataTableView extends TableView implements IDataTableView
     public void setItemsList(List<MoleculeDataModel> aListOfMolecules) {
         this.itemsObservableList = FXCollections.observableList(aListOfMolecules);
     }
+    //
+    /**
+     * Returns the shared selection model of the molecules shown in this table view
+     *
+     * @return MoleculeSelectionModel
+     */
+    public MoleculeSelectionModel getMoleculeSelectionModel() {
+        return this.moleculeSelectionModel;
+    }
+    //
+    /**
+     * Sets the shared selection model of the molecules shown in this table view. The select all checkbox in the table
+     * header follows the number of selected molecules of the given model.
+     *
+     * @param aSelectionModel MoleculeSelectionModel
+     */
+    public void setMoleculeSelectionModel(MoleculeSelectionModel aSelectionModel) {
+        if (this.moleculeSelectionModel != null) {
+            this.moleculeSelectionModel.selectedCountProperty().removeListener(this.selectedCountListener);
+        }
+        this.moleculeSelectionModel = aSelectionModel;
+        if (this.moleculeSelectionModel != null) {
+            this.moleculeSelectionModel.selectedCountProperty().addListener(this.selectedCountListener);
+            this.updateSelectAllCheckBox();
+        }
+    }
     //</editor-fold>
 }
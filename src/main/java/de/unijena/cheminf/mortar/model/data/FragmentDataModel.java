@@ -21,17 +21,16 @@
 package de.unijena.cheminf.mortar.model.data;
 
 import de.unijena.cheminf.mortar.model.depict.DepictionUtil;
+import de.unijena.cheminf.mortar.model.util.BasicDefinitions;
 
 import javafx.scene.image.ImageView;
 
-import org.openscience.cdk.exception.CDKException;
 import org.openscience.cdk.interfaces.IAtomContainer;
 
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -193,13 +192,8 @@ public class FragmentDataModel extends MoleculeDataModel {
         if(this.parentMolecule == null){
             this.parentMolecule = this.parentMolecules.stream().findFirst().get();
         }
-        try {
-            IAtomContainer tmpAtomContainer = this.parentMolecule.getAtomContainer();
-            return new ImageView(DepictionUtil.depictImageWithHeight(tmpAtomContainer, super.getStructureImageHeight()));
-        } catch (CDKException aCDKException) {
-            FragmentDataModel.LOGGER.getLogger(MoleculeDataModel.class.getName()).log(Level.SEVERE, aCDKException.toString() + "_" + this.parentMolecule.getName(), aCDKException);
-            return new ImageView(DepictionUtil.depictErrorImage(aCDKException.getMessage(), 250, 250));
-        }
+        //same depiction as DepictionUtil.depictImageWithHeight(), i.e. zoom 1.0, default width, no fill to fit and no white background
+        return DepictionUtil.getRenderingService().createStructureImageView(this.parentMolecule, 1.0, BasicDefinitions.DEFAULT_IMAGE_WIDTH_DEFAULT, super.getStructureImageHeight(), false, false);
     }
     //
     /**
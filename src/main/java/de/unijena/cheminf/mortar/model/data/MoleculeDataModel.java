@@ -24,8 +24,6 @@ import de.unijena.cheminf.mortar.model.depict.DepictionUtil;
 import de.unijena.cheminf.mortar.model.util.BasicDefinitions;
 import de.unijena.cheminf.mortar.model.util.ChemUtil;
 
-import javafx.beans.property.BooleanProperty;
-import javafx.beans.property.SimpleBooleanProperty;
 import javafx.scene.image.ImageView;
 
 import org.openscience.cdk.exception.CDKException;
@@ -35,8 +33,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 /**
  * Model class for molecule data.
@@ -57,9 +53,20 @@ public class MoleculeDataModel {
     private String uniqueSmiles;
     //
     /**
-     * Property whether the molecule is selected or not.
+     * Whether the molecule is selected or not. Only used as long as the molecule is not registered at a
+     * {@link MoleculeSelectionModel}.
      */
-    private BooleanProperty selection;
+    private boolean selected;
+    //
+    /**
+     * Shared selection model the molecule is registered at, null if not registered.
+     */
+    private MoleculeSelectionModel selectionModel;
+    //
+    /**
+     * Index of the molecule in the shared selection model, -1 if not registered.
+     */
+    private int selectionIndex;
     //
     /**
      * Boolean, whether to keep the atom container of the molecule.
@@ -115,7 +122,9 @@ public class MoleculeDataModel {
         this.name = aName;
         this.properties = aPropertyMap;
         this.uniqueSmiles = aUniqueSmiles;
-        this.selection = new SimpleBooleanProperty(true);
+        this.selected = true;
+        this.selectionModel = null;
+        this.selectionIndex = -1;
         this.fragments = new HashMap<>(BasicDefinitions.DEFAULT_INITIAL_MAP_CAPACITY);
         this.fragmentFrequencies = new HashMap<>(BasicDefinitions.DEFAULT_INITIAL_MAP_CAPACITY);
     }
@@ -184,15 +193,18 @@ public class MoleculeDataModel {
      * @return true if molecule is selected
      */
     public boolean isSelected(){
-        return this.selection.get();
+        if (this.selectionModel != null) {
+            return this.selectionModel.isSelected(this.selectionIndex);
+        }
+        return this.selected;
     }
     //
     /**
-     * Returns BooleanProperty whether molecule is selected or not
-     * @return BooleanProperty
+     * Returns the shared selection model this molecule is registered at
+     * @return MoleculeSelectionModel or null if the molecule is not registered
      */
-    public BooleanProperty selectionProperty(){
-        return selection;
+    public MoleculeSelectionModel getSelectionModel(){
+        return this.selectionModel;
     }
     //
     /**
@@ -251,33 +263,29 @@ public class MoleculeDataModel {
     }
     //
     /**
-     * Creates and returns an ImageView of this molecule as 2D structure
+     * Creates and returns an ImageView of this molecule as 2D structure. The structure is depicted in the background,
+     * the ImageView shows a placeholder until the depiction is ready.
      * @return ImageView
      */
     public ImageView getStructure() {
-        try {
-            IAtomContainer tmpAtomContainer = this.getAtomContainer();
-            return new ImageView(DepictionUtil.depictImageWithZoomAndFillToFit(tmpAtomContainer, 1, this.getStructureImageWidth(), this.getStructureImageHeight(), true));
-        } catch (CDKException aCDKException) {
-            Logger.getLogger(MoleculeDataModel.class.getName()).log(Level.SEVERE, aCDKException.toString(), aCDKException);
-            return new ImageView(DepictionUtil.depictErrorImage(aCDKException.getMessage(), 250, 250));
-        }
+        return DepictionUtil.getRenderingService().createStructureImageView(this, 1.0, this.getStructureImageWidth(), this.getStructureImageHeight(), true, false);
     }
     //
     /**
-     * Creates and returns an ImageView of this molecule as 2D structure with the given text below the structure
+     * Creates and returns an ImageView of this molecule as 2D structure with the given text below the structure. The
+     * structure is depicted in the background, the ImageView shows a placeholder until the depiction is ready.
      *
      * @param aText to show below structure
      * @return ImageView with text
      */
     public ImageView getStructureWithText(String aText){
-        try {
-            IAtomContainer tmpAtomContainer = this.getAtomContainer();
-            return new ImageView(DepictionUtil.depictImageWithText(tmpAtomContainer, 1, this.getStructureImageWidth(), this.getStructureImageHeight(), aText));
-        } catch (CDKException aCDKException) {
-            Logger.getLogger(MoleculeDataModel.class.getName()).log(Level.SEVERE, aCDKException.toString(), aCDKException);
-            return new ImageView(DepictionUtil.depictErrorImage(aCDKException.getMessage(), 250, 250));
-        }
+        double tmpWidth = this.getStructureImageWidth();
+        double tmpHeight = this.getStructureImageHeight();
+        return DepictionUtil.getRenderingService().createImageView(tmpWidth, tmpHeight, () -> {
+            synchronized (this) {
+                return DepictionUtil.depictImageWithText(this.getAtomContainer(), 1, tmpWidth, tmpHeight, aText);
+            }
+        });
     }
     //
     /**
@@ -309,7 +317,23 @@ public class MoleculeDataModel {
      * @param aValue boolean
      */
     public void setSelection(boolean aValue){
-        this.selection.set(aValue);
+        if (this.selectionModel != null) {
+            this.selectionModel.setSelected(this.selectionIndex, aValue);
+        } else {
+            this.selected = aValue;
+        }
+    }
+    //
+    /**
+     * Sets the shared selection model this molecule is registered at and its index in there. Only to be called by
+     * {@link MoleculeSelectionModel#register(MoleculeDataModel)}.
+     *
+     * @param aSelectionModel MoleculeSelectionModel
+     * @param anIndex index of the molecule in the selection model
+     */
+    void setSelectionModel(MoleculeSelectionModel aSelectionModel, int anIndex){
+        this.selectionModel = aSelectionModel;
+        this.selectionIndex = anIndex;
     }
     //
     /**
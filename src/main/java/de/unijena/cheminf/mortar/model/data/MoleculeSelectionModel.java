@@ -0,0 +1,195 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.data;
+
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * Selection model shared by all molecules of an imported data set. The selection states are held in a single
+ * {@link BitSet} indexed by the position a molecule was registered at, together with a running count of the selected
+ * molecules. This way, no observable property has to be allocated per molecule and select all, deselect all and invert
+ * are word-parallel operations on the bit set instead of loops over all data models.
+ * The selection model is meant to be used on the JavaFX application thread only.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class MoleculeSelectionModel {
+    //<editor-fold desc="private class variables" defaultstate="collapsed">
+    /**
+     * Selection states of all registered molecules, bit i is set if the molecule registered at index i is selected.
+     */
+    private final BitSet selectionBits;
+    //
+    /**
+     * Number of registered molecules.
+     */
+    private int size;
+    //
+    /**
+     * Running count of selected molecules.
+     */
+    private final ReadOnlyIntegerWrapper selectedCount;
+    //</editor-fold>
+    //
+    /**
+     * Constructor, creates an empty selection model.
+     */
+    public MoleculeSelectionModel() {
+        this.selectionBits = new BitSet();
+        this.size = 0;
+        this.selectedCount = new ReadOnlyIntegerWrapper(this, "selectedCount", 0);
+    }
+    //
+    //<editor-fold desc="public methods" defaultstate="collapsed">
+    /**
+     * Registers the given molecule at the next free index of this selection model. The current selection state of the
+     * molecule is taken over and all following selection changes of the molecule are delegated to this model.
+     *
+     * @param aMolecule molecule to register
+     * @return index the molecule was registered at
+     * @throws NullPointerException if given molecule is null
+     * @throws IllegalArgumentException if the molecule is already registered at a selection model
+     */
+    public int register(MoleculeDataModel aMolecule) throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(aMolecule, "aMolecule (instance of MoleculeDataModel) is null");
+        if (aMolecule.getSelectionModel() != null) {
+            throw new IllegalArgumentException("Given molecule is already registered at a selection model.");
+        }
+        int tmpIndex = this.size++;
+        if (aMolecule.isSelected()) {
+            this.selectionBits.set(tmpIndex);
+            this.selectedCount.set(this.selectedCount.get() + 1);
+        }
+        aMolecule.setSelectionModel(this, tmpIndex);
+        return tmpIndex;
+    }
+    //
+    /**
+     * Returns whether the molecule registered at the given index is selected.
+     *
+     * @param anIndex index of the molecule in this selection model
+     * @return true if the molecule is selected
+     * @throws IndexOutOfBoundsException if the index is negative or not smaller than the number of registered molecules
+     */
+    public boolean isSelected(int anIndex) throws IndexOutOfBoundsException {
+        this.checkIndex(anIndex);
+        return this.selectionBits.get(anIndex);
+    }
+    //
+    /**
+     * Sets the selection state of the molecule registered at the given index and updates the running count if the
+     * state changed.
+     *
+     * @param anIndex index of the molecule in this selection model
+     * @param aValue true to select the molecule
+     * @throws IndexOutOfBoundsException if the index is negative or not smaller than the number of registered molecules
+     */
+    public void setSelected(int anIndex, boolean aValue) throws IndexOutOfBoundsException {
+        this.checkIndex(anIndex);
+        if (this.selectionBits.get(anIndex) == aValue) {
+            return;
+        }
+        this.selectionBits.set(anIndex, aValue);
+        this.selectedCount.set(this.selectedCount.get() + (aValue ? 1 : -1));
+    }
+    //
+    /**
+     * Selects all registered molecules.
+     */
+    public void selectAll() {
+        this.selectionBits.set(0, this.size);
+        this.selectedCount.set(this.size);
+    }
+    //
+    /**
+     * Deselects all registered molecules.
+     */
+    public void clearSelection() {
+        this.selectionBits.clear();
+        this.selectedCount.set(0);
+    }
+    //
+    /**
+     * Inverts the selection state of all registered molecules.
+     */
+    public void invertSelection() {
+        this.selectionBits.flip(0, this.size);
+        this.selectedCount.set(this.size - this.selectedCount.get());
+    }
+    //
+    /**
+     * Returns whether all registered molecules are selected. Returns true if no molecule is registered.
+     *
+     * @return true if all molecules are selected
+     */
+    public boolean isAllSelected() {
+        return this.selectedCount.get() == this.size;
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="public properties" defaultstate="collapsed">
+    /**
+     * Returns the number of selected molecules.
+     *
+     * @return number of selected molecules
+     */
+    public int getSelectedCount() {
+        return this.selectedCount.get();
+    }
+    //
+    /**
+     * Returns the read-only property holding the number of selected molecules.
+     *
+     * @return ReadOnlyIntegerProperty
+     */
+    public ReadOnlyIntegerProperty selectedCountProperty() {
+        return this.selectedCount.getReadOnlyProperty();
+    }
+    //
+    /**
+     * Returns the number of registered molecules.
+     *
+     * @return number of registered molecules
+     */
+    public int size() {
+        return this.size;
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private methods" defaultstate="collapsed">
+    /**
+     * Checks whether the given index refers to a registered molecule.
+     *
+     * @param anIndex index to check
+     * @throws IndexOutOfBoundsException if the index is negative or not smaller than the number of registered molecules
+     */
+    private void checkIndex(int anIndex) throws IndexOutOfBoundsException {
+        if (anIndex < 0 || anIndex >= this.size) {
+            throw new IndexOutOfBoundsException("Index " + anIndex + " is out of bounds for " + this.size + " registered molecules.");
+        }
+    }
+    //</editor-fold>
+}
@@ -0,0 +1,273 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.depict;
+
+import javafx.scene.image.Image;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Least recently used cache of structure depictions. The images are stored under a key built from the unique SMILES
+ * code of the depicted structure and the depiction parameters, i.e. width, height, zoom and style flags. The memory
+ * budget of the cache is given as number of image pixels; if it is exceeded, the least recently used images are
+ * removed until the cached images fit into the budget again.
+ * All methods are synchronized, so the cache can be shared by the GUI thread and background threads. Images are
+ * created outside the lock.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class DepictionCache {
+    //<editor-fold desc="private static final constants" defaultstate="collapsed">
+    /**
+     * Separator of the parts of a cache key, must not occur in SMILES codes.
+     */
+    private static final String KEY_SEPARATOR = "|";
+    //</editor-fold>
+    //
+    //<editor-fold desc="private class variables" defaultstate="collapsed">
+    /**
+     * Cached images in access order, the first entry is the least recently used one.
+     */
+    private final LinkedHashMap<String, Image> imageMap;
+    /**
+     * Maximum number of pixels of all cached images.
+     */
+    private final long pixelBudget;
+    /**
+     * Number of pixels of all cached images.
+     */
+    private long pixelCount;
+    /**
+     * Number of lookups that found a cached image.
+     */
+    private long hitCount;
+    /**
+     * Number of lookups that found no cached image.
+     */
+    private long missCount;
+    //</editor-fold>
+    //
+    /**
+     * Constructor, creates an empty cache with the given memory budget.
+     *
+     * @param aPixelBudget maximum number of pixels of all cached images
+     * @throws IllegalArgumentException if the budget is not positive
+     */
+    public DepictionCache(long aPixelBudget) throws IllegalArgumentException {
+        if (aPixelBudget <= 0) {
+            throw new IllegalArgumentException("aPixelBudget must be positive.");
+        }
+        this.imageMap = new LinkedHashMap<>(16, 0.75f, true);
+        this.pixelBudget = aPixelBudget;
+        this.pixelCount = 0L;
+        this.hitCount = 0L;
+        this.missCount = 0L;
+    }
+    //
+    //<editor-fold desc="public static methods" defaultstate="collapsed">
+    /**
+     * Creates the cache key of a depiction of the given structure with the given parameters.
+     *
+     * @param aUniqueSmiles unique SMILES code of the depicted structure
+     * @param aZoom zoom factor
+     * @param aWidth image width
+     * @param aHeight image height
+     * @param isFillToFit whether the depiction fills all available space
+     * @param isBackgroundWhite whether the image has a white background
+     * @return cache key
+     * @throws NullPointerException if the SMILES code is null
+     */
+    public static String createKey(String aUniqueSmiles, double aZoom, double aWidth, double aHeight, boolean isFillToFit,
+                                   boolean isBackgroundWhite) throws NullPointerException {
+        Objects.requireNonNull(aUniqueSmiles, "aUniqueSmiles (instance of String) is null");
+        return aUniqueSmiles + DepictionCache.KEY_SEPARATOR + aZoom + DepictionCache.KEY_SEPARATOR + aWidth
+                + DepictionCache.KEY_SEPARATOR + aHeight + DepictionCache.KEY_SEPARATOR + isFillToFit
+                + DepictionCache.KEY_SEPARATOR + isBackgroundWhite;
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="public methods" defaultstate="collapsed">
+    /**
+     * Returns the cached image of the given key and marks it as most recently used.
+     *
+     * @param aKey cache key, see {@link #createKey(String, double, double, double, boolean, boolean)}
+     * @return cached image or null if no image is cached for the key
+     */
+    public synchronized Image get(String aKey) {
+        Image tmpImage = this.imageMap.get(aKey);
+        if (tmpImage == null) {
+            this.missCount++;
+        } else {
+            this.hitCount++;
+        }
+        return tmpImage;
+    }
+    //
+    /**
+     * Returns the cached image of the given key and marks it as most recently used, without counting the lookup as
+     * hit or miss. Meant for lookups that repeat a lookup already counted, e.g. by the worker thread rendering a
+     * depiction a view has requested.
+     *
+     * @param aKey cache key, see {@link #createKey(String, double, double, double, boolean, boolean)}
+     * @return cached image or null if no image is cached for the key
+     */
+    public synchronized Image peek(String aKey) {
+        return this.imageMap.get(aKey);
+    }
+    //
+    /**
+     * Returns whether an image is cached for the given key, without counting the lookup as hit or miss and without
+     * marking the image as most recently used. Meant for checks that do not show the image, e.g. before rendering in
+     * advance.
+     *
+     * @param aKey cache key, see {@link #createKey(String, double, double, double, boolean, boolean)}
+     * @return true if an image is cached for the key
+     */
+    public synchronized boolean contains(String aKey) {
+        return this.imageMap.containsKey(aKey);
+    }
+    //
+    /**
+     * Puts the given image into the cache and removes the least recently used images if the memory budget is
+     * exceeded. Images larger than the whole budget are not cached. Error images of failed depictions must not be put
+     * into the cache, so a transient failure is not shown permanently.
+     *
+     * @param aKey cache key, see {@link #createKey(String, double, double, double, boolean, boolean)}
+     * @param anImage image to cache
+     * @throws NullPointerException if a parameter is null
+     */
+    public synchronized void put(String aKey, Image anImage) throws NullPointerException {
+        Objects.requireNonNull(aKey, "aKey (instance of String) is null");
+        Objects.requireNonNull(anImage, "anImage (instance of Image) is null");
+        long tmpPixels = DepictionCache.countPixels(anImage);
+        if (tmpPixels > this.pixelBudget) {
+            return;
+        }
+        Image tmpReplacedImage = this.imageMap.put(aKey, anImage);
+        if (tmpReplacedImage != null) {
+            this.pixelCount -= DepictionCache.countPixels(tmpReplacedImage);
+        }
+        this.pixelCount += tmpPixels;
+        Iterator<Map.Entry<String, Image>> tmpIterator = this.imageMap.entrySet().iterator();
+        while (this.pixelCount > this.pixelBudget && tmpIterator.hasNext()) {
+            Map.Entry<String, Image> tmpEldestEntry = tmpIterator.next();
+            this.pixelCount -= DepictionCache.countPixels(tmpEldestEntry.getValue());
+            tmpIterator.remove();
+        }
+    }
+    //
+    /**
+     * Returns the cached image of the given key or creates it with the given supplier and caches it. The image is
+     * created outside the lock of the cache, so two threads may create the same image concurrently; the one that
+     * finishes last is kept. If the supplier returns null because the image cannot be created, nothing is cached.
+     *
+     * @param aKey cache key, see {@link #createKey(String, double, double, double, boolean, boolean)}
+     * @param aDepictionSupplier creates the image if it is not cached, returns null if it cannot be created
+     * @return cached or newly created image
+     * @throws NullPointerException if a parameter is null
+     */
+    public Image computeIfAbsent(String aKey, Supplier<Image> aDepictionSupplier) throws NullPointerException {
+        Objects.requireNonNull(aKey, "aKey (instance of String) is null");
+        Objects.requireNonNull(aDepictionSupplier, "aDepictionSupplier (instance of Supplier) is null");
+        Image tmpImage = this.get(aKey);
+        if (tmpImage != null) {
+            return tmpImage;
+        }
+        tmpImage = aDepictionSupplier.get();
+        if (tmpImage != null) {
+            this.put(aKey, tmpImage);
+        }
+        return tmpImage;
+    }
+    //
+    /**
+     * Removes all images from the cache.
+     */
+    public synchronized void clear() {
+        this.imageMap.clear();
+        this.pixelCount = 0L;
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="public properties" defaultstate="collapsed">
+    /**
+     * Returns the number of cached images.
+     *
+     * @return number of cached images
+     */
+    public synchronized int size() {
+        return this.imageMap.size();
+    }
+    //
+    /**
+     * Returns the number of pixels of all cached images.
+     *
+     * @return number of pixels
+     */
+    public synchronized long getPixelCount() {
+        return this.pixelCount;
+    }
+    //
+    /**
+     * Returns the maximum number of pixels of all cached images.
+     *
+     * @return pixel budget
+     */
+    public long getPixelBudget() {
+        return this.pixelBudget;
+    }
+    //
+    /**
+     * Returns the number of lookups that found a cached image.
+     *
+     * @return number of cache hits
+     */
+    public synchronized long getHitCount() {
+        return this.hitCount;
+    }
+    //
+    /**
+     * Returns the number of lookups that found no cached image.
+     *
+     * @return number of cache misses
+     */
+    public synchronized long getMissCount() {
+        return this.missCount;
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private static methods" defaultstate="collapsed">
+    /**
+     * Returns the number of pixels of the given image.
+     *
+     * @param anImage Image
+     * @return width times height of the image
+     */
+    private static long countPixels(Image anImage) {
+        return (long) Math.ceil(anImage.getWidth()) * (long) Math.ceil(anImage.getHeight());
+    }
+    //</editor-fold>
+}
@@ -0,0 +1,449 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.depict;
+
+import de.unijena.cheminf.mortar.model.data.MoleculeDataModel;
+import de.unijena.cheminf.mortar.model.util.LogUtil;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+
+import org.openscience.cdk.exception.CDKException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Renders structure depictions in a small pool of background threads so that the JavaFX application thread is not
+ * blocked by large molecules. The returned image views show a transparent placeholder of the requested size until
+ * the depiction is ready. If an image view is removed from its scene before its depiction has been started, e.g.
+ * because the table cell showing it was reused or the page was left, the request is cancelled; it is submitted again
+ * if the image view is added to a scene again.
+ * Pending requests are rendered newest first and at most {@value #MAX_NUMBER_OF_PENDING_REQUESTS} of them are held;
+ * if more are submitted, e.g. while scrolling quickly through a large table, the oldest pending request is cancelled
+ * and submitted again only when its image view is added to a scene again.
+ * Depictions that are already in the shared depiction cache are set directly, without a detour via the worker threads.
+ * Additionally, the depictions of pages adjacent to the shown one can be rendered into the depiction cache in advance
+ * by a single low priority thread, so that paging forward or backward takes them from the cache.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class DepictionRenderingService {
+    //<editor-fold desc="private static final constants" defaultstate="collapsed">
+    /**
+     * Logger of this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(DepictionRenderingService.class.getName());
+    /**
+     * Key of the pending render request in the properties map of an image view.
+     */
+    private static final String REQUEST_PROPERTY_KEY = "DepictionRenderingService.request";
+    /**
+     * Name prefix of the worker threads.
+     */
+    private static final String THREAD_NAME_PREFIX = "Depiction rendering thread ";
+    /**
+     * Name of the thread rendering the depictions of adjacent pages in advance.
+     */
+    private static final String PRERENDERING_THREAD_NAME = "Depiction prerendering thread";
+    /**
+     * The depictions rendered in advance since the last cancellation may take up to the pixel budget of the depiction
+     * cache divided by this value, so that they do not evict the depictions that are currently shown.
+     */
+    private static final int PRERENDERING_PIXEL_BUDGET_DIVISOR = 4;
+    /**
+     * Maximum number of placeholder images of different sizes that are held for reuse.
+     */
+    private static final int MAX_NUMBER_OF_PLACEHOLDER_IMAGES = 64;
+    /**
+     * Maximum number of render requests waiting for a worker thread.
+     */
+    private static final int MAX_NUMBER_OF_PENDING_REQUESTS = 256;
+    //</editor-fold>
+    //
+    //<editor-fold desc="private class variables" defaultstate="collapsed">
+    /**
+     * Worker threads rendering the depictions.
+     */
+    private final ThreadPoolExecutor executorService;
+    /**
+     * Transparent placeholder images by size, only accessed on the JavaFX application thread.
+     */
+    private final HashMap<String, Image> placeholderImageMap;
+    /**
+     * Single low priority thread rendering the depictions of adjacent pages in advance.
+     */
+    private final ExecutorService prerenderingExecutorService;
+    /**
+     * Pending tasks rendering depictions in advance by the view that requested them, only accessed on the JavaFX
+     * application thread.
+     */
+    private final HashMap<Object, List<Future<?>>> prerenderingFutureListMap;
+    /**
+     * Number of pixels of the depictions submitted for rendering in advance since the last cancellation by the view
+     * that requested them, only accessed on the JavaFX application thread.
+     */
+    private final HashMap<Object, Long> prerenderingPixelCountMap;
+    //</editor-fold>
+    //
+    /**
+     * Constructor, starts a pool of the given number of daemon worker threads.
+     *
+     * @param aNumberOfThreads number of worker threads
+     * @throws IllegalArgumentException if the number of threads is not positive
+     */
+    public DepictionRenderingService(int aNumberOfThreads) throws IllegalArgumentException {
+        if (aNumberOfThreads <= 0) {
+            throw new IllegalArgumentException("aNumberOfThreads must be positive.");
+        }
+        AtomicInteger tmpThreadCounter = new AtomicInteger(0);
+        //the workers take the newest request first, a full queue drops the oldest one
+        this.executorService = new ThreadPoolExecutor(aNumberOfThreads, aNumberOfThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingDeque<>(DepictionRenderingService.MAX_NUMBER_OF_PENDING_REQUESTS) {
+                    @Override
+                    public boolean offer(Runnable aRunnable) {
+                        return this.offerFirst(aRunnable);
+                    }
+                },
+                aRunnable -> {
+                    Thread tmpThread = new Thread(aRunnable);
+                    tmpThread.setName(DepictionRenderingService.THREAD_NAME_PREFIX + tmpThreadCounter.incrementAndGet());
+                    tmpThread.setUncaughtExceptionHandler(LogUtil.getUncaughtExceptionHandler());
+                    tmpThread.setDaemon(true);
+                    return tmpThread;
+                },
+                (aRunnable, anExecutor) -> {
+                    Runnable tmpOldestRunnable = ((LinkedBlockingDeque<Runnable>) anExecutor.getQueue()).pollLast();
+                    if (tmpOldestRunnable instanceof Future) {
+                        ((Future<?>) tmpOldestRunnable).cancel(false);
+                    }
+                    if (!anExecutor.isShutdown()) {
+                        anExecutor.execute(aRunnable);
+                    }
+                });
+        this.placeholderImageMap = new HashMap<>(DepictionRenderingService.MAX_NUMBER_OF_PLACEHOLDER_IMAGES * 2);
+        this.prerenderingExecutorService = Executors.newSingleThreadExecutor(aRunnable -> {
+            Thread tmpThread = new Thread(aRunnable);
+            tmpThread.setName(DepictionRenderingService.PRERENDERING_THREAD_NAME);
+            tmpThread.setUncaughtExceptionHandler(LogUtil.getUncaughtExceptionHandler());
+            tmpThread.setDaemon(true);
+            tmpThread.setPriority(Thread.MIN_PRIORITY);
+            return tmpThread;
+        });
+        this.prerenderingFutureListMap = new HashMap<>();
+        this.prerenderingPixelCountMap = new HashMap<>();
+    }
+    //
+    //<editor-fold desc="public static methods" defaultstate="collapsed">
+    /**
+     * Returns the indices of the pages adjacent to the given page, ordered by the paging direction, i.e. the next page
+     * comes first if the given page index is not smaller than the previous one and the previous page comes first
+     * otherwise. Indices outside the page range are omitted.
+     *
+     * @param aPageIndex index of the shown page
+     * @param aPreviousPageIndex index of the page shown before
+     * @param aPageCount number of pages
+     * @return indices of the adjacent pages
+     */
+    public static int[] getAdjacentPageIndices(int aPageIndex, int aPreviousPageIndex, int aPageCount) {
+        boolean tmpIsForward = aPageIndex >= aPreviousPageIndex;
+        int[] tmpCandidates = tmpIsForward
+                ? new int[]{aPageIndex + 1, aPageIndex - 1}
+                : new int[]{aPageIndex - 1, aPageIndex + 1};
+        return Arrays.stream(tmpCandidates).filter(anIndex -> anIndex >= 0 && anIndex < aPageCount).toArray();
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="public methods" defaultstate="collapsed">
+    /**
+     * Creates an image view that shows the depiction of the given molecule with the given parameters, see
+     * {@link DepictionUtil#depictImageWithCache(MoleculeDataModel, double, double, double, boolean, boolean)}. If the
+     * depiction is not cached, a placeholder is shown until it has been rendered in the background.
+     * To be called on the JavaFX application thread.
+     *
+     * @param aMoleculeDataModel MoleculeDataModel
+     * @param aZoom double
+     * @param aWidth double
+     * @param aHeight double
+     * @param fillToFit boolean Resize depictions to fill all available space (only if a size is specified)
+     * @param isBackgroundWhite boolean if image has white background
+     * @return ImageView
+     * @throws NullPointerException if the molecule is null
+     */
+    public ImageView createStructureImageView(MoleculeDataModel aMoleculeDataModel, double aZoom, double aWidth,
+                                              double aHeight, boolean fillToFit, boolean isBackgroundWhite)
+            throws NullPointerException {
+        Objects.requireNonNull(aMoleculeDataModel, "aMoleculeDataModel (instance of MoleculeDataModel) is null");
+        String tmpKey = DepictionCache.createKey(aMoleculeDataModel.getUniqueSmiles(), aZoom, aWidth, aHeight,
+                fillToFit, isBackgroundWhite);
+        Image tmpCachedImage = DepictionUtil.getDepictionCache().get(tmpKey);
+        if (tmpCachedImage != null) {
+            return new ImageView(tmpCachedImage);
+        }
+        return this.createImageView(aWidth, aHeight, () -> DepictionUtil.depictImageWithCache(aMoleculeDataModel,
+                aZoom, aWidth, aHeight, fillToFit, isBackgroundWhite));
+    }
+    //
+    /**
+     * Creates an image view that shows a placeholder of the given size until the image created by the given task has
+     * been rendered in the background. If the task throws an exception, an error image is shown.
+     * To be called on the JavaFX application thread.
+     *
+     * @param aWidth width of the placeholder
+     * @param aHeight height of the placeholder
+     * @param aDepictionTask creates the image, called in a worker thread
+     * @return ImageView
+     * @throws NullPointerException if the task is null
+     */
+    public ImageView createImageView(double aWidth, double aHeight, Callable<Image> aDepictionTask) throws NullPointerException {
+        Objects.requireNonNull(aDepictionTask, "aDepictionTask (instance of Callable) is null");
+        ImageView tmpImageView = new ImageView(this.getPlaceholderImage(aWidth, aHeight));
+        RenderRequest tmpRequest = new RenderRequest(tmpImageView, aDepictionTask);
+        tmpImageView.getProperties().put(DepictionRenderingService.REQUEST_PROPERTY_KEY, tmpRequest);
+        tmpImageView.sceneProperty().addListener((observable, oldValue, newValue) -> {
+            if (tmpImageView.getProperties().get(DepictionRenderingService.REQUEST_PROPERTY_KEY) != tmpRequest) {
+                //depiction already set
+                return;
+            }
+            if (newValue == null) {
+                tmpRequest.cancel();
+            } else if (tmpRequest.isCancelled()) {
+                tmpRequest.submit();
+            }
+        });
+        tmpRequest.submit();
+        return tmpImageView;
+    }
+    //
+    /**
+     * Cancels the pending render request of the given image view, if there is one. The placeholder remains.
+     *
+     * @param anImageView image view created by this service
+     */
+    public void cancel(ImageView anImageView) {
+        if (anImageView == null) {
+            return;
+        }
+        Object tmpRequest = anImageView.getProperties().get(DepictionRenderingService.REQUEST_PROPERTY_KEY);
+        if (tmpRequest instanceof RenderRequest) {
+            ((RenderRequest) tmpRequest).cancel();
+        }
+    }
+    //
+    /**
+     * Renders the depictions of the given molecules with the given parameters into the depiction cache in a low
+     * priority background thread, see
+     * {@link DepictionUtil#depictImageWithCache(MoleculeDataModel, double, double, double, boolean, boolean)}.
+     * Molecules whose depictions are already cached are skipped. Once the depictions submitted since the last call of
+     * {@link #cancelPrerendering(Object)} for the given owner exceed a share of the cache budget, further molecules
+     * are ignored. To be called on the JavaFX application thread.
+     *
+     * @param anOwner view requesting the rendering, e.g. the table view of a tab, used to cancel only its own requests
+     * @param aMoleculeList molecules to depict
+     * @param aZoom double
+     * @param aWidth double
+     * @param aHeight double
+     * @param fillToFit boolean Resize depictions to fill all available space (only if a size is specified)
+     * @param isBackgroundWhite boolean if image has white background
+     */
+    public void prerender(Object anOwner, List<? extends MoleculeDataModel> aMoleculeList, double aZoom, double aWidth,
+                          double aHeight, boolean fillToFit, boolean isBackgroundWhite) {
+        Objects.requireNonNull(anOwner, "anOwner (instance of Object) is null");
+        if (aMoleculeList == null || aWidth <= 0 || aHeight <= 0) {
+            return;
+        }
+        DepictionCache tmpCache = DepictionUtil.getDepictionCache();
+        long tmpPixelBudget = tmpCache.getPixelBudget() / DepictionRenderingService.PRERENDERING_PIXEL_BUDGET_DIVISOR;
+        long tmpPixelsPerImage = (long) Math.ceil(aWidth) * (long) Math.ceil(aHeight);
+        List<Future<?>> tmpFutureList = this.prerenderingFutureListMap.computeIfAbsent(anOwner, aKey -> new LinkedList<>());
+        tmpFutureList.removeIf(Future::isDone);
+        long tmpPixelCount = this.prerenderingPixelCountMap.getOrDefault(anOwner, 0L);
+        for (MoleculeDataModel tmpMolecule : aMoleculeList) {
+            if (tmpPixelCount + tmpPixelsPerImage > tmpPixelBudget) {
+                break;
+            }
+            String tmpKey = DepictionCache.createKey(tmpMolecule.getUniqueSmiles(), aZoom, aWidth, aHeight, fillToFit,
+                    isBackgroundWhite);
+            if (tmpCache.contains(tmpKey)) {
+                continue;
+            }
+            tmpPixelCount += tmpPixelsPerImage;
+            tmpFutureList.add(this.prerenderingExecutorService.submit(() -> {
+                try {
+                    DepictionUtil.depictImageWithCache(tmpMolecule, aZoom, aWidth, aHeight, fillToFit, isBackgroundWhite);
+                } catch (CDKException anException) {
+                    DepictionRenderingService.LOGGER.log(Level.WARNING, anException.toString(), anException);
+                }
+            }));
+        }
+        this.prerenderingPixelCountMap.put(anOwner, tmpPixelCount);
+    }
+    //
+    /**
+     * Cancels the pending rendering in advance requested by the given owner, e.g. because it shows another page now or
+     * was closed, and resets the share of the cache budget used by it. Rendering requested by other views is not
+     * affected and depictions that are already being rendered are finished.
+     * To be called on the JavaFX application thread.
+     *
+     * @param anOwner view that requested the rendering
+     */
+    public void cancelPrerendering(Object anOwner) {
+        List<Future<?>> tmpFutureList = this.prerenderingFutureListMap.remove(anOwner);
+        if (tmpFutureList != null) {
+            for (Future<?> tmpFuture : tmpFutureList) {
+                tmpFuture.cancel(false);
+            }
+        }
+        this.prerenderingPixelCountMap.remove(anOwner);
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private methods" defaultstate="collapsed">
+    /**
+     * Returns a transparent placeholder image of the given size.
+     *
+     * @param aWidth double
+     * @param aHeight double
+     * @return placeholder image
+     */
+    private Image getPlaceholderImage(double aWidth, double aHeight) {
+        int tmpWidth = Math.max(1, (int) Math.round(aWidth));
+        int tmpHeight = Math.max(1, (int) Math.round(aHeight));
+        String tmpKey = tmpWidth + "x" + tmpHeight;
+        Image tmpPlaceholderImage = this.placeholderImageMap.get(tmpKey);
+        if (tmpPlaceholderImage == null) {
+            if (this.placeholderImageMap.size() >= DepictionRenderingService.MAX_NUMBER_OF_PLACEHOLDER_IMAGES) {
+                this.placeholderImageMap.clear();
+            }
+            tmpPlaceholderImage = new WritableImage(tmpWidth, tmpHeight);
+            this.placeholderImageMap.put(tmpKey, tmpPlaceholderImage);
+        }
+        return tmpPlaceholderImage;
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private class RenderRequest" defaultstate="collapsed">
+    /**
+     * Request to render the image of one image view. Submitting and cancelling happen on the JavaFX application
+     * thread; the rendered image is set on it as well, if the request is still the pending one of its image view.
+     */
+    private class RenderRequest implements Runnable {
+        /**
+         * Image view to set the rendered image on.
+         */
+        private final ImageView imageView;
+        /**
+         * Creates the image.
+         */
+        private final Callable<Image> depictionTask;
+        /**
+         * Future of the last submission, null if not submitted yet.
+         */
+        private Future<?> future;
+        /**
+         * Whether the last submission was cancelled before the image was set.
+         */
+        private boolean isCancelled;
+        //
+        /**
+         * Constructor.
+         *
+         * @param anImageView image view to set the rendered image on
+         * @param aDepictionTask creates the image
+         */
+        private RenderRequest(ImageView anImageView, Callable<Image> aDepictionTask) {
+            this.imageView = anImageView;
+            this.depictionTask = aDepictionTask;
+            this.future = null;
+            this.isCancelled = false;
+        }
+        //
+        /**
+         * Submits this request to the worker threads.
+         */
+        private void submit() {
+            this.isCancelled = false;
+            this.future = DepictionRenderingService.this.executorService.submit(this);
+        }
+        //
+        /**
+         * Cancels this request if it has not been started yet, removes it from the queue of the worker threads and
+         * marks it for resubmission.
+         */
+        private void cancel() {
+            if (this.future != null && !this.future.isDone()) {
+                this.future.cancel(false);
+                if (this.future instanceof Runnable) {
+                    DepictionRenderingService.this.executorService.remove((Runnable) this.future);
+                }
+            }
+            this.isCancelled = true;
+        }
+        //
+        /**
+         * Returns whether this request was cancelled, also if it was dropped because too many requests were pending.
+         *
+         * @return true if cancelled
+         */
+        private boolean isCancelled() {
+            return this.isCancelled || (this.future != null && this.future.isCancelled());
+        }
+        //
+        /**
+         * Renders the image and sets it on the image view on the JavaFX application thread.
+         */
+        @Override
+        public void run() {
+            Image tmpImage;
+            try {
+                tmpImage = this.depictionTask.call();
+            } catch (Exception anException) {
+                DepictionRenderingService.LOGGER.log(Level.WARNING, anException.toString(), anException);
+                tmpImage = DepictionUtil.depictErrorImage(anException.getMessage(), 250, 250);
+            }
+            Image tmpFinalImage = tmpImage;
+            Platform.runLater(() -> {
+                if (this.imageView.getProperties().get(DepictionRenderingService.REQUEST_PROPERTY_KEY) != this) {
+                    return;
+                }
+                this.imageView.getProperties().remove(DepictionRenderingService.REQUEST_PROPERTY_KEY);
+                this.imageView.setImage(tmpFinalImage);
+            });
+        }
+    }
+    //</editor-fold>
+}
@@ -20,7 +20,9 @@
 
 package de.unijena.cheminf.mortar.model.depict;
 
+import de.unijena.cheminf.mortar.model.data.MoleculeDataModel;
 import de.unijena.cheminf.mortar.model.util.BasicDefinitions;
+import de.unijena.cheminf.mortar.model.util.ChemUtil;
 
 import javafx.embed.swing.SwingFXUtils;
 import javafx.scene.image.Image;
@@ -28,13 +30,28 @@ import javafx.scene.image.Image;
 import org.openscience.cdk.depict.DepictionGenerator;
 import org.openscience.cdk.exception.CDKException;
 import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.cdk.renderer.AtomContainerRenderer;
+import org.openscience.cdk.renderer.AverageBondLengthCalculator;
+import org.openscience.cdk.renderer.BoundsCalculator;
+import org.openscience.cdk.renderer.RendererModel;
+import org.openscience.cdk.renderer.color.CDK2DAtomColors;
+import org.openscience.cdk.renderer.font.AWTFontManager;
+import org.openscience.cdk.renderer.generators.BasicSceneGenerator;
+import org.openscience.cdk.renderer.generators.IGenerator;
+import org.openscience.cdk.renderer.generators.standard.StandardGenerator;
+import org.openscience.cdk.renderer.visitor.AWTDrawVisitor;
 
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -51,9 +68,99 @@ public class DepictionUtil {
      * Logger of this class.
      */
     private static final Logger LOGGER = Logger.getLogger(DepictionUtil.class.getName());
+    /**
+     * Bond length in image units of structures drawn as vector graphics at zoom 1, same as used by the CDK depiction
+     * generator for raster depictions.
+     */
+    private static final double VECTOR_DEPICTION_BOND_LENGTH = 26.1;
+    /**
+     * Font of atom labels of structures drawn as vector graphics.
+     */
+    private static final Font VECTOR_DEPICTION_FONT = new Font("Arial", Font.PLAIN, 13);
+    /**
+     * Height in image units the structure of a depiction with text below is reduced by to make room for the text.
+     */
+    private static final int DEPICTION_TEXT_HEIGHT = 25;
+    /**
+     * Font of the text below a structure depiction, e.g. the frequency of a fragment.
+     */
+    private static final Font DEPICTION_TEXT_FONT = new Font("Calibri", Font.BOLD, 20);
+    /**
+     * Depiction cache shared by all views.
+     */
+    private static final DepictionCache DEPICTION_CACHE = new DepictionCache(BasicDefinitions.DEPICTION_CACHE_PIXEL_BUDGET);
+    /**
+     * Service rendering depictions for the views in background threads.
+     */
+    private static final DepictionRenderingService RENDERING_SERVICE = new DepictionRenderingService(
+            Math.max(1, Math.min(BasicDefinitions.DEPICTION_RENDERING_MAX_NUMBER_OF_THREADS,
+                    Runtime.getRuntime().availableProcessors() - 1)));
+    //</editor-fold>
+    //
+    //<editor-fold desc="private static class variables" defaultstate="collapsed">
+    /**
+     * Disk-backed store of depictions persisted between sessions, null if it is not opened.
+     */
+    private static volatile ThumbnailStore thumbnailStore = null;
     //</editor-fold>
     //
     //<editor-fold desc="public static methods" defaultstate="collapsed">
+    /**
+     * Returns the depiction cache shared by all views. It should be cleared if settings change.
+     *
+     * @return DepictionCache
+     */
+    public static DepictionCache getDepictionCache() {
+        return DepictionUtil.DEPICTION_CACHE;
+    }
+    //
+    /**
+     * Returns the service rendering depictions for the views in background threads.
+     *
+     * @return DepictionRenderingService
+     */
+    public static DepictionRenderingService getRenderingService() {
+        return DepictionUtil.RENDERING_SERVICE;
+    }
+    //
+    /**
+     * Opens the thumbnail store in the given pack file, so that depictions are persisted between sessions. A
+     * previously opened store is closed.
+     *
+     * @param aPackFile pack file of the store
+     * @throws IOException if the pack file cannot be opened or created
+     */
+    public static synchronized void openThumbnailStore(File aPackFile) throws IOException {
+        ThumbnailStore tmpThumbnailStore = new ThumbnailStore(aPackFile, BasicDefinitions.THUMBNAIL_STORE_MAX_NUMBER_OF_BYTES);
+        DepictionUtil.closeThumbnailStore();
+        DepictionUtil.thumbnailStore = tmpThumbnailStore;
+    }
+    //
+    /**
+     * Closes the thumbnail store if it is opened; depictions still waiting to be written are written first, up to a
+     * timeout.
+     */
+    public static synchronized void closeThumbnailStore() {
+        ThumbnailStore tmpThumbnailStore = DepictionUtil.thumbnailStore;
+        DepictionUtil.thumbnailStore = null;
+        if (tmpThumbnailStore != null) {
+            tmpThumbnailStore.close(BasicDefinitions.THUMBNAIL_STORE_CLOSING_TIMEOUT);
+        }
+    }
+    //
+    /**
+     * Removes all depictions from the thumbnail store and closes it if it is opened, e.g. because persisting
+     * depictions has been deactivated, so the disk space is released immediately.
+     */
+    public static synchronized void discardThumbnailStore() {
+        ThumbnailStore tmpThumbnailStore = DepictionUtil.thumbnailStore;
+        DepictionUtil.thumbnailStore = null;
+        if (tmpThumbnailStore != null) {
+            tmpThumbnailStore.clear();
+            tmpThumbnailStore.close(0L);
+        }
+    }
+    //
     /**
      * Creates and returns an Image of the given AtomContainer
      *
@@ -153,6 +260,97 @@ public class DepictionUtil {
         }
     }
     //
+    /**
+     * Returns the depiction of the given molecule with any zoom factor, given width and height, fill to fit and
+     * background from the shared depiction cache. If it is not cached yet, it is created and put into the cache. The
+     * atom container of the molecule is only created if the depiction is not cached. The depiction is created while
+     * holding the lock of the molecule data model because the layout may modify the atom container kept in it. 2D
+     * layout coordinates are taken from the layout coordinate cache, see {@link ChemUtil#getLayoutCoordinateCache()}.
+     * If a thumbnail store is opened, depictions missing in the depiction cache are read from it before they are
+     * created, and newly created depictions are added to it. If the depiction fails, an error image is returned that
+     * is neither cached nor stored, so the depiction is tried again the next time it is needed. The lookup is not
+     * counted in the statistics of the depiction cache, the requesting view counts its own lookup.
+     *
+     * @param aMoleculeDataModel MoleculeDataModel
+     * @param aZoom double
+     * @param aWidth double
+     * @param aHeight double
+     * @param fillToFit boolean Resize depictions to fill all available space (only if a size is specified)
+     * @param isBackgroundWhite boolean if image has white background
+     * @return Image of 2D structure of the molecule
+     * @throws CDKException if the atom container of the molecule cannot be created
+     */
+    public static Image depictImageWithCache(MoleculeDataModel aMoleculeDataModel, double aZoom, double aWidth, double aHeight, boolean fillToFit, boolean isBackgroundWhite) throws CDKException {
+        String tmpKey = DepictionCache.createKey(aMoleculeDataModel.getUniqueSmiles(), aZoom, aWidth, aHeight, fillToFit, isBackgroundWhite);
+        Image tmpImage = DepictionUtil.DEPICTION_CACHE.peek(tmpKey);
+        if (tmpImage != null) {
+            return tmpImage;
+        }
+        ThumbnailStore tmpThumbnailStore = DepictionUtil.thumbnailStore;
+        String tmpStoreKey = null;
+        if (tmpThumbnailStore != null) {
+            tmpStoreKey = ThumbnailStore.createKey(aMoleculeDataModel.getUniqueSmiles(), aZoom, aWidth, aHeight, fillToFit, isBackgroundWhite);
+            tmpImage = tmpThumbnailStore.get(tmpStoreKey, aWidth, aHeight);
+        }
+        if (tmpImage == null) {
+            BufferedImage tmpBufferedImage = null;
+            synchronized (aMoleculeDataModel) {
+                IAtomContainer tmpAtomContainer = aMoleculeDataModel.getAtomContainer();
+                if (!ChemUtil.has2DCoordinates(tmpAtomContainer)) {
+                    try {
+                        ChemUtil.generate2DCoordinates(tmpAtomContainer, aMoleculeDataModel.getUniqueSmiles());
+                    } catch (CDKException anException) {
+                        //the depiction generator retries the layout and reports the failure on the depiction
+                        DepictionUtil.LOGGER.log(Level.WARNING, anException.toString(), anException);
+                    }
+                }
+                try {
+                    tmpBufferedImage = DepictionUtil.depictBufferedImageWithZoom(tmpAtomContainer, aZoom, aWidth, aHeight, fillToFit, isBackgroundWhite);
+                } catch (CDKException | NullPointerException anException) {
+                    DepictionUtil.LOGGER.log(Level.SEVERE, anException.toString(), anException);
+                    return DepictionUtil.depictErrorImage(anException.getMessage(), 250,250);
+                }
+            }
+            tmpImage = SwingFXUtils.toFXImage(tmpBufferedImage, null);
+            if (tmpThumbnailStore != null) {
+                tmpThumbnailStore.put(tmpStoreKey, tmpBufferedImage);
+            }
+        }
+        DepictionUtil.DEPICTION_CACHE.put(tmpKey, tmpImage);
+        return tmpImage;
+    }
+    //
+    /**
+     * Returns the depiction of the given atom container with any zoom factor, given width and height, fill to fit and
+     * background from the shared depiction cache under the given key. If it is not cached yet, it is created and put
+     * into the cache. If the depiction fails, an error image is returned that is not cached, so the depiction is tried
+     * again the next time it is needed.
+     *
+     * @param aKey cache key, see {@link DepictionCache#createKey(String, double, double, double, boolean, boolean)}
+     * @param anAtomContainer IAtomContainer
+     * @param aZoom double
+     * @param aWidth double
+     * @param aHeight double
+     * @param fillToFit boolean Resize depictions to fill all available space (only if a size is specified)
+     * @param isBackgroundWhite boolean if image has white background
+     * @return Image of 2D structure of IAtomContainer
+     */
+    public static Image depictImageWithCache(String aKey, IAtomContainer anAtomContainer, double aZoom, double aWidth, double aHeight, boolean fillToFit, boolean isBackgroundWhite) {
+        Image tmpImage = DepictionUtil.DEPICTION_CACHE.get(aKey);
+        if (tmpImage != null) {
+            return tmpImage;
+        }
+        try {
+            BufferedImage tmpBufferedImage = DepictionUtil.depictBufferedImageWithZoom(anAtomContainer, aZoom, aWidth, aHeight, fillToFit, isBackgroundWhite);
+            tmpImage = SwingFXUtils.toFXImage(tmpBufferedImage, null);
+        } catch (CDKException | NullPointerException anException) {
+            DepictionUtil.LOGGER.log(Level.SEVERE, anException.toString(), anException);
+            return DepictionUtil.depictErrorImage(anException.getMessage(), 250,250);
+        }
+        DepictionUtil.DEPICTION_CACHE.put(aKey, tmpImage);
+        return tmpImage;
+    }
+    //
     /**
      * Creates and returns an image of the given message.
      *
@@ -204,7 +402,7 @@ public class DepictionUtil {
      */
     public static Image depictImageWithText(IAtomContainer anAtomContainer, double aZoom, double aWidth, double aHeight, String aString){
         try{
-            BufferedImage tmpMolBufferedImage = DepictionUtil.depictBufferedImageWithZoom(anAtomContainer, aZoom, aWidth, aHeight - 25, false, false); //magic number to compensate for the height of the text
+            BufferedImage tmpMolBufferedImage = DepictionUtil.depictBufferedImageWithZoom(anAtomContainer, aZoom, aWidth, aHeight - DepictionUtil.DEPICTION_TEXT_HEIGHT, false, false);
             BufferedImage tmpBufferedImage = new BufferedImage(tmpMolBufferedImage.getWidth(), tmpMolBufferedImage.getHeight() + BasicDefinitions.DEFAULT_IMAGE_TEXT_DISTANCE, BufferedImage.TRANSLUCENT);
             Graphics2D tmpGraphics2d = tmpBufferedImage.createGraphics();
             tmpGraphics2d.setRenderingHint(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_QUALITY);
@@ -218,7 +416,7 @@ public class DepictionUtil {
             tmpGraphics2d.addRenderingHints(new RenderingHints(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON));
             tmpGraphics2d.drawImage(tmpMolBufferedImage, 0, 0,null);
             tmpGraphics2d.setColor(Color.BLACK);
-            tmpGraphics2d.setFont(new Font("Calibri", Font.BOLD, 20));
+            tmpGraphics2d.setFont(DepictionUtil.DEPICTION_TEXT_FONT);
             FontMetrics tmpFontMetric = tmpGraphics2d.getFontMetrics();
             int tmpTextWidth = tmpFontMetric.stringWidth(aString);
             tmpGraphics2d.drawString(aString, (tmpBufferedImage.getWidth() / 2) - tmpTextWidth / 2, tmpBufferedImage.getHeight());
@@ -229,6 +427,84 @@ public class DepictionUtil {
             return DepictionUtil.depictErrorImage(anException.getMessage(), 250,250);
         }
     }
+    //
+    /**
+     * Draws the given atom container as vector graphics onto the given graphics context, e.g. the graphics of a PDF
+     * template, so that no raster image is created. The structure is centred in the given area; like the raster
+     * depictions, it is drawn with bond lengths scaled by the given zoom factor and shrunk to fit if it is too large.
+     * The atom container must have 2D coordinates, it is not modified.
+     *
+     * @param anAtomContainer IAtomContainer with 2D coordinates
+     * @param aGraphics2D graphics context to draw on
+     * @param aWidth double width of the area to draw in
+     * @param aHeight double height of the area to draw in
+     * @param aZoom double
+     * @throws CDKException if the atom container has no 2D coordinates
+     */
+    public static void drawStructure(IAtomContainer anAtomContainer, Graphics2D aGraphics2D, double aWidth, double aHeight, double aZoom) throws CDKException {
+        if (anAtomContainer.isEmpty()) {
+            return;
+        }
+        if (!ChemUtil.has2DCoordinates(anAtomContainer)) {
+            throw new CDKException("Atom container has no 2D coordinates.");
+        }
+        List<IGenerator<IAtomContainer>> tmpGenerators = new ArrayList<>(2);
+        tmpGenerators.add(new BasicSceneGenerator());
+        tmpGenerators.add(new StandardGenerator(DepictionUtil.VECTOR_DEPICTION_FONT));
+        AtomContainerRenderer tmpRenderer = new AtomContainerRenderer(tmpGenerators, new AWTFontManager());
+        RendererModel tmpRendererModel = tmpRenderer.getRenderer2DModel();
+        tmpRendererModel.set(BasicSceneGenerator.BondLength.class, DepictionUtil.VECTOR_DEPICTION_BOND_LENGTH);
+        tmpRendererModel.set(StandardGenerator.AtomColor.class, new CDK2DAtomColors());
+        tmpRendererModel.set(StandardGenerator.ForceDelocalisedBondDisplay.class, true);
+        //the renderer fits the structure to the given bounds, so the bounds are shrunk to the size of the structure at
+        // the given zoom if it is smaller than the area
+        Rectangle2D tmpModelBounds = BoundsCalculator.calculateBounds(anAtomContainer);
+        double tmpAverageBondLength = AverageBondLengthCalculator.calculateAverageBondLength(anAtomContainer);
+        double tmpScale = (tmpAverageBondLength > 0.0 && !Double.isNaN(tmpAverageBondLength))
+                ? DepictionUtil.VECTOR_DEPICTION_BOND_LENGTH / tmpAverageBondLength : 1.0;
+        double tmpMargin = tmpRendererModel.get(BasicSceneGenerator.Margin.class);
+        double tmpDrawWidth = Math.min(aWidth, aZoom * (tmpModelBounds.getWidth() * tmpScale + 2 * tmpMargin));
+        double tmpDrawHeight = Math.min(aHeight, aZoom * (tmpModelBounds.getHeight() * tmpScale + 2 * tmpMargin));
+        Rectangle2D tmpDrawBounds = new Rectangle2D.Double((aWidth - tmpDrawWidth) / 2, (aHeight - tmpDrawHeight) / 2,
+                tmpDrawWidth, tmpDrawHeight);
+        tmpRenderer.paint(anAtomContainer, AWTDrawVisitor.forVectorGraphics(aGraphics2D), tmpDrawBounds, true);
+    }
+    //
+    /**
+     * Draws the given atom container as vector graphics onto the given graphics context with the given text below,
+     * analogous to {@link #depictImageWithText(IAtomContainer, double, double, double, String)}. The drawn area is the
+     * given width times the given height reduced by the space of the text, see
+     * {@link #getHeightOfStructureWithText(double)}.
+     *
+     * @param anAtomContainer IAtomContainer with 2D coordinates
+     * @param aGraphics2D graphics context to draw on
+     * @param aWidth double
+     * @param aHeight double
+     * @param aZoom double
+     * @param aString String
+     * @throws CDKException if the atom container has no 2D coordinates
+     */
+    public static void drawStructureWithText(IAtomContainer anAtomContainer, Graphics2D aGraphics2D, double aWidth, double aHeight, double aZoom, String aString) throws CDKException {
+        double tmpStructureHeight = aHeight - DepictionUtil.DEPICTION_TEXT_HEIGHT;
+        DepictionUtil.drawStructure(anAtomContainer, aGraphics2D, aWidth, tmpStructureHeight, aZoom);
+        aGraphics2D.setColor(Color.BLACK);
+        aGraphics2D.setFont(DepictionUtil.DEPICTION_TEXT_FONT);
+        FontMetrics tmpFontMetric = aGraphics2D.getFontMetrics();
+        int tmpTextWidth = tmpFontMetric.stringWidth(aString);
+        aGraphics2D.drawString(aString, (float) (aWidth / 2 - tmpTextWidth / 2.0),
+                (float) DepictionUtil.getHeightOfStructureWithText(aHeight));
+    }
+    //
+    /**
+     * Returns the total height of a structure drawn with text below by
+     * {@link #drawStructureWithText(IAtomContainer, Graphics2D, double, double, double, String)}.
+     *
+     * @param aHeight double height given for the structure with text
+     * @return height of the drawn area
+     */
+    public static double getHeightOfStructureWithText(double aHeight) {
+        return aHeight - DepictionUtil.DEPICTION_TEXT_HEIGHT + BasicDefinitions.DEFAULT_IMAGE_TEXT_DISTANCE;
+    }
     //</editor-fold>
     //
     //<editor-fold desc="private static methods" defaultstate="collapsed">
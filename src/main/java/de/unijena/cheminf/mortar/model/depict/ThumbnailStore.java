@@ -0,0 +1,534 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.depict;
+
+import de.unijena.cheminf.mortar.model.util.BasicDefinitions;
+import de.unijena.cheminf.mortar.model.util.CollectionUtil;
+import de.unijena.cheminf.mortar.model.util.LogUtil;
+
+import javafx.scene.image.Image;
+
+import javax.imageio.ImageIO;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Disk-backed store of structure depictions that is kept between sessions. All depictions are stored as PNG bytes in
+ * one pack file under a key built from the unique SMILES code of the depicted structure and the depiction parameters,
+ * see {@link #createKey(String, double, double, double, boolean, boolean)}. The width and height in the key are
+ * rounded to size classes, so a depiction stays usable if a column or row is resized slightly; it is scaled to the
+ * requested size when it is read. The index of the pack file,
+ * i.e. the position of every depiction in it, is built when the store is opened and held in memory.
+ * New depictions are encoded and appended in a background thread; if the writer cannot keep up, depictions are
+ * dropped instead of delaying the rendering. If the pack file exceeds its size limit, it is compacted to the most
+ * recently used depictions by the background thread. All methods accessing the pack file are synchronized; the
+ * compacted file is written without holding the lock, so reading depictions is not blocked by a compaction.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class ThumbnailStore {
+    //<editor-fold desc="private static final constants" defaultstate="collapsed">
+    /**
+     * Logger of this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(ThumbnailStore.class.getName());
+    /**
+     * Version of the pack file format and of the depiction style; pack files of another version are discarded.
+     */
+    private static final int FILE_FORMAT_VERSION = 2;
+    /**
+     * Number of bytes of the pack file header, i.e. the format version.
+     */
+    private static final int HEADER_LENGTH = Integer.BYTES;
+    /**
+     * Maximum number of bytes of a key written to the pack file, depictions with longer keys are not stored.
+     */
+    private static final int MAX_KEY_BYTE_LENGTH = 65535;
+    /**
+     * Maximum number of depictions waiting to be written to the pack file.
+     */
+    private static final int WRITE_QUEUE_CAPACITY = 256;
+    /**
+     * Share of the size limit the pack file is reduced to when it is compacted.
+     */
+    private static final double COMPACTION_TARGET_RATIO = 0.75;
+    /**
+     * Number of pixels the width and height of a depiction are rounded to in the key of the store.
+     */
+    private static final int SIZE_CLASS_STEP = 32;
+    //</editor-fold>
+    //
+    //<editor-fold desc="private final class variables" defaultstate="collapsed">
+    /**
+     * Pack file holding all stored depictions.
+     */
+    private final File packFile;
+    /**
+     * Maximum number of bytes of the pack file.
+     */
+    private final long maxNumberOfBytes;
+    /**
+     * Position and length of the PNG bytes of every stored depiction in access order, the first entry is the least
+     * recently used one.
+     */
+    private final LinkedHashMap<String, long[]> index;
+    /**
+     * Single background thread encoding and appending new depictions.
+     */
+    private final ThreadPoolExecutor writer;
+    //</editor-fold>
+    //
+    //<editor-fold desc="private class variables" defaultstate="collapsed">
+    /**
+     * Opened pack file, null if the store is closed.
+     */
+    private RandomAccessFile randomAccessFile;
+    /**
+     * Number of times the store was cleared, used to discard a compaction that ran concurrently.
+     */
+    private long clearCount;
+    //</editor-fold>
+    //
+    /**
+     * Constructor, opens the given pack file and reads its index. A new pack file is created if it does not exist or
+     * was written in another format; a truncated last entry, e.g. after a crash, is removed.
+     *
+     * @param aPackFile pack file of the store
+     * @param aMaxNumberOfBytes maximum number of bytes of the pack file
+     * @throws NullPointerException if the given file is null
+     * @throws IllegalArgumentException if the maximum number of bytes is not positive
+     * @throws IOException if the pack file cannot be opened or created
+     */
+    public ThumbnailStore(File aPackFile, long aMaxNumberOfBytes) throws NullPointerException, IllegalArgumentException, IOException {
+        Objects.requireNonNull(aPackFile, "aPackFile (instance of File) is null");
+        if (aMaxNumberOfBytes <= 0) {
+            throw new IllegalArgumentException("aMaxNumberOfBytes must be positive.");
+        }
+        File tmpParentDirectory = aPackFile.getParentFile();
+        if (tmpParentDirectory != null && !tmpParentDirectory.isDirectory() && !tmpParentDirectory.mkdirs()) {
+            throw new IOException("Unable to create directory " + tmpParentDirectory.getPath() + ".");
+        }
+        this.packFile = aPackFile;
+        this.maxNumberOfBytes = aMaxNumberOfBytes;
+        this.index = new LinkedHashMap<>(16, BasicDefinitions.DEFAULT_HASH_COLLECTION_LOAD_FACTOR, true);
+        this.randomAccessFile = new RandomAccessFile(this.packFile, "rw");
+        this.readIndex();
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(ThumbnailStore.WRITE_QUEUE_CAPACITY),
+                aRunnable -> {
+                    Thread tmpThread = new Thread(aRunnable);
+                    tmpThread.setName("Thumbnail_Store_Writer_Thread");
+                    tmpThread.setUncaughtExceptionHandler(LogUtil.getUncaughtExceptionHandler());
+                    tmpThread.setDaemon(true);
+                    tmpThread.setPriority(Thread.MIN_PRIORITY);
+                    return tmpThread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+    //
+    //<editor-fold desc="public static methods" defaultstate="collapsed">
+    /**
+     * Creates the key of a depiction in the store. Other than in
+     * {@link DepictionCache#createKey(String, double, double, double, boolean, boolean)}, the width and height are
+     * rounded to size classes, so depictions of slightly different sizes share a key.
+     *
+     * @param aUniqueSmiles unique SMILES code of the depicted structure
+     * @param aZoom zoom factor
+     * @param aWidth width of the depiction
+     * @param aHeight height of the depiction
+     * @param isFillToFit whether the depiction fills all available space
+     * @param isBackgroundWhite whether the depiction has a white background
+     * @return key of the depiction in the store
+     * @throws NullPointerException if the given SMILES code is null
+     */
+    public static String createKey(String aUniqueSmiles, double aZoom, double aWidth, double aHeight, boolean isFillToFit,
+                                   boolean isBackgroundWhite) throws NullPointerException {
+        return DepictionCache.createKey(aUniqueSmiles, aZoom, ThumbnailStore.getSizeClass(aWidth),
+                ThumbnailStore.getSizeClass(aHeight), isFillToFit, isBackgroundWhite);
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="public methods" defaultstate="collapsed">
+    /**
+     * Returns the stored depiction of the given key scaled to the given size, keeping its aspect ratio, and marks it as
+     * most recently used. The PNG bytes are decoded in the calling thread.
+     *
+     * @param aKey key of the depiction, see {@link #createKey(String, double, double, double, boolean, boolean)}
+     * @param aWidth requested width of the depiction
+     * @param aHeight requested height of the depiction
+     * @return stored depiction or null if no depiction is stored for the key or it cannot be read
+     */
+    public Image get(String aKey, double aWidth, double aHeight) {
+        byte[] tmpBytes = this.getPngBytes(aKey);
+        if (tmpBytes == null) {
+            return null;
+        }
+        Image tmpImage = new Image(new ByteArrayInputStream(tmpBytes), aWidth, aHeight, true, true);
+        if (tmpImage.isError()) {
+            return null;
+        }
+        return tmpImage;
+    }
+    //
+    /**
+     * Returns the PNG bytes of the stored depiction of the given key and marks it as most recently used.
+     *
+     * @param aKey key of the depiction, see {@link #createKey(String, double, double, double, boolean, boolean)}
+     * @return PNG bytes of the stored depiction or null if no depiction is stored for the key or it cannot be read
+     */
+    public byte[] getPngBytes(String aKey) {
+        byte[] tmpBytes;
+        synchronized (this) {
+            long[] tmpPosition = this.index.get(aKey);
+            if (tmpPosition == null || this.randomAccessFile == null) {
+                return null;
+            }
+            tmpBytes = new byte[(int) tmpPosition[1]];
+            try {
+                this.randomAccessFile.seek(tmpPosition[0]);
+                this.randomAccessFile.readFully(tmpBytes);
+            } catch (IOException anException) {
+                ThumbnailStore.LOGGER.log(Level.WARNING, anException.toString(), anException);
+                this.index.remove(aKey);
+                return null;
+            }
+        }
+        return tmpBytes;
+    }
+    //
+    /**
+     * Stores the given depiction under the given key. The image is encoded and appended to the pack file in the
+     * background; it is dropped if too many depictions are waiting to be written or the store is closed.
+     *
+     * @param aKey key of the depiction, see {@link #createKey(String, double, double, double, boolean, boolean)}
+     * @param anImage depiction to store
+     * @throws NullPointerException if a parameter is null
+     */
+    public void put(String aKey, BufferedImage anImage) throws NullPointerException {
+        Objects.requireNonNull(aKey, "aKey (instance of String) is null");
+        Objects.requireNonNull(anImage, "anImage (instance of BufferedImage) is null");
+        if (this.writer.isShutdown() || ThumbnailStore.getEncodedKeyLength(aKey) > ThumbnailStore.MAX_KEY_BYTE_LENGTH) {
+            return;
+        }
+        this.writer.execute(() -> {
+            synchronized (this) {
+                if (this.index.containsKey(aKey)) {
+                    return;
+                }
+            }
+            try {
+                ByteArrayOutputStream tmpOutputStream = new ByteArrayOutputStream();
+                if (!ImageIO.write(anImage, "png", tmpOutputStream)) {
+                    return;
+                }
+                this.append(aKey, tmpOutputStream.toByteArray());
+            } catch (IOException anException) {
+                ThumbnailStore.LOGGER.log(Level.WARNING, anException.toString(), anException);
+            }
+        });
+    }
+    //
+    /**
+     * Removes all depictions from the store and truncates the pack file. Depictions still waiting to be written are
+     * written afterwards.
+     */
+    public synchronized void clear() {
+        this.index.clear();
+        this.clearCount++;
+        if (this.randomAccessFile == null) {
+            return;
+        }
+        try {
+            this.randomAccessFile.setLength(ThumbnailStore.HEADER_LENGTH);
+        } catch (IOException anException) {
+            ThumbnailStore.LOGGER.log(Level.WARNING, anException.toString(), anException);
+        }
+    }
+    //
+    /**
+     * Writes the depictions still waiting in the background, waiting at most the given time, and closes the pack file.
+     * The store cannot be used afterwards.
+     *
+     * @param aTimeoutInMilliseconds maximum time to wait for pending depictions to be written
+     */
+    public void close(long aTimeoutInMilliseconds) {
+        this.writer.shutdown();
+        try {
+            if (!this.writer.awaitTermination(aTimeoutInMilliseconds, TimeUnit.MILLISECONDS)) {
+                this.writer.shutdownNow();
+            }
+        } catch (InterruptedException anException) {
+            this.writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            this.index.clear();
+            if (this.randomAccessFile == null) {
+                return;
+            }
+            try {
+                this.randomAccessFile.close();
+            } catch (IOException anException) {
+                ThumbnailStore.LOGGER.log(Level.WARNING, anException.toString(), anException);
+            }
+            this.randomAccessFile = null;
+        }
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="public properties" defaultstate="collapsed">
+    /**
+     * Returns the number of stored depictions.
+     *
+     * @return number of stored depictions
+     */
+    public synchronized int size() {
+        return this.index.size();
+    }
+    //
+    /**
+     * Returns the pack file of the store.
+     *
+     * @return pack file
+     */
+    public File getPackFile() {
+        return this.packFile;
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private static methods" defaultstate="collapsed">
+    /**
+     * Rounds the given width or height up to the next size class.
+     *
+     * @param aSize width or height of a depiction
+     * @return size class
+     */
+    private static double getSizeClass(double aSize) {
+        return Math.ceil(aSize / ThumbnailStore.SIZE_CLASS_STEP) * ThumbnailStore.SIZE_CLASS_STEP;
+    }
+    //
+    /**
+     * Returns the number of bytes of the given key in the pack file, i.e. the length of its modified UTF-8 encoding
+     * written by {@link RandomAccessFile#writeUTF(String)} without the two length bytes.
+     *
+     * @param aKey key of a depiction
+     * @return number of bytes of the encoded key
+     */
+    private static long getEncodedKeyLength(String aKey) {
+        long tmpLength = 0L;
+        for (int i = 0; i < aKey.length(); i++) {
+            char tmpChar = aKey.charAt(i);
+            if (tmpChar >= 0x0001 && tmpChar <= 0x007F) {
+                tmpLength++;
+            } else if (tmpChar <= 0x07FF) {
+                tmpLength += 2;
+            } else {
+                tmpLength += 3;
+            }
+        }
+        return tmpLength;
+    }
+    //
+    /**
+     * Reads bytes from the given channel at the given position until the given array is filled, without changing
+     * the position of the channel, so the pack file can be read while it is used by other threads.
+     *
+     * @param aChannel channel of the pack file
+     * @param aPosition position to read from
+     * @param aBytes array to fill
+     * @throws IOException if the channel cannot be read or ends before the array is filled
+     */
+    private static void readFully(FileChannel aChannel, long aPosition, byte[] aBytes) throws IOException {
+        ByteBuffer tmpBuffer = ByteBuffer.wrap(aBytes);
+        while (tmpBuffer.hasRemaining()) {
+            if (aChannel.read(tmpBuffer, aPosition + tmpBuffer.position()) < 0) {
+                throw new EOFException("Unexpected end of the pack file.");
+            }
+        }
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private methods" defaultstate="collapsed">
+    /**
+     * Reads the keys and positions of all depictions from the pack file. If the file is empty or was written in
+     * another format, it is reset to an empty pack file; a truncated last entry is cut off.
+     *
+     * @throws IOException if the pack file cannot be read or reset
+     */
+    private void readIndex() throws IOException {
+        RandomAccessFile tmpFile = this.randomAccessFile;
+        if (tmpFile.length() < ThumbnailStore.HEADER_LENGTH || tmpFile.readInt() != ThumbnailStore.FILE_FORMAT_VERSION) {
+            tmpFile.setLength(0L);
+            tmpFile.seek(0L);
+            tmpFile.writeInt(ThumbnailStore.FILE_FORMAT_VERSION);
+            return;
+        }
+        long tmpFileLength = tmpFile.length();
+        long tmpEndOfLastCompleteEntry = tmpFile.getFilePointer();
+        try {
+            while (tmpEndOfLastCompleteEntry < tmpFileLength) {
+                String tmpKey = tmpFile.readUTF();
+                int tmpLength = tmpFile.readInt();
+                long tmpDataPosition = tmpFile.getFilePointer();
+                if (tmpLength < 0 || tmpDataPosition + tmpLength > tmpFileLength) {
+                    break;
+                }
+                this.index.put(tmpKey, new long[] {tmpDataPosition, tmpLength});
+                tmpFile.seek(tmpDataPosition + tmpLength);
+                tmpEndOfLastCompleteEntry = tmpDataPosition + tmpLength;
+            }
+        } catch (EOFException anException) {
+            //truncated last entry, cut off below
+        }
+        if (tmpEndOfLastCompleteEntry < tmpFileLength) {
+            tmpFile.setLength(tmpEndOfLastCompleteEntry);
+        }
+    }
+    //
+    /**
+     * Appends the given PNG bytes to the pack file and compacts it if it exceeds its size limit. Only called by the
+     * background thread.
+     *
+     * @param aKey key of the depiction
+     * @param aPngBytes encoded depiction
+     * @throws IOException if the pack file cannot be written
+     */
+    private void append(String aKey, byte[] aPngBytes) throws IOException {
+        synchronized (this) {
+            if (this.randomAccessFile == null || this.index.containsKey(aKey)) {
+                return;
+            }
+            long tmpEntryPosition = this.randomAccessFile.length();
+            this.randomAccessFile.seek(tmpEntryPosition);
+            try {
+                this.randomAccessFile.writeUTF(aKey);
+                this.randomAccessFile.writeInt(aPngBytes.length);
+                long tmpDataPosition = this.randomAccessFile.getFilePointer();
+                this.randomAccessFile.write(aPngBytes);
+                this.index.put(aKey, new long[] {tmpDataPosition, aPngBytes.length});
+            } catch (IOException anException) {
+                //do not leave a partial entry behind
+                this.randomAccessFile.setLength(tmpEntryPosition);
+                throw anException;
+            }
+            if (this.randomAccessFile.length() <= this.maxNumberOfBytes) {
+                return;
+            }
+        }
+        this.compact();
+    }
+    //
+    /**
+     * Rewrites the pack file with the most recently used depictions that fit into the compaction target size. The
+     * depictions are written in access order, so their recency is kept when the pack file is read again. Only called
+     * by the background thread, so no depiction is appended meanwhile. The compacted file is written without holding
+     * the lock of the store, reading from the unchanged pack file by position; only the index and the opened file are
+     * swapped under the lock. The compaction is discarded if the store was cleared or closed in the meantime.
+     *
+     * @throws IOException if the pack file cannot be rewritten
+     */
+    private void compact() throws IOException {
+        long tmpTargetNumberOfBytes = (long) (this.maxNumberOfBytes * ThumbnailStore.COMPACTION_TARGET_RATIO);
+        List<Map.Entry<String, long[]>> tmpEntryList;
+        FileChannel tmpPackFileChannel;
+        long tmpClearCount;
+        synchronized (this) {
+            if (this.randomAccessFile == null) {
+                return;
+            }
+            tmpEntryList = new ArrayList<>(this.index.entrySet());
+            tmpPackFileChannel = this.randomAccessFile.getChannel();
+            tmpClearCount = this.clearCount;
+        }
+        int tmpFirstKeptEntry = tmpEntryList.size();
+        long tmpKeptNumberOfBytes = ThumbnailStore.HEADER_LENGTH;
+        while (tmpFirstKeptEntry > 0) {
+            Map.Entry<String, long[]> tmpEntry = tmpEntryList.get(tmpFirstKeptEntry - 1);
+            long tmpEntryNumberOfBytes = Short.BYTES + ThumbnailStore.getEncodedKeyLength(tmpEntry.getKey())
+                    + Integer.BYTES + tmpEntry.getValue()[1];
+            if (tmpKeptNumberOfBytes + tmpEntryNumberOfBytes > tmpTargetNumberOfBytes) {
+                break;
+            }
+            tmpKeptNumberOfBytes += tmpEntryNumberOfBytes;
+            tmpFirstKeptEntry--;
+        }
+        File tmpCompactedFile = new File(this.packFile.getPath() + ".tmp");
+        HashMap<String, long[]> tmpCompactedIndex = new HashMap<>(CollectionUtil.calculateInitialHashCollectionCapacity(
+                tmpEntryList.size() - tmpFirstKeptEntry));
+        try {
+            try (RandomAccessFile tmpOutputFile = new RandomAccessFile(tmpCompactedFile, "rw")) {
+                tmpOutputFile.setLength(0L);
+                tmpOutputFile.writeInt(ThumbnailStore.FILE_FORMAT_VERSION);
+                for (Map.Entry<String, long[]> tmpEntry : tmpEntryList.subList(tmpFirstKeptEntry, tmpEntryList.size())) {
+                    byte[] tmpBytes = new byte[(int) tmpEntry.getValue()[1]];
+                    ThumbnailStore.readFully(tmpPackFileChannel, tmpEntry.getValue()[0], tmpBytes);
+                    tmpOutputFile.writeUTF(tmpEntry.getKey());
+                    tmpOutputFile.writeInt(tmpBytes.length);
+                    tmpCompactedIndex.put(tmpEntry.getKey(), new long[] {tmpOutputFile.getFilePointer(), tmpBytes.length});
+                    tmpOutputFile.write(tmpBytes);
+                }
+            }
+            synchronized (this) {
+                if (this.randomAccessFile == null || this.clearCount != tmpClearCount) {
+                    return;
+                }
+                this.randomAccessFile.close();
+                this.randomAccessFile = null;
+                //keeps the access order of depictions read during the compaction
+                List<String> tmpKeyList = new ArrayList<>(this.index.keySet());
+                this.index.clear();
+                Files.move(tmpCompactedFile.toPath(), this.packFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                this.randomAccessFile = new RandomAccessFile(this.packFile, "rw");
+                for (String tmpKey : tmpKeyList) {
+                    long[] tmpPosition = tmpCompactedIndex.get(tmpKey);
+                    if (tmpPosition != null) {
+                        this.index.put(tmpKey, tmpPosition);
+                    }
+                }
+            }
+        } finally {
+            Files.deleteIfExists(tmpCompactedFile.toPath());
+        }
+    }
+    //</editor-fold>
+}
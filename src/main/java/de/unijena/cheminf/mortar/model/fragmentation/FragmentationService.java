@@ -28,6 +28,9 @@ import de.unijena.cheminf.mortar.model.fragmentation.algorithm.ErtlFunctionalGro
 import de.unijena.cheminf.mortar.model.fragmentation.algorithm.IMoleculeFragmenter;
 import de.unijena.cheminf.mortar.model.fragmentation.algorithm.ScaffoldGeneratorFragmenter;
 import de.unijena.cheminf.mortar.model.fragmentation.algorithm.SugarRemovalUtilityFragmenter;
+import de.unijena.cheminf.mortar.model.monitoring.FragmentationMonitor;
+import de.unijena.cheminf.mortar.model.monitoring.FragmentationStageEvent;
+import de.unijena.cheminf.mortar.model.monitoring.MonitoringUtil;
 import de.unijena.cheminf.mortar.model.settings.SettingsContainer;
 import de.unijena.cheminf.mortar.model.util.BasicDefinitions;
 import de.unijena.cheminf.mortar.model.util.ChemUtil;
@@ -61,6 +64,7 @@ import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
@@ -804,6 +808,26 @@ public class FragmentationService {
         this.fragments = null;
         this.currentFragmentationName = null;
     }
+
+    /**
+     * Sets the fragmentations of a reloaded session as the fragmentations that have already been run, so that new
+     * fragmentations get unique names, and the fragments of the last of them as the fragments of the current
+     * fragmentation.
+     *
+     * @param aFragmentDataModelListMap fragments by fragmentation name, in the order of the fragmentations
+     */
+    public void restoreFragmentations(Map<String, List<FragmentDataModel>> aFragmentDataModelListMap){
+        Objects.requireNonNull(aFragmentDataModelListMap, "aFragmentDataModelListMap must not be null");
+        this.clearCache();
+        for (Map.Entry<String, List<FragmentDataModel>> tmpEntry : aFragmentDataModelListMap.entrySet()) {
+            this.existingFragmentations.add(tmpEntry.getKey());
+            this.currentFragmentationName = tmpEntry.getKey();
+            this.fragments = new Hashtable<>(CollectionUtil.calculateInitialHashCollectionCapacity(tmpEntry.getValue().size()));
+            for (FragmentDataModel tmpFragment : tmpEntry.getValue()) {
+                this.fragments.put(tmpFragment.getUniqueSmiles(), tmpFragment);
+            }
+        }
+    }
     //</editor-fold>
     //
     //<editor-fold desc="public properties" defaultstate="collapsed">
@@ -837,6 +861,14 @@ public class FragmentationService {
     public Hashtable<String, FragmentDataModel> getFragments(){
         return this.fragments;
     }
+    /**
+     * Returns names of the fragmentations that have already been run, in the order they were started
+     *
+     * @return existingFragmentations
+     */
+    public List<String> getExistingFragmentations(){
+        return this.existingFragmentations;
+    }
     /**
      * Returns name of the running fragmentation
      *
@@ -984,8 +1016,17 @@ public class FragmentationService {
         FragmentationService.LOGGER.info("Fragmentation \"" + tmpFragmentationName
                 + "\" starting. Current memory consumption: " + tmpMemoryConsumption + " MB");
         long tmpStartTime = System.currentTimeMillis();
+        long tmpStartNanoTime = System.nanoTime();
         int tmpExceptionsCounter = 0;
-        tmpFuturesList = this.executorService.invokeAll(tmpFragmentationTaskList);
+        FragmentationStageEvent tmpStageEvent = new FragmentationStageEvent();
+        tmpStageEvent.begin();
+        FragmentationMonitor tmpMonitor = MonitoringUtil.getFragmentationMonitor();
+        tmpMonitor.fragmentationStarted(tmpFragmentationName, aListOfMolecules.size(), tmpNumberOfTasks, tmpFragmentHashtable);
+        try {
+            tmpFuturesList = this.executorService.invokeAll(tmpFragmentationTaskList);
+        } finally {
+            tmpMonitor.fragmentationFinished();
+        }
         if (this.executorService.isShutdown() || this.executorService.isTerminated()) {
             this.LOGGER.log(Level.INFO, "Fragmentation cancelled");
             return null;
@@ -1017,14 +1058,51 @@ public class FragmentationService {
         if(tmpExceptionsCounter > 0){
             FragmentationService.LOGGER.log(Level.SEVERE, "Fragmentation \"" + tmpFragmentationName + "\" caused " + tmpExceptionsCounter + " exceptions");
         }
+        tmpMonitor.addExceptions(tmpExceptionsCounter);
         this.executorService.shutdown();
         tmpMemoryConsumption = (Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) / (1024*1024);
         long tmpEndTime = System.currentTimeMillis();
         FragmentationService.LOGGER.info("Fragmentation \"" + tmpFragmentationName + "\" of " + aListOfMolecules.size()
                 + " molecules complete. It took " + (tmpEndTime - tmpStartTime) + " ms. Current memory consumption: "
                 + tmpMemoryConsumption + " MB");
+        FragmentationStageTimer tmpStageTimer = new FragmentationStageTimer();
+        for (FragmentationTask tmpFragmentationTask : tmpFragmentationTaskList) {
+            tmpStageTimer.merge(tmpFragmentationTask.getStageTimer());
+        }
+        this.reportStageTimes(tmpStageTimer, tmpFragmentationName, aListOfMolecules.size(), System.nanoTime() - tmpStartNanoTime);
+        tmpStageEvent.commit(tmpFragmentationName, aFragmenter.getFragmentationAlgorithmName(), aListOfMolecules.size(),
+                tmpFragmentHashtable.size(), tmpExceptionsCounter, tmpNumberOfTasks, tmpStageTimer);
         return tmpFragmentHashtable;
     }
+    //
+    /**
+     * Logs the report of the given merged stage times of a fragmentation and saves it as CSV file in the timing
+     * reports folder if the respective setting is activated. Exceptions are logged only, the fragmentation result is
+     * not affected.
+     *
+     * @param aStageTimer merged stage timer of all tasks of the fragmentation
+     * @param aFragmentationName name of the fragmentation
+     * @param aNumberOfMolecules number of fragmented molecules
+     * @param aWallClockTime time the fragmentation took in nanoseconds
+     */
+    private void reportStageTimes(FragmentationStageTimer aStageTimer, String aFragmentationName, int aNumberOfMolecules, long aWallClockTime) {
+        FragmentationService.LOGGER.info(aStageTimer.createReport(aFragmentationName, aNumberOfMolecules, aWallClockTime));
+        if (!this.settingsContainer.getSaveFragmentationTimingReportsSetting()) {
+            return;
+        }
+        try {
+            String tmpDirectoryPath = FileUtil.getAppDirPath() + File.separator + BasicDefinitions.FRAGMENTATION_TIMING_REPORTS_DIRECTORY;
+            File tmpDirectory = new File(tmpDirectoryPath);
+            if (!tmpDirectory.isDirectory() && !tmpDirectory.mkdirs()) {
+                throw new IOException("Unable to create directory " + tmpDirectoryPath + ".");
+            }
+            String tmpFilePath = FileUtil.getNonExistingFilePath(tmpDirectoryPath + File.separator
+                    + BasicDefinitions.FRAGMENTATION_TIMING_REPORT_FILE_NAME + "_" + FileUtil.getTimeStampFileNameExtension(), ".csv");
+            aStageTimer.writeCsvReport(new File(tmpFilePath), this.settingsContainer.getCsvExportSeparatorSetting());
+        } catch (Exception anException) {
+            FragmentationService.LOGGER.log(Level.WARNING, "Fragmentation timing report could not be saved: " + anException.toString(), anException);
+        }
+    }
 
     /**
      * Sets the values of the given properties according to the preferences in the given container with the same name.
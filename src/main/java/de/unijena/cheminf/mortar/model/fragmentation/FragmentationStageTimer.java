@@ -0,0 +1,372 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.fragmentation;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Timer of the stages of the fragmentation of a molecule in a {@link FragmentationTask}, see {@link Stage}. For every
+ * molecule, the time spent in each stage is added as one sample, i.e. the times of the unique SMILES creation and
+ * aggregation of all fragments of a molecule are summed up into one sample of the molecule. The samples are counted
+ * in a histogram of logarithmic buckets with 16 sub-buckets each, so recording a sample takes constant time without
+ * allocation and the percentiles are accurate within about 6 %. Instances are not thread-safe, every task uses its
+ * own timer and the timers of all tasks are merged when the fragmentation is complete.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class FragmentationStageTimer {
+    //<editor-fold desc="public enum Stage">
+    /**
+     * Stages of the fragmentation of a molecule.
+     */
+    public enum Stage {
+        /**
+         * Creation of the atom container of the molecule data model, i.e. parsing of its SMILES code if the atom
+         * container is not kept.
+         */
+        ATOM_CONTAINER_CREATION("Atom container creation"),
+        /**
+         * Filtering and preprocessing of the molecule by the fragmenter.
+         */
+        PREPROCESSING("Preprocessing"),
+        /**
+         * Fragmentation of the molecule by the fragmenter.
+         */
+        FRAGMENTATION("Fragmentation"),
+        /**
+         * Creation of the unique SMILES codes of all fragments of the molecule.
+         */
+        UNIQUE_SMILES_CREATION("Unique SMILES creation"),
+        /**
+         * Aggregation of the fragments of the molecule into the fragment data models and frequency maps.
+         */
+        AGGREGATION("Aggregation"),
+        /**
+         * All stages of a molecule together.
+         */
+        TOTAL("Total");
+        //
+        /**
+         * Name of the stage in the report.
+         */
+        private final String displayName;
+        //
+        /**
+         * Constructor.
+         *
+         * @param aDisplayName name of the stage in the report
+         */
+        Stage(String aDisplayName) {
+            this.displayName = aDisplayName;
+        }
+        //
+        /**
+         * Returns the name of the stage in the report.
+         *
+         * @return display name
+         */
+        public String getDisplayName() {
+            return this.displayName;
+        }
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private static final constants" defaultstate="collapsed">
+    /**
+     * Number of bits of the sub-buckets of a logarithmic histogram bucket.
+     */
+    private static final int SUB_BUCKET_BITS = 4;
+    /**
+     * Number of sub-buckets of a logarithmic histogram bucket.
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << FragmentationStageTimer.SUB_BUCKET_BITS;
+    /**
+     * Number of histogram buckets, covering all positive long values.
+     */
+    private static final int BUCKET_COUNT = (64 - FragmentationStageTimer.SUB_BUCKET_BITS) * FragmentationStageTimer.SUB_BUCKET_COUNT;
+    /**
+     * Percentiles given in the report.
+     */
+    private static final double[] REPORTED_PERCENTILES = {50.0, 90.0, 99.0};
+    //</editor-fold>
+    //
+    //<editor-fold desc="private final class variables" defaultstate="collapsed">
+    /**
+     * Number of samples per stage.
+     */
+    private final long[] counts;
+    /**
+     * Sum of the sample times in nanoseconds per stage.
+     */
+    private final long[] totalTimes;
+    /**
+     * Maximum sample time in nanoseconds per stage.
+     */
+    private final long[] maxTimes;
+    /**
+     * Histogram of the sample times per stage.
+     */
+    private final long[][] histograms;
+    //</editor-fold>
+    //
+    /**
+     * Constructor, creates a timer without samples.
+     */
+    public FragmentationStageTimer() {
+        int tmpNumberOfStages = Stage.values().length;
+        this.counts = new long[tmpNumberOfStages];
+        this.totalTimes = new long[tmpNumberOfStages];
+        this.maxTimes = new long[tmpNumberOfStages];
+        this.histograms = new long[tmpNumberOfStages][FragmentationStageTimer.BUCKET_COUNT];
+    }
+    //
+    //<editor-fold desc="public methods" defaultstate="collapsed">
+    /**
+     * Adds the time a molecule spent in the given stage as a sample.
+     *
+     * @param aStage stage
+     * @param aTime time in nanoseconds, negative times are counted as zero
+     */
+    public void addSample(Stage aStage, long aTime) {
+        int tmpStageIndex = aStage.ordinal();
+        long tmpTime = Math.max(aTime, 0L);
+        this.counts[tmpStageIndex]++;
+        this.totalTimes[tmpStageIndex] += tmpTime;
+        if (tmpTime > this.maxTimes[tmpStageIndex]) {
+            this.maxTimes[tmpStageIndex] = tmpTime;
+        }
+        this.histograms[tmpStageIndex][FragmentationStageTimer.getBucketIndex(tmpTime)]++;
+    }
+    //
+    /**
+     * Adds the samples of the given timer to this timer.
+     *
+     * @param aTimer timer of another task
+     * @throws NullPointerException if the given timer is null
+     */
+    public void merge(FragmentationStageTimer aTimer) throws NullPointerException {
+        Objects.requireNonNull(aTimer, "aTimer (instance of FragmentationStageTimer) is null");
+        for (int i = 0; i < this.counts.length; i++) {
+            this.counts[i] += aTimer.counts[i];
+            this.totalTimes[i] += aTimer.totalTimes[i];
+            this.maxTimes[i] = Math.max(this.maxTimes[i], aTimer.maxTimes[i]);
+            for (int j = 0; j < FragmentationStageTimer.BUCKET_COUNT; j++) {
+                this.histograms[i][j] += aTimer.histograms[i][j];
+            }
+        }
+    }
+    //
+    /**
+     * Returns the sample time of the given stage below which the given percentage of the samples lie, estimated as
+     * the middle of the histogram bucket of the percentile.
+     *
+     * @param aStage stage
+     * @param aPercentile percentile between 0 and 100
+     * @return time in nanoseconds or 0 if there are no samples
+     * @throws IllegalArgumentException if the percentile is not between 0 and 100
+     */
+    public long getPercentileTime(Stage aStage, double aPercentile) throws IllegalArgumentException {
+        if (aPercentile < 0.0 || aPercentile > 100.0) {
+            throw new IllegalArgumentException("aPercentile must be between 0 and 100.");
+        }
+        int tmpStageIndex = aStage.ordinal();
+        long tmpCount = this.counts[tmpStageIndex];
+        if (tmpCount == 0) {
+            return 0L;
+        }
+        long tmpRank = Math.max(1L, (long) Math.ceil(aPercentile / 100.0 * tmpCount));
+        long tmpCumulativeCount = 0;
+        long[] tmpHistogram = this.histograms[tmpStageIndex];
+        for (int i = 0; i < tmpHistogram.length; i++) {
+            tmpCumulativeCount += tmpHistogram[i];
+            if (tmpCumulativeCount >= tmpRank) {
+                long tmpLowerBound = FragmentationStageTimer.getBucketLowerBound(i);
+                long tmpUpperBound = FragmentationStageTimer.getBucketLowerBound(i + 1);
+                //the middle of the bucket may exceed the maximum sample
+                return Math.min(tmpLowerBound + (tmpUpperBound - tmpLowerBound - 1) / 2, this.maxTimes[tmpStageIndex]);
+            }
+        }
+        return this.maxTimes[tmpStageIndex];
+    }
+    //
+    /**
+     * Creates a report of the stage times of a fragmentation to be logged, with a line per stage giving the number of
+     * molecules, the total and mean time, percentiles and the maximum, and the throughput of a single thread.
+     *
+     * @param aFragmentationName name of the fragmentation
+     * @param aNumberOfMolecules number of molecules to fragment
+     * @param aWallClockTime time the whole fragmentation took in nanoseconds, to give the overall throughput
+     * @return multi-line report
+     */
+    public String createReport(String aFragmentationName, int aNumberOfMolecules, long aWallClockTime) {
+        StringBuilder tmpReport = new StringBuilder();
+        tmpReport.append("Stage times of fragmentation \"").append(aFragmentationName).append("\" of ")
+                .append(aNumberOfMolecules).append(" molecules (")
+                .append(String.format(Locale.US, "%.1f", FragmentationStageTimer.getThroughput(aNumberOfMolecules, aWallClockTime)))
+                .append(" molecules/s overall, times per molecule in microseconds, throughput per thread):");
+        tmpReport.append(System.lineSeparator()).append(String.format(Locale.US, "%-24s%12s%14s%12s%12s%12s%12s%14s%16s",
+                "Stage", "Molecules", "Total [ms]", "Mean", "P50", "P90", "P99", "Max", "Molecules/s"));
+        for (Stage tmpStage : Stage.values()) {
+            String[] tmpValues = this.getStageValues(tmpStage);
+            tmpReport.append(System.lineSeparator()).append(String.format(Locale.US, "%-24s%12s%14s%12s%12s%12s%12s%14s%16s",
+                    (Object[]) tmpValues));
+        }
+        return tmpReport.toString();
+    }
+    //
+    /**
+     * Writes the stage times as CSV file with a header line and a line per stage, with the same columns as the report
+     * created by {@link #createReport(String, int, long)}.
+     *
+     * @param aFile file to write, overwritten if it exists
+     * @param aSeparator separator of the columns
+     * @throws NullPointerException if a parameter is null
+     * @throws IOException if the file cannot be written
+     */
+    public void writeCsvReport(File aFile, String aSeparator) throws NullPointerException, IOException {
+        Objects.requireNonNull(aFile, "aFile (instance of File) is null");
+        Objects.requireNonNull(aSeparator, "aSeparator (instance of String) is null");
+        try (BufferedWriter tmpWriter = new BufferedWriter(new FileWriter(aFile))) {
+            tmpWriter.write(String.join(aSeparator, "Stage", "Molecules", "Total [ms]", "Mean [us]", "P50 [us]",
+                    "P90 [us]", "P99 [us]", "Max [us]", "Molecules/s per thread"));
+            tmpWriter.newLine();
+            for (Stage tmpStage : Stage.values()) {
+                tmpWriter.write(String.join(aSeparator, this.getStageValues(tmpStage)));
+                tmpWriter.newLine();
+            }
+        }
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="public properties" defaultstate="collapsed">
+    /**
+     * Returns the number of samples of the given stage.
+     *
+     * @param aStage stage
+     * @return number of molecules that went through the stage
+     */
+    public long getCount(Stage aStage) {
+        return this.counts[aStage.ordinal()];
+    }
+    //
+    /**
+     * Returns the sum of the sample times of the given stage.
+     *
+     * @param aStage stage
+     * @return total time in nanoseconds
+     */
+    public long getTotalTime(Stage aStage) {
+        return this.totalTimes[aStage.ordinal()];
+    }
+    //
+    /**
+     * Returns the maximum sample time of the given stage.
+     *
+     * @param aStage stage
+     * @return maximum time in nanoseconds or 0 if there are no samples
+     */
+    public long getMaxTime(Stage aStage) {
+        return this.maxTimes[aStage.ordinal()];
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private methods" defaultstate="collapsed">
+    /**
+     * Returns the columns of the report line of the given stage, times in microseconds.
+     *
+     * @param aStage stage
+     * @return stage name, number of molecules, total time in milliseconds, mean, percentiles, maximum, and throughput
+     */
+    private String[] getStageValues(Stage aStage) {
+        long tmpCount = this.getCount(aStage);
+        long tmpTotalTime = this.getTotalTime(aStage);
+        String[] tmpValues = new String[6 + FragmentationStageTimer.REPORTED_PERCENTILES.length];
+        int tmpIndex = 0;
+        tmpValues[tmpIndex++] = aStage.getDisplayName();
+        tmpValues[tmpIndex++] = Long.toString(tmpCount);
+        tmpValues[tmpIndex++] = String.format(Locale.US, "%.1f", tmpTotalTime / 1.0e6);
+        tmpValues[tmpIndex++] = String.format(Locale.US, "%.1f", tmpCount == 0 ? 0.0 : tmpTotalTime / 1.0e3 / tmpCount);
+        for (double tmpPercentile : FragmentationStageTimer.REPORTED_PERCENTILES) {
+            tmpValues[tmpIndex++] = String.format(Locale.US, "%.1f", this.getPercentileTime(aStage, tmpPercentile) / 1.0e3);
+        }
+        tmpValues[tmpIndex++] = String.format(Locale.US, "%.1f", this.getMaxTime(aStage) / 1.0e3);
+        tmpValues[tmpIndex] = String.format(Locale.US, "%.1f", FragmentationStageTimer.getThroughput(tmpCount, tmpTotalTime));
+        return tmpValues;
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private static methods" defaultstate="collapsed">
+    /**
+     * Returns the index of the histogram bucket of the given time. Times below the number of sub-buckets have a bucket
+     * each, larger times are sorted into the sub-buckets of the power of two they lie in.
+     *
+     * @param aTime non-negative time
+     * @return bucket index
+     */
+    private static int getBucketIndex(long aTime) {
+        if (aTime < FragmentationStageTimer.SUB_BUCKET_COUNT) {
+            return (int) aTime;
+        }
+        int tmpExponent = 63 - Long.numberOfLeadingZeros(aTime);
+        int tmpShift = tmpExponent - FragmentationStageTimer.SUB_BUCKET_BITS;
+        //the highest bits of the time, between SUB_BUCKET_COUNT and 2 * SUB_BUCKET_COUNT - 1
+        int tmpMantissa = (int) (aTime >>> tmpShift);
+        return (tmpShift + 1) * FragmentationStageTimer.SUB_BUCKET_COUNT + tmpMantissa - FragmentationStageTimer.SUB_BUCKET_COUNT;
+    }
+    //
+    /**
+     * Returns the smallest time sorted into the histogram bucket with the given index, see
+     * {@link #getBucketIndex(long)}.
+     *
+     * @param aBucketIndex bucket index, may be the number of buckets to get the upper bound of the last bucket
+     * @return lower bound of the bucket
+     */
+    private static long getBucketLowerBound(int aBucketIndex) {
+        if (aBucketIndex < FragmentationStageTimer.SUB_BUCKET_COUNT) {
+            return aBucketIndex;
+        }
+        int tmpShift = aBucketIndex / FragmentationStageTimer.SUB_BUCKET_COUNT - 1;
+        long tmpMantissa = aBucketIndex % FragmentationStageTimer.SUB_BUCKET_COUNT + FragmentationStageTimer.SUB_BUCKET_COUNT;
+        if (tmpShift >= 64 - FragmentationStageTimer.SUB_BUCKET_BITS - 1) {
+            //the upper bound of the last bucket is not representable
+            return Long.MAX_VALUE;
+        }
+        return tmpMantissa << tmpShift;
+    }
+    //
+    /**
+     * Returns the number of molecules processed per second.
+     *
+     * @param aNumberOfMolecules number of molecules
+     * @param aTime time in nanoseconds
+     * @return molecules per second or 0 if the time is not positive
+     */
+    private static double getThroughput(long aNumberOfMolecules, long aTime) {
+        return aTime <= 0 ? 0.0 : aNumberOfMolecules * 1.0e9 / aTime;
+    }
+    //</editor-fold>
+}
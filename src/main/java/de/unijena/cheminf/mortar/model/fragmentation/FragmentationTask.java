@@ -23,8 +23,12 @@ package de.unijena.cheminf.mortar.model.fragmentation;
 import de.unijena.cheminf.mortar.model.data.FragmentDataModel;
 import de.unijena.cheminf.mortar.model.data.MoleculeDataModel;
 import de.unijena.cheminf.mortar.model.fragmentation.algorithm.IMoleculeFragmenter;
+import de.unijena.cheminf.mortar.model.monitoring.MoleculeBatchEvent;
+import de.unijena.cheminf.mortar.model.monitoring.MonitoringUtil;
+import de.unijena.cheminf.mortar.model.util.BasicDefinitions;
 import de.unijena.cheminf.mortar.model.util.ChemUtil;
 import de.unijena.cheminf.mortar.model.util.CollectionUtil;
+import de.unijena.cheminf.mortar.model.util.LogUtil;
 
 import org.openscience.cdk.exception.CDKException;
 import org.openscience.cdk.interfaces.IAtomContainer;
@@ -79,6 +83,10 @@ public class FragmentationTask implements Callable<Integer> {
      * Integer to count possible exceptions which could occur during fragmentation
      */
     private int exceptionsCounter;
+    /**
+     * Timer of the fragmentation stages of the molecules of this task
+     */
+    private final FragmentationStageTimer stageTimer;
     //</editor-fold>
     //
     /**
@@ -96,6 +104,7 @@ public class FragmentationTask implements Callable<Integer> {
         this.fragmentsHashTable = aHashtableOfFragments;
         this.fragmentationName = aFragmentationName;
         this.exceptionsCounter = 0;
+        this.stageTimer = new FragmentationStageTimer();
     }
     //
     /**
@@ -107,14 +116,33 @@ public class FragmentationTask implements Callable<Integer> {
      */
     @Override
     public Integer call() throws Exception{
+        //a flight recorder event is committed for every batch of molecules
+        MoleculeBatchEvent tmpBatchEvent = new MoleculeBatchEvent();
+        tmpBatchEvent.begin();
+        int tmpBatchMoleculesCounter = 0;
+        int tmpBatchFragmentsCounter = 0;
+        int tmpBatchStartExceptionsCounter = this.exceptionsCounter;
         for (MoleculeDataModel tmpMolecule : this.moleculesList) {
+            if (tmpBatchMoleculesCounter == BasicDefinitions.MONITORING_MOLECULE_BATCH_SIZE) {
+                tmpBatchEvent.commit(MoleculeBatchEvent.FRAGMENTATION_OPERATION, this.fragmentationName,
+                        tmpBatchMoleculesCounter, tmpBatchFragmentsCounter, this.exceptionsCounter - tmpBatchStartExceptionsCounter);
+                tmpBatchEvent = new MoleculeBatchEvent();
+                tmpBatchEvent.begin();
+                tmpBatchMoleculesCounter = 0;
+                tmpBatchFragmentsCounter = 0;
+                tmpBatchStartExceptionsCounter = this.exceptionsCounter;
+            }
+            tmpBatchMoleculesCounter++;
+            long tmpMoleculeStartTime = System.nanoTime();
+            long tmpStageStartTime = tmpMoleculeStartTime;
             try{
                 IAtomContainer tmpAtomContainer;
                 try{
                     tmpAtomContainer = tmpMolecule.getAtomContainer();
+                    tmpStageStartTime = this.addStageSample(FragmentationStageTimer.Stage.ATOM_CONTAINER_CREATION, tmpStageStartTime);
                 } catch(CDKException anException){
                     this.exceptionsCounter++;
-                    FragmentationTask.LOGGER.getLogger(MoleculeDataModel.class.getName()).log(Level.SEVERE, anException.toString() + "_" + tmpMolecule.getName(), anException);
+                    LogUtil.logMoleculeException(Logger.getLogger(MoleculeDataModel.class.getName()), Level.SEVERE, anException, tmpMolecule.getName());
                     continue;
                 }
                 if(this.fragmenter.shouldBeFiltered(tmpAtomContainer)){ //returns true if the molecule can not be fragmented, so it gets empty lists and maps for this fragmentation
@@ -125,20 +153,29 @@ public class FragmentationTask implements Callable<Integer> {
                 if(this.fragmenter.shouldBePreprocessed(tmpAtomContainer)){
                     tmpAtomContainer = this.fragmenter.applyPreprocessing(tmpAtomContainer);
                 }
+                tmpStageStartTime = this.addStageSample(FragmentationStageTimer.Stage.PREPROCESSING, tmpStageStartTime);
                 List<IAtomContainer> tmpFragmentsList = null;
                 try {
                     tmpFragmentsList = this.fragmenter.fragmentMolecule(tmpAtomContainer);
+                    tmpStageStartTime = this.addStageSample(FragmentationStageTimer.Stage.FRAGMENTATION, tmpStageStartTime);
                 } catch (NullPointerException | IllegalArgumentException | CloneNotSupportedException anException) {
-                    FragmentationTask.LOGGER.log(Level.SEVERE, anException.toString(), anException);
+                    LogUtil.logMoleculeException(FragmentationTask.LOGGER, Level.SEVERE, anException, tmpMolecule.getName());
                     this.exceptionsCounter++;
                     tmpMolecule.getAllFragments().put(this.fragmentationName, new ArrayList<>(0));
                     tmpMolecule.getFragmentFrequencies().put(this.fragmentationName, new HashMap<>(0));
                     continue;
                 }
+                tmpBatchFragmentsCounter += tmpFragmentsList.size();
                 List<FragmentDataModel> tmpFragmentsOfMolList = new ArrayList<>(tmpFragmentsList.size());
                 HashMap<String, Integer> tmpFragmentFrequenciesOfMoleculeMap = new HashMap<>(CollectionUtil.calculateInitialHashCollectionCapacity(tmpFragmentsList.size()));
+                //the times of all fragments are summed up into one sample per molecule
+                long tmpUniqueSmilesCreationTime = 0;
+                long tmpAggregationTime = 0;
                 for(IAtomContainer tmpFragment : tmpFragmentsList){
                     String tmpSmiles = ChemUtil.createUniqueSmiles(tmpFragment);
+                    long tmpUniqueSmilesEndTime = System.nanoTime();
+                    tmpUniqueSmilesCreationTime += tmpUniqueSmilesEndTime - tmpStageStartTime;
+                    tmpStageStartTime = tmpUniqueSmilesEndTime;
                     if (tmpSmiles == null) {
                         this.exceptionsCounter++;
                         continue;
@@ -162,24 +199,61 @@ public class FragmentationTask implements Callable<Integer> {
                         tmpFragmentsOfMolList.add(tmpFragmentDataModel);
                         tmpFragmentFrequenciesOfMoleculeMap.put(tmpSmiles, 1);
                     }
+                    long tmpAggregationEndTime = System.nanoTime();
+                    tmpAggregationTime += tmpAggregationEndTime - tmpStageStartTime;
+                    tmpStageStartTime = tmpAggregationEndTime;
                 }
                 tmpMolecule.getFragmentFrequencies().put(this.fragmentationName, tmpFragmentFrequenciesOfMoleculeMap);
                 tmpMolecule.getAllFragments().put(this.fragmentationName, tmpFragmentsOfMolList);
+                this.stageTimer.addSample(FragmentationStageTimer.Stage.UNIQUE_SMILES_CREATION, tmpUniqueSmilesCreationTime);
+                this.stageTimer.addSample(FragmentationStageTimer.Stage.AGGREGATION,
+                        tmpAggregationTime + System.nanoTime() - tmpStageStartTime);
+                this.stageTimer.addSample(FragmentationStageTimer.Stage.TOTAL, System.nanoTime() - tmpMoleculeStartTime);
             } catch(Exception anException){
                 this.exceptionsCounter++;
-                FragmentationTask.LOGGER.log(Level.SEVERE, anException.toString(), anException);
+                LogUtil.logMoleculeException(FragmentationTask.LOGGER, Level.SEVERE, anException, tmpMolecule.getName());
                 if (tmpMolecule.getAllFragments() != null && !tmpMolecule.getAllFragments().containsKey(this.fragmentationName)) {
                     tmpMolecule.getAllFragments().put(this.fragmentationName, new ArrayList<>(0));
                 }
                 if (tmpMolecule.getFragmentFrequencies() != null && !tmpMolecule.getFragmentFrequencies().containsKey(this.fragmentationName)) {
                     tmpMolecule.getFragmentFrequencies().put(this.fragmentationName, new HashMap<>(0));
                 }
+            } finally {
+                //counted when done, also if the molecule was filtered or caused an exception
+                MonitoringUtil.getFragmentationMonitor().moleculeProcessed();
             }
             if(Thread.currentThread().isInterrupted()){
                 LOGGER.log(Level.INFO, "Thread interrupted");
                 return null;
             }
         }
+        if (tmpBatchMoleculesCounter > 0) {
+            tmpBatchEvent.commit(MoleculeBatchEvent.FRAGMENTATION_OPERATION, this.fragmentationName,
+                    tmpBatchMoleculesCounter, tmpBatchFragmentsCounter, this.exceptionsCounter - tmpBatchStartExceptionsCounter);
+        }
         return this.exceptionsCounter;
     }
+    //
+    /**
+     * Returns the timer of the fragmentation stages of the molecules of this task, to be merged with the timers of
+     * the other tasks when all tasks are done.
+     *
+     * @return stage timer
+     */
+    public FragmentationStageTimer getStageTimer() {
+        return this.stageTimer;
+    }
+    //
+    /**
+     * Adds the time from the given start time until now as sample of the given stage.
+     *
+     * @param aStage stage that is complete
+     * @param aStageStartTime start time of the stage from {@link System#nanoTime()}
+     * @return current time from {@link System#nanoTime()}, the start time of the next stage
+     */
+    private long addStageSample(FragmentationStageTimer.Stage aStage, long aStageStartTime) {
+        long tmpStageEndTime = System.nanoTime();
+        this.stageTimer.addSample(aStage, tmpStageEndTime - aStageStartTime);
+        return tmpStageEndTime;
+    }
 }
@@ -0,0 +1,208 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.io;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Builds rows of a CSV file in a reusable character buffer. Integers and fixed-point decimals are formatted without
+ * creating intermediate strings; the output is the same as the one of the "%d" and "%.nf" conversions of
+ * {@link String#format(String, Object...)} in the default format locale. Instances are not thread-safe, so every
+ * thread formatting rows should use its own builder.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class CsvRowBuilder {
+    //<editor-fold desc="private static final constants" defaultstate="collapsed">
+    /**
+     * Powers of ten for the supported numbers of decimal places.
+     */
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L,
+            100000000L, 1000000000L};
+    /**
+     * Maximum scaled absolute value that is rounded with double arithmetic; the rounding of larger values could be
+     * affected by the limited precision.
+     */
+    private static final double MAX_FAST_ROUNDING_VALUE = 1.0e9;
+    /**
+     * Scaled values whose fractional part is closer to one half than this are rounded exactly, because the
+     * multiplication of the value with the power of ten may have moved them to the other side of the tie.
+     */
+    private static final double TIE_TOLERANCE = 1.0e-6;
+    //</editor-fold>
+    //
+    //<editor-fold desc="private final class variables" defaultstate="collapsed">
+    /**
+     * Buffer holding the rows built so far.
+     */
+    private final StringBuilder builder;
+    /**
+     * Separator written between two values of a row.
+     */
+    private final String separator;
+    /**
+     * Decimal separator of the default format locale.
+     */
+    private final char decimalSeparator;
+    //</editor-fold>
+    //
+    /**
+     * Constructor.
+     *
+     * @param aSeparator separator written between two values of a row
+     * @param anInitialCapacity initial number of characters of the buffer
+     * @throws NullPointerException if the separator is null
+     */
+    public CsvRowBuilder(String aSeparator, int anInitialCapacity) throws NullPointerException {
+        Objects.requireNonNull(aSeparator, "aSeparator (instance of String) is null");
+        this.separator = aSeparator;
+        this.builder = new StringBuilder(anInitialCapacity);
+        this.decimalSeparator = DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT)).getDecimalSeparator();
+    }
+    //
+    //<editor-fold desc="public methods" defaultstate="collapsed">
+    /**
+     * Appends the given text; null is appended as "null".
+     *
+     * @param aText text to append
+     * @return this builder
+     */
+    public CsvRowBuilder appendText(String aText) {
+        this.builder.append(aText);
+        return this;
+    }
+    //
+    /**
+     * Appends the separator.
+     *
+     * @return this builder
+     */
+    public CsvRowBuilder appendSeparator() {
+        this.builder.append(this.separator);
+        return this;
+    }
+    //
+    /**
+     * Appends the given integer in decimal notation.
+     *
+     * @param aValue integer to append
+     * @return this builder
+     */
+    public CsvRowBuilder appendInteger(int aValue) {
+        this.builder.append(aValue);
+        return this;
+    }
+    //
+    /**
+     * Appends the given value with the given number of decimal places, rounded half up like
+     * {@link String#format(String, Object...)} does. Values that cannot be rounded reliably with double arithmetic are
+     * rounded exactly via their decimal string representation.
+     *
+     * @param aValue value to append
+     * @param aNumberOfDecimalPlaces number of decimal places, between 0 and 9
+     * @return this builder
+     * @throws IllegalArgumentException if the number of decimal places is not supported
+     */
+    public CsvRowBuilder appendDecimal(double aValue, int aNumberOfDecimalPlaces) throws IllegalArgumentException {
+        if (aNumberOfDecimalPlaces < 0 || aNumberOfDecimalPlaces >= CsvRowBuilder.POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("Unsupported number of decimal places: " + aNumberOfDecimalPlaces);
+        }
+        if (Double.isNaN(aValue)) {
+            this.builder.append("NaN");
+            return this;
+        }
+        if (Double.isInfinite(aValue)) {
+            this.builder.append(aValue > 0 ? "Infinity" : "-Infinity");
+            return this;
+        }
+        //the sign bit is checked to write negative zero as "-0.000" like String.format() does
+        if (Double.doubleToRawLongBits(aValue) < 0) {
+            this.builder.append('-');
+        }
+        double tmpAbsoluteValue = Math.abs(aValue);
+        long tmpPowerOfTen = CsvRowBuilder.POWERS_OF_TEN[aNumberOfDecimalPlaces];
+        double tmpScaledValue = tmpAbsoluteValue * tmpPowerOfTen;
+        double tmpFraction = tmpScaledValue - Math.floor(tmpScaledValue);
+        if (tmpScaledValue >= CsvRowBuilder.MAX_FAST_ROUNDING_VALUE
+                || Math.abs(tmpFraction - 0.5) < CsvRowBuilder.TIE_TOLERANCE) {
+            String tmpRoundedValue = new BigDecimal(Double.toString(tmpAbsoluteValue))
+                    .setScale(aNumberOfDecimalPlaces, RoundingMode.HALF_UP).toPlainString();
+            this.builder.append(tmpRoundedValue.replace('.', this.decimalSeparator));
+            return this;
+        }
+        long tmpRoundedScaledValue = Math.round(tmpScaledValue);
+        this.builder.append(tmpRoundedScaledValue / tmpPowerOfTen);
+        if (aNumberOfDecimalPlaces > 0) {
+            this.builder.append(this.decimalSeparator);
+            long tmpDecimalPlaces = tmpRoundedScaledValue % tmpPowerOfTen;
+            //leading zeros of the decimal places
+            for (long tmpPower = tmpPowerOfTen / 10; tmpPower > 1 && tmpDecimalPlaces < tmpPower; tmpPower /= 10) {
+                this.builder.append('0');
+            }
+            this.builder.append(tmpDecimalPlaces);
+        }
+        return this;
+    }
+    //
+    /**
+     * Ends the current row with a line feed.
+     *
+     * @return this builder
+     */
+    public CsvRowBuilder endRow() {
+        this.builder.append('\n');
+        return this;
+    }
+    //
+    /**
+     * Removes all rows built so far, the buffer is kept for reuse.
+     */
+    public void clear() {
+        this.builder.setLength(0);
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="public properties" defaultstate="collapsed">
+    /**
+     * Returns the number of characters built so far.
+     *
+     * @return number of characters
+     */
+    public int length() {
+        return this.builder.length();
+    }
+    //
+    /**
+     * Returns the rows built so far. The returned character sequence is backed by the buffer of this builder, so it
+     * changes when the builder is modified.
+     *
+     * @return rows built so far
+     */
+    public CharSequence getContent() {
+        return this.builder;
+    }
+    //</editor-fold>
+}
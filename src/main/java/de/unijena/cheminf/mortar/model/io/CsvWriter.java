@@ -0,0 +1,141 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.io;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Streams text, e.g. rows built by a {@link CsvRowBuilder}, to a file. The text is encoded in the default charset,
+ * like a {@link java.io.PrintWriter} does, directly into a large direct byte buffer that is written to a file channel
+ * whenever it is full, so that neither intermediate byte arrays nor many small writes are needed. Unmappable characters
+ * are replaced. Instances are not thread-safe.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class CsvWriter implements Closeable {
+    //<editor-fold desc="private final class variables" defaultstate="collapsed">
+    /**
+     * Channel of the file written to.
+     */
+    private final FileChannel fileChannel;
+    /**
+     * Direct buffer of encoded bytes not yet written to the file.
+     */
+    private final ByteBuffer byteBuffer;
+    /**
+     * Encoder of the default charset.
+     */
+    private final CharsetEncoder encoder;
+    //</editor-fold>
+    //
+    /**
+     * Constructor, creates the given file or truncates it if it exists.
+     *
+     * @param aFile file to write to
+     * @param aBufferSize size of the byte buffer in bytes
+     * @throws NullPointerException if the file is null
+     * @throws IOException if the file cannot be opened
+     */
+    public CsvWriter(File aFile, int aBufferSize) throws NullPointerException, IOException {
+        Objects.requireNonNull(aFile, "aFile (instance of File) is null");
+        this.encoder = Charset.defaultCharset().newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.byteBuffer = ByteBuffer.allocateDirect(Math.max(aBufferSize, (int) Math.ceil(this.encoder.maxBytesPerChar())));
+        this.fileChannel = FileChannel.open(aFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+    //
+    //<editor-fold desc="public methods" defaultstate="collapsed">
+    /**
+     * Encodes the given text into the buffer, full buffers are written to the file.
+     *
+     * @param aText text to write
+     * @throws NullPointerException if the text is null
+     * @throws IOException if the file cannot be written
+     */
+    public void write(CharSequence aText) throws NullPointerException, IOException {
+        Objects.requireNonNull(aText, "aText (instance of CharSequence) is null");
+        CharBuffer tmpCharBuffer = CharBuffer.wrap(aText);
+        //every text is encoded as a complete input, so that a malformed surrogate at its end is replaced, not kept
+        CoderResult tmpResult = this.encoder.encode(tmpCharBuffer, this.byteBuffer, true);
+        while (tmpResult.isOverflow()) {
+            this.writeBuffer();
+            tmpResult = this.encoder.encode(tmpCharBuffer, this.byteBuffer, true);
+        }
+    }
+    //
+    /**
+     * Writes the buffered bytes to the file.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void flush() throws IOException {
+        this.writeBuffer();
+    }
+    //
+    /**
+     * Writes the buffered bytes to the file and closes it.
+     *
+     * @throws IOException if the file cannot be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            //ensures that the encoder has reached the end of its input, even if nothing was written
+            this.write("");
+            while (this.encoder.flush(this.byteBuffer).isOverflow()) {
+                this.writeBuffer();
+            }
+            this.writeBuffer();
+        } finally {
+            this.fileChannel.close();
+        }
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private methods" defaultstate="collapsed">
+    /**
+     * Writes the content of the byte buffer to the file channel and clears the buffer.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    private void writeBuffer() throws IOException {
+        this.byteBuffer.flip();
+        while (this.byteBuffer.hasRemaining()) {
+            this.fileChannel.write(this.byteBuffer);
+        }
+        this.byteBuffer.clear();
+    }
+    //</editor-fold>
+}
@@ -20,6 +20,7 @@
 
 package de.unijena.cheminf.mortar.model.io;
 
+import com.lowagie.text.BadElementException;
 import com.lowagie.text.Chunk;
 import com.lowagie.text.Document;
 import com.lowagie.text.DocumentException;
@@ -31,6 +32,7 @@ import com.lowagie.text.PageSize;
 import com.lowagie.text.Paragraph;
 import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfTemplate;
 import com.lowagie.text.pdf.PdfWriter;
 
 import de.unijena.cheminf.mortar.controller.TabNames;
@@ -38,10 +40,14 @@ import de.unijena.cheminf.mortar.message.Message;
 import de.unijena.cheminf.mortar.model.data.FragmentDataModel;
 import de.unijena.cheminf.mortar.model.data.MoleculeDataModel;
 import de.unijena.cheminf.mortar.model.depict.DepictionUtil;
+import de.unijena.cheminf.mortar.model.monitoring.ImportExportMonitor;
+import de.unijena.cheminf.mortar.model.monitoring.MonitoringUtil;
 import de.unijena.cheminf.mortar.model.settings.SettingsContainer;
 import de.unijena.cheminf.mortar.model.util.BasicDefinitions;
 import de.unijena.cheminf.mortar.model.util.ChemUtil;
+import de.unijena.cheminf.mortar.model.util.CollectionUtil;
 import de.unijena.cheminf.mortar.model.util.FileUtil;
+import de.unijena.cheminf.mortar.model.util.LogUtil;
 
 import javafx.collections.ObservableList;
 import javafx.embed.swing.SwingFXUtils;
@@ -58,7 +64,9 @@ import org.openscience.cdk.io.SDFWriter;
 
 import javax.imageio.ImageIO;
 
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
@@ -66,14 +74,34 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /**
  * Exporter.
@@ -93,6 +121,11 @@ public class Exporter {
      */
     private static final String FRAGMENTS_EXPORT_DIRECTORY_NAME = "MORTAR_Fragments_Export";
 
+    /**
+     * Estimated number of characters of a row of an exported CSV file, used to size the row buffers
+     */
+    private static final int ESTIMATED_CSV_ROW_LENGTH = 64;
+
     /**
      * Font for cells in exported PDF files
      */
@@ -161,6 +194,11 @@ public class Exporter {
                 tmpFileName = "Fragments_Export_" + tmpFragmentationName;
                 this.file = this.saveFile(aParentStage, "SD-File", "*.sdf", tmpFileName);
                 break;
+            case SD_ZIP_FILE:
+            case PDB_ZIP_FILE:
+                tmpFileName = "Fragments_Export_" + tmpFragmentationName;
+                this.file = this.saveFile(aParentStage, "ZIP", "*.zip", tmpFileName);
+                break;
             case ITEM_CSV_FILE:
                 tmpFileName = "Items_" + tmpFragmentationName;
                 this.file = this.saveFile(aParentStage, "CSV", "*.csv", tmpFileName);
@@ -169,38 +207,84 @@ public class Exporter {
                 tmpFileName = "Items_" + tmpFragmentationName;
                 this.file = this.saveFile(aParentStage, "PDF", "*.pdf", tmpFileName);
                 break;
+            case ITEM_SPARSE_MATRIX_FILE:
+                tmpFileName = "Items_Matrix_" + tmpFragmentationName;
+                this.file = this.saveFile(aParentStage, "NumPy NPZ", "*.npz", tmpFileName);
+                break;
         }
     }
     //
     /**
      * Exports in a new thread depending on aTabName the fragmentation results as displayed on the Itemisation tab or
      * on the Fragments tab as a CSV file.
-     * Returns a list containing SMILES of the molecules that cause an error when exported
+     * Returns a list containing SMILES of the molecules that cause an error when exported. If the export fails or is
+     * cancelled, the partially written file is deleted and null is returned.
      *
      * @param aMoleculeDataModelList a list of MoleculeDataModel instances to export along with their fragments
      * @param aFragmentationName     fragmentation name to retrieve the specific set of fragments from the molecule data models
      * @param aSeparator             the separator for the csv file
      * @param aTabName               TabName to identify type of tab
-     * @return List {@literal <}String {@literal >}
+     * @return List {@literal <}String {@literal >} or null if the export failed or was cancelled
      */
     public List<String> exportCsvFile(List<MoleculeDataModel> aMoleculeDataModelList, String aFragmentationName, String aSeparator, TabNames aTabName) {
+        List<String> tmpFailedExportItemList = null;
         try {
             if (this.file == null)
                 return null;
+            MonitoringUtil.getImportExportMonitor().exportStarted("CSV", aMoleculeDataModelList.size());
             if (aTabName.equals(TabNames.FRAGMENTS)) {
-                //can throw FileNotFoundException, gets handled in setOnFailed()
+                //can throw IOException, gets handled below
                 this.createFragmentationTabCsvFile(this.file, aMoleculeDataModelList, aSeparator);
             } else if (aTabName.equals(TabNames.ITEMIZATION)) {
-                //can throw FileNotFoundException, gets handled in setOnFailed()
+                //can throw IOException, gets handled below
                 this.createItemizationTabCsvFile(this.file, aMoleculeDataModelList, aFragmentationName, aSeparator);
             }
+            tmpFailedExportItemList = new ArrayList<>(0);
+            return tmpFailedExportItemList;
+        } catch (CancellationException anException) {
+            Exporter.LOGGER.log(Level.INFO, "CSV export cancelled.");
+            this.deletePartialExportFile(this.file);
         } catch (Exception anException) {
             Exporter.LOGGER.log(Level.SEVERE, anException.toString(), anException);
+            this.deletePartialExportFile(this.file);
+        } finally {
+            this.finishExportMonitoring(tmpFailedExportItemList);
         }
-        return new ArrayList<>(0);
+        return null;
     }
     //
 
+    /**
+     * Exports the fragmentation results as displayed on the Itemisation tab as a sparse molecule x fragment matrix of
+     * fragment frequencies, see {@link #createItemizationTabSparseMatrixFile(File, List, List, String, String)}.
+     * Returns a list containing SMILES of the molecules that cause an error when exported
+     *
+     * @param aMoleculeDataModelList a list of MoleculeDataModel instances, the rows of the matrix
+     * @param aFragmentDataModelList a list of FragmentDataModel instances, the columns of the matrix
+     * @param aFragmentationName     fragmentation name to retrieve the specific set of fragments from the molecule data models
+     * @param aSeparator             the separator for the csv index files
+     * @return List {@literal <}String {@literal >} or null if the export failed or was cancelled
+     */
+    public List<String> exportSparseMatrixFile(List<MoleculeDataModel> aMoleculeDataModelList, List<MoleculeDataModel> aFragmentDataModelList, String aFragmentationName, String aSeparator) {
+        List<String> tmpFailedExportItemList = null;
+        try {
+            if (this.file == null)
+                return null;
+            MonitoringUtil.getImportExportMonitor().exportStarted("Sparse matrix", aMoleculeDataModelList.size());
+            tmpFailedExportItemList = this.createItemizationTabSparseMatrixFile(this.file, aMoleculeDataModelList,
+                    aFragmentDataModelList, aFragmentationName, aSeparator);
+            return tmpFailedExportItemList;
+        } catch (CancellationException anException) {
+            //the partially written files are deleted by the export
+            Exporter.LOGGER.log(Level.INFO, "Sparse matrix export cancelled.");
+        } catch (Exception anException) {
+            Exporter.LOGGER.log(Level.SEVERE, anException.toString(), anException);
+        } finally {
+            this.finishExportMonitoring(tmpFailedExportItemList);
+        }
+        return null;
+    }
+    //
     /**
      * Exports in a new thread depending on aTabName the fragmentation results as displayed on the Itemisation tab or on the Fragments tab as a CSV file.
      * Returns a list containing SMILES of the molecules that cause an error when exported
@@ -209,21 +293,34 @@ public class Exporter {
      * @param aMoleculeDataModelList a list MoleculeDataModel needed for the fragmentation report at the head of the exported document
      * @param aFragmentationName     fragmentation name to be displayed in the header of the PDF file
      * @param aTabName               TabName to identify type of tab
-     * @return List {@literal <}String {@literal >}
+     * @return List {@literal <}String {@literal >} or null if the export failed or was cancelled, the partially
+     *         written file is deleted then
      */
     public List<String> exportPdfFile(List<MoleculeDataModel> aFragmentDataModelList, ObservableList<MoleculeDataModel> aMoleculeDataModelList, String aFragmentationName, TabNames aTabName) {
+        List<String> tmpFailedExportItemList = null;
         try {
             if (this.file == null)
                 return null;
+            MonitoringUtil.getImportExportMonitor().exportStarted("PDF", aTabName.equals(TabNames.FRAGMENTS)
+                    ? aFragmentDataModelList.size() : aMoleculeDataModelList.size());
             if (aTabName.equals(TabNames.FRAGMENTS)) {
                 //throws FileNotFoundException, gets handled in setOnFailed()
-                return this.createFragmentationTabPdfFile(this.file, aFragmentDataModelList, aMoleculeDataModelList, aFragmentationName);
+                tmpFailedExportItemList = this.createFragmentationTabPdfFile(this.file, aFragmentDataModelList, aMoleculeDataModelList, aFragmentationName);
             } else if (aTabName.equals(TabNames.ITEMIZATION)) {
                 //throws FileNotFoundException, gets handled in setOnFailed()
-                return this.createItemizationTabPdfFile(this.file, aFragmentDataModelList.size(), aMoleculeDataModelList, aFragmentationName);
+                tmpFailedExportItemList = this.createItemizationTabPdfFile(this.file, aFragmentDataModelList.size(), aMoleculeDataModelList, aFragmentationName);
             }
+            return tmpFailedExportItemList;
+        } catch (CancellationException anException) {
+            Exporter.LOGGER.log(Level.INFO, "PDF export cancelled.");
+            this.closePartialPdfDocument();
+            this.deletePartialExportFile(this.file);
         } catch (Exception anException) {
             Exporter.LOGGER.log(Level.SEVERE, anException.toString(), anException);
+            this.closePartialPdfDocument();
+            this.deletePartialExportFile(this.file);
+        } finally {
+            this.finishExportMonitoring(tmpFailedExportItemList);
         }
         return null;
     }
@@ -254,21 +351,100 @@ public class Exporter {
      * @return List {@literal <}String {@literal >}
      */
     public List<String> exportFragmentsAsChemicalFile(List<MoleculeDataModel> aFragmentDataModelList, String aFragmentationName, ChemFileTypes aChemFileType, boolean generate2dAtomCoordinates, boolean isSingleExport) {
+        List<String> tmpFailedExportItemList = null;
         try {
             if (this.file == null)
                 return null;
+            MonitoringUtil.getImportExportMonitor().exportStarted(aChemFileType.name(), aFragmentDataModelList.size());
             if (aChemFileType == ChemFileTypes.SDF && isSingleExport) {
-                return this.createFragmentationTabSingleSDFile(this.file, aFragmentDataModelList, generate2dAtomCoordinates);
+                tmpFailedExportItemList = this.createFragmentationTabSingleSDFile(this.file, aFragmentDataModelList, generate2dAtomCoordinates);
             } else if (aChemFileType == ChemFileTypes.SDF) {
-                return this.createFragmentationTabSeparateSDFiles(this.file, aFragmentDataModelList, generate2dAtomCoordinates);
+                tmpFailedExportItemList = this.createFragmentationTabSeparateSDFiles(this.file, aFragmentDataModelList, generate2dAtomCoordinates);
             } else if (aChemFileType == ChemFileTypes.PDB) {
-                return this.createFragmentationTabPDBFiles(this.file, aFragmentDataModelList, generate2dAtomCoordinates);
+                tmpFailedExportItemList = this.createFragmentationTabPDBFiles(this.file, aFragmentDataModelList, generate2dAtomCoordinates);
             }
+            return tmpFailedExportItemList;
+        } catch (CancellationException anException) {
+            //a partially written single SD file is deleted by the export
+            Exporter.LOGGER.log(Level.INFO, aChemFileType.name() + " export cancelled.");
         } catch (Exception anException) {
             Exporter.LOGGER.log(Level.SEVERE, anException.toString(), anException);
+        } finally {
+            this.finishExportMonitoring(tmpFailedExportItemList);
         }
         return null;
     }
+    //
+    /**
+     * Exports the results as displayed on the Fragments tab as separate chemical files, one file each fragment, that
+     * are streamed into a single ZIP archive instead of being written to a folder. The entries are named like the
+     * files of the folder export. Returns a list containing SMILES of the molecules that cause an error when exported
+     *
+     * @param aFragmentDataModelList list of FragmentDataModel instances
+     * @param aFragmentationName     name of fragmentation
+     * @param aChemFileType ChemFileTypes specifies which file type the entries should have
+     * @param generate2dAtomCoordinates boolean value whether to generate 2D coordinates
+     * @return List {@literal <}String {@literal >}
+     */
+    public List<String> exportFragmentsAsZipArchive(List<MoleculeDataModel> aFragmentDataModelList, String aFragmentationName, ChemFileTypes aChemFileType, boolean generate2dAtomCoordinates) {
+        List<String> tmpFailedExportItemList = null;
+        try {
+            if (this.file == null)
+                return null;
+            MonitoringUtil.getImportExportMonitor().exportStarted(aChemFileType.name() + " ZIP", aFragmentDataModelList.size());
+            tmpFailedExportItemList = this.createFragmentationTabZipArchive(this.file, aFragmentDataModelList, aChemFileType, generate2dAtomCoordinates);
+            return tmpFailedExportItemList;
+        } catch (CancellationException anException) {
+            //the partially written archive is deleted by the export
+            Exporter.LOGGER.log(Level.INFO, aChemFileType.name() + " ZIP export cancelled.");
+        } catch (Exception anException) {
+            Exporter.LOGGER.log(Level.SEVERE, anException.toString(), anException);
+        } finally {
+            this.finishExportMonitoring(tmpFailedExportItemList);
+        }
+        return null;
+    }
+    //
+    /**
+     * Opens a file chooser to choose the file to save a session to, see {@link SessionFile}.
+     *
+     * @param aParentStage Stage to show the FileChooser
+     * @param aFileName initial file name
+     * @return the chosen file or null if no file has been chosen
+     * @throws NullPointerException if the given stage is null
+     */
+    public File chooseSessionFile(Stage aParentStage, String aFileName) throws NullPointerException {
+        return this.saveFile(aParentStage, Message.get("SessionFile.description"), "*" + SessionFile.SESSION_FILE_EXTENSION, aFileName);
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="package-private static methods" defaultstate="collapsed">
+    /**
+     * Returns a name of the given base name and file extension that is not in the given set of taken names yet and
+     * adds it to the set. If the base name with the extension is taken, "(n)" is appended to the base name with the
+     * lowest n not tried for it before; the next n of each base name is kept in the given map, so that k entries with
+     * the same base name take linear instead of quadratic time.
+     *
+     * @param aBaseName base name, e.g. a molecular formula
+     * @param aFileExtension file extension including the dot
+     * @param aTakenNameSet names taken so far, the returned name is added
+     * @param aNextSuffixMap next suffix to try by base name, updated
+     * @return unique name
+     */
+    static String createUniqueEntryName(String aBaseName, String aFileExtension, Set<String> aTakenNameSet,
+                                        Map<String, Integer> aNextSuffixMap) {
+        String tmpEntryName = aBaseName + aFileExtension;
+        if (aTakenNameSet.add(tmpEntryName)) {
+            return tmpEntryName;
+        }
+        int tmpSuffix = aNextSuffixMap.getOrDefault(aBaseName, 1);
+        do {
+            tmpEntryName = aBaseName + "(" + tmpSuffix + ")" + aFileExtension;
+            tmpSuffix++;
+        } while (!aTakenNameSet.add(tmpEntryName));
+        aNextSuffixMap.put(aBaseName, tmpSuffix);
+        return tmpEntryName;
+    }
     //</editor-fold>
     //
     //<editor-fold desc="private methods" defaultstate="collapsed">
@@ -278,44 +454,58 @@ public class Exporter {
      * @param aMoleculeDataModelList a list of MoleculeDataModel instances to export along with their fragments
      * @param aFragmentationName     fragmentation name to retrieve the specific set of fragments from the molecule data models
      * @param aSeparator             the separator for the csv file
-     * @throws FileNotFoundException
+     * @throws IOException if the file cannot be written
      * @author Betül Sevindik
      */
     private void createItemizationTabCsvFile(File aCsvFile,
                                              List<MoleculeDataModel> aMoleculeDataModelList,
                                              String aFragmentationName,
                                              String aSeparator)
-            throws FileNotFoundException {
+            throws IOException {
         if (aCsvFile == null || aMoleculeDataModelList == null || aFragmentationName == null) {
             return;
         }
-        PrintWriter tmpWriter = new PrintWriter(aCsvFile.getPath());
-        StringBuilder tmpCsvHeader = new StringBuilder();
-        tmpCsvHeader.append(Message.get("Exporter.itemsTab.csvHeader.moleculeName") + aSeparator +
-                Message.get("Exporter.itemsTab.csvHeader.smilesOfStructure") + aSeparator +
-                Message.get("Exporter.itemsTab.csvHeader.smilesOfFragmentsAndFrequency") + "\n");
-        tmpWriter.write(tmpCsvHeader.toString());
+        CsvRowBuilder tmpCsvHeader = new CsvRowBuilder(aSeparator, Exporter.ESTIMATED_CSV_ROW_LENGTH);
+        tmpCsvHeader.appendText(Message.get("Exporter.itemsTab.csvHeader.moleculeName")).appendSeparator()
+                .appendText(Message.get("Exporter.itemsTab.csvHeader.smilesOfStructure")).appendSeparator()
+                .appendText(Message.get("Exporter.itemsTab.csvHeader.smilesOfFragmentsAndFrequency")).endRow();
+        this.writeCsvFile(aCsvFile, tmpCsvHeader.getContent(), aMoleculeDataModelList,
+                aChunk -> this.createItemizationTabCsvRows(aChunk, aFragmentationName, aSeparator));
+    }
+    //
+    /**
+     * Formats the rows of the given molecules for the itemization tab CSV export, i.e. name and SMILES code of each
+     * molecule followed by the SMILES codes and frequencies of its fragments. Molecules that have not undergone the
+     * fragmentation get a row without fragments.
+     *
+     * @param aMoleculeDataModelList molecules to format the rows of
+     * @param aFragmentationName     fragmentation name to retrieve the specific set of fragments from the molecule data models
+     * @param aSeparator             the separator for the csv file
+     * @return rows or null if the thread has been interrupted
+     */
+    private CharSequence createItemizationTabCsvRows(List<MoleculeDataModel> aMoleculeDataModelList,
+                                                     String aFragmentationName,
+                                                     String aSeparator) {
+        CsvRowBuilder tmpRows = new CsvRowBuilder(aSeparator,
+                aMoleculeDataModelList.size() * Exporter.ESTIMATED_CSV_ROW_LENGTH);
         for (MoleculeDataModel tmpMoleculeDataModel : aMoleculeDataModelList) {
             if(Thread.currentThread().isInterrupted()){
-                return;
-            }
-            tmpWriter.printf("%s" + aSeparator + "%s", tmpMoleculeDataModel.getName(), tmpMoleculeDataModel.getUniqueSmiles());
-            if(!tmpMoleculeDataModel.hasMoleculeUndergoneSpecificFragmentation(aFragmentationName)){
-                continue;
+                return null;
             }
-            List<FragmentDataModel> tmpFragmentList = tmpMoleculeDataModel.getFragmentsOfSpecificAlgorithm(aFragmentationName);
-            for (FragmentDataModel tmpFragmentDataModel : tmpFragmentList) {
-                if(Thread.currentThread().isInterrupted() ||
-                        !tmpMoleculeDataModel.hasMoleculeUndergoneSpecificFragmentation(aFragmentationName)
-                ){
-                    return;
+            tmpRows.appendText(tmpMoleculeDataModel.getName()).appendSeparator()
+                    .appendText(tmpMoleculeDataModel.getUniqueSmiles());
+            if(tmpMoleculeDataModel.hasMoleculeUndergoneSpecificFragmentation(aFragmentationName)){
+                //the frequencies map is retrieved once per molecule, not once per fragment
+                Map<String, Integer> tmpFragmentFrequencies = tmpMoleculeDataModel.getFragmentFrequencyOfSpecificAlgorithm(aFragmentationName);
+                for (FragmentDataModel tmpFragmentDataModel : tmpMoleculeDataModel.getFragmentsOfSpecificAlgorithm(aFragmentationName)) {
+                    String tmpSmiles = tmpFragmentDataModel.getUniqueSmiles();
+                    tmpRows.appendSeparator().appendText(tmpSmiles).appendSeparator()
+                            .appendInteger(tmpFragmentFrequencies.get(tmpSmiles));
                 }
-                tmpWriter.append(aSeparator);
-                tmpWriter.printf("%s" + aSeparator + "%s", tmpFragmentDataModel.getUniqueSmiles(), tmpMoleculeDataModel.getFragmentFrequencyOfSpecificAlgorithm(aFragmentationName).get(tmpFragmentDataModel.getUniqueSmiles()).toString());
             }
-            tmpWriter.append("\n");
+            tmpRows.endRow();
         }
-        tmpWriter.close();
+        return tmpRows.getContent();
     }
     //
     /**
@@ -323,33 +513,255 @@ public class Exporter {
      *
      * @param aList      a list of FragmentDataModel instances to export
      * @param aSeparator the separator for the csv file
-     * @throws FileNotFoundException
+     * @throws IOException if the file cannot be written
      * @author Betül Sevindik
      */
     private void createFragmentationTabCsvFile(File aCsvFile, List<MoleculeDataModel> aList, String aSeparator)
-            throws FileNotFoundException {
+            throws IOException {
         if (aCsvFile == null || aList == null) {
             return;
         }
-        PrintWriter tmpWriter = new PrintWriter(aCsvFile.getPath());
-        StringBuilder tmpFragmentationCsvHeader = new StringBuilder();
-        tmpFragmentationCsvHeader.append(Message.get("Exporter.fragmentationTab.csvHeader.smiles") + aSeparator +
-                Message.get("Exporter.fragmentationTab.csvHeader.frequency") + aSeparator +
-                Message.get("Exporter.fragmentationTab.csvHeader.percentage") + aSeparator +
-                Message.get("Exporter.fragmentationTab.csvHeader.moleculeFrequency") + aSeparator +
-                Message.get("Exporter.fragmentationTab.csvHeader.moleculePercentage") + ("\n"));
-        tmpWriter.write(tmpFragmentationCsvHeader.toString());
+        CsvRowBuilder tmpFragmentationCsvHeader = new CsvRowBuilder(aSeparator, Exporter.ESTIMATED_CSV_ROW_LENGTH);
+        tmpFragmentationCsvHeader.appendText(Message.get("Exporter.fragmentationTab.csvHeader.smiles")).appendSeparator()
+                .appendText(Message.get("Exporter.fragmentationTab.csvHeader.frequency")).appendSeparator()
+                .appendText(Message.get("Exporter.fragmentationTab.csvHeader.percentage")).appendSeparator()
+                .appendText(Message.get("Exporter.fragmentationTab.csvHeader.moleculeFrequency")).appendSeparator()
+                .appendText(Message.get("Exporter.fragmentationTab.csvHeader.moleculePercentage")).endRow();
+        this.writeCsvFile(aCsvFile, tmpFragmentationCsvHeader.getContent(), aList,
+                aChunk -> this.createFragmentationTabCsvRows(aChunk, aSeparator));
+    }
+    //
+    /**
+     * Formats the rows of the given fragments for the fragments tab CSV export, i.e. SMILES code, frequency,
+     * percentage, molecule frequency, and molecule percentage of each fragment.
+     *
+     * @param aList      a list of FragmentDataModel instances to format the rows of
+     * @param aSeparator the separator for the csv file
+     * @return rows or null if the thread has been interrupted
+     */
+    private CharSequence createFragmentationTabCsvRows(List<MoleculeDataModel> aList, String aSeparator) {
+        CsvRowBuilder tmpRows = new CsvRowBuilder(aSeparator, aList.size() * Exporter.ESTIMATED_CSV_ROW_LENGTH);
         for (MoleculeDataModel tmpDataModel : aList) {
             if(Thread.currentThread().isInterrupted()){
-                return;
+                return null;
             }
             FragmentDataModel tmpFragmentDataModel = (FragmentDataModel) tmpDataModel;
-            tmpWriter.printf("%s" + aSeparator + "%d" + aSeparator + "%.3f" + aSeparator + "%d" + aSeparator + "%.2f\n",
-                    tmpFragmentDataModel.getUniqueSmiles(), tmpFragmentDataModel.getAbsoluteFrequency(),
-                    tmpFragmentDataModel.getAbsolutePercentage(), tmpFragmentDataModel.getMoleculeFrequency(),
-                    tmpFragmentDataModel.getMoleculePercentage());
+            tmpRows.appendText(tmpFragmentDataModel.getUniqueSmiles()).appendSeparator()
+                    .appendInteger(tmpFragmentDataModel.getAbsoluteFrequency()).appendSeparator()
+                    .appendDecimal(tmpFragmentDataModel.getAbsolutePercentage(), 3).appendSeparator()
+                    .appendInteger(tmpFragmentDataModel.getMoleculeFrequency()).appendSeparator()
+                    .appendDecimal(tmpFragmentDataModel.getMoleculePercentage(), 2).endRow();
+        }
+        return tmpRows.getContent();
+    }
+    //
+    /**
+     * Writes the given header and the rows of the given data models to the given CSV file. The rows are formatted in
+     * chunks by the given function, which returns null if it has been interrupted. If there is more than one chunk, the
+     * chunks are formatted in parallel, see {@link #processExportChunks(List, int, String, ExportChunkTask,
+     * ExportChunkHandler)}.
+     *
+     * @param aCsvFile file to write
+     * @param aHeader header row of the file
+     * @param aList data models to write the rows of
+     * @param aRowFormatter function formatting the rows of a chunk of data models
+     * @throws IOException if the file cannot be written or the rows of a chunk cannot be formatted
+     * @throws CancellationException if the export has been interrupted, the file is incomplete then
+     */
+    private void writeCsvFile(File aCsvFile, CharSequence aHeader, List<MoleculeDataModel> aList,
+                              Function<List<MoleculeDataModel>, CharSequence> aRowFormatter)
+            throws IOException, CancellationException {
+        try (CsvWriter tmpCsvWriter = new CsvWriter(aCsvFile, BasicDefinitions.CSV_EXPORT_BUFFER_SIZE)) {
+            tmpCsvWriter.write(aHeader);
+            if (aList.size() <= BasicDefinitions.CSV_EXPORT_CHUNK_SIZE) {
+                CharSequence tmpRows = aRowFormatter.apply(aList);
+                if (tmpRows == null) {
+                    throw new CancellationException("The CSV export has been interrupted.");
+                }
+                tmpCsvWriter.write(tmpRows);
+                return;
+            }
+            this.processExportChunks(aList, BasicDefinitions.CSV_EXPORT_CHUNK_SIZE, "CSV_Export_Thread",
+                    aRowFormatter::apply,
+                    (aChunk, aRows) -> {
+                        if (aRows == null) {
+                            throw new IOException("Formatting the CSV rows of a chunk failed.");
+                        }
+                        tmpCsvWriter.write(aRows);
+                    });
+        }
+    }
+    //
+    /**
+     * Exports the frequencies of the fragments in the molecules as a sparse matrix with one row per molecule and one
+     * column per fragment. The matrix is written in the compressed sparse row (CSR) layout to a NumPy .npz archive
+     * that can be loaded with scipy.sparse.load_npz(), or with numpy.load() as the arrays "data" (frequencies, int32),
+     * "indices" (column indices, int32), "indptr" (row offsets, int64), and "shape". The column indices of each row
+     * are sorted. Two CSV index files are written next to the archive: "[name]_molecules.csv" with the name and SMILES
+     * code of the molecule of each row and "[name]_fragments.csv" with the SMILES code of the fragment of each column.
+     * The entries of each row are created once from the frequency map of the molecule and held in their sparse form
+     * while the arrays of the archive are written from them, so that the dense matrix is never held in memory. If the
+     * export is interrupted or fails, the partially written files are deleted.
+     *
+     * @param aNpzFile               archive file to write
+     * @param aMoleculeDataModelList a list of MoleculeDataModel instances, the rows of the matrix
+     * @param aFragmentDataModelList a list of FragmentDataModel instances, the columns of the matrix
+     * @param aFragmentationName     fragmentation name to retrieve the specific set of fragments from the molecule data models
+     * @param aSeparator             the separator for the csv index files
+     * @return empty list
+     * @throws IOException if a file cannot be written
+     * @throws CancellationException if the export has been interrupted
+     */
+    private List<String> createItemizationTabSparseMatrixFile(File aNpzFile,
+                                                              List<MoleculeDataModel> aMoleculeDataModelList,
+                                                              List<MoleculeDataModel> aFragmentDataModelList,
+                                                              String aFragmentationName,
+                                                              String aSeparator) throws IOException, CancellationException {
+        if (aNpzFile == null || aMoleculeDataModelList == null || aFragmentDataModelList == null
+                || aFragmentationName == null || aSeparator == null) {
+            return null;
+        }
+        HashMap<String, Integer> tmpColumnIndexMap = new HashMap<>(CollectionUtil.calculateInitialHashCollectionCapacity(
+                aFragmentDataModelList.size()), BasicDefinitions.DEFAULT_HASH_COLLECTION_LOAD_FACTOR);
+        for (int i = 0; i < aFragmentDataModelList.size(); i++) {
+            tmpColumnIndexMap.put(aFragmentDataModelList.get(i).getUniqueSmiles(), i);
+        }
+        long[][] tmpRows = new long[aMoleculeDataModelList.size()][];
+        long tmpNumberOfEntries = 0;
+        for (int i = 0; i < tmpRows.length; i++) {
+            this.checkSparseMatrixExportInterrupted();
+            tmpRows[i] = this.getSparseMatrixRow(aMoleculeDataModelList.get(i), aFragmentationName, tmpColumnIndexMap);
+            tmpNumberOfEntries += tmpRows[i].length;
+        }
+        String tmpBasePath = aNpzFile.getPath().replaceFirst("(?i)\\.npz$", "");
+        File tmpMoleculeIndexFile = new File(tmpBasePath + "_molecules.csv");
+        File tmpFragmentIndexFile = new File(tmpBasePath + "_fragments.csv");
+        boolean tmpAreFilesComplete = false;
+        try {
+            try (NpzWriter tmpNpzWriter = new NpzWriter(aNpzFile)) {
+                tmpNpzWriter.writeByteString("format", "csr");
+                tmpNpzWriter.beginLongArray("shape", 2);
+                tmpNpzWriter.writeLong(aMoleculeDataModelList.size());
+                tmpNpzWriter.writeLong(aFragmentDataModelList.size());
+                //first array: row offsets
+                tmpNpzWriter.beginLongArray("indptr", tmpRows.length + 1L);
+                long tmpRowOffset = 0;
+                tmpNpzWriter.writeLong(tmpRowOffset);
+                for (long[] tmpRow : tmpRows) {
+                    this.checkSparseMatrixExportInterrupted();
+                    tmpRowOffset += tmpRow.length;
+                    tmpNpzWriter.writeLong(tmpRowOffset);
+                }
+                //second array: column indices
+                tmpNpzWriter.beginIntArray("indices", tmpNumberOfEntries);
+                for (long[] tmpRow : tmpRows) {
+                    this.checkSparseMatrixExportInterrupted();
+                    for (long tmpEntry : tmpRow) {
+                        tmpNpzWriter.writeInt((int) (tmpEntry >>> 32));
+                    }
+                }
+                //third array: frequencies
+                tmpNpzWriter.beginIntArray("data", tmpNumberOfEntries);
+                for (long[] tmpRow : tmpRows) {
+                    this.checkSparseMatrixExportInterrupted();
+                    for (long tmpEntry : tmpRow) {
+                        tmpNpzWriter.writeInt((int) tmpEntry);
+                    }
+                }
+            }
+            CsvRowBuilder tmpMoleculeIndexRows = new CsvRowBuilder(aSeparator, Exporter.ESTIMATED_CSV_ROW_LENGTH);
+            tmpMoleculeIndexRows.appendText(Message.get("Exporter.sparseMatrix.csvHeader.row")).appendSeparator()
+                    .appendText(Message.get("Exporter.itemsTab.csvHeader.moleculeName")).appendSeparator()
+                    .appendText(Message.get("Exporter.itemsTab.csvHeader.smilesOfStructure")).endRow();
+            this.writeSparseMatrixIndexFile(tmpMoleculeIndexFile, tmpMoleculeIndexRows, aMoleculeDataModelList, true);
+            CsvRowBuilder tmpFragmentIndexRows = new CsvRowBuilder(aSeparator, Exporter.ESTIMATED_CSV_ROW_LENGTH);
+            tmpFragmentIndexRows.appendText(Message.get("Exporter.sparseMatrix.csvHeader.column")).appendSeparator()
+                    .appendText(Message.get("Exporter.fragmentationTab.csvHeader.smiles")).endRow();
+            this.writeSparseMatrixIndexFile(tmpFragmentIndexFile, tmpFragmentIndexRows, aFragmentDataModelList, false);
+            tmpAreFilesComplete = true;
+        } finally {
+            if (!tmpAreFilesComplete) {
+                this.deletePartialExportFile(aNpzFile);
+                this.deletePartialExportFile(tmpMoleculeIndexFile);
+                this.deletePartialExportFile(tmpFragmentIndexFile);
+            }
+        }
+        Exporter.LOGGER.log(Level.INFO, String.format("Exported a sparse matrix of %d molecules and %d fragments with %d " +
+                        "entries. File name: %s", aMoleculeDataModelList.size(), aFragmentDataModelList.size(),
+                tmpNumberOfEntries, aNpzFile.getName()));
+        return new ArrayList<>(0);
+    }
+    //
+    /**
+     * Throws a CancellationException if the thread of the sparse matrix export has been interrupted. The exception
+     * leaves the arrays of the archive incomplete, the archive is deleted then.
+     *
+     * @throws CancellationException if the current thread has been interrupted
+     */
+    private void checkSparseMatrixExportInterrupted() throws CancellationException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("The sparse matrix export has been interrupted.");
+        }
+    }
+    //
+    /**
+     * Returns the stored entries of the sparse matrix row of the given molecule, sorted by column index. Each entry
+     * holds the column index in its upper and the frequency in its lower 32 bits. Fragments that are not in the given
+     * column index map are left out.
+     *
+     * @param aMoleculeDataModel molecule of the row
+     * @param aFragmentationName fragmentation name to retrieve the fragment frequencies of the molecule
+     * @param aColumnIndexMap    column indices of the fragments mapped to their unique SMILES codes
+     * @return entries of the row
+     */
+    private long[] getSparseMatrixRow(MoleculeDataModel aMoleculeDataModel, String aFragmentationName,
+                                      Map<String, Integer> aColumnIndexMap) {
+        if (!aMoleculeDataModel.hasMoleculeUndergoneSpecificFragmentation(aFragmentationName)) {
+            return new long[0];
+        }
+        Map<String, Integer> tmpFragmentFrequencies = aMoleculeDataModel.getFragmentFrequencyOfSpecificAlgorithm(aFragmentationName);
+        long[] tmpRow = new long[tmpFragmentFrequencies.size()];
+        int tmpNumberOfEntries = 0;
+        for (Map.Entry<String, Integer> tmpFrequency : tmpFragmentFrequencies.entrySet()) {
+            Integer tmpColumnIndex = aColumnIndexMap.get(tmpFrequency.getKey());
+            if (tmpColumnIndex == null) {
+                continue;
+            }
+            tmpRow[tmpNumberOfEntries++] = ((long) tmpColumnIndex << 32) | (tmpFrequency.getValue() & 0xFFFFFFFFL);
+        }
+        Arrays.sort(tmpRow, 0, tmpNumberOfEntries);
+        return tmpNumberOfEntries == tmpRow.length ? tmpRow : Arrays.copyOf(tmpRow, tmpNumberOfEntries);
+    }
+    //
+    /**
+     * Writes an index file of the sparse matrix export. The given row builder holds the header, it is followed by one
+     * row per data model with its index, optionally its name, and its unique SMILES code.
+     *
+     * @param aCsvFile       file to write
+     * @param aRows          row builder holding the header
+     * @param aList          data models to write the rows of
+     * @param isNameIncluded whether the name of each data model is written
+     * @throws IOException if the file cannot be written
+     * @throws CancellationException if the export has been interrupted
+     */
+    private void writeSparseMatrixIndexFile(File aCsvFile, CsvRowBuilder aRows, List<MoleculeDataModel> aList,
+                                            boolean isNameIncluded) throws IOException, CancellationException {
+        try (CsvWriter tmpCsvWriter = new CsvWriter(aCsvFile, BasicDefinitions.CSV_EXPORT_BUFFER_SIZE)) {
+            for (int i = 0; i < aList.size(); i++) {
+                this.checkSparseMatrixExportInterrupted();
+                MoleculeDataModel tmpDataModel = aList.get(i);
+                aRows.appendInteger(i).appendSeparator();
+                if (isNameIncluded) {
+                    aRows.appendText(tmpDataModel.getName()).appendSeparator();
+                }
+                aRows.appendText(tmpDataModel.getUniqueSmiles()).endRow();
+                if (aRows.length() >= BasicDefinitions.CSV_EXPORT_BUFFER_SIZE) {
+                    tmpCsvWriter.write(aRows.getContent());
+                    aRows.clear();
+                }
+            }
+            tmpCsvWriter.write(aRows.getContent());
         }
-        tmpWriter.close();
     }
     //
     /**
@@ -362,12 +774,13 @@ public class Exporter {
      * @return PDF file which contains the results of the fragmentation
      * @throws FileNotFoundException
      * @throws DocumentException
+     * @throws CancellationException if the export has been interrupted, the document is incomplete then
      * @author Betül Sevindik
      */
     private List<String> createFragmentationTabPdfFile(File aPdfFile,
                                                List<MoleculeDataModel> aFragmentDataModelList,
                                                ObservableList<MoleculeDataModel> aMoleculeDataModelList,
-                                               String aFragmentationName) throws FileNotFoundException, DocumentException {
+                                               String aFragmentationName) throws FileNotFoundException, DocumentException, CancellationException {
         if (aPdfFile == null || aFragmentDataModelList == null || aMoleculeDataModelList == null ||
                 aFragmentationName == null) {
             return null;
@@ -375,10 +788,12 @@ public class Exporter {
         List<String> tmpFailedExportFragments = new LinkedList<>();
         this.document = new Document(PageSize.A4);
         this.document.setPageSize(this.document.getPageSize().rotate());
-        PdfWriter.getInstance(this.document, new FileOutputStream(aPdfFile.getPath()));
+        PdfWriter tmpPdfWriter = PdfWriter.getInstance(this.document, new FileOutputStream(aPdfFile.getPath()));
         this.document.open();
         float tmpCellLength[] = {70f, 120f, 50f, 50f, 55f, 55f}; // relative sizes
         PdfPTable tmpFragmentationTable = new PdfPTable(tmpCellLength);
+        //the table is written to the document in chunks of rows, so that it is never held completely in memory
+        tmpFragmentationTable.setComplete(false);
         PdfPCell tmpSmilesStringCell = new PdfPCell(new Paragraph(Message.get("Exporter.fragmentationTab.pdfCellHeader.smiles"), fontFactory));
         PdfPCell tmpFrequencyCell = new PdfPCell(new Paragraph(Message.get("Exporter.fragmentationTab.pdfCellHeader.frequency"), this.fontFactory));
         PdfPCell tmpPercentageCell = new PdfPCell(new Paragraph(Message.get("Exporter.fragmentationTab.pdfCellHeader.percentage"), this.fontFactory));
@@ -388,61 +803,59 @@ public class Exporter {
         Chunk tmpHeader = new Chunk(Message.get("Exporter.fragmentationTab.pdfCellHeader.header"),
                 FontFactory.getFont(FontFactory.TIMES_ROMAN, 18, Font.UNDERLINE));
         Paragraph tmpSpace = new Paragraph(" ");
+        this.document.add(tmpHeader);
+        this.document.add(tmpSpace);
+        this.document.add(this.createHeaderTable(aFragmentDataModelList.size(), aMoleculeDataModelList.size(), aFragmentationName));
+        this.document.add(tmpSpace);
         tmpFragmentationTable.addCell(tmpFragmentCell);
         tmpFragmentationTable.addCell(tmpSmilesStringCell);
         tmpFragmentationTable.addCell(tmpFrequencyCell);
         tmpFragmentationTable.addCell(tmpPercentageCell);
         tmpFragmentationTable.addCell(tmpMolFrequencyCell);
         tmpFragmentationTable.addCell(tmpMolPercentageCell);
-        for (MoleculeDataModel tmpModel : aFragmentDataModelList) {
-            if(Thread.currentThread().isInterrupted()){
-                return null;
-            }
-            FragmentDataModel tmpFragmentDataModel = (FragmentDataModel) tmpModel;
-            int tmpAbsoluteFrequency = tmpFragmentDataModel.getAbsoluteFrequency();
-            String tmpStringAbsoluteFrequency = String.format("%d", tmpAbsoluteFrequency);
-            double tmpAbsolutePercentage = tmpFragmentDataModel.getAbsolutePercentage();
-            int tmpMoleculeFrequency = tmpFragmentDataModel.getMoleculeFrequency();
-            String tmpStringMoleculeFrequency = String.format("%d", tmpMoleculeFrequency);
-            String tmpStringAbsolutePercentage = String.format("%.3f", tmpAbsolutePercentage);
-            double tmpMoleculePercentage = tmpFragmentDataModel.getMoleculePercentage();
-            String tmpStringMoleculePercentage = String.format("%.2f", tmpMoleculePercentage);
-            //creates an image of the fragment
-            PdfPCell tmpImageFragmentCell = new PdfPCell();
-            tmpImageFragmentCell.setFixedHeight(85f);
-            IAtomContainer tmpStructureOfFragment;
-            try {
-                tmpStructureOfFragment = tmpFragmentDataModel.getAtomContainer();
-            } catch (CDKException anException) {
-                Exporter.LOGGER.getLogger(MoleculeDataModel.class.getName()).log(Level.SEVERE, anException.toString() + "_" + tmpFragmentDataModel.getName(), anException);
-                tmpFailedExportFragments.add(tmpFragmentDataModel.getUniqueSmiles());
-                continue;
-            }
-            javafx.scene.image.Image tmpImageStructureOfFragment = DepictionUtil.depictImageWithZoom(tmpStructureOfFragment,
-                    4.0);
-            BufferedImage tmpBufferedImageFragment = SwingFXUtils.fromFXImage(tmpImageStructureOfFragment, null);
-            Image tmpImageFragment = this.getITextImage(tmpBufferedImageFragment);
-            //inserts the data into the table
-            PdfPCell tmpCellOfFrequency = new PdfPCell(new Paragraph(tmpStringAbsoluteFrequency));
-            tmpCellOfFrequency.setHorizontalAlignment(Element.ALIGN_RIGHT);
-            PdfPCell tmpCellOfPercentage = new PdfPCell(new Paragraph(tmpStringAbsolutePercentage));
-            tmpCellOfPercentage.setHorizontalAlignment(Element.ALIGN_RIGHT);
-            PdfPCell tmpCellOfMolFrequency = new PdfPCell(new Paragraph(tmpStringMoleculeFrequency));
-            tmpCellOfMolFrequency.setHorizontalAlignment(Element.ALIGN_RIGHT);
-            PdfPCell tmpCellOfMolPercentage = new PdfPCell(new Paragraph(tmpStringMoleculePercentage));
-            tmpCellOfMolPercentage.setHorizontalAlignment(Element.ALIGN_RIGHT);
-            tmpImageFragmentCell.addElement(tmpImageFragment);
-            tmpFragmentationTable.addCell(tmpImageFragmentCell);
-            tmpFragmentationTable.addCell(tmpFragmentDataModel.getUniqueSmiles());
-            tmpFragmentationTable.addCell(tmpCellOfFrequency);
-            tmpFragmentationTable.addCell(tmpCellOfPercentage);
-            tmpFragmentationTable.addCell(tmpCellOfMolFrequency);
-            tmpFragmentationTable.addCell(tmpCellOfMolPercentage);
-        }
-        this.document.add(tmpHeader);
-        this.document.add(tmpSpace);
-        this.document.add(this.createHeaderTable(aFragmentDataModelList.size(), aMoleculeDataModelList.size(), aFragmentationName));
-        this.document.add(tmpSpace);
+        //the structures are laid out in parallel and drawn into the document on this thread, the rows are added in the
+        // order of the given list
+        this.processExportChunks(aFragmentDataModelList, 1, "PDF_Export_Depiction_Thread",
+                aChunk -> this.layOutForPdf(aChunk.get(0)),
+                (aChunk, aFragmentAtomContainer) -> {
+                    FragmentDataModel tmpFragmentDataModel = (FragmentDataModel) aChunk.get(0);
+                    if (aFragmentAtomContainer == null) {
+                        tmpFailedExportFragments.add(tmpFragmentDataModel.getUniqueSmiles());
+                        return;
+                    }
+                    Image tmpImageFragment = this.getVectorITextImage(tmpPdfWriter, aFragmentAtomContainer, 4.0, null);
+                    int tmpAbsoluteFrequency = tmpFragmentDataModel.getAbsoluteFrequency();
+                    String tmpStringAbsoluteFrequency = String.format("%d", tmpAbsoluteFrequency);
+                    double tmpAbsolutePercentage = tmpFragmentDataModel.getAbsolutePercentage();
+                    int tmpMoleculeFrequency = tmpFragmentDataModel.getMoleculeFrequency();
+                    String tmpStringMoleculeFrequency = String.format("%d", tmpMoleculeFrequency);
+                    String tmpStringAbsolutePercentage = String.format("%.3f", tmpAbsolutePercentage);
+                    double tmpMoleculePercentage = tmpFragmentDataModel.getMoleculePercentage();
+                    String tmpStringMoleculePercentage = String.format("%.2f", tmpMoleculePercentage);
+                    PdfPCell tmpImageFragmentCell = new PdfPCell();
+                    tmpImageFragmentCell.setFixedHeight(85f);
+                    //inserts the data into the table
+                    PdfPCell tmpCellOfFrequency = new PdfPCell(new Paragraph(tmpStringAbsoluteFrequency));
+                    tmpCellOfFrequency.setHorizontalAlignment(Element.ALIGN_RIGHT);
+                    PdfPCell tmpCellOfPercentage = new PdfPCell(new Paragraph(tmpStringAbsolutePercentage));
+                    tmpCellOfPercentage.setHorizontalAlignment(Element.ALIGN_RIGHT);
+                    PdfPCell tmpCellOfMolFrequency = new PdfPCell(new Paragraph(tmpStringMoleculeFrequency));
+                    tmpCellOfMolFrequency.setHorizontalAlignment(Element.ALIGN_RIGHT);
+                    PdfPCell tmpCellOfMolPercentage = new PdfPCell(new Paragraph(tmpStringMoleculePercentage));
+                    tmpCellOfMolPercentage.setHorizontalAlignment(Element.ALIGN_RIGHT);
+                    tmpImageFragmentCell.addElement(tmpImageFragment);
+                    tmpFragmentationTable.addCell(tmpImageFragmentCell);
+                    tmpFragmentationTable.addCell(tmpFragmentDataModel.getUniqueSmiles());
+                    tmpFragmentationTable.addCell(tmpCellOfFrequency);
+                    tmpFragmentationTable.addCell(tmpCellOfPercentage);
+                    tmpFragmentationTable.addCell(tmpCellOfMolFrequency);
+                    tmpFragmentationTable.addCell(tmpCellOfMolPercentage);
+                    if (tmpFragmentationTable.size() >= BasicDefinitions.PDF_EXPORT_TABLE_CHUNK_SIZE) {
+                        //writes the rows added so far and removes them from the table
+                        this.document.add(tmpFragmentationTable);
+                    }
+                });
+        tmpFragmentationTable.setComplete(true);
         this.document.add(tmpFragmentationTable);
         this.document.close();
         return tmpFailedExportFragments;
@@ -457,12 +870,13 @@ public class Exporter {
      * @param aFragmentationName         fragmentation name to retrieve the specific set of fragments from the molecule data models
      * @throws FileNotFoundException
      * @throws DocumentException
+     * @throws CancellationException if the export has been interrupted, the document is incomplete then
      * @author Betül Sevindik
      */
     private List<String> createItemizationTabPdfFile(File aPdfFile,
                                              int aFragmentDataModelListSize,
                                              ObservableList<MoleculeDataModel> aMoleculeDataModelList,
-                                             String aFragmentationName) throws FileNotFoundException, DocumentException {
+                                             String aFragmentationName) throws FileNotFoundException, DocumentException, CancellationException {
         if (aPdfFile == null || aFragmentDataModelListSize == 0 ||
                 aMoleculeDataModelList == null || aMoleculeDataModelList.size() == 0 ||
                 aFragmentationName == null || aFragmentationName.isEmpty()) {
@@ -470,7 +884,7 @@ public class Exporter {
         }
         List<String> tmpFailedExportFragments = new LinkedList<>();
         this.document = new Document(PageSize.A4);
-        PdfWriter.getInstance(this.document, new FileOutputStream(aPdfFile.getPath()));
+        PdfWriter tmpPdfWriter = PdfWriter.getInstance(this.document, new FileOutputStream(aPdfFile.getPath()));
         this.document.open();
         // creates the pdf table
         Chunk tmpItemizationTabHeader = new Chunk(Message.get("Exporter.itemsTab.pdfCellHeader.header"),
@@ -480,96 +894,59 @@ public class Exporter {
         this.document.add(tmpSpace);
         this.document.add(this.createHeaderTable(aFragmentDataModelListSize, aMoleculeDataModelList.size(), aFragmentationName));
         this.document.add(tmpSpace);
-        for (MoleculeDataModel tmpMoleculeDataModel : aMoleculeDataModelList) {
-            if(Thread.currentThread().isInterrupted()){
-                return null;
-            }
-            PdfPTable tmpTable = new PdfPTable(2);
-            PdfPTable tmpFragmentTable = new PdfPTable(1);
-            tmpTable.setWidths(new int[]{40, 80});
-            PdfPCell tmpNameCell = new PdfPCell(new Paragraph(Message.get("Exporter.itemsTab.pdfCellHeader.name"), this.fontFactory));
-            tmpNameCell.setFixedHeight(55f);
-            PdfPCell tmpStructureCell = new PdfPCell(new Paragraph(Message.get("Exporter.itemsTab.pdfCellHeader.structure"), this.fontFactory));
-            tmpStructureCell.setFixedHeight(120f);
-            tmpTable.addCell(tmpNameCell);
-            String tmpName = tmpMoleculeDataModel.getName();
-            tmpTable.addCell(tmpName);
-            tmpTable.addCell(tmpStructureCell);
-            // Image of molecule
-            IAtomContainer tmpMoleculeStructure;
-            try {
-                tmpMoleculeStructure = tmpMoleculeDataModel.getAtomContainer();
-            } catch (CDKException anException) {
-                Exporter.LOGGER.getLogger(MoleculeDataModel.class.getName()).log(Level.SEVERE, anException.toString() + "_" + tmpMoleculeDataModel.getName(), anException);
-                tmpFailedExportFragments.add(tmpMoleculeDataModel.getUniqueSmiles());
-                continue;
-            }
-            PdfPCell tmpMoleculeStructureCell = new PdfPCell();
-            tmpMoleculeStructureCell.setFixedHeight(120f);
-            javafx.scene.image.Image tmpMoleculeImage = DepictionUtil.depictImageWithZoom(tmpMoleculeStructure,
-                    3.0);
-            BufferedImage tmpBufferedImageOfMolecule = SwingFXUtils.fromFXImage(tmpMoleculeImage, null);
-            Image tmpMolecule = this.getITextImage(tmpBufferedImageOfMolecule);
-            tmpMoleculeStructureCell.addElement(tmpMolecule);
-            tmpTable.addCell(tmpMoleculeStructureCell);
-            PdfPCell tmpCellOfFragment = new PdfPCell(new Paragraph(Message.get("Exporter.itemsTab.pdfCellHeader.fragments"), this.fontFactory));
-            tmpCellOfFragment.setHorizontalAlignment(Element.ALIGN_CENTER);
-            tmpFragmentTable.addCell(tmpCellOfFragment);
-            this.document.add(tmpTable);
-            this.document.add(tmpFragmentTable);
-            if(!tmpMoleculeDataModel.hasMoleculeUndergoneSpecificFragmentation(aFragmentationName)){
-                continue;
-            }
-            List<FragmentDataModel> tmpFragmentList = tmpMoleculeDataModel.getFragmentsOfSpecificAlgorithm(aFragmentationName);
-            PdfPTable tmpFragmentationTable2 = new PdfPTable(3);
-            for (int tmpFragmentNumber = 0; tmpFragmentNumber < tmpFragmentList.size(); ) {
-                if(Thread.currentThread().isInterrupted()){
-                    return null;
-                }
-                ArrayList<PdfPCell> tmpCell = new ArrayList<PdfPCell>(3); //magic number, see line 487 (loop below): "for (; tmpImagesNumbers < 3; tmpImagesNumbers++){"
-                int tmpImagesNumbers = 0;
-                for (; tmpImagesNumbers < 3; tmpImagesNumbers++) {
-                    if(Thread.currentThread().isInterrupted()){
-                        return null;
+        //the molecules and their fragments are laid out in parallel and drawn into the document on this thread, the
+        // molecules are written in the given order
+        this.processExportChunks(aMoleculeDataModelList, 1, "PDF_Export_Depiction_Thread",
+                aChunk -> this.layOutItemizationForPdf(aChunk.get(0), aFragmentationName),
+                (aChunk, aDepictions) -> {
+                    MoleculeDataModel tmpMoleculeDataModel = aChunk.get(0);
+                    if (aDepictions == null) {
+                        tmpFailedExportFragments.add(tmpMoleculeDataModel.getUniqueSmiles());
+                        return;
                     }
-                    if (tmpFragmentNumber >= tmpFragmentList.size()) {
-                        break;
+                    tmpFailedExportFragments.addAll(aDepictions.failedSmilesList);
+                    if (aDepictions.moleculeAtomContainer == null) {
+                        return;
                     }
-                    FragmentDataModel tmpFragmentDatModel = tmpFragmentList.get(tmpFragmentNumber);
-                    IAtomContainer tmpFragmentStructure;
-                    try {
-                        tmpFragmentStructure = tmpFragmentDatModel.getAtomContainer();
-                    } catch (CDKException anException) {
-                        Exporter.LOGGER.getLogger(MoleculeDataModel.class.getName()).log(Level.SEVERE, anException.toString() + "_" + tmpFragmentDatModel.getName(), anException);
-                        tmpFailedExportFragments.add(tmpFragmentDatModel.getUniqueSmiles());
-                        continue;
+                    PdfPTable tmpTable = new PdfPTable(2);
+                    PdfPTable tmpFragmentTable = new PdfPTable(1);
+                    tmpTable.setWidths(new int[]{40, 80});
+                    PdfPCell tmpNameCell = new PdfPCell(new Paragraph(Message.get("Exporter.itemsTab.pdfCellHeader.name"), this.fontFactory));
+                    tmpNameCell.setFixedHeight(55f);
+                    PdfPCell tmpStructureCell = new PdfPCell(new Paragraph(Message.get("Exporter.itemsTab.pdfCellHeader.structure"), this.fontFactory));
+                    tmpStructureCell.setFixedHeight(120f);
+                    tmpTable.addCell(tmpNameCell);
+                    String tmpName = tmpMoleculeDataModel.getName();
+                    tmpTable.addCell(tmpName);
+                    tmpTable.addCell(tmpStructureCell);
+                    // Image of molecule
+                    PdfPCell tmpMoleculeStructureCell = new PdfPCell();
+                    tmpMoleculeStructureCell.setFixedHeight(120f);
+                    tmpMoleculeStructureCell.addElement(this.getVectorITextImage(tmpPdfWriter, aDepictions.moleculeAtomContainer, 3.0, null));
+                    tmpTable.addCell(tmpMoleculeStructureCell);
+                    PdfPCell tmpCellOfFragment = new PdfPCell(new Paragraph(Message.get("Exporter.itemsTab.pdfCellHeader.fragments"), this.fontFactory));
+                    tmpCellOfFragment.setHorizontalAlignment(Element.ALIGN_CENTER);
+                    tmpFragmentTable.addCell(tmpCellOfFragment);
+                    this.document.add(tmpTable);
+                    this.document.add(tmpFragmentTable);
+                    if (aDepictions.fragmentAtomContainerList == null) {
+                        //molecule has not undergone the specific fragmentation
+                        return;
                     }
-                    if(!tmpMoleculeDataModel.hasMoleculeUndergoneSpecificFragmentation(aFragmentationName)){
-                        continue;
+                    PdfPTable tmpFragmentationTable2 = new PdfPTable(3);
+                    for (int i = 0; i < aDepictions.fragmentAtomContainerList.size(); i++) {
+                        PdfPCell cell = new PdfPCell();
+                        cell.addElement(this.getVectorITextImage(tmpPdfWriter, aDepictions.fragmentAtomContainerList.get(i),
+                                3.0, aDepictions.fragmentFrequencyList.get(i)));
+                        tmpFragmentationTable2.addCell(cell);
                     }
-                    String tmpFrequency = tmpMoleculeDataModel.getFragmentFrequencyOfSpecificAlgorithm(aFragmentationName).get(tmpFragmentDatModel.getUniqueSmiles()).toString();
-                    javafx.scene.image.Image tmpFragmentImage = DepictionUtil.depictImageWithText(tmpFragmentStructure, 3.0, BasicDefinitions.DEFAULT_IMAGE_WIDTH_DEFAULT, BasicDefinitions.DEFAULT_IMAGE_HEIGHT_DEFAULT, tmpFrequency);
-                    BufferedImage tmpBufferedImageOfFragment = SwingFXUtils.fromFXImage(tmpFragmentImage, null);
-                    Image tmpFragment = this.getITextImage(tmpBufferedImageOfFragment);
-                    PdfPCell cell = new PdfPCell();
-                    cell.addElement(tmpFragment);
-                    tmpCell.add(cell);
-                    tmpFragmentNumber++;
-                }
-                for (int tmpCellIterator = 0; tmpCellIterator < 3; tmpCellIterator++) {
-                    if(Thread.currentThread().isInterrupted()){
-                        return null;
-                    }
-                    if (tmpCellIterator < tmpImagesNumbers) {
-                        tmpFragmentationTable2.addCell(tmpCell.get(tmpCellIterator));
-                    } else {
+                    //fills the last row of the table with empty cells
+                    for (int tmpCellIterator = aDepictions.fragmentAtomContainerList.size(); tmpCellIterator % 3 != 0; tmpCellIterator++) {
                         tmpFragmentationTable2.addCell(new Paragraph(""));
                     }
-                }
-            }
-            this.document.add(tmpFragmentationTable2);
-            this.document.newPage();
-        }
+                    this.document.add(tmpFragmentationTable2);
+                    this.document.newPage();
+                });
         this.document.close();
         return tmpFailedExportFragments;
     }
@@ -585,85 +962,57 @@ public class Exporter {
      * using 2D information equally setting each z coordinate to 0. If no 2D information are available, it can be
      * chosen to either generate (pseudo-) 2D atom coordinates (originally intended for layout
      * purposes) or to export without specifying the atom coordinates (x, y, z = 0) via the last parameter.
+     * The records are created in parallel by a pool of export threads, each handling a chunk of fragments, and are
+     * written to the file in the order of the given list. If the export is interrupted or a chunk of records cannot be
+     * created, the partially written file is deleted.
      *
      * @param aFile                  File to save fragments
      * @param aFragmentDataModelList list of FragmentDataModel instances
      * @param generate2DCoordinates  boolean value whether to generate 2D coordinates
+     * @return SMILES codes of the fragments that could not be exported or null if the export failed
+     * @throws CancellationException if the export has been interrupted
      * @author Samuel Behr
      */
     private List<String> createFragmentationTabSingleSDFile(File aFile,
                                                             List<MoleculeDataModel> aFragmentDataModelList,
-                                                            boolean generate2DCoordinates) {
+                                                            boolean generate2DCoordinates) throws CancellationException {
         if (aFragmentDataModelList == null) {
             return null;
         }
         try {
             if (aFile != null) {
                 List<String> tmpFailedExportFragments = new LinkedList<>();
-                int tmpExportedFragmentsCounter = 0;
-                int tmpFailedFragmentExportCounter = 0;
-                try (
-                        PrintWriter tmpWriter = new PrintWriter(aFile.getPath());
-                        BufferedWriter tmpBufferedWriter = new BufferedWriter(tmpWriter);
-                        SDFWriter tmpSDFWriter = new SDFWriter(tmpBufferedWriter);
-                ) {
-                    //specifying format of export
-                    //setting whether to always use MDL V3000 format
-                    tmpSDFWriter.setAlwaysV3000(this.settingsContainer.getAlwaysMDLV3000FormatAtExportSetting());
-                    //accessing the WriteAromaticBondType setting
-                    tmpSDFWriter.getSetting(MDLV2000Writer.OptWriteAromaticBondTypes).setSetting("true");
-                    //iterating through the fragments held by the list of fragments
-                    for (MoleculeDataModel tmpFragmentDataModel : aFragmentDataModelList) {
-                        if(Thread.currentThread().isInterrupted()){
-                            return null;
-                        }
-                        IAtomContainer tmpFragment;
-                        try {
-                            tmpFragment = tmpFragmentDataModel.getAtomContainer();
-                        } catch (CDKException anException) {
-                            Exporter.LOGGER.log(Level.SEVERE, anException.toString() + "_" + tmpFragmentDataModel.getName(), anException);
-                            tmpFailedExportFragments.add(tmpFragmentDataModel.getUniqueSmiles());
-                            tmpFailedFragmentExportCounter++;
-                            continue;
-                        }
-                        IAtomContainer tmpFragmentClone = null;
-                        boolean tmpPoint3dAvailable = ChemUtil.has3DCoordinates(tmpFragmentDataModel);
-                        boolean tmpPoint2dAvailable = ChemUtil.has2DCoordinates(tmpFragmentDataModel);
-                        if (!tmpPoint3dAvailable) {
-                            tmpFragmentClone = this.handleFragmentWithNo3dInformationAvailable(tmpFragment,
-                                    tmpPoint2dAvailable, generate2DCoordinates);
-                        } //else: given 3D info is used
-                        //writing to file
-                        try {
-                            if (tmpPoint3dAvailable) {
-                                tmpSDFWriter.write(tmpFragment);
-                            } else {
-                                tmpSDFWriter.write(tmpFragmentClone);
-                            }
-                            tmpExportedFragmentsCounter++;
-                        } catch (CDKException anException) {
-                            //retrying with a kekulized clone of the fragment
-                            try {
-                                if (tmpPoint3dAvailable) {
-                                    tmpFragmentClone = tmpFragment.clone();
+                boolean tmpAlwaysV3000 = this.settingsContainer.getAlwaysMDLV3000FormatAtExportSetting();
+                //the records are created in parallel in chunks of fragments and written in the order of the given list
+                boolean tmpIsFileComplete = false;
+                try (FileChannel tmpFileChannel = FileChannel.open(aFile.toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    this.processExportChunks(aFragmentDataModelList, BasicDefinitions.SD_EXPORT_CHUNK_SIZE, "SD_Export_Thread",
+                            aChunk -> this.createSDFileChunk(aChunk, tmpAlwaysV3000, generate2DCoordinates),
+                            (aChunk, anSDFileChunk) -> {
+                                if (anSDFileChunk == null) {
+                                    throw new IOException("Creating the SD records of a chunk of fragments failed.");
                                 }
-                                Kekulization.kekulize(tmpFragmentClone);
-                                tmpSDFWriter.write(tmpFragmentClone);
-                                tmpExportedFragmentsCounter++;
-                            } catch (CDKException | CloneNotSupportedException anInnerException) {
-                                Exporter.LOGGER.log(Level.SEVERE, anInnerException.toString(), anInnerException);
-                                tmpFailedExportFragments.add(tmpFragmentDataModel.getUniqueSmiles());
-                                tmpFailedFragmentExportCounter++;
-                            }
-                        }
+                                ByteBuffer tmpByteBuffer = ByteBuffer.wrap(anSDFileChunk.content.toString().getBytes(Charset.defaultCharset()));
+                                while (tmpByteBuffer.hasRemaining()) {
+                                    tmpFileChannel.write(tmpByteBuffer);
+                                }
+                                tmpFailedExportFragments.addAll(anSDFileChunk.failedSmilesList);
+                            });
+                    tmpIsFileComplete = true;
+                } finally {
+                    //the file channel is closed at this point
+                    if (!tmpIsFileComplete) {
+                        this.deletePartialExportFile(aFile);
                     }
                 }
                 Exporter.LOGGER.log(Level.INFO, String.format("Exported %d fragments as single SD file " +
-                                "(export of %d fragments failed). File name: %s", tmpExportedFragmentsCounter,
-                        tmpFailedFragmentExportCounter, aFile.getName()));
+                                "(export of %d fragments failed). File name: %s",
+                        aFragmentDataModelList.size() - tmpFailedExportFragments.size(),
+                        tmpFailedExportFragments.size(), aFile.getName()));
                 return tmpFailedExportFragments;
             }
-        } catch (NullPointerException | IOException | CDKException anException) {
+        } catch (NullPointerException | IOException anException) {
             Exporter.LOGGER.log(Level.SEVERE, anException.toString(), anException);
             return null;
         }
@@ -671,6 +1020,162 @@ public class Exporter {
     }
     //
 
+    /**
+     * Creates the MDL SD records of the given fragments for the single SD file export, see
+     * {@link #createFragmentationTabSingleSDFile(File, List, boolean)}. Called by the export threads; a record that
+     * cannot be written is left out completely and its SMILES code is reported as failed. The lock of each fragment
+     * data model is held while its atom container is used, see
+     * {@link #applyCachedLayoutCoordinates(MoleculeDataModel, IAtomContainer)}.
+     *
+     * @param aFragmentDataModelList chunk of fragments to create the records of
+     * @param anAlwaysV3000 whether to always use the MDL V3000 format
+     * @param generate2DCoordinates whether to generate 2D coordinates for fragments without coordinates
+     * @return records of the fragments
+     * @throws CDKException if the SD writer cannot be configured
+     * @throws IOException if the records cannot be buffered
+     */
+    private SDFileChunk createSDFileChunk(List<MoleculeDataModel> aFragmentDataModelList, boolean anAlwaysV3000,
+                                          boolean generate2DCoordinates) throws CDKException, IOException {
+        SDFileChunk tmpSDFileChunk = new SDFileChunk();
+        BufferedWriter tmpBufferedWriter = new BufferedWriter(tmpSDFileChunk.content);
+        SDFWriter tmpSDFWriter = new SDFWriter(tmpBufferedWriter);
+        //specifying format of export
+        //setting whether to always use MDL V3000 format
+        tmpSDFWriter.setAlwaysV3000(anAlwaysV3000);
+        //accessing the WriteAromaticBondType setting
+        tmpSDFWriter.getSetting(MDLV2000Writer.OptWriteAromaticBondTypes).setSetting("true");
+        StringBuffer tmpContent = tmpSDFileChunk.content.getBuffer();
+        for (MoleculeDataModel tmpFragmentDataModel : aFragmentDataModelList) {
+            if (Thread.currentThread().isInterrupted()) {
+                return tmpSDFileChunk;
+            }
+            tmpBufferedWriter.flush();
+            int tmpRecordStart = tmpContent.length();
+            synchronized (tmpFragmentDataModel) {
+                IAtomContainer tmpFragment;
+                try {
+                    tmpFragment = tmpFragmentDataModel.getAtomContainer();
+                } catch (CDKException anException) {
+                    Exporter.LOGGER.log(Level.SEVERE, anException.toString() + "_" + tmpFragmentDataModel.getName(), anException);
+                    tmpSDFileChunk.failedSmilesList.add(tmpFragmentDataModel.getUniqueSmiles());
+                    continue;
+                }
+                IAtomContainer tmpFragmentClone = null;
+                boolean tmpPoint3dAvailable = ChemUtil.has3DCoordinates(tmpFragment);
+                boolean tmpPoint2dAvailable = ChemUtil.has2DCoordinates(tmpFragment);
+                if (!tmpPoint3dAvailable) {
+                    tmpFragmentClone = this.handleFragmentWithNo3dInformationAvailable(tmpFragment,
+                            tmpFragmentDataModel.getUniqueSmiles(), tmpPoint2dAvailable, generate2DCoordinates);
+                } //else: given 3D info is used
+                //writing to the chunk
+                try {
+                    if (tmpPoint3dAvailable) {
+                        tmpSDFWriter.write(tmpFragment);
+                    } else {
+                        tmpSDFWriter.write(tmpFragmentClone);
+                    }
+                } catch (CDKException anException) {
+                    //removing the partially written record and retrying with a kekulized clone of the fragment
+                    tmpBufferedWriter.flush();
+                    tmpContent.setLength(tmpRecordStart);
+                    try {
+                        if (tmpPoint3dAvailable) {
+                            tmpFragmentClone = tmpFragment.clone();
+                        }
+                        Kekulization.kekulize(tmpFragmentClone);
+                        tmpSDFWriter.write(tmpFragmentClone);
+                        } catch (CDKException | CloneNotSupportedException anInnerException) {
+                        Exporter.LOGGER.log(Level.SEVERE, anInnerException.toString(), anInnerException);
+                        tmpBufferedWriter.flush();
+                        tmpContent.setLength(tmpRecordStart);
+                        tmpSDFileChunk.failedSmilesList.add(tmpFragmentDataModel.getUniqueSmiles());
+                    }
+                }
+            }
+        }
+        tmpBufferedWriter.flush();
+        return tmpSDFileChunk;
+    }
+    //
+
+    /**
+     * Creates a thread pool for the export of chemical files, with one thread per available processor.
+     *
+     * @param aThreadName name of the threads
+     * @return executor service with daemon threads
+     */
+    private ExecutorService createExportExecutor(String aThreadName) {
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), aRunnable -> {
+            Thread tmpThread = new Thread(aRunnable);
+            tmpThread.setName(aThreadName);
+            tmpThread.setUncaughtExceptionHandler(LogUtil.getUncaughtExceptionHandler());
+            tmpThread.setDaemon(true);
+            return tmpThread;
+        });
+    }
+    //
+
+    /**
+     * Returns the maximum number of tasks submitted to the threads of a parallel export but not yet written to the
+     * file. It limits the memory used for results waiting to be written in order.
+     *
+     * @return maximum number of pending tasks
+     */
+    private int getMaxNumberOfPendingExportTasks() {
+        return Runtime.getRuntime().availableProcessors() * BasicDefinitions.EXPORT_PENDING_TASKS_PER_THREAD;
+    }
+    //
+
+    /**
+     * Processes the given list in chunks of the given size in parallel by a pool of export threads and hands the
+     * result of each chunk to the given handler on the calling thread, in the order of the given list. At most
+     * {@link #getMaxNumberOfPendingExportTasks()} chunks are submitted but not yet handled at a time. The result of a
+     * chunk whose task failed is handed to the handler as null.
+     *
+     * @param aList data models or other items to process
+     * @param aChunkSize maximum number of items of a chunk
+     * @param aThreadName name of the export threads
+     * @param aTask task creating the result of a chunk, called by the export threads
+     * @param aHandler handler writing the result of a chunk, called by the calling thread
+     * @param <T> type of the items
+     * @param <R> type of the results
+     * @param <E> type of the exception thrown by the handler
+     * @throws CancellationException if the calling thread has been interrupted, not all chunks are handled then
+     * @throws E if the handler throws it, the remaining chunks are not handled then
+     */
+    private <T, R, E extends Exception> void processExportChunks(List<T> aList,
+                                                                 int aChunkSize,
+                                                                 String aThreadName,
+                                                                 ExportChunkTask<T, R> aTask,
+                                                                 ExportChunkHandler<T, R, E> aHandler)
+            throws CancellationException, E {
+        ExecutorService tmpExecutor = this.createExportExecutor(aThreadName);
+        try {
+            int tmpMaxNumberOfPendingChunks = this.getMaxNumberOfPendingExportTasks();
+            ArrayDeque<List<T>> tmpPendingChunks = new ArrayDeque<>(tmpMaxNumberOfPendingChunks);
+            ArrayDeque<Future<R>> tmpPendingResults = new ArrayDeque<>(tmpMaxNumberOfPendingChunks);
+            int tmpNextChunkStart = 0;
+            while (tmpNextChunkStart < aList.size() || !tmpPendingChunks.isEmpty()) {
+                while (tmpNextChunkStart < aList.size() && tmpPendingChunks.size() < tmpMaxNumberOfPendingChunks) {
+                    List<T> tmpChunk = aList.subList(tmpNextChunkStart,
+                            Math.min(tmpNextChunkStart + aChunkSize, aList.size()));
+                    tmpPendingChunks.add(tmpChunk);
+                    tmpPendingResults.add(tmpExecutor.submit(() -> aTask.apply(tmpChunk)));
+                    tmpNextChunkStart += tmpChunk.size();
+                }
+                R tmpResult = this.getPendingExportResult(tmpPendingResults.poll());
+                //checked after waiting, so that a result cut short by the interruption is never handled
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("The export has been interrupted.");
+                }
+                aHandler.handle(tmpPendingChunks.poll(), tmpResult);
+            }
+        } finally {
+            tmpExecutor.shutdownNow();
+        }
+    }
+    //
+
     /**
      * Exports the chemical data of the given fragments as separate MDL SD files to an
      * empty folder generated at the chosen path. The molecular formula of each fragment is used as name for each respective
@@ -724,7 +1229,7 @@ public class Exporter {
                     boolean tmpPoint2dAvailable = ChemUtil.has2DCoordinates(tmpFragmentDataModel);
                     if (!tmpPoint3dAvailable) {
                         tmpFragmentClone = this.handleFragmentWithNo3dInformationAvailable(tmpFragment,
-                                tmpPoint2dAvailable, generate2DCoordinates);
+                                tmpFragmentDataModel.getUniqueSmiles(), tmpPoint2dAvailable, generate2DCoordinates);
                     }
                     //generating file
                     String tmpMolecularFormula = ChemUtil.generateMolecularFormula(tmpFragment);
@@ -826,7 +1331,7 @@ public class Exporter {
                     //checking whether 3D information are available
                     if (!tmpPoint3dAvailable) {
                         tmpFragmentClone = this.handleFragmentWithNo3dInformationAvailable(tmpFragment,
-                                tmpPoint2dAvailable, generate2DCoordinates);
+                                tmpFragmentDataModel.getUniqueSmiles(), tmpPoint2dAvailable, generate2DCoordinates);
                     }
                     //generating file
                     String tmpMolecularFormula = ChemUtil.generateMolecularFormula(tmpFragment);
@@ -862,6 +1367,168 @@ public class Exporter {
     }
     //
 
+    /**
+     * Exports the chemical data of the given fragments as separate MDL SD or PDB files streamed into a single ZIP
+     * archive. Each entry is named after the molecular formula of its fragment; if the name is already taken, "(n)" is
+     * appended, as for the files of the folder exports, see {@link #createFragmentationTabSeparateSDFiles(File, List,
+     * boolean)} and {@link #createFragmentationTabPDBFiles(File, List, boolean)}, which also describe how the records
+     * are created. The records are created in parallel by a pool of export threads, each handling a chunk of
+     * fragments, while the calling thread names them and writes them to the archive in the order of the given list.
+     * Fragments that cannot be exported get no entry. If the export is interrupted or a chunk of files cannot be
+     * created, the partially written archive is deleted.
+     *
+     * @param aFile                  ZIP file to save fragments
+     * @param aFragmentDataModelList list of FragmentDataModel instances
+     * @param aChemFileType          file type of the entries
+     * @param generate2DCoordinates  boolean value whether to generate 2D coordinates
+     * @return SMILES codes of the fragments that could not be exported or null if the export failed
+     * @throws CancellationException if the export has been interrupted
+     */
+    private List<String> createFragmentationTabZipArchive(File aFile,
+                                                          List<MoleculeDataModel> aFragmentDataModelList,
+                                                          ChemFileTypes aChemFileType,
+                                                          boolean generate2DCoordinates) throws CancellationException {
+        if (aFragmentDataModelList == null || aChemFileType == null) {
+            return null;
+        }
+        try {
+            if (aFile != null) {
+                List<String> tmpFailedExportFragments = new LinkedList<>();
+                String tmpFileExtension = aChemFileType == ChemFileTypes.SDF ? ".sdf" : ".pdb";
+                boolean tmpAlwaysV3000 = this.settingsContainer.getAlwaysMDLV3000FormatAtExportSetting();
+                //names of the entries written so far and the next "(n)" suffix of each molecular formula, to resolve
+                // duplicates like the folder exports do without trying all taken suffixes again
+                Set<String> tmpEntryNameSet = new HashSet<>(CollectionUtil.calculateInitialHashCollectionCapacity(
+                        aFragmentDataModelList.size()), BasicDefinitions.DEFAULT_HASH_COLLECTION_LOAD_FACTOR);
+                Map<String, Integer> tmpNextSuffixMap = new HashMap<>();
+                boolean tmpIsFileComplete = false;
+                try (ZipOutputStream tmpZipOutputStream = new ZipOutputStream(new BufferedOutputStream(
+                        new FileOutputStream(aFile), BasicDefinitions.BUFFER_SIZE))) {
+                    //the entries are text records, so compression speed matters more than size
+                    tmpZipOutputStream.setLevel(Deflater.BEST_SPEED);
+                    this.processExportChunks(aFragmentDataModelList, BasicDefinitions.SD_EXPORT_CHUNK_SIZE, "ZIP_Export_Thread",
+                            aChunk -> this.createZipEntryChunk(aChunk, aChemFileType, tmpAlwaysV3000, generate2DCoordinates),
+                            (aChunk, aZipEntryChunk) -> {
+                                if (aZipEntryChunk == null) {
+                                    throw new IOException("Creating the ZIP entries of a chunk of fragments failed.");
+                                }
+                                for (int i = 0; i < aZipEntryChunk.molecularFormulaList.size(); i++) {
+                                    String tmpEntryName = Exporter.createUniqueEntryName(aZipEntryChunk.molecularFormulaList.get(i),
+                                            tmpFileExtension, tmpEntryNameSet, tmpNextSuffixMap);
+                                    tmpZipOutputStream.putNextEntry(new ZipEntry(tmpEntryName));
+                                    tmpZipOutputStream.write(aZipEntryChunk.contentList.get(i));
+                                    tmpZipOutputStream.closeEntry();
+                                }
+                                tmpFailedExportFragments.addAll(aZipEntryChunk.failedSmilesList);
+                            });
+                    tmpIsFileComplete = true;
+                } finally {
+                    //the ZIP output stream is closed at this point
+                    if (!tmpIsFileComplete) {
+                        this.deletePartialExportFile(aFile);
+                    }
+                }
+                Exporter.LOGGER.log(Level.INFO, String.format("Exported %d fragments as %s files in a ZIP archive " +
+                                "(export of %d fragments failed). File name: %s",
+                        aFragmentDataModelList.size() - tmpFailedExportFragments.size(), aChemFileType,
+                        tmpFailedExportFragments.size(), aFile.getName()));
+                return tmpFailedExportFragments;
+            }
+        } catch (NullPointerException | IOException | IllegalArgumentException anException) {
+            Exporter.LOGGER.log(Level.SEVERE, anException.toString(), anException);
+            return null;
+        }
+        return null;
+    }
+    //
+
+    /**
+     * Creates the separate MDL SD or PDB files of the given fragments for the ZIP archive export, see
+     * {@link #createFragmentationTabZipArchive(File, List, ChemFileTypes, boolean)}. Called by the export threads; each
+     * file is written into its own buffer, so a fragment that cannot be written is left out completely and its SMILES
+     * code is reported as failed. The lock of each fragment data model is held while its atom container is used, as in
+     * {@link #createSDFileChunk(List, boolean, boolean)}.
+     *
+     * @param aFragmentDataModelList chunk of fragments to create the files of
+     * @param aChemFileType file type to create
+     * @param anAlwaysV3000 whether to always use the MDL V3000 format for SD files
+     * @param generate2DCoordinates whether to generate 2D coordinates for fragments without coordinates
+     * @return files of the fragments with their molecular formulas
+     */
+    private ZipEntryChunk createZipEntryChunk(List<MoleculeDataModel> aFragmentDataModelList, ChemFileTypes aChemFileType,
+                                              boolean anAlwaysV3000, boolean generate2DCoordinates) {
+        ZipEntryChunk tmpZipEntryChunk = new ZipEntryChunk();
+        for (MoleculeDataModel tmpFragmentDataModel : aFragmentDataModelList) {
+            if (Thread.currentThread().isInterrupted()) {
+                return tmpZipEntryChunk;
+            }
+            synchronized (tmpFragmentDataModel) {
+                IAtomContainer tmpFragment;
+                try {
+                    tmpFragment = tmpFragmentDataModel.getAtomContainer();
+                } catch (CDKException anException) {
+                    Exporter.LOGGER.log(Level.SEVERE, anException.toString() + "_" + tmpFragmentDataModel.getName(), anException);
+                    tmpZipEntryChunk.failedSmilesList.add(tmpFragmentDataModel.getUniqueSmiles());
+                    continue;
+                }
+                boolean tmpPoint3dAvailable = ChemUtil.has3DCoordinates(tmpFragment);
+                IAtomContainer tmpFragmentToWrite = tmpFragment;
+                if (!tmpPoint3dAvailable) {
+                    tmpFragmentToWrite = this.handleFragmentWithNo3dInformationAvailable(tmpFragment,
+                            tmpFragmentDataModel.getUniqueSmiles(), ChemUtil.has2DCoordinates(tmpFragment), generate2DCoordinates);
+                } //else: given 3D info is used
+                String tmpContent;
+                try {
+                    if (aChemFileType == ChemFileTypes.SDF) {
+                        try {
+                            tmpContent = this.writeSDFile(tmpFragmentToWrite, anAlwaysV3000);
+                        } catch (CDKException anException) {
+                            //retrying with a kekulized clone of the fragment
+                            IAtomContainer tmpFragmentClone = tmpPoint3dAvailable ? tmpFragment.clone() : tmpFragmentToWrite;
+                            Kekulization.kekulize(tmpFragmentClone);
+                            tmpContent = this.writeSDFile(tmpFragmentClone, anAlwaysV3000);
+                        }
+                    } else {
+                        StringWriter tmpStringWriter = new StringWriter();
+                        try (PDBWriter tmpPDBWriter = new PDBWriter(tmpStringWriter)) {
+                            tmpPDBWriter.writeMolecule(tmpFragmentToWrite);
+                        }
+                        tmpContent = tmpStringWriter.toString();
+                    }
+                } catch (CDKException | CloneNotSupportedException | IOException anException) {
+                    Exporter.LOGGER.log(Level.SEVERE, anException.toString(), anException);
+                    tmpZipEntryChunk.failedSmilesList.add(tmpFragmentDataModel.getUniqueSmiles());
+                    continue;
+                }
+                tmpZipEntryChunk.molecularFormulaList.add(ChemUtil.generateMolecularFormula(tmpFragment));
+                tmpZipEntryChunk.contentList.add(tmpContent.getBytes(Charset.defaultCharset()));
+            }
+        }
+        return tmpZipEntryChunk;
+    }
+    //
+
+    /**
+     * Writes the given atom container as an MDL SD file with aromatic bond types and returns its content.
+     *
+     * @param anAtomContainer atom container to write
+     * @param anAlwaysV3000 whether to always use the MDL V3000 format
+     * @return content of the SD file
+     * @throws CDKException if the atom container cannot be written
+     * @throws IOException if the content cannot be buffered
+     */
+    private String writeSDFile(IAtomContainer anAtomContainer, boolean anAlwaysV3000) throws CDKException, IOException {
+        StringWriter tmpStringWriter = new StringWriter();
+        try (SDFWriter tmpSDFWriter = new SDFWriter(new BufferedWriter(tmpStringWriter))) {
+            //specifying format of export
+            tmpSDFWriter.setAlwaysV3000(anAlwaysV3000);
+            tmpSDFWriter.getSetting(MDLV2000Writer.OptWriteAromaticBondTypes).setSetting("true");
+            tmpSDFWriter.write(anAtomContainer);
+        }
+        return tmpStringWriter.toString();
+    }
+    //
+
     /**
      * Converts a buffered image into a com.lowagie.text image (necessary for pdf export with iText) and returns it.
      *
@@ -881,6 +1548,176 @@ public class Exporter {
     }
     //
 
+    /**
+     * Draws the given structure as vector graphics into a PDF template of the given writer and returns it wrapped in a
+     * com.lowagie.text image, so that the structure is not rasterised and stays sharp at any zoom of the PDF viewer.
+     * The template has the default image size, optionally extended by the given text below the structure. If the
+     * structure is null or empty or cannot be drawn, a raster error image is returned instead. The writer is not thread-safe, so this method
+     * must be called by the thread that adds the image to the document.
+     *
+     * @param aPdfWriter writer of the PDF document the image is added to
+     * @param anAtomContainer structure to draw, must have 2D coordinates
+     * @param aZoom zoom factor of the depiction
+     * @param aText text to draw below the structure, may be null
+     * @return com.lowagie.text image of the structure
+     * @throws BadElementException if the image cannot be created from the template
+     */
+    private Image getVectorITextImage(PdfWriter aPdfWriter, IAtomContainer anAtomContainer, double aZoom, String aText) throws BadElementException {
+        if (anAtomContainer == null || anAtomContainer.isEmpty()) {
+            Exporter.LOGGER.log(Level.WARNING, "Structure to draw into the PDF is null or empty.");
+            return this.getITextImage(SwingFXUtils.fromFXImage(DepictionUtil.depictErrorImage("Structure is null or empty.", 250, 250), null));
+        }
+        float tmpWidth = (float) BasicDefinitions.DEFAULT_IMAGE_WIDTH_DEFAULT;
+        float tmpHeight = (float) (aText == null ? BasicDefinitions.DEFAULT_IMAGE_HEIGHT_DEFAULT
+                : DepictionUtil.getHeightOfStructureWithText(BasicDefinitions.DEFAULT_IMAGE_HEIGHT_DEFAULT));
+        PdfTemplate tmpTemplate = aPdfWriter.getDirectContent().createTemplate(tmpWidth, tmpHeight);
+        Graphics2D tmpGraphics2D = tmpTemplate.createGraphicsShapes(tmpWidth, tmpHeight);
+        try {
+            if (aText == null) {
+                DepictionUtil.drawStructure(anAtomContainer, tmpGraphics2D, tmpWidth, tmpHeight, aZoom);
+            } else {
+                DepictionUtil.drawStructureWithText(anAtomContainer, tmpGraphics2D, tmpWidth,
+                        BasicDefinitions.DEFAULT_IMAGE_HEIGHT_DEFAULT, aZoom, aText);
+            }
+        } catch (CDKException | IllegalArgumentException anException) {
+            Exporter.LOGGER.log(Level.SEVERE, anException.toString(), anException);
+            return this.getITextImage(SwingFXUtils.fromFXImage(DepictionUtil.depictErrorImage(anException.getMessage(), 250, 250), null));
+        } finally {
+            tmpGraphics2D.dispose();
+        }
+        return Image.getInstance(tmpTemplate);
+    }
+    //
+
+    /**
+     * Creates the atom container of the given molecule with 2D layout coordinates for a PDF export, so that it only has
+     * to be drawn by {@link #getVectorITextImage(PdfWriter, IAtomContainer, double, String)} afterwards. Called by the
+     * depiction threads of the PDF export; the PDF writer is not accessed.
+     *
+     * @param aMoleculeDataModel molecule or fragment to depict
+     * @return atom container with 2D coordinates or null if it cannot be created
+     */
+    private IAtomContainer layOutForPdf(MoleculeDataModel aMoleculeDataModel) {
+        IAtomContainer tmpAtomContainer;
+        synchronized (aMoleculeDataModel) {
+            try {
+                tmpAtomContainer = aMoleculeDataModel.getAtomContainer();
+            } catch (CDKException anException) {
+                Exporter.LOGGER.log(Level.SEVERE, anException.toString() + "_" + aMoleculeDataModel.getName(), anException);
+                return null;
+            }
+            this.applyCachedLayoutCoordinates(aMoleculeDataModel, tmpAtomContainer);
+        }
+        return tmpAtomContainer;
+    }
+    //
+
+    /**
+     * Lays out the given molecule and its fragments of the given fragmentation for the itemization tab PDF export, see
+     * {@link #layOutForPdf(MoleculeDataModel)}. Called by the depiction threads of the PDF export.
+     *
+     * @param aMoleculeDataModel molecule to depict
+     * @param aFragmentationName name of the fragmentation whose fragments are depicted
+     * @return laid out structures of the molecule and its fragments with their frequencies
+     */
+    private ItemizationPdfStructures layOutItemizationForPdf(MoleculeDataModel aMoleculeDataModel, String aFragmentationName) {
+        ItemizationPdfStructures tmpDepictions = new ItemizationPdfStructures();
+        tmpDepictions.moleculeAtomContainer = this.layOutForPdf(aMoleculeDataModel);
+        if (tmpDepictions.moleculeAtomContainer == null) {
+            tmpDepictions.failedSmilesList.add(aMoleculeDataModel.getUniqueSmiles());
+            return tmpDepictions;
+        }
+        if (!aMoleculeDataModel.hasMoleculeUndergoneSpecificFragmentation(aFragmentationName)) {
+            return tmpDepictions;
+        }
+        List<FragmentDataModel> tmpFragmentList = aMoleculeDataModel.getFragmentsOfSpecificAlgorithm(aFragmentationName);
+        tmpDepictions.fragmentAtomContainerList = new ArrayList<>(tmpFragmentList.size());
+        tmpDepictions.fragmentFrequencyList = new ArrayList<>(tmpFragmentList.size());
+        for (FragmentDataModel tmpFragmentDataModel : tmpFragmentList) {
+            if (Thread.currentThread().isInterrupted()) {
+                return tmpDepictions;
+            }
+            String tmpFrequency = aMoleculeDataModel.getFragmentFrequencyOfSpecificAlgorithm(aFragmentationName).get(tmpFragmentDataModel.getUniqueSmiles()).toString();
+            IAtomContainer tmpFragmentAtomContainer = this.layOutForPdf(tmpFragmentDataModel);
+            if (tmpFragmentAtomContainer == null) {
+                tmpDepictions.failedSmilesList.add(tmpFragmentDataModel.getUniqueSmiles());
+                continue;
+            }
+            tmpDepictions.fragmentAtomContainerList.add(tmpFragmentAtomContainer);
+            tmpDepictions.fragmentFrequencyList.add(tmpFrequency);
+        }
+        return tmpDepictions;
+    }
+    //
+
+    /**
+     * Waits for the given result of a task of a parallel export and returns it. If waiting is interrupted, the
+     * interrupt flag of the current thread is set again.
+     *
+     * @param aFuture pending result
+     * @param <T> type of the result
+     * @return result or null if the task failed or waiting was interrupted
+     */
+    private <T> T getPendingExportResult(Future<T> aFuture) {
+        try {
+            return aFuture.get();
+        } catch (InterruptedException anException) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException anException) {
+            Exporter.LOGGER.log(Level.SEVERE, anException.toString(), anException);
+            return null;
+        }
+    }
+    //
+
+    /**
+     * Reports the end of the running export to the import and export monitor, as completed with the items that could
+     * be written if the export returned its list of failed items, otherwise as failed or cancelled without any items.
+     *
+     * @param aFailedExportItemList items that could not be exported, null if the export failed or was cancelled
+     */
+    private void finishExportMonitoring(List<String> aFailedExportItemList) {
+        ImportExportMonitor tmpMonitor = MonitoringUtil.getImportExportMonitor();
+        if (aFailedExportItemList == null) {
+            tmpMonitor.exportFinished(false, 0);
+        } else {
+            tmpMonitor.exportFinished(true, Math.max(0, tmpMonitor.getItemsToExport() - aFailedExportItemList.size()));
+        }
+    }
+    //
+
+    /**
+     * Deletes the given file of an export that was interrupted or failed, so that no incomplete file is left behind
+     * that looks like a successful export. A file that cannot be deleted is logged.
+     *
+     * @param aFile partially written file
+     */
+    private void deletePartialExportFile(File aFile) {
+        try {
+            Files.deleteIfExists(aFile.toPath());
+        } catch (IOException | SecurityException anException) {
+            Exporter.LOGGER.log(Level.WARNING, "Partially written export file could not be deleted: " + anException, anException);
+        }
+    }
+    //
+
+    /**
+     * Closes the PDF document of an export that was interrupted or failed, if it is still open, so that its file can
+     * be deleted. Exceptions thrown by the writer while closing the incomplete document are logged.
+     */
+    private void closePartialPdfDocument() {
+        if (this.document == null || !this.document.isOpen()) {
+            return;
+        }
+        try {
+            this.document.close();
+        } catch (RuntimeException anException) {
+            Exporter.LOGGER.log(Level.WARNING, "Partially written PDF document could not be closed: " + anException, anException);
+        }
+    }
+    //
+
     /**
      * Creates a header with general information for the PDf files.
      *
@@ -974,6 +1811,7 @@ public class Exporter {
      * is processed and the exception logged.
      *
      * @param aFragment                  atom container of a fragment to handle
+     * @param aUniqueSmiles              unique SMILES code of the fragment, used to reuse cached 2D layout coordinates
      * @param aPoint2dAvailable          whether 2D atom coordinates are available; this is not checked by this method!
      * @param aGenerate2dAtomCoordinates whether 2D atom coordinates should be generated (if the first parameter is true,
      *                                   this parameter does not matter
@@ -982,6 +1820,7 @@ public class Exporter {
      */
     private IAtomContainer handleFragmentWithNo3dInformationAvailable(
             IAtomContainer aFragment,
+            String aUniqueSmiles,
             boolean aPoint2dAvailable,
             boolean aGenerate2dAtomCoordinates) {
         //generating a clone of the fragment
@@ -997,7 +1836,7 @@ public class Exporter {
         if (!aPoint2dAvailable && aGenerate2dAtomCoordinates) {
             //2D coords are not available but they should be generated
             try {
-                ChemUtil.generate2DCoordinates(tmpFragmentClone);
+                ChemUtil.generate2DCoordinates(tmpFragmentClone, aUniqueSmiles);
             } catch (CDKException anException) {
                 Exporter.LOGGER.log(Level.SEVERE, anException.toString(), anException);
                 tmpErrorAtGenerating2dAtomCoordinates = true;
@@ -1014,6 +1853,29 @@ public class Exporter {
         }
         return tmpFragmentClone;
     }
+    //
+    /**
+     * Sets 2D layout coordinates on the given atom container of the given molecule before it is depicted, if it has
+     * none yet. The coordinates are taken from the layout coordinate cache or generated and cached, so that structures
+     * already laid out for the views are not laid out again. The lock of the molecule data model is held because the
+     * atom container may be kept in it and depicted concurrently.
+     *
+     * @param aMoleculeDataModel molecule data model the atom container belongs to
+     * @param anAtomContainer atom container of the molecule
+     */
+    private void applyCachedLayoutCoordinates(MoleculeDataModel aMoleculeDataModel, IAtomContainer anAtomContainer) {
+        synchronized (aMoleculeDataModel) {
+            if (ChemUtil.has2DCoordinates(anAtomContainer)) {
+                return;
+            }
+            try {
+                ChemUtil.generate2DCoordinates(anAtomContainer, aMoleculeDataModel.getUniqueSmiles());
+            } catch (CDKException anException) {
+                //the depiction generator retries the layout and reports the failure on the depiction
+                Exporter.LOGGER.log(Level.WARNING, anException.toString(), anException);
+            }
+        }
+    }
     //</editor-fold>
     //
     //<editor-fold desc="public properties" defaultstate="collapsed">
@@ -1036,6 +1898,101 @@ public class Exporter {
     }
     //</editor-fold>
     //
+    //<editor-fold desc="private classes" defaultstate="collapsed">
+    /**
+     * Task creating the result of a chunk of a parallel export, see
+     * {@link #processExportChunks(List, int, String, ExportChunkTask, ExportChunkHandler)}.
+     *
+     * @param <T> type of the items
+     * @param <R> type of the result
+     */
+    @FunctionalInterface
+    private interface ExportChunkTask<T, R> {
+        /**
+         * Creates the result of the given chunk.
+         *
+         * @param aChunk items to process
+         * @return result of the chunk
+         * @throws Exception if the result cannot be created
+         */
+        R apply(List<T> aChunk) throws Exception;
+    }
+    //
+    /**
+     * Handler writing the result of a chunk of a parallel export, see
+     * {@link #processExportChunks(List, int, String, ExportChunkTask, ExportChunkHandler)}.
+     *
+     * @param <T> type of the items
+     * @param <R> type of the result
+     * @param <E> type of the exception thrown while handling the result
+     */
+    @FunctionalInterface
+    private interface ExportChunkHandler<T, R, E extends Exception> {
+        /**
+         * Handles the result of the given chunk.
+         *
+         * @param aChunk processed items
+         * @param aResult result of the chunk or null if its task failed
+         * @throws E if the result cannot be written
+         */
+        void handle(List<T> aChunk, R aResult) throws E;
+    }
+    //
+    /**
+     * MDL SD records of a chunk of fragments created in parallel for the single SD file export.
+     */
+    private static final class SDFileChunk {
+        /**
+         * Records of the successfully written fragments.
+         */
+        private final StringWriter content = new StringWriter();
+        /**
+         * SMILES codes of the fragments that could not be written.
+         */
+        private final List<String> failedSmilesList = new LinkedList<>();
+    }
+    //
+    /**
+     * Separate chemical files of a chunk of fragments created in parallel for the ZIP archive export.
+     */
+    private static final class ZipEntryChunk {
+        /**
+         * Molecular formulas of the successfully written fragments, used to name the entries.
+         */
+        private final List<String> molecularFormulaList = new ArrayList<>(BasicDefinitions.SD_EXPORT_CHUNK_SIZE);
+        /**
+         * Contents of the files of the successfully written fragments, in the same order as the molecular formulas.
+         */
+        private final List<byte[]> contentList = new ArrayList<>(BasicDefinitions.SD_EXPORT_CHUNK_SIZE);
+        /**
+         * SMILES codes of the fragments that could not be written.
+         */
+        private final List<String> failedSmilesList = new LinkedList<>();
+    }
+    //
+    /**
+     * Structures of a molecule and its fragments laid out in parallel for the itemization tab PDF export.
+     */
+    private static final class ItemizationPdfStructures {
+        /**
+         * Laid out atom container of the molecule, null if it could not be created.
+         */
+        private IAtomContainer moleculeAtomContainer;
+        /**
+         * Laid out atom containers of the fragments, null if the molecule has not undergone the fragmentation.
+         */
+        private List<IAtomContainer> fragmentAtomContainerList;
+        /**
+         * Frequencies of the fragments in the molecule drawn below them, in the order of the atom container list.
+         */
+        private List<String> fragmentFrequencyList;
+        /**
+         * SMILES codes of the molecule or fragments that could not be depicted.
+         */
+        private final List<String> failedSmilesList = new LinkedList<>();
+    }
+    //</editor-fold>
+    //
     //<editor-fold desc="enum" defaultstate="collapsed">
     /**
      * Enum for different file types to export
@@ -1068,7 +2025,19 @@ public class Exporter {
         /**
          * enum value for pdb file
          */
-        PDB_FILE
+        PDB_FILE,
+        /**
+         * enum value for zip file of sd files
+         */
+        SD_ZIP_FILE,
+        /**
+         * enum value for zip file of pdb files
+         */
+        PDB_ZIP_FILE,
+        /**
+         * enum value for sparse matrix file of items
+         */
+        ITEM_SPARSE_MATRIX_FILE
     }
     //</editor-fold>
 }
@@ -0,0 +1,259 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.io;
+
+import de.unijena.cheminf.mortar.model.util.LogUtil;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Channel of the decompressed bytes of a gzip-compressed file. The file is decompressed by a background thread into
+ * blocks of bytes that are handed to the reading thread through a bounded queue, so decompression and parsing of the
+ * decompressed bytes overlap while at most the given number of blocks is held in memory. Files of concatenated gzip
+ * members are decompressed as a whole. Instances are not thread-safe, i.e. only one thread may read from a channel.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class GzipDecompressionChannel implements ReadableByteChannel {
+    //<editor-fold desc="private static final constants" defaultstate="collapsed">
+    /**
+     * Block signalling the end of the decompressed bytes or an exception of the decompression thread.
+     */
+    private static final byte[] END_OF_STREAM_BLOCK = new byte[0];
+    /**
+     * Size of the buffer of the underlying gzip input stream.
+     */
+    private static final int INFLATER_BUFFER_SIZE = 65536;
+    //</editor-fold>
+    //
+    //<editor-fold desc="private final class variables" defaultstate="collapsed">
+    /**
+     * Decompressed blocks not yet read.
+     */
+    private final BlockingQueue<byte[]> blockQueue;
+    /**
+     * Thread decompressing the file.
+     */
+    private final Thread decompressionThread;
+    /**
+     * Channel of the compressed file, read by the decompression thread.
+     */
+    private final FileChannel compressedFileChannel;
+    /**
+     * Number of bytes of the compressed file.
+     */
+    private final long compressedFileLength;
+    //</editor-fold>
+    //
+    //<editor-fold desc="private class variables" defaultstate="collapsed">
+    /**
+     * Exception thrown while decompressing, handed to the reading thread with the end of stream block.
+     */
+    private volatile IOException decompressionException;
+    /**
+     * Block that is currently read.
+     */
+    private byte[] currentBlock;
+    /**
+     * Index of the next byte of the current block to read.
+     */
+    private int currentBlockPosition;
+    /**
+     * Whether all decompressed bytes have been read.
+     */
+    private boolean isEndOfStreamReached;
+    /**
+     * Whether the channel is open.
+     */
+    private boolean isOpen;
+    //</editor-fold>
+    //
+    /**
+     * Constructor, opens the given file, reads its gzip header and starts the decompression thread.
+     *
+     * @param aFile gzip-compressed file
+     * @param aBlockSize number of decompressed bytes per block
+     * @param aMaxNumberOfPendingBlocks maximum number of decompressed blocks not yet read
+     * @throws NullPointerException if the given file is null
+     * @throws IllegalArgumentException if the block size or the number of pending blocks is not positive
+     * @throws IOException if the file cannot be opened or is not in gzip format
+     */
+    public GzipDecompressionChannel(File aFile, int aBlockSize, int aMaxNumberOfPendingBlocks)
+            throws NullPointerException, IllegalArgumentException, IOException {
+        Objects.requireNonNull(aFile, "aFile (instance of File) is null");
+        if (aBlockSize <= 0 || aMaxNumberOfPendingBlocks <= 0) {
+            throw new IllegalArgumentException("Block size and number of pending blocks must be positive.");
+        }
+        FileInputStream tmpFileInputStream = new FileInputStream(aFile);
+        InputStream tmpGzipInputStream;
+        try {
+            tmpGzipInputStream = new GZIPInputStream(tmpFileInputStream, GzipDecompressionChannel.INFLATER_BUFFER_SIZE);
+        } catch (IOException anException) {
+            tmpFileInputStream.close();
+            throw anException;
+        }
+        this.compressedFileChannel = tmpFileInputStream.getChannel();
+        this.compressedFileLength = aFile.length();
+        this.blockQueue = new ArrayBlockingQueue<>(aMaxNumberOfPendingBlocks);
+        this.currentBlock = null;
+        this.currentBlockPosition = 0;
+        this.isEndOfStreamReached = false;
+        this.isOpen = true;
+        this.decompressionThread = new Thread(() -> this.decompress(tmpGzipInputStream, aBlockSize));
+        this.decompressionThread.setName("Decompression_Thread");
+        this.decompressionThread.setUncaughtExceptionHandler(LogUtil.getUncaughtExceptionHandler());
+        this.decompressionThread.setDaemon(true);
+        this.decompressionThread.start();
+    }
+    //
+    //<editor-fold desc="public methods" defaultstate="collapsed">
+    /**
+     * Transfers decompressed bytes into the given buffer, waiting for the decompression thread if no decompressed
+     * block is available yet.
+     *
+     * @param aBuffer buffer to transfer the bytes into
+     * @return number of transferred bytes, -1 if all decompressed bytes have been read
+     * @throws ClosedChannelException if the channel is closed
+     * @throws InterruptedIOException if the reading thread is interrupted while waiting, its interrupt flag is set
+     * @throws IOException if the file cannot be decompressed
+     */
+    @Override
+    public int read(ByteBuffer aBuffer) throws IOException {
+        if (!this.isOpen) {
+            throw new ClosedChannelException();
+        }
+        if (this.isEndOfStreamReached) {
+            return -1;
+        }
+        if (!aBuffer.hasRemaining()) {
+            return 0;
+        }
+        while (this.currentBlock == null || this.currentBlockPosition == this.currentBlock.length) {
+            try {
+                this.currentBlock = this.blockQueue.take();
+            } catch (InterruptedException anException) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for decompressed bytes.");
+            }
+            this.currentBlockPosition = 0;
+            if (this.currentBlock == GzipDecompressionChannel.END_OF_STREAM_BLOCK) {
+                this.isEndOfStreamReached = true;
+                if (this.decompressionException != null) {
+                    throw this.decompressionException;
+                }
+                return -1;
+            }
+        }
+        int tmpLength = Math.min(aBuffer.remaining(), this.currentBlock.length - this.currentBlockPosition);
+        aBuffer.put(this.currentBlock, this.currentBlockPosition, tmpLength);
+        this.currentBlockPosition += tmpLength;
+        return tmpLength;
+    }
+    //
+    /**
+     * Returns the number of compressed bytes read from the file by the decompression thread so far. As the thread
+     * decompresses ahead of the reading thread, this is an estimate of the progress of reading the file.
+     *
+     * @return position in the compressed file, its length if the file has been decompressed completely
+     * @throws IOException if the position cannot be determined
+     */
+    public long getCompressedPosition() throws IOException {
+        try {
+            return this.compressedFileChannel.position();
+        } catch (ClosedChannelException anException) {
+            //the decompression thread closes the file at its end
+            return this.compressedFileLength;
+        }
+    }
+    //
+    /**
+     * Returns whether the channel is open.
+     *
+     * @return true if the channel has not been closed yet
+     */
+    @Override
+    public boolean isOpen() {
+        return this.isOpen;
+    }
+    //
+    /**
+     * Closes the channel, stops the decompression thread and discards the decompressed blocks not yet read.
+     */
+    @Override
+    public void close() {
+        if (!this.isOpen) {
+            return;
+        }
+        this.isOpen = false;
+        this.decompressionThread.interrupt();
+        this.blockQueue.clear();
+        this.currentBlock = null;
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private methods" defaultstate="collapsed">
+    /**
+     * Decompresses the given stream into blocks of the given size and puts them into the queue, followed by the end
+     * of stream block. Run by the decompression thread, which ends early if it is interrupted by closing the channel.
+     *
+     * @param anInputStream gzip input stream of the file, closed at the end
+     * @param aBlockSize number of decompressed bytes per block
+     */
+    private void decompress(InputStream anInputStream, int aBlockSize) {
+        try (anInputStream) {
+            while (!Thread.currentThread().isInterrupted()) {
+                byte[] tmpBlock = new byte[aBlockSize];
+                int tmpLength = anInputStream.readNBytes(tmpBlock, 0, aBlockSize);
+                if (tmpLength > 0) {
+                    this.blockQueue.put(tmpLength < aBlockSize ? Arrays.copyOf(tmpBlock, tmpLength) : tmpBlock);
+                }
+                if (tmpLength < aBlockSize) {
+                    break;
+                }
+            }
+        } catch (IOException anException) {
+            this.decompressionException = anException;
+        } catch (InterruptedException anException) {
+            //the channel has been closed
+            return;
+        }
+        try {
+            this.blockQueue.put(GzipDecompressionChannel.END_OF_STREAM_BLOCK);
+        } catch (InterruptedException anException) {
+            //the channel has been closed
+        }
+    }
+    //</editor-fold>
+}
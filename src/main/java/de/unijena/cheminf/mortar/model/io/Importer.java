@@ -22,10 +22,16 @@ package de.unijena.cheminf.mortar.model.io;
 
 import de.unijena.cheminf.mortar.gui.util.GuiUtil;
 import de.unijena.cheminf.mortar.message.Message;
+import de.unijena.cheminf.mortar.model.data.MoleculeDataModel;
+import de.unijena.cheminf.mortar.model.monitoring.MoleculeBatchEvent;
+import de.unijena.cheminf.mortar.model.monitoring.MonitoringUtil;
 import de.unijena.cheminf.mortar.model.settings.SettingsContainer;
 import de.unijena.cheminf.mortar.model.util.BasicDefinitions;
+import de.unijena.cheminf.mortar.model.util.ChemUtil;
 import de.unijena.cheminf.mortar.model.util.FileUtil;
+import de.unijena.cheminf.mortar.model.util.LogUtil;
 
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
@@ -55,15 +61,46 @@ import org.openscience.cdk.tools.manipulator.ChemFileManipulator;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.ToIntBiFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Importer.
@@ -77,6 +114,10 @@ public class Importer {
      * Property key that is used to store the detected molecule names on the imported atom containers.
      */
     public static final String MOLECULE_NAME_PROPERTY_KEY = "NAME";
+    /**
+     * Property key that is used to store the name of the file a molecule was imported from on the atom containers.
+     */
+    public static final String SOURCE_FILE_PROPERTY_KEY = "SOURCE_FILE";
     //</editor-fold>
     //
     //<editor-fold desc="private static final class constants" defaultstate="collapsed">
@@ -84,13 +125,58 @@ public class Importer {
      * Logger of this class.
      */
     private static final Logger LOGGER = Logger.getLogger(Importer.class.getName());
+    /**
+     * Bytes at the beginning of the line separating two records of an SD file.
+     */
+    private static final byte[] SD_RECORD_SEPARATOR = {'$', '$', '$', '$'};
+    /**
+     * Extension of gzip-compressed files, appended to the extension of the compressed file type.
+     */
+    private static final String GZIP_FILE_EXTENSION = ".gz";
+    /**
+     * Extensions of the importable file types, also if gzip-compressed, to find the importable files of a directory.
+     */
+    private static final Set<String> IMPORTABLE_FILE_EXTENSIONS = Set.of(".mol", ".sdf", ".pdb", ".smi", ".txt");
+    /**
+     * Residue names of water in PDB files, water residues are not imported as small molecules.
+     */
+    private static final Set<String> PDB_WATER_RESIDUE_NAMES = Set.of("HOH", "WAT", "DOD", "H2O");
+    /**
+     * Names of the PDB records that complete the HETATM residue before them if they do not belong to it; other records
+     * like ANISOU may come between the atom records of a residue.
+     */
+    private static final Set<String> PDB_RESIDUE_BOUNDARY_RECORD_NAMES = Set.of("HETATM", "ATOM", "TER", "MODEL", "ENDMDL", "END");
+    //</editor-fold>
+    //
+    //<editor-fold desc="private final class variables" defaultstate="collapsed">
+    /**
+     * Batches of molecule data models published during an import and not yet polled.
+     */
+    private final ConcurrentLinkedQueue<List<MoleculeDataModel>> publishedBatchQueue = new ConcurrentLinkedQueue<>();
+    /**
+     * Read positions of the files of the running or last import.
+     */
+    private final ConcurrentHashMap<File, Long> readPositionMap = new ConcurrentHashMap<>();
+    /**
+     * Files of the running or last import of several files that could not be imported, with the reason.
+     */
+    private final Map<File, String> failedFileMap = Collections.synchronizedMap(new LinkedHashMap<>());
     //</editor-fold>
     //
     //<editor-fold desc="private class variables" defaultstate="collapsed">
+    /**
+     * Total number of bytes of the files of the running or last import.
+     */
+    private volatile long totalNumberOfBytes;
     /**
      * Name of the last imported file.
      */
     private String fileName;
+    /**
+     * Thread pool parsing the chunks of all SD and SMILES files of an import of several files, null if each file
+     * creates its own pool.
+     */
+    private volatile ExecutorService sharedParsingExecutor;
     /**
      * Container of general MORTAR settings, providing the recent directory path and other import-related settings.
      */
@@ -132,35 +218,183 @@ public class Importer {
      * @throws Exception if something goes wrong
      */
     public IAtomContainerSet importMoleculeFile(File aFile) throws NullPointerException, Exception {
+        IAtomContainerSet tmpImportedMoleculesSet = this.readMoleculeFile(aFile);
+        this.preprocessMoleculeSet(tmpImportedMoleculesSet);
+        return tmpImportedMoleculesSet;
+    }
+    //
+    /**
+     * Imports a molecule file like {@link #importMoleculeFile(File)} and converts the imported molecules into molecule
+     * data models while the file is read. Preprocessing and the creation of the unique SMILES code are done in one pass
+     * per molecule, in parallel by a pool of import threads once more molecules than fit into one chunk are read. The
+     * returned list is in the order of the molecules in the file; molecules for which no unique SMILES code can be
+     * created are logged and left out. The data models are also published in batches in the same order while the file
+     * is imported, see {@link #pollImportedMoleculeDataModels()}, and the progress of the import can be queried with
+     * {@link #getImportProgress()}. Meant to be called from a background thread.
+     *
+     * @param aFile File to import
+     * @return the molecule data models of the imported molecules or null if a not importable file type was chosen
+     * @throws CDKException if the given file cannot be parsed
+     * @throws IOException if the given file cannot be found or read
+     * @throws ExecutionException if a chunk of molecules cannot be preprocessed or converted
+     * @throws NullPointerException if the given file is null
+     * @throws Exception if something goes wrong
+     */
+    public List<MoleculeDataModel> importMoleculeDataModels(File aFile) throws NullPointerException, Exception {
         Objects.requireNonNull(aFile, "aFile is null");
-        String tmpRecentDirFromContainer = this.settingsContainer.getRecentDirectoryPathSetting();
-        if(tmpRecentDirFromContainer == null || tmpRecentDirFromContainer.isEmpty()) {
-            this.settingsContainer.setRecentDirectoryPathSetting(SettingsContainer.RECENT_DIRECTORY_PATH_SETTING_DEFAULT);
+        this.prepareImport(List.of(aFile));
+        MoleculeDataModelConverter tmpConverter = new MoleculeDataModelConverter();
+        try {
+            if (!this.readMoleculeFileOfType(aFile, tmpConverter)) {
+                return null;
+            }
+            return tmpConverter.finish();
+        } finally {
+            tmpConverter.shutdown();
         }
-        String tmpFilePath = aFile.getPath();
-        String tmpFileExtension = FileUtil.getFileExtension(tmpFilePath);
-        this.fileName = aFile.getName();
-        IAtomContainerSet tmpImportedMoleculesSet = null;
-        switch (tmpFileExtension) {
-            case ".mol":
-                tmpImportedMoleculesSet = this.importMolFile(aFile);
-                break;
-            case ".sdf":
-                tmpImportedMoleculesSet = this.importSDFile(aFile);
-                break;
-            //Needs more work before it can be made available
-            /*case ".pdb":
-                tmpImportedMoleculesSet = this.importPDBFile(aFile);
-                break;*/
-            case ".smi":
-            case ".txt":
-                tmpImportedMoleculesSet = this.importSMILESFile(aFile);
-                break;
-            default:
-                tmpImportedMoleculesSet = null;
+    }
+    //
+    /**
+     * Imports the given molecule files like {@link #importMoleculeDataModels(File)} as one data set. The files are read
+     * in parallel by a pool of import threads, at most as many files at a time as there are threads, and their
+     * molecules are added in the order of the given list, each file in the order of its records. The chunks of large SD
+     * and SMILES files are parsed by a second pool of import threads shared by all files, so that the number of threads
+     * does not grow with the square of the number of processors. The molecules of a file are converted into data models
+     * and published once the file and all files before it are read. Files that cannot be imported are logged and
+     * skipped, unless only one file is given; they can be queried afterwards with {@link #getFailedFiles()} to report
+     * them. The file name of this importer is set to the name of the directory of the first file.
+     *
+     * @param aFileList Files to import
+     * @return the molecule data models of the imported molecules or null if a single file of a not importable file
+     * type was given
+     * @throws NullPointerException if the given list is null
+     * @throws Exception if something goes wrong with a single given file
+     */
+    public List<MoleculeDataModel> importMoleculeDataModels(List<File> aFileList) throws NullPointerException, Exception {
+        Objects.requireNonNull(aFileList, "aFileList (instance of List<File>) is null");
+        if (aFileList.size() == 1) {
+            return this.importMoleculeDataModels(aFileList.get(0));
+        }
+        if (aFileList.isEmpty()) {
+            return new ArrayList<>(0);
+        }
+        for (File tmpFile : aFileList) {
+            Objects.requireNonNull(tmpFile, "aFileList contains null");
+        }
+        this.prepareImport(aFileList);
+        File tmpParentDirectory = aFileList.get(0).getAbsoluteFile().getParentFile();
+        this.fileName = tmpParentDirectory == null ? aFileList.get(0).getName() : tmpParentDirectory.getName();
+        MoleculeDataModelConverter tmpConverter = new MoleculeDataModelConverter();
+        ExecutorService tmpExecutor = this.createImportExecutor("Multi_File_Import_Thread");
+        this.sharedParsingExecutor = this.createImportExecutor("Multi_File_Parsing_Thread");
+        try {
+            //only as many files as there are import threads are read ahead, so that the molecules of the files that
+            // wait for their turn do not pile up in memory; the next file is submitted as each one is consumed
+            int tmpMaximumNumberOfFilesInFlight = Runtime.getRuntime().availableProcessors();
+            ArrayDeque<Future<IAtomContainerSet>> tmpFileImportQueue = new ArrayDeque<>(tmpMaximumNumberOfFilesInFlight);
+            int tmpNextFileIndex = 0;
+            while (tmpNextFileIndex < Math.min(aFileList.size(), tmpMaximumNumberOfFilesInFlight)) {
+                File tmpNextFile = aFileList.get(tmpNextFileIndex++);
+                tmpFileImportQueue.add(tmpExecutor.submit(() -> this.readMoleculeFileOfType(tmpNextFile)));
+            }
+            for (int i = 0; i < aFileList.size() && !Thread.currentThread().isInterrupted(); i++) {
+                File tmpFile = aFileList.get(i);
+                try {
+                    IAtomContainerSet tmpFileMoleculesSet;
+                    try {
+                        tmpFileMoleculesSet = tmpFileImportQueue.remove().get();
+                    } finally {
+                        if (tmpNextFileIndex < aFileList.size()) {
+                            File tmpNextFile = aFileList.get(tmpNextFileIndex++);
+                            tmpFileImportQueue.add(tmpExecutor.submit(() -> this.readMoleculeFileOfType(tmpNextFile)));
+                        }
+                    }
+                    if (tmpFileMoleculesSet == null) {
+                        Importer.LOGGER.log(Level.WARNING, "File type not importable: " + tmpFile.getPath());
+                        this.failedFileMap.put(tmpFile, "File type not importable");
+                        continue;
+                    }
+                    for (IAtomContainer tmpAtomContainer : tmpFileMoleculesSet.atomContainers()) {
+                        tmpConverter.accept(tmpAtomContainer);
+                    }
+                } catch (ExecutionException anException) {
+                    Importer.LOGGER.log(Level.SEVERE, anException.getCause().toString() + " file: "
+                            + tmpFile.getPath(), anException.getCause());
+                    this.failedFileMap.put(tmpFile, anException.getCause().toString());
+                }
+            }
+            Importer.LOGGER.log(Level.INFO, "Imported " + (aFileList.size() - this.failedFileMap.size()) + " of "
+                    + aFileList.size() + " files.");
+            return tmpConverter.finish();
+        } catch (InterruptedException anException) {
+            Thread.currentThread().interrupt();
+            return new ArrayList<>(0);
+        } finally {
+            tmpExecutor.shutdownNow();
+            this.sharedParsingExecutor.shutdownNow();
+            this.sharedParsingExecutor = null;
+            tmpConverter.shutdown();
+        }
+    }
+    //
+    /**
+     * Returns the molecule data models published since the last call while molecule data models are imported, in the
+     * order of the imported files. The data models are published in batches of
+     * {@link BasicDefinitions#IMPORT_PUBLISH_BATCH_SIZE} molecules and the rest at the end of the import; every data
+     * model is returned exactly once. Thread-safe, meant to be polled by the GUI thread a few times per second.
+     *
+     * @return the published data models, empty if there are none
+     */
+    public List<MoleculeDataModel> pollImportedMoleculeDataModels() {
+        List<MoleculeDataModel> tmpBatch = this.publishedBatchQueue.poll();
+        if (tmpBatch == null) {
+            return new ArrayList<>(0);
+        }
+        List<MoleculeDataModel> tmpMoleculeDataModelList = new ArrayList<>(tmpBatch);
+        while ((tmpBatch = this.publishedBatchQueue.poll()) != null) {
+            tmpMoleculeDataModelList.addAll(tmpBatch);
+        }
+        return tmpMoleculeDataModelList;
+    }
+    //
+    /**
+     * Returns the progress of the running or last import as the fraction of the bytes of the imported files that have
+     * been read; compressed files count with their compressed size. Thread-safe.
+     *
+     * @return progress between 0 and 1, or -1 if no file is imported or the imported files are empty
+     */
+    public double getImportProgress() {
+        long tmpTotalNumberOfBytes = this.totalNumberOfBytes;
+        if (tmpTotalNumberOfBytes <= 0) {
+            return -1.0;
+        }
+        long tmpNumberOfReadBytes = 0;
+        for (long tmpReadPosition : this.readPositionMap.values()) {
+            tmpNumberOfReadBytes += tmpReadPosition;
+        }
+        return Math.min(1.0, (double) tmpNumberOfReadBytes / tmpTotalNumberOfBytes);
+    }
+    //
+    /**
+     * Returns the number of batches of molecule data models that have been published by the running or last import
+     * and not been polled yet, see {@link #pollImportedMoleculeDataModels()}. Thread-safe.
+     *
+     * @return number of published batches
+     */
+    public int getNumberOfPublishedBatches() {
+        return this.publishedBatchQueue.size();
+    }
+    //
+    /**
+     * Returns the files of the running or last import of several files that could not be imported and were skipped,
+     * see {@link #importMoleculeDataModels(List)}, each with the reason, in the order of the imported files.
+     *
+     * @return failed files mapped to the reasons, empty if all files were imported
+     */
+    public Map<File, String> getFailedFiles() {
+        synchronized (this.failedFileMap) {
+            return new LinkedHashMap<>(this.failedFileMap);
         }
-        this.preprocessMoleculeSet(tmpImportedMoleculesSet);
-        return tmpImportedMoleculesSet;
     }
     //
     /**
@@ -175,29 +409,25 @@ public class Importer {
     //
     //<editor-fold desc="private methods" defaultstate="collapsed">
     /**
-     * Opens a file chooser and loads the chosen file.
+     * Opens a file chooser and returns the chosen files. More than one file can be chosen to import a data set that is
+     * split into several files.
      *
      * @param aParentStage Stage where FileChooser should be shown
-     * @return File which should contain molecules or null if no file is imported
+     * @return Files which should contain molecules or null if no file is imported
      * @throws NullPointerException if the given stage is null
      */
-    public File openFile(Stage aParentStage) throws NullPointerException {
+    public List<File> openFiles(Stage aParentStage) throws NullPointerException {
         Objects.requireNonNull(aParentStage, "aParentStage (instance of Stage) is null");
         FileChooser tmpFileChooser = new FileChooser();
         tmpFileChooser.setTitle(Message.get("Importer.fileChooser.title"));
-        //to make PDB available, add "*.pdb" here
-        tmpFileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Molecules", "*.mol", "*.sdf", "*.smi", "*.txt"));
-        File tmpRecentDirectory = new File(this.settingsContainer.getRecentDirectoryPathSetting());
-        if(!tmpRecentDirectory.isDirectory()) {
-            tmpRecentDirectory = new File(SettingsContainer.RECENT_DIRECTORY_PATH_SETTING_DEFAULT);
-            this.settingsContainer.setRecentDirectoryPathSetting(SettingsContainer.RECENT_DIRECTORY_PATH_SETTING_DEFAULT);
-        }
-        tmpFileChooser.setInitialDirectory(tmpRecentDirectory);
-        File tmpFile = null;
+        tmpFileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Molecules", "*.mol", "*.sdf", "*.pdb", "*.smi", "*.txt",
+                "*.mol.gz", "*.sdf.gz", "*.pdb.gz", "*.smi.gz", "*.txt.gz"));
+        tmpFileChooser.setInitialDirectory(this.getRecentDirectory());
+        List<File> tmpFileList = null;
         try {
-           tmpFile = tmpFileChooser.showOpenDialog(aParentStage);
-           if (tmpFile != null) {
-               this.settingsContainer.setRecentDirectoryPathSetting(tmpFile.getParent());
+           tmpFileList = tmpFileChooser.showOpenMultipleDialog(aParentStage);
+           if (tmpFileList != null && !tmpFileList.isEmpty()) {
+               this.settingsContainer.setRecentDirectoryPathSetting(tmpFileList.get(0).getParent());
            }
         } catch (Exception anException){
            Importer.LOGGER.log(Level.SEVERE, anException.toString(), anException);
@@ -208,8 +438,179 @@ public class Importer {
                            FileUtil.getAppDirPath() + File.separator + BasicDefinitions.LOG_FILES_DIRECTORY + File.separator,
                    anException);
         } finally {
-            return tmpFile;
+            return tmpFileList;
+        }
+    }
+    //
+    /**
+     * Opens a directory chooser and returns the importable files in the chosen directory, sorted by name.
+     * Subdirectories are not searched.
+     *
+     * @param aParentStage Stage where DirectoryChooser should be shown
+     * @return Files which should contain molecules, may be empty, or null if no directory is chosen
+     * @throws NullPointerException if the given stage is null
+     */
+    public List<File> openDirectory(Stage aParentStage) throws NullPointerException {
+        Objects.requireNonNull(aParentStage, "aParentStage (instance of Stage) is null");
+        DirectoryChooser tmpDirectoryChooser = new DirectoryChooser();
+        tmpDirectoryChooser.setTitle(Message.get("Importer.directoryChooser.title"));
+        tmpDirectoryChooser.setInitialDirectory(this.getRecentDirectory());
+        List<File> tmpFileList = null;
+        try {
+            File tmpDirectory = tmpDirectoryChooser.showDialog(aParentStage);
+            if (tmpDirectory == null) {
+                return null;
+            }
+            this.settingsContainer.setRecentDirectoryPathSetting(tmpDirectory.getPath());
+            File[] tmpFiles = tmpDirectory.listFiles(aFile -> aFile.isFile()
+                    && Importer.IMPORTABLE_FILE_EXTENSIONS.contains(this.getFileExtension(aFile)));
+            tmpFileList = new ArrayList<>(tmpFiles == null ? List.of() : Arrays.asList(tmpFiles));
+            tmpFileList.sort(Comparator.comparing(File::getName));
+            if (tmpFileList.isEmpty()) {
+                Importer.LOGGER.log(Level.WARNING, "No importable files found in directory " + tmpDirectory.getPath());
+            }
+        } catch (Exception anException) {
+            Importer.LOGGER.log(Level.SEVERE, anException.toString(), anException);
+            GuiUtil.guiExceptionAlert(
+                    Message.get("Error.ExceptionAlert.Title"),
+                    Message.get("Importer.FileImportExceptionAlert.Header"),
+                    Message.get("Importer.FileImportExceptionAlert.Text") + "\n" +
+                            FileUtil.getAppDirPath() + File.separator + BasicDefinitions.LOG_FILES_DIRECTORY + File.separator,
+                    anException);
+        }
+        return tmpFileList;
+    }
+    //
+    /**
+     * Opens a file chooser to choose a session file to reload, see {@link SessionFile}.
+     *
+     * @param aParentStage Stage where FileChooser should be shown
+     * @return the chosen session file or null if no file is chosen
+     * @throws NullPointerException if the given stage is null
+     */
+    public File openSessionFile(Stage aParentStage) throws NullPointerException {
+        Objects.requireNonNull(aParentStage, "aParentStage (instance of Stage) is null");
+        FileChooser tmpFileChooser = new FileChooser();
+        tmpFileChooser.setTitle(Message.get("Importer.sessionFileChooser.title"));
+        tmpFileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(Message.get("SessionFile.description"),
+                "*" + SessionFile.SESSION_FILE_EXTENSION));
+        tmpFileChooser.setInitialDirectory(this.getRecentDirectory());
+        File tmpFile = tmpFileChooser.showOpenDialog(aParentStage);
+        if (tmpFile != null) {
+            this.settingsContainer.setRecentDirectoryPathSetting(tmpFile.getParent());
+        }
+        return tmpFile;
+    }
+    //
+    /**
+     * Returns the directory of the recent directory path setting to start file and directory choosers in. If it does
+     * not exist anymore, the setting is reset to its default.
+     *
+     * @return recent directory
+     */
+    private File getRecentDirectory() {
+        File tmpRecentDirectory = new File(this.settingsContainer.getRecentDirectoryPathSetting());
+        if(!tmpRecentDirectory.isDirectory()) {
+            tmpRecentDirectory = new File(SettingsContainer.RECENT_DIRECTORY_PATH_SETTING_DEFAULT);
+            this.settingsContainer.setRecentDirectoryPathSetting(SettingsContainer.RECENT_DIRECTORY_PATH_SETTING_DEFAULT);
+        }
+        return tmpRecentDirectory;
+    }
+    //
+    /**
+     * Reads the molecules of the given file without preprocessing, see {@link #importMoleculeFile(File)}. Files with
+     * the additional extension ".gz" are decompressed while they are read.
+     *
+     * @param aFile File to import
+     * @return IAtomContainerSet which contains the read molecules or null if a not importable file type was chosen
+     * @throws CDKException if the given file cannot be parsed
+     * @throws IOException if the given file cannot be found or read
+     * @throws NullPointerException if the given file is null
+     * @throws Exception if something goes wrong
+     */
+    private IAtomContainerSet readMoleculeFile(File aFile) throws NullPointerException, Exception {
+        Objects.requireNonNull(aFile, "aFile is null");
+        this.prepareImport(List.of(aFile));
+        return this.readMoleculeFileOfType(aFile);
+    }
+    //
+    /**
+     * Resets the published data models and the progress for an import of the given files, sets the file name to the
+     * name of the first file and makes sure the recent directory path setting is set.
+     *
+     * @param aFileList files to import
+     */
+    private void prepareImport(List<File> aFileList) {
+        String tmpRecentDirFromContainer = this.settingsContainer.getRecentDirectoryPathSetting();
+        if(tmpRecentDirFromContainer == null || tmpRecentDirFromContainer.isEmpty()) {
+            this.settingsContainer.setRecentDirectoryPathSetting(SettingsContainer.RECENT_DIRECTORY_PATH_SETTING_DEFAULT);
+        }
+        this.fileName = aFileList.get(0).getName();
+        this.publishedBatchQueue.clear();
+        this.readPositionMap.clear();
+        this.failedFileMap.clear();
+        long tmpTotalNumberOfBytes = 0;
+        for (File tmpFile : aFileList) {
+            tmpTotalNumberOfBytes += tmpFile.length();
+        }
+        this.totalNumberOfBytes = tmpTotalNumberOfBytes;
+    }
+    //
+    /**
+     * Reads the molecules of the given file into an atom container set, see
+     * {@link #readMoleculeFileOfType(File, Consumer)}.
+     *
+     * @param aFile File to import
+     * @return IAtomContainerSet which contains the read molecules or null if the file type is not importable
+     * @throws CDKException if the given file cannot be parsed
+     * @throws IOException if the given file cannot be found or read
+     * @throws Exception if something goes wrong
+     */
+    private IAtomContainerSet readMoleculeFileOfType(File aFile) throws Exception {
+        IAtomContainerSet tmpImportedMoleculesSet = new AtomContainerSet();
+        if (!this.readMoleculeFileOfType(aFile, tmpImportedMoleculesSet::addAtomContainer)) {
+            return null;
+        }
+        return tmpImportedMoleculesSet;
+    }
+    //
+    /**
+     * Reads the molecules of the given file with the reader of its file type, adds the name of the file to them as
+     * property and hands them to the given consumer in the order of the file, while the file is read. Apart from the
+     * read position of the file, see {@link #getImportProgress()}, the state of this importer is not changed, so it can
+     * be called for several files in parallel.
+     *
+     * @param aFile File to import
+     * @param aMoleculeConsumer consumer of the read molecules, called by the calling thread only
+     * @return false if the file type is not importable
+     * @throws CDKException if the given file cannot be parsed
+     * @throws IOException if the given file cannot be found or read
+     * @throws Exception if something goes wrong
+     */
+    private boolean readMoleculeFileOfType(File aFile, Consumer<IAtomContainer> aMoleculeConsumer) throws Exception {
+        Consumer<IAtomContainer> tmpMoleculeConsumer = aMolecule -> {
+            aMolecule.setProperty(Importer.SOURCE_FILE_PROPERTY_KEY, aFile.getName());
+            aMoleculeConsumer.accept(aMolecule);
+        };
+        switch (this.getFileExtension(aFile)) {
+            case ".mol":
+                this.importMolFile(aFile).atomContainers().forEach(tmpMoleculeConsumer);
+                break;
+            case ".sdf":
+                this.importSDFile(aFile, tmpMoleculeConsumer);
+                break;
+            case ".pdb":
+                this.importPDBFile(aFile, tmpMoleculeConsumer);
+                break;
+            case ".smi":
+            case ".txt":
+                this.importSMILESFile(aFile, tmpMoleculeConsumer);
+                break;
+            default:
+                return false;
         }
+        this.readPositionMap.put(aFile, aFile.length());
+        return true;
     }
     //
     /**
@@ -224,16 +625,16 @@ public class Importer {
      */
     private IAtomContainerSet importMolFile(File aFile) throws IOException, CDKException {
         IAtomContainerSet tmpAtomContainerSet = new AtomContainerSet();
-        BufferedInputStream tmpInputStream = new BufferedInputStream(new FileInputStream(aFile));
+        BufferedInputStream tmpInputStream = new BufferedInputStream(this.openInputStream(aFile));
         FormatFactory tmpFactory = new FormatFactory();
         IChemFormat tmpFormat = tmpFactory.guessFormat(tmpInputStream);
         IAtomContainer tmpAtomContainer;
         if(tmpFormat.getFormatName().equalsIgnoreCase(MDLV2000Format.getInstance().getFormatName())){
-            MDLV2000Reader tmpReader = new MDLV2000Reader(new FileInputStream(aFile), IChemObjectReader.Mode.RELAXED);
+            MDLV2000Reader tmpReader = new MDLV2000Reader(this.openInputStream(aFile), IChemObjectReader.Mode.RELAXED);
             tmpAtomContainer = tmpReader.read(new AtomContainer());
         }
         else if(tmpFormat.getFormatName().equalsIgnoreCase(MDLV3000Format.getInstance().getFormatName())){
-            MDLV3000Reader tmpReader = new MDLV3000Reader(new FileInputStream(aFile), IChemObjectReader.Mode.RELAXED);
+            MDLV3000Reader tmpReader = new MDLV3000Reader(this.openInputStream(aFile), IChemObjectReader.Mode.RELAXED);
             tmpAtomContainer = tmpReader.read(new AtomContainer());
         }
         else{
@@ -242,10 +643,10 @@ public class Importer {
         }
         String tmpName = this.findMoleculeName(tmpAtomContainer);
         if(tmpName == null){
-            BufferedReader tmpBufferedReader = new BufferedReader(new FileReader(aFile));
+            BufferedReader tmpBufferedReader = new BufferedReader(new InputStreamReader(this.openInputStream(aFile)));
             tmpName = tmpBufferedReader.readLine();
-            if(tmpName == null || tmpName.isBlank() || tmpName.isEmpty())
-                tmpName = FileUtil.getFileNameWithoutExtension(aFile);
+            if(Importer.isMoleculeNameMissing(tmpName))
+                tmpName = this.getFileNameWithoutExtension(aFile);
             tmpBufferedReader.close();
         }
         tmpAtomContainer.setProperty(Importer.MOLECULE_NAME_PROPERTY_KEY, tmpName);
@@ -255,70 +656,285 @@ public class Importer {
     }
     //
     /**
-     * Imports an SD file.
+     * Imports an SD file. The file is read in large chunks of bytes that end after a record separator line "$$$$". If
+     * the file consists of more than one chunk, the chunks are parsed in parallel by a pool of import threads, each
+     * with its own iterating SD file reader, and the atom containers are added in the order of the records of the file.
+     * Molecules without name are named after the file with the index of the record appended. As before, the import
+     * ends at the first record that cannot be read. During an import of several files, the chunks are parsed by the
+     * shared pool of the import, see {@link #getParsingExecutor(File, int, String)}.
      *
      * @param aFile sdf
-     * @return the imported molecules in an IAtomContainerSet
-     * @throws FileNotFoundException if a file input stream cannot be opened for the given file
+     * @param aMoleculeConsumer consumer of the imported molecules
+     * @throws IOException if the file cannot be read
      */
-    private IAtomContainerSet importSDFile(File aFile) throws FileNotFoundException {
-        IAtomContainerSet tmpAtomContainerSet = new AtomContainerSet();
-        IteratingSDFReader tmpSDFReader = new IteratingSDFReader(new FileInputStream(aFile),
-                SilentChemObjectBuilder.getInstance());
+    private void importSDFile(File aFile, Consumer<IAtomContainer> aMoleculeConsumer) throws IOException {
+        String tmpFileNameWithoutExtension = this.getFileNameWithoutExtension(aFile);
         int tmpCounter = 0;
-        while(!Thread.currentThread().isInterrupted() && tmpSDFReader.hasNext()){
-            IAtomContainer tmpAtomContainer = tmpSDFReader.next();
-            String tmpName = this.findMoleculeName(tmpAtomContainer);
-            if(tmpName == null || tmpName.isBlank() || tmpName.isEmpty())
-                tmpName = FileUtil.getFileNameWithoutExtension(aFile) + tmpCounter;
-            tmpAtomContainer.setProperty(Importer.MOLECULE_NAME_PROPERTY_KEY, tmpName);
-            tmpAtomContainerSet.addAtomContainer(tmpAtomContainer);
-            tmpCounter++;
+        ExecutorService tmpSharedExecutor = this.sharedParsingExecutor;
+        ExecutorService tmpExecutor = this.getParsingExecutor(aFile, BasicDefinitions.SD_IMPORT_CHUNK_SIZE, "SD_Import_Thread");
+        int tmpMaxNumberOfPendingChunks = Runtime.getRuntime().availableProcessors() * BasicDefinitions.IMPORT_PENDING_TASKS_PER_THREAD;
+        ArrayDeque<Future<SDFileChunk>> tmpPendingChunks = new ArrayDeque<>(tmpMaxNumberOfPendingChunks);
+        try (ReadableByteChannel tmpFileChannel = this.openChannel(aFile)) {
+            ByteBuffer tmpReadBuffer = ByteBuffer.allocate(BasicDefinitions.SD_IMPORT_CHUNK_SIZE);
+            boolean tmpIsEndOfFileReached = false;
+            while (!Thread.currentThread().isInterrupted() && (!tmpIsEndOfFileReached || !tmpPendingChunks.isEmpty())) {
+                while (!tmpIsEndOfFileReached && tmpPendingChunks.size() < tmpMaxNumberOfPendingChunks) {
+                    ByteBuffer tmpBufferWithChunk = this.readChunk(tmpFileChannel, tmpReadBuffer, this::findEndOfLastSDRecord);
+                    if (tmpBufferWithChunk == null) {
+                        tmpIsEndOfFileReached = true;
+                        break;
+                    }
+                    tmpReadBuffer = tmpBufferWithChunk;
+                    this.readPositionMap.put(aFile, this.getReadPosition(tmpFileChannel));
+                    //the buffer is only filled partially at the end of the file
+                    byte[] tmpChunk = this.takeChunk(tmpReadBuffer, tmpReadBuffer.hasRemaining(),
+                            this::findEndOfLastSDRecord);
+                    FutureTask<SDFileChunk> tmpTask = new FutureTask<>(() -> this.parseSDFileChunk(tmpChunk));
+                    if (tmpExecutor != null) {
+                        tmpExecutor.execute(tmpTask);
+                    } else {
+                        tmpTask.run();
+                    }
+                    tmpPendingChunks.add(tmpTask);
+                }
+                if (tmpPendingChunks.isEmpty()) {
+                    break;
+                }
+                SDFileChunk tmpSDFileChunk;
+                try {
+                    tmpSDFileChunk = tmpPendingChunks.poll().get();
+                } catch (InterruptedException anException) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (ExecutionException anException) {
+                    throw new IOException("SD file could not be parsed: " + anException.getCause(), anException.getCause());
+                }
+                for (IAtomContainer tmpAtomContainer : tmpSDFileChunk.moleculeList) {
+                    //the record may hold a blank or "None" name property that was not replaced by the found name
+                    if (Importer.isMoleculeNameMissing(tmpAtomContainer.getProperty(Importer.MOLECULE_NAME_PROPERTY_KEY))) {
+                        tmpAtomContainer.setProperty(Importer.MOLECULE_NAME_PROPERTY_KEY, tmpFileNameWithoutExtension + tmpCounter);
+                    }
+                    aMoleculeConsumer.accept(tmpAtomContainer);
+                    tmpCounter++;
+                }
+                if (!tmpSDFileChunk.isComplete) {
+                    //the reader stopped at a record that cannot be read, like a single reader for the whole file does
+                    Importer.LOGGER.log(Level.WARNING, "SD file import stopped at record " + tmpCounter + " that cannot be read.");
+                    break;
+                }
+            }
+        } finally {
+            this.stopParsing(tmpExecutor, tmpSharedExecutor, tmpPendingChunks);
         }
-        return tmpAtomContainerSet;
     }
     //
-    // Currently out of use! Needs more work before it can be made available. See importMoleculeFile() and loadFile()
     /**
-     * Imports a PDB file.
+     * Parses the records of the given chunk of an SD file with an iterating SD file reader. Called by the import
+     * threads; the name property is only set on molecules with a name, the fallback names are assigned in the order
+     * of the file by {@link #importSDFile(File, Consumer)}.
      *
-     * @param aFile PDB file
-     * @return the imported molecules in an IAtomContainerSet
-     * @throws CDKException if the given PDB file cannot be read
-     * @throws FileNotFoundException if a file input stream cannot be opened for the given file
+     * @param aChunk bytes of complete records encoded in the default charset, the last record of the file may lack the
+     *               record separator
+     * @return the parsed molecules and whether all records could be read
+     * @throws IOException if the reader cannot be closed
      */
-    private IAtomContainerSet importPDBFile(File aFile) throws FileNotFoundException, CDKException {
-        IAtomContainerSet tmpAtomContainerSet = new AtomContainerSet();
-        PDBReader tmpPDBReader = new PDBReader(new FileInputStream(aFile));
-        for (IOSetting setting : tmpPDBReader.getIOSettings()) {
-            if (setting.getName().equals("UseRebondTool")) {
-                //default false
-                //CDK seems unable to read all info in the "CONECT" block, and often it is not there at all; therefore, we
-                // re-bond the whole molecule based on the atom distances with this setting
-                // BUT this is unable to re-create double bonds!
-                setting.setSetting("true");
-            }
-            if (setting.getName().equals("ReadConnectSection")) {
-                //default true
-            }
-            if (setting.getName().equals("UseHetDictionary")) {
-                //default false
+    private SDFileChunk parseSDFileChunk(byte[] aChunk) throws IOException {
+        SDFileChunk tmpSDFileChunk = new SDFileChunk();
+        try (IteratingSDFReader tmpSDFReader = new IteratingSDFReader(new ByteArrayInputStream(aChunk),
+                SilentChemObjectBuilder.getInstance())) {
+            while (tmpSDFReader.hasNext()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return tmpSDFileChunk;
+                }
+                IAtomContainer tmpAtomContainer = tmpSDFReader.next();
+                String tmpName = this.findMoleculeName(tmpAtomContainer);
+                if (!Importer.isMoleculeNameMissing(tmpName)) {
+                    tmpAtomContainer.setProperty(Importer.MOLECULE_NAME_PROPERTY_KEY, tmpName);
+                }
+                tmpSDFileChunk.moleculeList.add(tmpAtomContainer);
             }
         }
-        ChemFile tmpChemFile = tmpPDBReader.read(new ChemFile());
+        tmpSDFileChunk.isComplete = tmpSDFileChunk.moleculeList.size() >= Importer.countSDRecords(aChunk);
+        return tmpSDFileChunk;
+    }
+    //
+    /**
+     * Imports a PDB file one model at a time. The file is streamed line by line and the coordinate records of each
+     * model, or of each HETATM residue if only small molecules are extracted (see
+     * {@link SettingsContainer#getExtractSmallMoleculesFromPDBAtImportSetting()}), are parsed by their own PDB reader
+     * and handed to the consumer as soon as the model is complete, so only the model being read is held in memory. A
+     * residue is complete when the next atom, TER, or model boundary record does not belong to it; records like ANISOU
+     * between the atom records of a residue are skipped without completing it. Water residues are not extracted as
+     * small molecules. The CONECT records follow all models at the end of the file, so a model is only complete at the
+     * next MODEL record or at the end of the file. If the file has a single model, the CONECT records of its atoms are
+     * passed to the readers like to a reader of the whole file; otherwise they are skipped. In both cases, the bonds
+     * are created from the atom distances as well.
+     *
+     * @param aFile PDB file
+     * @param aMoleculeConsumer consumer of the imported molecules
+     * @throws CDKException if the records of a model or residue cannot be parsed
+     * @throws IOException if the given file cannot be found or read
+     */
+    private void importPDBFile(File aFile, Consumer<IAtomContainer> aMoleculeConsumer) throws CDKException, IOException {
+        boolean tmpAreSmallMoleculesExtracted = this.settingsContainer.getExtractSmallMoleculesFromPDBAtImportSetting();
+        String tmpFileNameWithoutExtension = this.getFileNameWithoutExtension(aFile);
         int tmpCounter = 0;
-        for (IAtomContainer tmpAtomContainer : ChemFileManipulator.getAllAtomContainers(tmpChemFile)) {
-            if (Thread.currentThread().isInterrupted()) {
-                break;
+        try (
+                ReadableByteChannel tmpFileChannel = this.openChannel(aFile);
+                BufferedReader tmpBufferedReader = new BufferedReader(
+                        Channels.newReader(tmpFileChannel, StandardCharsets.ISO_8859_1), BasicDefinitions.BUFFER_SIZE)
+        ) {
+            //header records like HEADER and COMPND are passed to the reader of every model or residue
+            StringBuilder tmpHeaderRecords = new StringBuilder();
+            //coordinate records of the current model, or of the current residue if small molecules are extracted
+            StringBuilder tmpCoordinateRecords = new StringBuilder();
+            //complete residues of the current model, parsed when the model is complete
+            List<PDBResidue> tmpResidueList = new ArrayList<>();
+            Set<String> tmpResidueAtomSerialSet = new HashSet<>();
+            List<String> tmpConnectRecordList = new ArrayList<>();
+            int tmpNumberOfModels = 0;
+            String tmpModelNumber = null;
+            String tmpResidueName = null;
+            String tmpResidueKey = null;
+            String tmpLine;
+            while (!Thread.currentThread().isInterrupted()) {
+                tmpLine = tmpBufferedReader.readLine();
+                String tmpRecordName = tmpLine == null ? "END" : tmpLine.substring(0, Math.min(6, tmpLine.length())).trim();
+                boolean tmpIsHetatmRecord = tmpRecordName.equals("HETATM");
+                String tmpNextResidueKey = tmpIsHetatmRecord ? tmpLine.substring(Math.min(17, tmpLine.length()), Math.min(27, tmpLine.length())) : null;
+                //in small molecule mode, a residue is complete when the next atom, TER, or model boundary record does
+                // not belong to it
+                boolean tmpIsResidueComplete = tmpAreSmallMoleculesExtracted && tmpResidueKey != null
+                        && Importer.PDB_RESIDUE_BOUNDARY_RECORD_NAMES.contains(tmpRecordName)
+                        && !tmpResidueKey.equals(tmpNextResidueKey);
+                if (tmpIsResidueComplete) {
+                    //the residue key holds the residue name, chain identifier, residue sequence number, and insertion code
+                    String tmpName = tmpFileNameWithoutExtension + "_" + tmpResidueName + "_"
+                            + tmpResidueKey.substring(Math.min(4, tmpResidueKey.length())).replace(" ", "");
+                    if (tmpModelNumber != null) {
+                        tmpName = tmpName + "_model" + tmpModelNumber;
+                    }
+                    tmpResidueList.add(new PDBResidue(tmpName, tmpCoordinateRecords.toString(), tmpResidueAtomSerialSet));
+                    tmpCoordinateRecords.setLength(0);
+                    tmpResidueAtomSerialSet = new HashSet<>();
+                    tmpResidueKey = null;
+                }
+                if (tmpRecordName.equals("MODEL") || tmpRecordName.equals("END")) {
+                    boolean tmpAreConnectRecordsPassed = tmpNumberOfModels <= 1;
+                    if (tmpAreSmallMoleculesExtracted) {
+                        for (PDBResidue tmpResidue : tmpResidueList) {
+                            String tmpConnectRecords = tmpAreConnectRecordsPassed
+                                    ? Importer.filterPDBConnectRecords(tmpConnectRecordList, tmpResidue.atomSerialSet) : "";
+                            tmpCounter = this.parsePDBRecords(tmpHeaderRecords + tmpResidue.records + tmpConnectRecords
+                                    + "END\n", tmpResidue.name, tmpFileNameWithoutExtension, tmpCounter, aMoleculeConsumer);
+                        }
+                        tmpResidueList.clear();
+                    } else if (!tmpCoordinateRecords.isEmpty()) {
+                        String tmpName = tmpModelNumber == null ? null : tmpFileNameWithoutExtension + "_model" + tmpModelNumber;
+                        if (tmpAreConnectRecordsPassed) {
+                            for (String tmpConnectRecord : tmpConnectRecordList) {
+                                tmpCoordinateRecords.append(tmpConnectRecord).append('\n');
+                            }
+                        }
+                        tmpCoordinateRecords.append("END\n");
+                        tmpCounter = this.parsePDBRecords(tmpHeaderRecords + tmpCoordinateRecords.toString(), tmpName,
+                                tmpFileNameWithoutExtension, tmpCounter, aMoleculeConsumer);
+                        tmpCoordinateRecords.setLength(0);
+                    }
+                    tmpConnectRecordList.clear();
+                    this.readPositionMap.put(aFile, this.getReadPosition(tmpFileChannel));
+                }
+                if (tmpLine == null) {
+                    break;
+                }
+                switch (tmpRecordName) {
+                    case "HEADER":
+                    case "TITLE":
+                    case "COMPND":
+                        tmpHeaderRecords.append(tmpLine).append('\n');
+                        break;
+                    case "MODEL":
+                        tmpModelNumber = tmpLine.length() > 6 ? tmpLine.substring(6).trim() : null;
+                        tmpNumberOfModels++;
+                        break;
+                    case "ATOM":
+                    case "TER":
+                        if (!tmpAreSmallMoleculesExtracted) {
+                            tmpCoordinateRecords.append(tmpLine).append('\n');
+                        }
+                        break;
+                    case "HETATM":
+                        if (!tmpAreSmallMoleculesExtracted) {
+                            tmpCoordinateRecords.append(tmpLine).append('\n');
+                            break;
+                        }
+                        tmpResidueName = tmpNextResidueKey.substring(0, Math.min(3, tmpNextResidueKey.length())).trim();
+                        if (!Importer.PDB_WATER_RESIDUE_NAMES.contains(tmpResidueName)) {
+                            tmpResidueKey = tmpNextResidueKey;
+                            tmpResidueAtomSerialSet.add(tmpLine.substring(Math.min(6, tmpLine.length()), Math.min(11, tmpLine.length())).trim());
+                            tmpCoordinateRecords.append(tmpLine).append('\n');
+                        }
+                        break;
+                    case "CONECT":
+                        //the CONECT records of a file with several models are skipped, see above
+                        if (tmpNumberOfModels <= 1) {
+                            tmpConnectRecordList.add(tmpLine);
+                        }
+                        break;
+                    default:
+                        //ENDMDL, ANISOU, SIGATM, SIGUIJ, and all other records are skipped; the model number is kept
+                        // until the next MODEL record to name the model when it is complete
+                        break;
+                }
             }
-            String tmpName = this.findMoleculeName(tmpAtomContainer);
-            if(tmpName == null || tmpName.isBlank() || tmpName.isEmpty())
-                tmpName = FileUtil.getFileNameWithoutExtension(aFile) + tmpCounter;
-            tmpAtomContainer.setProperty(Importer.MOLECULE_NAME_PROPERTY_KEY, tmpName);
-            tmpAtomContainerSet.addAtomContainer(tmpAtomContainer);
-            tmpCounter++;
         }
-        return tmpAtomContainerSet;
+    }
+    //
+    /**
+     * Parses the given PDB records of one model or residue with a PDB reader and hands the parsed molecules to the
+     * given consumer. Molecules are named with the given name or, if it is null, with the name found in their
+     * properties or after the file with the given counter appended.
+     *
+     * @param aRecords header and coordinate records, terminated by an END record
+     * @param aName name of the molecules or null
+     * @param aFileNameWithoutExtension name of the imported file, to name molecules without name
+     * @param aCounter number of molecules imported from the file before
+     * @param aMoleculeConsumer consumer of the parsed molecules
+     * @return number of molecules imported from the file including the parsed ones
+     * @throws CDKException if the records cannot be parsed
+     * @throws IOException if the reader cannot be closed
+     */
+    private int parsePDBRecords(String aRecords, String aName, String aFileNameWithoutExtension, int aCounter,
+                                Consumer<IAtomContainer> aMoleculeConsumer) throws CDKException, IOException {
+        int tmpCounter = aCounter;
+        try (PDBReader tmpPDBReader = new PDBReader(new ByteArrayInputStream(aRecords.getBytes(StandardCharsets.ISO_8859_1)))) {
+            for (IOSetting tmpSetting : tmpPDBReader.getIOSettings()) {
+                if (tmpSetting.getName().equals("UseRebondTool")) {
+                    //default false
+                    //CDK seems unable to read all info in the "CONECT" block, and often it is not there at all; therefore, we
+                    // re-bond the whole molecule based on the atom distances with this setting
+                    // BUT this is unable to re-create double bonds!
+                    tmpSetting.setSetting("true");
+                }
+                if (tmpSetting.getName().equals("ReadConnectSection")) {
+                    //default true, the CONECT records are only passed to the reader if the file has a single model
+                }
+            }
+            ChemFile tmpChemFile = tmpPDBReader.read(new ChemFile());
+            for (IAtomContainer tmpAtomContainer : ChemFileManipulator.getAllAtomContainers(tmpChemFile)) {
+                if (tmpAtomContainer.isEmpty()) {
+                    continue;
+                }
+                String tmpName = aName == null ? this.findMoleculeName(tmpAtomContainer) : aName;
+                if (Importer.isMoleculeNameMissing(tmpName)) {
+                    tmpName = aFileNameWithoutExtension + tmpCounter;
+                }
+                tmpAtomContainer.setProperty(Importer.MOLECULE_NAME_PROPERTY_KEY, tmpName);
+                aMoleculeConsumer.accept(tmpAtomContainer);
+                tmpCounter++;
+            }
+        }
+        return tmpCounter;
     }
     //
     /**
@@ -364,47 +980,59 @@ public class Importer {
         are discarded after molecule set import and molecular information only represented by SMILES codes in
         the molecule data models. Nevertheless it is done here to ensure that the generated SMILES codes are correct.
          */
+        boolean tmpAddImplicitHydrogens = this.settingsContainer.getAddImplicitHydrogensAtImportSetting();
         int tmpExceptionsCounter = 0;
         for (IAtomContainer tmpMolecule : aMoleculeSet.atomContainers()) {
-            try {
-                AtomContainerManipulator.percieveAtomTypesAndConfigureAtoms(tmpMolecule);
-                if (this.settingsContainer.getAddImplicitHydrogensAtImportSetting()) {
-                    CDKHydrogenAdder.getInstance(tmpMolecule.getBuilder()).addImplicitHydrogens(tmpMolecule);
-                }
-                /* note: the doc says: "Suppress any explicit hydrogens in the provided container. Only hydrogens that
-                can be represented as a hydrogen count value on the atom are suppressed." Therefore, there will
-                still be some explicit hydrogen atoms!
-                 */
-                AtomContainerManipulator.suppressHydrogens(tmpMolecule);
-                //might throw exceptions if the implicit hydrogen count is unset or kekulization is impossible
-                Kekulization.kekulize(tmpMolecule);
-            } catch (Exception anException) {
-                Importer.LOGGER.log(Level.WARNING, anException.toString() + " molecule name: "
-                        + tmpMolecule.getProperty(Importer.MOLECULE_NAME_PROPERTY_KEY), anException);
+            if (!this.preprocessMolecule(tmpMolecule, tmpAddImplicitHydrogens)) {
                 tmpExceptionsCounter++;
             }
         }
         Importer.LOGGER.log(Level.INFO, "Imported and preprocessed molecule set. " + tmpExceptionsCounter + " exceptions occurred.");
     }
-    //</editor-fold>
     //
-    //<editor-fold desc="protected methods" defaultstate="collapsed">
     /**
-     * Imports a SMILES file. This method is able to parse different types of SMILES files, e.g. with and without header
-     * or with only one column or two (SMILES and name/ID, which is in which column is detected).
-     * Protected and not private for testing in class ImporterTest.
+     * Assigns atom types and bond orders (kekulization) to the given molecule and suppresses explicit hydrogen atoms
+     * that can also be represented as an implicit hydrogen count, see {@link #preprocessMoleculeSet(IAtomContainerSet)}.
+     * Exceptions are logged.
+     *
+     * @param aMolecule the molecule to process
+     * @param anAddImplicitHydrogens whether empty valences are completed with implicit hydrogen atoms
+     * @return true if no exception occurred
+     */
+    private boolean preprocessMolecule(IAtomContainer aMolecule, boolean anAddImplicitHydrogens) {
+        try {
+            AtomContainerManipulator.percieveAtomTypesAndConfigureAtoms(aMolecule);
+            if (anAddImplicitHydrogens) {
+                CDKHydrogenAdder.getInstance(aMolecule.getBuilder()).addImplicitHydrogens(aMolecule);
+            }
+            /* note: the doc says: "Suppress any explicit hydrogens in the provided container. Only hydrogens that
+            can be represented as a hydrogen count value on the atom are suppressed." Therefore, there will
+            still be some explicit hydrogen atoms!
+             */
+            AtomContainerManipulator.suppressHydrogens(aMolecule);
+            //might throw exceptions if the implicit hydrogen count is unset or kekulization is impossible
+            Kekulization.kekulize(aMolecule);
+            return true;
+        } catch (Exception anException) {
+            LogUtil.logMoleculeException(Importer.LOGGER, Level.WARNING, anException, aMolecule.getProperty(Importer.MOLECULE_NAME_PROPERTY_KEY));
+            return false;
+        }
+    }
+    //
+    /**
+     * Imports a SMILES file, see {@link #importSMILESFile(File)}, and hands the imported molecules to the given
+     * consumer while the file is read.
      *
      * @param aFile a SMILES codes-containing *.txt or *.smi file
-     * @return the imported molecules in an IAtomContainerSet
+     * @param aMoleculeConsumer consumer of the imported molecules
      * @throws IOException if the given file does not fit to the expected format of a SMILES file
      * @author Samuel Behr
      */
-    protected IAtomContainerSet importSMILESFile(File aFile) throws IOException {
+    private void importSMILESFile(File aFile, Consumer<IAtomContainer> aMoleculeConsumer) throws IOException {
         try (
-                FileReader tmpSmilesFileReader = new FileReader(aFile);
+                InputStreamReader tmpSmilesFileReader = new InputStreamReader(this.openInputStream(aFile));
                 BufferedReader tmpSmilesFileBufferedReader = new BufferedReader(tmpSmilesFileReader, BasicDefinitions.BUFFER_SIZE)
         ) {
-            IAtomContainerSet tmpAtomContainerSet = new AtomContainerSet();
             //AtomContainer to save the parsed SMILES in
             IAtomContainer tmpMolecule = new AtomContainer();
             SmilesParser tmpSmilesParser = new SmilesParser(SilentChemObjectBuilder.getInstance());
@@ -413,10 +1041,6 @@ public class Importer {
             String[] tmpProcessedLineArray;
             int tmpSmilesCodeExpectedPosition = 0;
             int tmpIDExpectedPosition = 0;
-            int tmpSmilesFileParsableLinesCounter = 0;
-            int tmpSmilesFileInvalidLinesCounter = 0;
-            //marking the BufferedReader to reset the reader after checking the format and determining the separator
-            tmpSmilesFileBufferedReader.mark(BasicDefinitions.BUFFER_SIZE);
             //as potential headline the first line should be avoided for separator determination
             String tmpSmilesFileFirstLine = tmpSmilesFileBufferedReader.readLine();
             /*  first block
@@ -471,41 +1095,817 @@ public class Importer {
             if (tmpMolecule.isEmpty()) {
                 throw new IOException("Chosen file does not fit to the expected format of a SMILES file.");
             }
-            //resetting the BufferedReader to the first line of the file
-            tmpSmilesFileBufferedReader.reset();
-            tmpSmilesFileBufferedReader.mark(0);    //to avoid the memory of unnecessary data
             /*  second block
-                Reading the file line by line and adding an AtomContainer to the AtomContainerSet for each line with parsable SMILES code
+                Reading the file in chunks of lines and adding an AtomContainer to the AtomContainerSet for each line
+                with parsable SMILES code, see readSMILESFile()
              */
-            while (!Thread.currentThread().isInterrupted() && (tmpSmilesFileNextLine = tmpSmilesFileBufferedReader.readLine()) != null) {
-                //trying to parse as SMILES code
-                try {
-                    tmpProcessedLineArray = tmpSmilesFileNextLine.split(tmpSmilesFileDeterminedSeparator, 2);
-                    if (!tmpProcessedLineArray[tmpSmilesCodeExpectedPosition].isEmpty()) {
-                        tmpMolecule = tmpSmilesParser.parseSmiles(tmpProcessedLineArray[tmpSmilesCodeExpectedPosition]);
-                        tmpSmilesFileParsableLinesCounter++;
+            this.readSMILESFile(aFile, aMoleculeConsumer, tmpSmilesFileDeterminedSeparator.charAt(0),
+                    tmpSmilesCodeExpectedPosition, tmpIDExpectedPosition);
+        }
+    }
+    //
+    /**
+     * Reads the lines of a SMILES file with the given separator and positions of SMILES code and ID and returns an atom
+     * container for each line with parsable SMILES code. The file is read in large chunks of bytes that end at line
+     * boundaries. If the file consists of more than one chunk, the chunks are parsed in parallel by a pool of import
+     * threads, each with its own SMILES parser, and the atom containers are added in the order of the lines of the
+     * file. Molecules without ID are named after the file with the number of the parsable line appended. If the
+     * thread is interrupted, the import stops after the molecules read so far. During an import of several files, the
+     * chunks are parsed by the shared pool of the import, see {@link #getParsingExecutor(File, int, String)}.
+     *
+     * @param aFile a SMILES codes-containing *.txt or *.smi file
+     * @param aMoleculeConsumer consumer of the imported molecules
+     * @param aSeparator separator of SMILES code and ID
+     * @param aSmilesCodePosition position of the SMILES code in a line
+     * @param anIDPosition position of the ID in a line
+     * @throws IOException if the file cannot be read
+     */
+    private void readSMILESFile(File aFile, Consumer<IAtomContainer> aMoleculeConsumer, char aSeparator,
+                                int aSmilesCodePosition, int anIDPosition) throws IOException {
+        String tmpFileNameWithoutExtension = this.getFileNameWithoutExtension(aFile);
+        int tmpSmilesFileParsableLinesCounter = 0;
+        int tmpSmilesFileInvalidLinesCounter = 0;
+        ThreadLocal<SmilesParser> tmpSmilesParser = ThreadLocal.withInitial(
+                () -> new SmilesParser(SilentChemObjectBuilder.getInstance()));
+        ExecutorService tmpSharedExecutor = this.sharedParsingExecutor;
+        ExecutorService tmpExecutor = this.getParsingExecutor(aFile, BasicDefinitions.SMILES_IMPORT_CHUNK_SIZE, "SMILES_Import_Thread");
+        int tmpMaxNumberOfPendingChunks = Runtime.getRuntime().availableProcessors() * BasicDefinitions.IMPORT_PENDING_TASKS_PER_THREAD;
+        ArrayDeque<Future<SMILESFileChunk>> tmpPendingChunks = new ArrayDeque<>(tmpMaxNumberOfPendingChunks);
+        try (ReadableByteChannel tmpFileChannel = this.openChannel(aFile)) {
+            ByteBuffer tmpReadBuffer = ByteBuffer.allocate(BasicDefinitions.SMILES_IMPORT_CHUNK_SIZE);
+            boolean tmpIsEndOfFileReached = false;
+            while (!Thread.currentThread().isInterrupted() && (!tmpIsEndOfFileReached || !tmpPendingChunks.isEmpty())) {
+                while (!tmpIsEndOfFileReached && tmpPendingChunks.size() < tmpMaxNumberOfPendingChunks) {
+                    ByteBuffer tmpBufferWithChunk = this.readChunk(tmpFileChannel, tmpReadBuffer, this::findEndOfLastLine);
+                    if (tmpBufferWithChunk == null) {
+                        tmpIsEndOfFileReached = true;
+                        break;
+                    }
+                    tmpReadBuffer = tmpBufferWithChunk;
+                    this.readPositionMap.put(aFile, this.getReadPosition(tmpFileChannel));
+                    //the buffer is only filled partially at the end of the file
+                    byte[] tmpChunk = this.takeChunk(tmpReadBuffer, tmpReadBuffer.hasRemaining(),
+                            this::findEndOfLastLine);
+                    FutureTask<SMILESFileChunk> tmpTask = new FutureTask<>(() -> this.parseSMILESFileChunk(tmpChunk,
+                            tmpSmilesParser.get(), aSeparator, aSmilesCodePosition, anIDPosition));
+                    if (tmpExecutor != null) {
+                        tmpExecutor.execute(tmpTask);
                     } else {
-                        tmpSmilesFileInvalidLinesCounter++;
-                        continue;
+                        tmpTask.run();
+                    }
+                    tmpPendingChunks.add(tmpTask);
+                }
+                if (tmpPendingChunks.isEmpty()) {
+                    break;
+                }
+                SMILESFileChunk tmpSMILESFileChunk;
+                try {
+                    tmpSMILESFileChunk = tmpPendingChunks.poll().get();
+                } catch (InterruptedException anException) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (ExecutionException anException) {
+                    throw new IOException("SMILES file could not be parsed: " + anException.getCause(), anException.getCause());
+                }
+                for (IAtomContainer tmpMolecule : tmpSMILESFileChunk.moleculeList) {
+                    tmpSmilesFileParsableLinesCounter++;
+                    //setting the name of the atom container if no ID was given
+                    if (Importer.isMoleculeNameMissing(tmpMolecule.getProperty(Importer.MOLECULE_NAME_PROPERTY_KEY))) {
+                        tmpMolecule.setProperty(Importer.MOLECULE_NAME_PROPERTY_KEY,
+                                tmpFileNameWithoutExtension + tmpSmilesFileParsableLinesCounter);
                     }
-                } catch (InvalidSmilesException | IndexOutOfBoundsException anException) {  //case: invalid line or SMILES code
-                    tmpSmilesFileInvalidLinesCounter++;
+                    aMoleculeConsumer.accept(tmpMolecule);
+                }
+                tmpSmilesFileInvalidLinesCounter += tmpSMILESFileChunk.invalidLinesCounter;
+            }
+        } finally {
+            this.stopParsing(tmpExecutor, tmpSharedExecutor, tmpPendingChunks);
+        }
+        Importer.LOGGER.log(Level.INFO, "\tSmilesFile ParsableLinesCounter:\t" + tmpSmilesFileParsableLinesCounter +
+                "\n\tSmilesFile InvalidLinesCounter:\t\t" + tmpSmilesFileInvalidLinesCounter);
+    }
+    //
+    /**
+     * Returns the thread pool to parse the chunks of the given file with. During an import of several files, this is
+     * the pool shared by all files. Otherwise, a new pool is created if the file consists of more than one chunk, and
+     * null is returned for smaller files, whose chunk is parsed by the calling thread.
+     *
+     * @param aFile file to import
+     * @param aChunkSize number of bytes of a chunk
+     * @param aThreadName name of the threads of a new pool
+     * @return thread pool or null
+     */
+    private ExecutorService getParsingExecutor(File aFile, int aChunkSize, String aThreadName) {
+        ExecutorService tmpSharedExecutor = this.sharedParsingExecutor;
+        if (tmpSharedExecutor != null) {
+            return tmpSharedExecutor;
+        }
+        //the size of a compressed file does not tell the number of chunks
+        if (this.isGzipCompressed(aFile) || aFile.length() > aChunkSize) {
+            return this.createImportExecutor(aThreadName);
+        }
+        return null;
+    }
+    //
+    /**
+     * Stops the parsing of the chunks of a file that is done, interrupted, or failed. The given pool is shut down if
+     * it was created for the file; if it is the shared pool, only the chunks of the file still in process are
+     * cancelled, since the pool parses the chunks of other files as well.
+     *
+     * @param anExecutor pool returned by {@link #getParsingExecutor(File, int, String)}, may be null
+     * @param aSharedExecutor shared pool at the start of the file, may be null
+     * @param aPendingChunkCollection chunks of the file in process
+     */
+    private void stopParsing(ExecutorService anExecutor, ExecutorService aSharedExecutor,
+                             Collection<? extends Future<?>> aPendingChunkCollection) {
+        if (anExecutor == null) {
+            return;
+        }
+        if (anExecutor == aSharedExecutor) {
+            for (Future<?> tmpPendingChunk : aPendingChunkCollection) {
+                tmpPendingChunk.cancel(true);
+            }
+        } else {
+            anExecutor.shutdownNow();
+        }
+    }
+    //
+    /**
+     * Fills the given buffer from the given channel until the given finder detects the end of a complete line or
+     * record in it or the end of the file is reached. If the first line or record does not fit into the buffer, a larger
+     * buffer with the same content is returned instead. The returned buffer has space remaining only if the end of the
+     * file is reached. The remainder of the previous chunk and the content of a buffer that had to be enlarged hold no
+     * complete line or record, so the finder only searches the bytes read after them.
+     *
+     * @param aFileChannel channel to read from
+     * @param aBuffer buffer in write mode, may hold the remainder of the previous chunk
+     * @param aChunkEndFinder returns the number of bytes of the complete lines or records in a buffer, 0 if there is
+     *                        none ending at or after the given index
+     * @return the given or a larger buffer holding the next chunk, or null if the buffer is empty and the end of the
+     * file is reached
+     * @throws IOException if the file cannot be read
+     */
+    private ByteBuffer readChunk(ReadableByteChannel aFileChannel, ByteBuffer aBuffer,
+                                 ToIntBiFunction<ByteBuffer, Integer> aChunkEndFinder) throws IOException {
+        ByteBuffer tmpBuffer = aBuffer;
+        int tmpSearchStart = tmpBuffer.position();
+        while (true) {
+            while (tmpBuffer.hasRemaining()) {
+                if (aFileChannel.read(tmpBuffer) < 0) {
+                    return tmpBuffer.position() == 0 ? null : tmpBuffer;
+                }
+            }
+            if (aChunkEndFinder.applyAsInt(tmpBuffer, tmpSearchStart) > 0) {
+                return tmpBuffer;
+            }
+            //the line or record is longer than the buffer
+            tmpSearchStart = tmpBuffer.position();
+            ByteBuffer tmpLargerBuffer = ByteBuffer.allocate(tmpBuffer.capacity() * 2);
+            tmpBuffer.flip();
+            tmpLargerBuffer.put(tmpBuffer);
+            tmpBuffer = tmpLargerBuffer;
+        }
+    }
+    //
+    /**
+     * Copies the complete lines or records of the given buffer, or all bytes at the end of the file, and keeps the
+     * remaining bytes at the beginning of the buffer for the next chunk.
+     *
+     * @param aBuffer buffer in write mode filled by {@link #readChunk(ReadableByteChannel, ByteBuffer, ToIntBiFunction)}
+     * @param isEndOfFileReached whether the buffer holds the end of the file
+     * @param aChunkEndFinder returns the number of bytes of the complete lines or records in a buffer
+     * @return bytes of the chunk
+     */
+    private byte[] takeChunk(ByteBuffer aBuffer, boolean isEndOfFileReached,
+                             ToIntBiFunction<ByteBuffer, Integer> aChunkEndFinder) {
+        int tmpChunkLength = isEndOfFileReached ? aBuffer.position() : aChunkEndFinder.applyAsInt(aBuffer, 0);
+        byte[] tmpChunk = new byte[tmpChunkLength];
+        aBuffer.flip();
+        aBuffer.get(tmpChunk);
+        aBuffer.compact();
+        return tmpChunk;
+    }
+    //
+    /**
+     * Returns the number of bytes of the given buffer up to and including its last line feed.
+     *
+     * @param aBuffer buffer in write mode
+     * @param aSearchStart index of the first byte to search, the bytes before it hold no line feed
+     * @return number of bytes of the complete lines, 0 if there is no line feed
+     */
+    private int findEndOfLastLine(ByteBuffer aBuffer, int aSearchStart) {
+        for (int i = aBuffer.position() - 1; i >= aSearchStart; i--) {
+            if (aBuffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+    //
+    /**
+     * Returns the number of bytes of the given buffer up to and including the line feed of its last line starting with
+     * the SD record separator "$$$$".
+     *
+     * @param aBuffer buffer in write mode
+     * @param aSearchStart index of the first byte to search, no record ends before it; a separator line ending at or
+     *                     after it may start before it
+     * @return number of bytes of the complete records, 0 if there is no complete record
+     */
+    private int findEndOfLastSDRecord(ByteBuffer aBuffer, int aSearchStart) {
+        //index of the line feed ending the line that is checked
+        int tmpLineFeedIndex = -1;
+        for (int i = aBuffer.position() - 1; i >= -1; i--) {
+            if (tmpLineFeedIndex < 0 && i < aSearchStart) {
+                //no line ends in the searched bytes
+                return 0;
+            }
+            if (i >= 0 && aBuffer.get(i) != '\n') {
+                continue;
+            }
+            if (tmpLineFeedIndex >= 0 && Importer.isSDRecordSeparatorAt(aBuffer, i + 1, tmpLineFeedIndex)) {
+                return tmpLineFeedIndex + 1;
+            }
+            if (i < aSearchStart) {
+                //the lines ending before the searched bytes have been checked before
+                return 0;
+            }
+            tmpLineFeedIndex = i;
+        }
+        return 0;
+    }
+    //
+    /**
+     * Parses the lines of the given chunk of a SMILES file like {@link java.io.BufferedReader#readLine()} separates
+     * them. Called by the import threads; the name property is only set on molecules with ID, the fallback names are
+     * assigned in the order of the file by {@link #readSMILESFile(File, Consumer, char, int, int)}.
+     *
+     * @param aChunk bytes of complete lines encoded in the default charset
+     * @param aSmilesParser SMILES parser of the calling thread
+     * @param aSeparator separator of SMILES code and ID
+     * @param aSmilesCodePosition position of the SMILES code in a line
+     * @param anIDPosition position of the ID in a line
+     * @return the parsed molecules and number of invalid lines
+     */
+    private SMILESFileChunk parseSMILESFileChunk(byte[] aChunk, SmilesParser aSmilesParser, char aSeparator,
+                                                 int aSmilesCodePosition, int anIDPosition) {
+        SMILESFileChunk tmpSMILESFileChunk = new SMILESFileChunk();
+        String tmpContent = new String(aChunk, Charset.defaultCharset());
+        int tmpLineStart = 0;
+        while (tmpLineStart < tmpContent.length()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return tmpSMILESFileChunk;
+            }
+            //the first separator is searched while searching the line end, so the search does not go beyond the line
+            int tmpLineEnd = tmpLineStart;
+            int tmpSeparatorIndex = -1;
+            while (tmpLineEnd < tmpContent.length() && tmpContent.charAt(tmpLineEnd) != '\n' && tmpContent.charAt(tmpLineEnd) != '\r') {
+                if (tmpSeparatorIndex < 0 && tmpContent.charAt(tmpLineEnd) == aSeparator) {
+                    tmpSeparatorIndex = tmpLineEnd;
+                }
+                tmpLineEnd++;
+            }
+            //splitting the line at the first separator without a regular expression
+            String[] tmpProcessedLineArray;
+            if (tmpSeparatorIndex < 0) {
+                tmpProcessedLineArray = new String[] {tmpContent.substring(tmpLineStart, tmpLineEnd)};
+            } else {
+                tmpProcessedLineArray = new String[] {tmpContent.substring(tmpLineStart, tmpSeparatorIndex),
+                        tmpContent.substring(tmpSeparatorIndex + 1, tmpLineEnd)};
+            }
+            if (tmpLineEnd + 1 < tmpContent.length() && tmpContent.charAt(tmpLineEnd) == '\r' && tmpContent.charAt(tmpLineEnd + 1) == '\n') {
+                tmpLineEnd++;
+            }
+            tmpLineStart = tmpLineEnd + 1;
+            //trying to parse as SMILES code
+            IAtomContainer tmpMolecule;
+            try {
+                if (!tmpProcessedLineArray[aSmilesCodePosition].isEmpty()) {
+                    tmpMolecule = aSmilesParser.parseSmiles(tmpProcessedLineArray[aSmilesCodePosition]);
+                } else {
+                    tmpSMILESFileChunk.invalidLinesCounter++;
+                    continue;
+                }
+            } catch (InvalidSmilesException | IndexOutOfBoundsException anException) {  //case: invalid line or SMILES code
+                tmpSMILESFileChunk.invalidLinesCounter++;
+                continue;
+            }
+            if (tmpProcessedLineArray.length > 1 && !Importer.isMoleculeNameMissing(tmpProcessedLineArray[anIDPosition])) {
+                tmpMolecule.setProperty(Importer.MOLECULE_NAME_PROPERTY_KEY, tmpProcessedLineArray[anIDPosition]);
+            }
+            tmpSMILESFileChunk.moleculeList.add(tmpMolecule);
+        }
+        return tmpSMILESFileChunk;
+    }
+    //
+    /**
+     * Checks whether the given file is gzip-compressed, i.e. whether its name ends with the gzip extension.
+     *
+     * @param aFile file to import
+     * @return true if the file is decompressed while it is read
+     */
+    private boolean isGzipCompressed(File aFile) {
+        return aFile.getName().toLowerCase(Locale.ROOT).endsWith(Importer.GZIP_FILE_EXTENSION);
+    }
+    //
+    /**
+     * Returns the extension of the given file that specifies its file type, for compressed files the extension before
+     * the gzip extension.
+     *
+     * @param aFile file to import
+     * @return file extension including the dot, or an empty string if there is none
+     */
+    private String getFileExtension(File aFile) {
+        String tmpFilePath = aFile.getPath();
+        if (this.isGzipCompressed(aFile)) {
+            tmpFilePath = tmpFilePath.substring(0, tmpFilePath.length() - Importer.GZIP_FILE_EXTENSION.length());
+        }
+        return FileUtil.getFileExtension(tmpFilePath);
+    }
+    //
+    /**
+     * Returns the name of the given file without its extension and, for compressed files, without the extension
+     * before the gzip extension, to name molecules without name.
+     *
+     * @param aFile file to import
+     * @return file name without extensions
+     */
+    private String getFileNameWithoutExtension(File aFile) {
+        if (this.isGzipCompressed(aFile)) {
+            String tmpFileName = aFile.getName();
+            return FileUtil.getFileNameWithoutExtension(new File(
+                    tmpFileName.substring(0, tmpFileName.length() - Importer.GZIP_FILE_EXTENSION.length())));
+        }
+        return FileUtil.getFileNameWithoutExtension(aFile);
+    }
+    //
+    /**
+     * Opens an input stream of the bytes of the given file, decompressed if the file is gzip-compressed.
+     *
+     * @param aFile file to import
+     * @return input stream to be closed by the caller
+     * @throws IOException if the file cannot be opened or is not in gzip format although it has the gzip extension
+     */
+    private InputStream openInputStream(File aFile) throws IOException {
+        if (this.isGzipCompressed(aFile)) {
+            return new GZIPInputStream(new FileInputStream(aFile), BasicDefinitions.BUFFER_SIZE);
+        }
+        return new FileInputStream(aFile);
+    }
+    //
+    /**
+     * Opens a channel of the bytes of the given file. Gzip-compressed files are decompressed by a background thread
+     * ahead of the reading thread, see {@link GzipDecompressionChannel}.
+     *
+     * @param aFile file to import
+     * @return channel to be closed by the caller
+     * @throws IOException if the file cannot be opened or is not in gzip format although it has the gzip extension
+     */
+    private ReadableByteChannel openChannel(File aFile) throws IOException {
+        if (this.isGzipCompressed(aFile)) {
+            return new GzipDecompressionChannel(aFile, BasicDefinitions.DECOMPRESSION_BLOCK_SIZE,
+                    BasicDefinitions.DECOMPRESSION_PENDING_BLOCKS);
+        }
+        return FileChannel.open(aFile.toPath(), StandardOpenOption.READ);
+    }
+    //
+    /**
+     * Returns the number of bytes of the file of the given channel that have been read, for a gzip-compressed file the
+     * number of compressed bytes.
+     *
+     * @param aChannel channel opened by {@link #openChannel(File)}
+     * @return read position in the file
+     * @throws IOException if the position cannot be determined
+     */
+    private long getReadPosition(ReadableByteChannel aChannel) throws IOException {
+        if (aChannel instanceof GzipDecompressionChannel) {
+            return ((GzipDecompressionChannel) aChannel).getCompressedPosition();
+        }
+        return ((SeekableByteChannel) aChannel).position();
+    }
+    //
+    /**
+     * Creates a thread pool for the import of molecule files, with one thread per available processor.
+     *
+     * @param aThreadName name of the threads
+     * @return executor service with daemon threads
+     */
+    private ExecutorService createImportExecutor(String aThreadName) {
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), aRunnable -> {
+            Thread tmpThread = new Thread(aRunnable);
+            tmpThread.setName(aThreadName);
+            tmpThread.setUncaughtExceptionHandler(LogUtil.getUncaughtExceptionHandler());
+            tmpThread.setDaemon(true);
+            return tmpThread;
+        });
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private static methods" defaultstate="collapsed">
+    /**
+     * Returns the given CONECT records of a PDB file limited to the given atoms, so that the records can be passed to
+     * the reader of a residue without bonds to atoms that are not in it. Records of other atoms are left out and the
+     * bonded atoms that are not in the given set are removed from the records of the given atoms.
+     *
+     * @param aConnectRecordList CONECT records of the file
+     * @param anAtomSerialSet serial numbers of the atoms, trimmed
+     * @return the limited CONECT records, each terminated by a line break, or an empty string if there are none
+     */
+    private static String filterPDBConnectRecords(List<String> aConnectRecordList, Set<String> anAtomSerialSet) {
+        StringBuilder tmpConnectRecords = new StringBuilder();
+        for (String tmpConnectRecord : aConnectRecordList) {
+            //the serial numbers are right-justified in fields of five columns, the first one from column 7 on
+            if (tmpConnectRecord.length() < 11 || !anAtomSerialSet.contains(tmpConnectRecord.substring(6, 11).trim())) {
+                continue;
+            }
+            StringBuilder tmpFilteredRecord = new StringBuilder(tmpConnectRecord.substring(0, 11));
+            for (int i = 11; i + 5 <= Math.min(31, tmpConnectRecord.length()); i += 5) {
+                String tmpField = tmpConnectRecord.substring(i, i + 5);
+                if (anAtomSerialSet.contains(tmpField.trim())) {
+                    tmpFilteredRecord.append(tmpField);
+                }
+            }
+            if (tmpFilteredRecord.length() > 11) {
+                tmpConnectRecords.append(tmpFilteredRecord).append('\n');
+            }
+        }
+        return tmpConnectRecords.toString();
+    }
+    //
+    /**
+     * Checks whether the given molecule name is missing, i.e. null, blank, or "None" like
+     * {@link #findMoleculeName(IAtomContainer)} treats it, so that the name after the file is used instead.
+     *
+     * @param aName name property or ID of a molecule, may be null
+     * @return true if the molecule has no usable name
+     */
+    private static boolean isMoleculeNameMissing(Object aName) {
+        if (aName == null) {
+            return true;
+        }
+        String tmpName = aName.toString();
+        return tmpName.isBlank() || tmpName.equalsIgnoreCase("None");
+    }
+    //
+    /**
+     * Counts the records of the given chunk of an SD file, i.e. the lines starting with the record separator "$$$$"
+     * plus a last record without separator if the chunk ends with further non-blank lines.
+     *
+     * @param aChunk bytes of complete records
+     * @return number of records
+     */
+    private static int countSDRecords(byte[] aChunk) {
+        ByteBuffer tmpChunkBuffer = ByteBuffer.wrap(aChunk);
+        int tmpNumberOfRecords = 0;
+        boolean tmpIsLastRecordBlank = true;
+        int tmpLineStart = 0;
+        while (tmpLineStart < aChunk.length) {
+            int tmpLineEnd = tmpLineStart;
+            while (tmpLineEnd < aChunk.length && aChunk[tmpLineEnd] != '\n') {
+                tmpLineEnd++;
+            }
+            if (Importer.isSDRecordSeparatorAt(tmpChunkBuffer, tmpLineStart, tmpLineEnd)) {
+                tmpNumberOfRecords++;
+                tmpIsLastRecordBlank = true;
+            } else {
+                for (int i = tmpLineStart; i < tmpLineEnd && tmpIsLastRecordBlank; i++) {
+                    tmpIsLastRecordBlank = Character.isWhitespace(aChunk[i]);
+                }
+            }
+            tmpLineStart = tmpLineEnd + 1;
+        }
+        return tmpIsLastRecordBlank ? tmpNumberOfRecords : tmpNumberOfRecords + 1;
+    }
+    //
+    /**
+     * Checks whether the line between the given indices of the given buffer starts with the SD record separator "$$$$".
+     *
+     * @param aBuffer buffer holding the line
+     * @param aLineStart index of the first byte of the line
+     * @param aLineEnd index after the last byte of the line
+     * @return true if the line starts with the record separator
+     */
+    private static boolean isSDRecordSeparatorAt(ByteBuffer aBuffer, int aLineStart, int aLineEnd) {
+        if (aLineEnd - aLineStart < Importer.SD_RECORD_SEPARATOR.length) {
+            return false;
+        }
+        for (int i = 0; i < Importer.SD_RECORD_SEPARATOR.length; i++) {
+            if (aBuffer.get(aLineStart + i) != Importer.SD_RECORD_SEPARATOR[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="protected methods" defaultstate="collapsed">
+    /**
+     * Imports a SMILES file. This method is able to parse different types of SMILES files, e.g. with and without header
+     * or with only one column or two (SMILES and name/ID, which is in which column is detected).
+     * Protected and not private for testing in class ImporterTest.
+     *
+     * @param aFile a SMILES codes-containing *.txt or *.smi file
+     * @return the imported molecules in an IAtomContainerSet
+     * @throws IOException if the given file does not fit to the expected format of a SMILES file
+     * @author Samuel Behr
+     */
+    protected IAtomContainerSet importSMILESFile(File aFile) throws IOException {
+        IAtomContainerSet tmpAtomContainerSet = new AtomContainerSet();
+        this.importSMILESFile(aFile, tmpAtomContainerSet::addAtomContainer);
+        return tmpAtomContainerSet;
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private classes" defaultstate="collapsed">
+    /**
+     * Molecules of a chunk of lines of a SMILES file parsed in parallel.
+     */
+    private static final class SMILESFileChunk {
+        /**
+         * Molecules of the lines with parsable SMILES code, in the order of the lines.
+         */
+        private final List<IAtomContainer> moleculeList = new ArrayList<>();
+        /**
+         * Number of lines without parsable SMILES code.
+         */
+        private int invalidLinesCounter = 0;
+    }
+    //
+    /**
+     * Molecules of a chunk of records of an SD file parsed in parallel.
+     */
+    private static final class SDFileChunk {
+        /**
+         * Molecules of the records that could be read, in the order of the records.
+         */
+        private final List<IAtomContainer> moleculeList = new ArrayList<>();
+        /**
+         * Whether all records of the chunk could be read.
+         */
+        private boolean isComplete = false;
+    }
+    //
+    /**
+     * HETATM residue of a PDB file extracted as a small molecule, parsed when its model is complete.
+     */
+    private static final class PDBResidue {
+        /**
+         * Name of the molecule.
+         */
+        private final String name;
+        /**
+         * HETATM records of the residue, each terminated by a line break.
+         */
+        private final String records;
+        /**
+         * Trimmed serial numbers of the atoms of the residue.
+         */
+        private final Set<String> atomSerialSet;
+        /**
+         * Constructor.
+         *
+         * @param aName name of the molecule
+         * @param aRecords HETATM records of the residue
+         * @param anAtomSerialSet serial numbers of the atoms of the residue
+         */
+        private PDBResidue(String aName, String aRecords, Set<String> anAtomSerialSet) {
+            this.name = aName;
+            this.records = aRecords;
+            this.atomSerialSet = anAtomSerialSet;
+        }
+    }
+    //
+    /**
+     * Preprocesses imported molecules and converts them into molecule data models while they are read. The molecules
+     * are collected in chunks that are processed by a pool of import threads, at most a few chunks per thread at a
+     * time, so reading waits for the conversion if it is faster. The converted data models are collected in the order
+     * the molecules were accepted and published in batches, see {@link #pollImportedMoleculeDataModels()}. The import
+     * is reported to the import monitor from construction until {@link #shutdown()}. If a chunk fails, the following
+     * molecules are not accepted anymore and {@link #finish()} throws the exception of the chunk, so that no molecules
+     * are dropped silently. Not thread-safe, molecules must be accepted by one thread.
+     */
+    private final class MoleculeDataModelConverter implements Consumer<IAtomContainer> {
+        /**
+         * Whether empty valences are completed with implicit hydrogen atoms, read once from the settings.
+         */
+        private final boolean addImplicitHydrogens;
+        /**
+         * Whether the data models keep the atom containers, read once from the settings.
+         */
+        private final boolean keepAtomContainer;
+        /**
+         * Maximum number of chunks in process.
+         */
+        private final int maxNumberOfPendingChunks;
+        /**
+         * Chunks in process, in the order of the molecules.
+         */
+        private final ArrayDeque<Future<List<MoleculeDataModel>>> pendingChunks;
+        /**
+         * All converted data models.
+         */
+        private final List<MoleculeDataModel> moleculeDataModelList;
+        /**
+         * Number of molecules that caused an exception in preprocessing.
+         */
+        private final AtomicInteger preprocessingExceptionsCounter;
+        /**
+         * Number of molecules for which no unique SMILES code could be created.
+         */
+        private final AtomicInteger conversionExceptionsCounter;
+        /**
+         * Accepted molecules that are not in process yet.
+         */
+        private List<IAtomContainer> chunk;
+        /**
+         * Converted data models that are not published yet.
+         */
+        private List<MoleculeDataModel> batch;
+        /**
+         * Thread pool, created with the first full chunk.
+         */
+        private ExecutorService executor;
+        /**
+         * Exception of the first chunk that failed, null if no chunk failed.
+         */
+        private ExecutionException chunkException;
+        //
+        /**
+         * Constructor, reads the settings used for preprocessing and conversion.
+         */
+        private MoleculeDataModelConverter() {
+            this.addImplicitHydrogens = Importer.this.settingsContainer.getAddImplicitHydrogensAtImportSetting();
+            this.keepAtomContainer = Importer.this.settingsContainer.getKeepAtomContainerInDataModelSetting();
+            this.maxNumberOfPendingChunks = Runtime.getRuntime().availableProcessors() * BasicDefinitions.IMPORT_PENDING_TASKS_PER_THREAD;
+            this.pendingChunks = new ArrayDeque<>(this.maxNumberOfPendingChunks);
+            this.moleculeDataModelList = new ArrayList<>();
+            this.preprocessingExceptionsCounter = new AtomicInteger(0);
+            this.conversionExceptionsCounter = new AtomicInteger(0);
+            this.chunk = new ArrayList<>(BasicDefinitions.IMPORT_PREPROCESSING_CHUNK_SIZE);
+            this.batch = new ArrayList<>();
+            this.executor = null;
+            this.chunkException = null;
+            MonitoringUtil.getImportExportMonitor().importStarted(Importer.this);
+        }
+        //
+        /**
+         * Adds the given molecule to the current chunk and hands the chunk to the thread pool if it is full. Collects
+         * the chunks that are done and waits for the oldest chunk if too many chunks are in process. If the thread is
+         * interrupted while waiting, its interrupt flag is set, so the reading stops. After a chunk failed, the given
+         * molecule is ignored.
+         *
+         * @param aMolecule imported molecule
+         */
+        @Override
+        public void accept(IAtomContainer aMolecule) {
+            if (this.chunkException != null) {
+                return;
+            }
+            this.chunk.add(aMolecule);
+            if (this.chunk.size() < BasicDefinitions.IMPORT_PREPROCESSING_CHUNK_SIZE) {
+                return;
+            }
+            if (this.executor == null) {
+                this.executor = Importer.this.createImportExecutor("Import_Preprocessing_Thread");
+            }
+            List<IAtomContainer> tmpChunk = this.chunk;
+            this.chunk = new ArrayList<>(BasicDefinitions.IMPORT_PREPROCESSING_CHUNK_SIZE);
+            FutureTask<List<MoleculeDataModel>> tmpTask = new FutureTask<>(() -> this.convert(tmpChunk));
+            this.executor.execute(tmpTask);
+            this.pendingChunks.add(tmpTask);
+            while (!this.pendingChunks.isEmpty()
+                    && (this.pendingChunks.size() > this.maxNumberOfPendingChunks || this.pendingChunks.peek().isDone())) {
+                if (!this.collect(this.pendingChunks.poll())) {
+                    return;
+                }
+            }
+        }
+        //
+        /**
+         * Converts the remaining molecules, waits for all chunks in process and publishes the last batch. Unless the
+         * thread is interrupted, all accepted molecules are converted afterwards.
+         *
+         * @return all converted data models in the order the molecules were accepted
+         * @throws ExecutionException if a chunk failed, the molecules of the chunk and all following molecules are
+         * missing then
+         */
+        private List<MoleculeDataModel> finish() throws ExecutionException {
+            if (this.chunkException == null && !this.chunk.isEmpty()) {
+                List<IAtomContainer> tmpChunk = this.chunk;
+                this.chunk = new ArrayList<>(0);
+                FutureTask<List<MoleculeDataModel>> tmpTask = new FutureTask<>(() -> this.convert(tmpChunk));
+                //small imports are converted by the importing thread alone
+                if (this.executor != null) {
+                    this.executor.execute(tmpTask);
+                } else {
+                    tmpTask.run();
+                }
+                this.pendingChunks.add(tmpTask);
+            }
+            while (!this.pendingChunks.isEmpty()) {
+                if (!this.collect(this.pendingChunks.poll())) {
+                    break;
+                }
+            }
+            if (this.chunkException != null) {
+                throw this.chunkException;
+            }
+            this.publish();
+            Importer.LOGGER.log(Level.INFO, "Imported and preprocessed molecule set. " + this.preprocessingExceptionsCounter.get()
+                    + " exceptions occurred. " + this.conversionExceptionsCounter.get()
+                    + " molecules could not be parsed into the internal data model.");
+            return this.moleculeDataModelList;
+        }
+        //
+        /**
+         * Shuts the thread pool down, if it was created, and reports the end of the import to the import monitor.
+         */
+        private void shutdown() {
+            if (this.executor != null) {
+                this.executor.shutdownNow();
+            }
+            MonitoringUtil.getImportExportMonitor().importFinished();
+        }
+        //
+        /**
+         * Waits for the given chunk and adds its data models to the list of all data models and to the batch to
+         * publish, which is published if it is large enough. An exception of the chunk is kept to be thrown by
+         * {@link #finish()}.
+         *
+         * @param aChunk chunk in process
+         * @return false if the thread was interrupted while waiting or the chunk failed
+         */
+        private boolean collect(Future<List<MoleculeDataModel>> aChunk) {
+            try {
+                List<MoleculeDataModel> tmpChunkDataModelList = aChunk.get();
+                this.moleculeDataModelList.addAll(tmpChunkDataModelList);
+                this.batch.addAll(tmpChunkDataModelList);
+                if (this.batch.size() >= BasicDefinitions.IMPORT_PUBLISH_BATCH_SIZE) {
+                    this.publish();
+                }
+                return true;
+            } catch (InterruptedException anException) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (ExecutionException anException) {
+                //the chunks in process are not needed anymore
+                this.chunkException = anException;
+                this.pendingChunks.forEach(aPendingChunk -> aPendingChunk.cancel(true));
+                this.pendingChunks.clear();
+                return false;
+            }
+        }
+        //
+        /**
+         * Publishes the current batch if it is not empty.
+         */
+        private void publish() {
+            if (this.batch.isEmpty()) {
+                return;
+            }
+            Importer.this.publishedBatchQueue.add(this.batch);
+            MonitoringUtil.getImportExportMonitor().moleculesImported(this.batch.size());
+            this.batch = new ArrayList<>();
+        }
+        //
+        /**
+         * Preprocesses the given molecules and creates their data models, one molecule after the other, and commits a
+         * molecule batch event for the chunk. Called by the import threads.
+         *
+         * @param aChunk molecules to convert
+         * @return the data models of the molecules for which a unique SMILES code could be created
+         */
+        private List<MoleculeDataModel> convert(List<IAtomContainer> aChunk) {
+            MoleculeBatchEvent tmpBatchEvent = new MoleculeBatchEvent();
+            tmpBatchEvent.begin();
+            int tmpExceptionsCounter = 0;
+            List<MoleculeDataModel> tmpChunkDataModelList = new ArrayList<>(aChunk.size());
+            for (IAtomContainer tmpMolecule : aChunk) {
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                if (!Importer.this.preprocessMolecule(tmpMolecule, this.addImplicitHydrogens)) {
+                    this.preprocessingExceptionsCounter.incrementAndGet();
+                    tmpExceptionsCounter++;
+                }
+                //returns null if no SMILES code could be created
+                String tmpSmiles = ChemUtil.createUniqueSmiles(tmpMolecule);
+                if (tmpSmiles == null) {
+                    this.conversionExceptionsCounter.incrementAndGet();
+                    tmpExceptionsCounter++;
                     continue;
                 }
-                //setting the name of the atom container
-                String tmpName = "";
-                if (tmpProcessedLineArray.length > 1 && !tmpProcessedLineArray[tmpIDExpectedPosition].isEmpty()) {
-                    tmpName = tmpProcessedLineArray[tmpIDExpectedPosition];
+                MoleculeDataModel tmpMoleculeDataModel;
+                if (this.keepAtomContainer) {
+                    tmpMoleculeDataModel = new MoleculeDataModel(tmpMolecule);
                 } else {
-                    tmpName = FileUtil.getFileNameWithoutExtension(aFile) + tmpSmilesFileParsableLinesCounter;
+                    tmpMoleculeDataModel = new MoleculeDataModel(tmpSmiles, tmpMolecule.getTitle(), tmpMolecule.getProperties());
                 }
-                tmpMolecule.setProperty(Importer.MOLECULE_NAME_PROPERTY_KEY, tmpName);
-                //adding tmpMolecule to the AtomContainerSet
-                tmpAtomContainerSet.addAtomContainer(tmpMolecule);
+                tmpMoleculeDataModel.setName(tmpMolecule.getProperty(Importer.MOLECULE_NAME_PROPERTY_KEY));
+                tmpChunkDataModelList.add(tmpMoleculeDataModel);
             }
-            Importer.LOGGER.log(Level.INFO, "\tSmilesFile ParsableLinesCounter:\t" + tmpSmilesFileParsableLinesCounter +
-                    "\n\tSmilesFile InvalidLinesCounter:\t\t" + tmpSmilesFileInvalidLinesCounter);
-            return tmpAtomContainerSet;
+            tmpBatchEvent.commit(MoleculeBatchEvent.IMPORT_OPERATION, Importer.this.fileName, aChunk.size(),
+                    tmpChunkDataModelList.size(), tmpExceptionsCounter);
+            return tmpChunkDataModelList;
         }
     }
     //</editor-fold>
@@ -0,0 +1,271 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.io;
+
+import de.unijena.cheminf.mortar.model.util.BasicDefinitions;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes one-dimensional numeric arrays to a NumPy .npz archive, i.e. a ZIP archive of arrays in the NumPy .npy format
+ * (version 1.0), which can be loaded with numpy.load() without any parsing. The values of an array are streamed, so
+ * its length has to be known in advance. Instances are not thread-safe.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class NpzWriter implements Closeable {
+    //<editor-fold desc="private static final constants" defaultstate="collapsed">
+    /**
+     * Magic string and format version 1.0 at the beginning of every .npy file.
+     */
+    private static final byte[] NPY_MAGIC = {(byte) 0x93, 'N', 'U', 'M', 'P', 'Y', 1, 0};
+    /**
+     * Alignment of the array data in a .npy file, the header is padded accordingly.
+     */
+    private static final int NPY_HEADER_ALIGNMENT = 64;
+    /**
+     * NumPy type descriptor of little-endian 32-bit integers.
+     */
+    private static final String INT32_DESCRIPTOR = "<i4";
+    /**
+     * NumPy type descriptor of little-endian 64-bit integers.
+     */
+    private static final String INT64_DESCRIPTOR = "<i8";
+    //</editor-fold>
+    //
+    //<editor-fold desc="private final class variables" defaultstate="collapsed">
+    /**
+     * Stream of the archive.
+     */
+    private final ZipOutputStream zipOutputStream;
+    /**
+     * Buffer of little-endian values not yet written to the current entry.
+     */
+    private final ByteBuffer byteBuffer;
+    //</editor-fold>
+    //
+    //<editor-fold desc="private class variables" defaultstate="collapsed">
+    /**
+     * Number of values still to be written to the current array, 0 if no array is being written.
+     */
+    private long remainingValues;
+    /**
+     * Number of bytes of each value of the current array.
+     */
+    private int valueSize;
+    //</editor-fold>
+    //
+    /**
+     * Constructor, creates the given file or overwrites it if it exists.
+     *
+     * @param aFile file to write to
+     * @throws NullPointerException if the file is null
+     * @throws IOException if the file cannot be opened
+     */
+    public NpzWriter(File aFile) throws NullPointerException, IOException {
+        Objects.requireNonNull(aFile, "aFile (instance of File) is null");
+        this.zipOutputStream = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(aFile),
+                BasicDefinitions.BUFFER_SIZE));
+        //integer arrays compress well even at the fastest level
+        this.zipOutputStream.setLevel(Deflater.BEST_SPEED);
+        this.byteBuffer = ByteBuffer.allocate(BasicDefinitions.BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        this.remainingValues = 0;
+    }
+    //
+    //<editor-fold desc="public methods" defaultstate="collapsed">
+    /**
+     * Starts an array of 32-bit integers with the given name and length, its values have to be written with
+     * {@link #writeInt(int)}.
+     *
+     * @param aName name of the array in the archive
+     * @param aLength number of values
+     * @throws IOException if the archive cannot be written
+     * @throws IllegalStateException if the previous array is not complete
+     */
+    public void beginIntArray(String aName, long aLength) throws IOException, IllegalStateException {
+        this.beginArray(aName, NpzWriter.INT32_DESCRIPTOR, "(" + aLength + ",)", aLength, Integer.BYTES);
+    }
+    //
+    /**
+     * Starts an array of 64-bit integers with the given name and length, its values have to be written with
+     * {@link #writeLong(long)}.
+     *
+     * @param aName name of the array in the archive
+     * @param aLength number of values
+     * @throws IOException if the archive cannot be written
+     * @throws IllegalStateException if the previous array is not complete
+     */
+    public void beginLongArray(String aName, long aLength) throws IOException, IllegalStateException {
+        this.beginArray(aName, NpzWriter.INT64_DESCRIPTOR, "(" + aLength + ",)", aLength, Long.BYTES);
+    }
+    //
+    /**
+     * Writes the next value of the current array of 32-bit integers.
+     *
+     * @param aValue value to write
+     * @throws IOException if the archive cannot be written
+     * @throws IllegalStateException if no array of 32-bit integers expects further values
+     */
+    public void writeInt(int aValue) throws IOException, IllegalStateException {
+        this.checkNextValue(Integer.BYTES);
+        this.byteBuffer.putInt(aValue);
+        this.finishValue();
+    }
+    //
+    /**
+     * Writes the next value of the current array of 64-bit integers.
+     *
+     * @param aValue value to write
+     * @throws IOException if the archive cannot be written
+     * @throws IllegalStateException if no array of 64-bit integers expects further values
+     */
+    public void writeLong(long aValue) throws IOException, IllegalStateException {
+        this.checkNextValue(Long.BYTES);
+        this.byteBuffer.putLong(aValue);
+        this.finishValue();
+    }
+    //
+    /**
+     * Writes a zero-dimensional array holding the given ASCII text as byte string.
+     *
+     * @param aName name of the array in the archive
+     * @param aText ASCII text
+     * @throws IOException if the archive cannot be written
+     * @throws IllegalStateException if the previous array is not complete
+     */
+    public void writeByteString(String aName, String aText) throws IOException, IllegalStateException {
+        byte[] tmpBytes = aText.getBytes(StandardCharsets.US_ASCII);
+        this.beginArray(aName, "|S" + tmpBytes.length, "()", 0, 1);
+        this.zipOutputStream.write(tmpBytes);
+        this.zipOutputStream.closeEntry();
+    }
+    //
+    /**
+     * Closes the archive.
+     *
+     * @throws IOException if the archive cannot be written or the last array is not complete
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (this.remainingValues != 0) {
+                throw new IOException("The last array of the archive is incomplete, " + this.remainingValues + " values are missing.");
+            }
+        } finally {
+            this.zipOutputStream.close();
+        }
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private methods" defaultstate="collapsed">
+    /**
+     * Starts a new entry with the .npy header of an array.
+     *
+     * @param aName name of the array
+     * @param aDescriptor NumPy type descriptor
+     * @param aShape shape as Python tuple
+     * @param aLength number of values written afterwards
+     * @param aValueSize number of bytes of each value
+     * @throws IOException if the archive cannot be written
+     * @throws IllegalStateException if the previous array is not complete
+     * @throws IllegalArgumentException if the length is negative
+     */
+    private void beginArray(String aName, String aDescriptor, String aShape, long aLength, int aValueSize)
+            throws IOException, IllegalStateException, IllegalArgumentException {
+        Objects.requireNonNull(aName, "aName (instance of String) is null");
+        if (this.remainingValues != 0) {
+            throw new IllegalStateException("The previous array is incomplete, " + this.remainingValues + " values are missing.");
+        }
+        if (aLength < 0) {
+            throw new IllegalArgumentException("aLength must not be negative.");
+        }
+        StringBuilder tmpHeader = new StringBuilder("{'descr': '").append(aDescriptor)
+                .append("', 'fortran_order': False, 'shape': ").append(aShape).append(", }");
+        //the header is padded with spaces and terminated by a line feed, so that the data is aligned
+        int tmpPrefixLength = NpzWriter.NPY_MAGIC.length + 2;
+        while ((tmpPrefixLength + tmpHeader.length() + 1) % NpzWriter.NPY_HEADER_ALIGNMENT != 0) {
+            tmpHeader.append(' ');
+        }
+        tmpHeader.append('\n');
+        this.zipOutputStream.putNextEntry(new ZipEntry(aName + ".npy"));
+        this.zipOutputStream.write(NpzWriter.NPY_MAGIC);
+        this.zipOutputStream.write(tmpHeader.length() & 0xFF);
+        this.zipOutputStream.write((tmpHeader.length() >>> 8) & 0xFF);
+        this.zipOutputStream.write(tmpHeader.toString().getBytes(StandardCharsets.US_ASCII));
+        this.remainingValues = aLength;
+        this.valueSize = aValueSize;
+        if (aLength == 0 && aValueSize != 1) {
+            this.zipOutputStream.closeEntry();
+        }
+    }
+    //
+    /**
+     * Checks that the current array expects a further value of the given size and makes room for it in the buffer.
+     *
+     * @param aValueSize number of bytes of the value
+     * @throws IOException if the archive cannot be written
+     * @throws IllegalStateException if the current array does not expect a value of this size
+     */
+    private void checkNextValue(int aValueSize) throws IOException, IllegalStateException {
+        if (this.remainingValues == 0 || this.valueSize != aValueSize) {
+            throw new IllegalStateException("No array expects a value of " + aValueSize + " bytes.");
+        }
+        if (this.byteBuffer.remaining() < aValueSize) {
+            this.writeBuffer();
+        }
+    }
+    //
+    /**
+     * Counts the value just put into the buffer and completes the entry after the last value of the array.
+     *
+     * @throws IOException if the archive cannot be written
+     */
+    private void finishValue() throws IOException {
+        this.remainingValues--;
+        if (this.remainingValues == 0) {
+            this.writeBuffer();
+            this.zipOutputStream.closeEntry();
+        }
+    }
+    //
+    /**
+     * Writes the buffered values to the current entry and clears the buffer.
+     *
+     * @throws IOException if the archive cannot be written
+     */
+    private void writeBuffer() throws IOException {
+        this.zipOutputStream.write(this.byteBuffer.array(), 0, this.byteBuffer.position());
+        this.byteBuffer.clear();
+    }
+    //</editor-fold>
+}
@@ -0,0 +1,876 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.io;
+
+import de.unijena.cheminf.mortar.model.data.FragmentDataModel;
+import de.unijena.cheminf.mortar.model.data.MoleculeDataModel;
+import de.unijena.cheminf.mortar.model.util.BasicDefinitions;
+import de.unijena.cheminf.mortar.model.util.CollectionUtil;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Session of an imported molecule set together with the results of the fragmentations done on it, which can be written
+ * to and reloaded from a compact binary file, so an analysed data set does not have to be imported and fragmented
+ * again. All strings, i.e. SMILES codes, names and string properties, are stored once in a string table and referenced
+ * by index; the fragments of a molecule are stored as pairs of fragment index and frequency. The file consists of
+ * blocks of at most {@link BasicDefinitions#SESSION_FILE_BLOCK_SIZE} bytes that are optionally deflated and is read
+ * block by block through a file channel. Only the unique SMILES codes are kept, not the atom containers, and only
+ * properties with string keys and values.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class SessionFile {
+    //<editor-fold desc="public static final class constants" defaultstate="collapsed">
+    /**
+     * File extension of session files.
+     */
+    public static final String SESSION_FILE_EXTENSION = ".mortar";
+    //</editor-fold>
+    //
+    //<editor-fold desc="private static final class constants" defaultstate="collapsed">
+    /**
+     * Number at the beginning of every session file ("MRTS").
+     */
+    private static final int MAGIC_NUMBER = 0x4D525453;
+    /**
+     * Version of the binary file format, files with another version are rejected.
+     */
+    private static final int FILE_FORMAT_VERSION = 1;
+    /**
+     * Number of bytes of the file header, i.e. magic number and version.
+     */
+    private static final int FILE_HEADER_SIZE = 2 * Integer.BYTES;
+    /**
+     * Number of bytes of a block header, i.e. number of bytes of the block and number of stored bytes.
+     */
+    private static final int BLOCK_HEADER_SIZE = 2 * Integer.BYTES;
+    /**
+     * Maximum number of bytes the deflate format can inflate one stored byte to, used to bound the number of bytes
+     * left in a file.
+     */
+    private static final int MAXIMUM_DEFLATE_RATIO = 1032;
+    /**
+     * Minimum number of bytes of a string in a file, i.e. its length.
+     */
+    private static final int MINIMUM_STRING_SIZE = Integer.BYTES;
+    /**
+     * Minimum number of bytes of a molecule in a file, i.e. SMILES code, name, selection and number of properties.
+     */
+    private static final int MINIMUM_MOLECULE_SIZE = 3 * Integer.BYTES + 1;
+    /**
+     * Number of bytes of a property in a file, i.e. key and value.
+     */
+    private static final int PROPERTY_SIZE = 2 * Integer.BYTES;
+    /**
+     * Minimum number of bytes of a fragmentation in a file, i.e. name and number of fragments.
+     */
+    private static final int MINIMUM_FRAGMENTATION_SIZE = 2 * Integer.BYTES;
+    /**
+     * Number of bytes of a fragment in a file, i.e. SMILES code, name, frequencies and percentages.
+     */
+    private static final int FRAGMENT_SIZE = 4 * Integer.BYTES + 2 * Double.BYTES;
+    /**
+     * Index written for a string that is null.
+     */
+    private static final int NULL_INDEX = -1;
+    /**
+     * Number of fragments written for a molecule that has not undergone a fragmentation.
+     */
+    private static final int NOT_FRAGMENTED = -1;
+    /**
+     * Logger of this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(SessionFile.class.getName());
+    //</editor-fold>
+    //
+    //<editor-fold desc="private final class variables" defaultstate="collapsed">
+    /**
+     * Name of the data set.
+     */
+    private final String dataSetName;
+    /**
+     * Molecules of the session.
+     */
+    private final List<MoleculeDataModel> moleculeDataModelList;
+    /**
+     * Fragments of the fragmentations of the session, by fragmentation name in the order of the fragmentations.
+     */
+    private final LinkedHashMap<String, List<FragmentDataModel>> fragmentDataModelListMap;
+    //</editor-fold>
+    //
+    /**
+     * Constructor, creates a session of the given molecules and fragments. The fragments of the molecules are taken
+     * from the molecules when the session is written.
+     *
+     * @param aDataSetName name of the data set, may be null
+     * @param aMoleculeDataModelList molecules of the session
+     * @param aFragmentDataModelListMap fragments by fragmentation name, in the order of the fragmentations
+     * @throws NullPointerException if the molecules or the fragments are null
+     */
+    public SessionFile(String aDataSetName, List<MoleculeDataModel> aMoleculeDataModelList,
+                       Map<String, ? extends List<FragmentDataModel>> aFragmentDataModelListMap) throws NullPointerException {
+        Objects.requireNonNull(aMoleculeDataModelList, "aMoleculeDataModelList (instance of List<MoleculeDataModel>) is null");
+        Objects.requireNonNull(aFragmentDataModelListMap, "aFragmentDataModelListMap (instance of Map<String, List<FragmentDataModel>>) is null");
+        this.dataSetName = aDataSetName;
+        this.moleculeDataModelList = aMoleculeDataModelList;
+        this.fragmentDataModelListMap = new LinkedHashMap<>(aFragmentDataModelListMap);
+    }
+    //
+    //<editor-fold desc="public static methods" defaultstate="collapsed">
+    /**
+     * Reads the session of the given file. The data models are created anew; the molecules are not registered at a
+     * selection model but have the selection state they were written with.
+     *
+     * @param aFile file written by {@link #writeToFile(File, boolean)}
+     * @return the session of the file
+     * @throws NullPointerException if the given file is null
+     * @throws IOException if the file cannot be read, has an unknown format or is corrupted
+     */
+    public static SessionFile readFromFile(File aFile) throws NullPointerException, IOException {
+        Objects.requireNonNull(aFile, "aFile (instance of File) is null");
+        try (BlockReader tmpReader = new BlockReader(aFile)) {
+            String[] tmpStringTable = new String[tmpReader.readCount(SessionFile.MINIMUM_STRING_SIZE)];
+            for (int i = 0; i < tmpStringTable.length; i++) {
+                tmpStringTable[i] = tmpReader.readString();
+            }
+            String tmpDataSetName = SessionFile.getString(tmpStringTable, tmpReader.readInt());
+            MoleculeDataModel[] tmpMolecules = new MoleculeDataModel[tmpReader.readCount(SessionFile.MINIMUM_MOLECULE_SIZE)];
+            for (int i = 0; i < tmpMolecules.length; i++) {
+                String tmpSmiles = SessionFile.getString(tmpStringTable, tmpReader.readInt());
+                String tmpName = SessionFile.getString(tmpStringTable, tmpReader.readInt());
+                boolean tmpIsSelected = tmpReader.readByte() != 0;
+                int tmpNumberOfProperties = tmpReader.readCount(SessionFile.PROPERTY_SIZE);
+                Map<Object, Object> tmpPropertyMap = new HashMap<>(CollectionUtil.calculateInitialHashCollectionCapacity(tmpNumberOfProperties));
+                for (int j = 0; j < tmpNumberOfProperties; j++) {
+                    tmpPropertyMap.put(SessionFile.getString(tmpStringTable, tmpReader.readInt()),
+                            SessionFile.getString(tmpStringTable, tmpReader.readInt()));
+                }
+                tmpMolecules[i] = new MoleculeDataModel(tmpSmiles, tmpName, tmpPropertyMap);
+                tmpMolecules[i].setSelection(tmpIsSelected);
+            }
+            int tmpNumberOfFragmentations = tmpReader.readCount(SessionFile.MINIMUM_FRAGMENTATION_SIZE);
+            LinkedHashMap<String, List<FragmentDataModel>> tmpFragmentDataModelListMap = new LinkedHashMap<>(
+                    CollectionUtil.calculateInitialHashCollectionCapacity(tmpNumberOfFragmentations));
+            for (int i = 0; i < tmpNumberOfFragmentations; i++) {
+                String tmpFragmentationName = SessionFile.getString(tmpStringTable, tmpReader.readInt());
+                FragmentDataModel[] tmpFragments = new FragmentDataModel[tmpReader.readCount(SessionFile.FRAGMENT_SIZE)];
+                for (int j = 0; j < tmpFragments.length; j++) {
+                    String tmpSmiles = SessionFile.getString(tmpStringTable, tmpReader.readInt());
+                    String tmpName = SessionFile.getString(tmpStringTable, tmpReader.readInt());
+                    tmpFragments[j] = new FragmentDataModel(tmpSmiles, tmpName, new HashMap<>(0));
+                    tmpFragments[j].setAbsoluteFrequency(tmpReader.readInt());
+                    tmpFragments[j].setMoleculeFrequency(tmpReader.readInt());
+                    tmpFragments[j].setAbsolutePercentage(tmpReader.readDouble());
+                    tmpFragments[j].setMoleculePercentage(tmpReader.readDouble());
+                }
+                for (MoleculeDataModel tmpMolecule : tmpMolecules) {
+                    int tmpNumberOfFragments = tmpReader.readInt();
+                    if (tmpNumberOfFragments == SessionFile.NOT_FRAGMENTED) {
+                        continue;
+                    }
+                    if (tmpNumberOfFragments < 0) {
+                        throw new IOException("Corrupted session file, negative number of fragments.");
+                    }
+                    //a fragment of a molecule is stored as fragment index and frequency
+                    tmpReader.checkCount(tmpNumberOfFragments, 2 * Integer.BYTES);
+                    List<FragmentDataModel> tmpFragmentsOfMoleculeList = new ArrayList<>(tmpNumberOfFragments);
+                    HashMap<String, Integer> tmpFragmentFrequenciesOfMoleculeMap = new HashMap<>(
+                            CollectionUtil.calculateInitialHashCollectionCapacity(tmpNumberOfFragments));
+                    for (int j = 0; j < tmpNumberOfFragments; j++) {
+                        FragmentDataModel tmpFragment = tmpFragments[tmpReader.readInt()];
+                        tmpFragmentsOfMoleculeList.add(tmpFragment);
+                        tmpFragmentFrequenciesOfMoleculeMap.put(tmpFragment.getUniqueSmiles(), tmpReader.readInt());
+                        tmpFragment.getParentMolecules().add(tmpMolecule);
+                    }
+                    tmpMolecule.getAllFragments().put(tmpFragmentationName, tmpFragmentsOfMoleculeList);
+                    tmpMolecule.getFragmentFrequencies().put(tmpFragmentationName, tmpFragmentFrequenciesOfMoleculeMap);
+                }
+                tmpFragmentDataModelListMap.put(tmpFragmentationName, new ArrayList<>(Arrays.asList(tmpFragments)));
+            }
+            SessionFile.LOGGER.log(Level.INFO, "Read session of " + tmpMolecules.length + " molecules and "
+                    + tmpNumberOfFragmentations + " fragmentations from file: " + aFile.getName());
+            return new SessionFile(tmpDataSetName, new ArrayList<>(Arrays.asList(tmpMolecules)), tmpFragmentDataModelListMap);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NullPointerException | IllegalArgumentException anException) {
+            throw new IOException("Corrupted session file " + aFile.getName() + ".", anException);
+        }
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="public methods" defaultstate="collapsed">
+    /**
+     * Writes the session to the given file, the file is overwritten if it exists. Fragments of a molecule that are not
+     * among the fragments of the respective fragmentation are left out. The session is written to a temporary file in
+     * the same directory that replaces the given file once it is complete, so an existing file is kept if writing
+     * fails. The fragments of the molecules must not change while the session is written.
+     *
+     * @param aFile file to write to
+     * @param isCompressed true to deflate the blocks of the file
+     * @throws NullPointerException if the given file is null
+     * @throws IOException if the file cannot be written
+     */
+    public void writeToFile(File aFile, boolean isCompressed) throws NullPointerException, IOException {
+        Objects.requireNonNull(aFile, "aFile (instance of File) is null");
+        //every string is stored once, the records refer to it by its index in the string table
+        HashMap<String, Integer> tmpStringIndexMap = new LinkedHashMap<>(
+                CollectionUtil.calculateInitialHashCollectionCapacity(this.moleculeDataModelList.size() * 2));
+        this.addToStringTable(tmpStringIndexMap, this.dataSetName);
+        for (MoleculeDataModel tmpMolecule : this.moleculeDataModelList) {
+            this.addToStringTable(tmpStringIndexMap, tmpMolecule.getUniqueSmiles());
+            this.addToStringTable(tmpStringIndexMap, tmpMolecule.getName());
+            for (Map.Entry<String, String> tmpEntry : this.getStringProperties(tmpMolecule)) {
+                this.addToStringTable(tmpStringIndexMap, tmpEntry.getKey());
+                this.addToStringTable(tmpStringIndexMap, tmpEntry.getValue());
+            }
+        }
+        for (Map.Entry<String, List<FragmentDataModel>> tmpEntry : this.fragmentDataModelListMap.entrySet()) {
+            this.addToStringTable(tmpStringIndexMap, tmpEntry.getKey());
+            for (FragmentDataModel tmpFragment : tmpEntry.getValue()) {
+                this.addToStringTable(tmpStringIndexMap, tmpFragment.getUniqueSmiles());
+                this.addToStringTable(tmpStringIndexMap, tmpFragment.getName());
+            }
+        }
+        Path tmpFilePath = aFile.toPath().toAbsolutePath();
+        Path tmpTemporaryFilePath = Files.createTempFile(tmpFilePath.getParent(), aFile.getName(), ".tmp");
+        boolean tmpIsFileReplaced = false;
+        try {
+            this.writeSession(tmpTemporaryFilePath.toFile(), isCompressed, tmpStringIndexMap);
+            try {
+                Files.move(tmpTemporaryFilePath, tmpFilePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException anException) {
+                Files.move(tmpTemporaryFilePath, tmpFilePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            tmpIsFileReplaced = true;
+        } finally {
+            if (!tmpIsFileReplaced) {
+                Files.deleteIfExists(tmpTemporaryFilePath);
+            }
+        }
+        SessionFile.LOGGER.log(Level.INFO, "Wrote session of " + this.moleculeDataModelList.size() + " molecules and "
+                + this.fragmentDataModelListMap.size() + " fragmentations to file: " + aFile.getName());
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="public properties" defaultstate="collapsed">
+    /**
+     * Returns the name of the data set.
+     *
+     * @return data set name, may be null
+     */
+    public String getDataSetName() {
+        return this.dataSetName;
+    }
+    //
+    /**
+     * Returns the molecules of the session.
+     *
+     * @return list of molecules
+     */
+    public List<MoleculeDataModel> getMoleculeDataModelList() {
+        return this.moleculeDataModelList;
+    }
+    //
+    /**
+     * Returns the fragments of the fragmentations of the session by fragmentation name, in the order of the
+     * fragmentations.
+     *
+     * @return map of fragmentation names and fragments
+     */
+    public LinkedHashMap<String, List<FragmentDataModel>> getFragmentDataModelListMap() {
+        return this.fragmentDataModelListMap;
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private methods" defaultstate="collapsed">
+    /**
+     * Writes the string table and the records of the session to the given file.
+     *
+     * @param aFile file to write to
+     * @param isCompressed true to deflate the blocks of the file
+     * @param aStringIndexMap indices of the strings of the session in the order of the string table
+     * @throws IOException if the file cannot be written
+     */
+    private void writeSession(File aFile, boolean isCompressed, HashMap<String, Integer> aStringIndexMap) throws IOException {
+        try (BlockWriter tmpWriter = new BlockWriter(aFile, isCompressed)) {
+            tmpWriter.writeInt(aStringIndexMap.size());
+            for (String tmpString : aStringIndexMap.keySet()) {
+                tmpWriter.writeString(tmpString);
+            }
+            tmpWriter.writeInt(this.getStringIndex(aStringIndexMap, this.dataSetName));
+            tmpWriter.writeInt(this.moleculeDataModelList.size());
+            for (MoleculeDataModel tmpMolecule : this.moleculeDataModelList) {
+                tmpWriter.writeInt(this.getStringIndex(aStringIndexMap, tmpMolecule.getUniqueSmiles()));
+                tmpWriter.writeInt(this.getStringIndex(aStringIndexMap, tmpMolecule.getName()));
+                tmpWriter.writeByte(tmpMolecule.isSelected() ? 1 : 0);
+                List<Map.Entry<String, String>> tmpPropertyList = this.getStringProperties(tmpMolecule);
+                tmpWriter.writeInt(tmpPropertyList.size());
+                for (Map.Entry<String, String> tmpEntry : tmpPropertyList) {
+                    tmpWriter.writeInt(this.getStringIndex(aStringIndexMap, tmpEntry.getKey()));
+                    tmpWriter.writeInt(this.getStringIndex(aStringIndexMap, tmpEntry.getValue()));
+                }
+            }
+            tmpWriter.writeInt(this.fragmentDataModelListMap.size());
+            for (Map.Entry<String, List<FragmentDataModel>> tmpEntry : this.fragmentDataModelListMap.entrySet()) {
+                String tmpFragmentationName = tmpEntry.getKey();
+                List<FragmentDataModel> tmpFragmentList = tmpEntry.getValue();
+                tmpWriter.writeInt(this.getStringIndex(aStringIndexMap, tmpFragmentationName));
+                tmpWriter.writeInt(tmpFragmentList.size());
+                HashMap<String, Integer> tmpFragmentIndexMap = new HashMap<>(
+                        CollectionUtil.calculateInitialHashCollectionCapacity(tmpFragmentList.size()));
+                for (FragmentDataModel tmpFragment : tmpFragmentList) {
+                    tmpFragmentIndexMap.put(tmpFragment.getUniqueSmiles(), tmpFragmentIndexMap.size());
+                    tmpWriter.writeInt(this.getStringIndex(aStringIndexMap, tmpFragment.getUniqueSmiles()));
+                    tmpWriter.writeInt(this.getStringIndex(aStringIndexMap, tmpFragment.getName()));
+                    tmpWriter.writeInt(tmpFragment.getAbsoluteFrequency());
+                    tmpWriter.writeInt(tmpFragment.getMoleculeFrequency());
+                    tmpWriter.writeDouble(tmpFragment.getAbsolutePercentage());
+                    tmpWriter.writeDouble(tmpFragment.getMoleculePercentage());
+                }
+                int[] tmpFragmentReferences = new int[0];
+                for (MoleculeDataModel tmpMolecule : this.moleculeDataModelList) {
+                    List<FragmentDataModel> tmpFragmentsOfMoleculeList = tmpMolecule.getFragmentsOfSpecificAlgorithm(tmpFragmentationName);
+                    if (tmpFragmentsOfMoleculeList == null) {
+                        tmpWriter.writeInt(SessionFile.NOT_FRAGMENTED);
+                        continue;
+                    }
+                    HashMap<String, Integer> tmpFrequencyMap = tmpMolecule.getFragmentFrequencyOfSpecificAlgorithm(tmpFragmentationName);
+                    if (tmpFragmentReferences.length < 2 * tmpFragmentsOfMoleculeList.size()) {
+                        tmpFragmentReferences = new int[2 * tmpFragmentsOfMoleculeList.size()];
+                    }
+                    int tmpNumberOfReferences = 0;
+                    for (FragmentDataModel tmpFragment : tmpFragmentsOfMoleculeList) {
+                        Integer tmpFragmentIndex = tmpFragmentIndexMap.get(tmpFragment.getUniqueSmiles());
+                        if (tmpFragmentIndex == null) {
+                            continue;
+                        }
+                        Integer tmpFrequency = tmpFrequencyMap == null ? null : tmpFrequencyMap.get(tmpFragment.getUniqueSmiles());
+                        tmpFragmentReferences[2 * tmpNumberOfReferences] = tmpFragmentIndex;
+                        tmpFragmentReferences[2 * tmpNumberOfReferences + 1] = tmpFrequency == null ? 0 : tmpFrequency;
+                        tmpNumberOfReferences++;
+                    }
+                    tmpWriter.writeInt(tmpNumberOfReferences);
+                    for (int i = 0; i < 2 * tmpNumberOfReferences; i++) {
+                        tmpWriter.writeInt(tmpFragmentReferences[i]);
+                    }
+                }
+            }
+        }
+    }
+    //
+    /**
+     * Adds the given string to the string table if it is not null and not in there yet.
+     *
+     * @param aStringIndexMap string table, strings mapped to their index
+     * @param aString string to add
+     */
+    private void addToStringTable(HashMap<String, Integer> aStringIndexMap, String aString) {
+        if (aString != null) {
+            aStringIndexMap.putIfAbsent(aString, aStringIndexMap.size());
+        }
+    }
+    //
+    /**
+     * Returns the index of the given string in the string table.
+     *
+     * @param aStringIndexMap string table, strings mapped to their index
+     * @param aString string added to the table before
+     * @return index of the string or {@link #NULL_INDEX} if the string is null
+     */
+    private int getStringIndex(HashMap<String, Integer> aStringIndexMap, String aString) {
+        return aString == null ? SessionFile.NULL_INDEX : aStringIndexMap.get(aString);
+    }
+    //
+    /**
+     * Returns the properties of the given molecule with string key and string value.
+     *
+     * @param aMolecule molecule
+     * @return list of string properties, empty if there are none
+     */
+    private List<Map.Entry<String, String>> getStringProperties(MoleculeDataModel aMolecule) {
+        Map<?, ?> tmpPropertyMap = aMolecule.getProperties();
+        if (tmpPropertyMap == null || tmpPropertyMap.isEmpty()) {
+            return new ArrayList<>(0);
+        }
+        List<Map.Entry<String, String>> tmpPropertyList = new ArrayList<>(tmpPropertyMap.size());
+        for (Map.Entry<?, ?> tmpEntry : tmpPropertyMap.entrySet()) {
+            if (tmpEntry.getKey() instanceof String && tmpEntry.getValue() instanceof String) {
+                tmpPropertyList.add(Map.entry((String) tmpEntry.getKey(), (String) tmpEntry.getValue()));
+            }
+        }
+        return tmpPropertyList;
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private static methods" defaultstate="collapsed">
+    /**
+     * Returns the string of the string table at the given index.
+     *
+     * @param aStringTable string table
+     * @param anIndex index of the string or {@link #NULL_INDEX}
+     * @return string at the index or null
+     * @throws IndexOutOfBoundsException if the index is neither in the table nor {@link #NULL_INDEX}
+     */
+    private static String getString(String[] aStringTable, int anIndex) throws IndexOutOfBoundsException {
+        return anIndex == SessionFile.NULL_INDEX ? null : aStringTable[anIndex];
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private classes" defaultstate="collapsed">
+    /**
+     * Writes values to a session file in blocks through a file channel. A value is never split between two blocks,
+     * apart from the bytes of strings. A block is deflated if this is requested and makes it smaller; otherwise it is
+     * stored as it is.
+     */
+    private static final class BlockWriter implements Closeable {
+        /**
+         * Channel of the file.
+         */
+        private final FileChannel fileChannel;
+        /**
+         * Bytes of the current block.
+         */
+        private final ByteBuffer blockBuffer;
+        /**
+         * Header of a block.
+         */
+        private final ByteBuffer blockHeaderBuffer;
+        /**
+         * Deflater of the blocks, null if the blocks are stored as they are.
+         */
+        private final Deflater deflater;
+        /**
+         * Deflated bytes of the current block.
+         */
+        private byte[] deflatedBlock;
+        //
+        /**
+         * Constructor, creates the given file or overwrites it if it exists and writes the file header.
+         *
+         * @param aFile file to write to
+         * @param isCompressed true to deflate the blocks
+         * @throws IOException if the file cannot be opened or written
+         */
+        private BlockWriter(File aFile, boolean isCompressed) throws IOException {
+            this.fileChannel = FileChannel.open(aFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.blockBuffer = ByteBuffer.allocate(BasicDefinitions.SESSION_FILE_BLOCK_SIZE);
+            this.blockHeaderBuffer = ByteBuffer.allocate(Math.max(SessionFile.FILE_HEADER_SIZE, SessionFile.BLOCK_HEADER_SIZE));
+            //session files are written and read far more often than they are shared, so speed matters more than size
+            this.deflater = isCompressed ? new Deflater(Deflater.BEST_SPEED) : null;
+            this.deflatedBlock = isCompressed ? new byte[BasicDefinitions.SESSION_FILE_BLOCK_SIZE] : null;
+            this.blockHeaderBuffer.clear();
+            this.blockHeaderBuffer.putInt(SessionFile.MAGIC_NUMBER);
+            this.blockHeaderBuffer.putInt(SessionFile.FILE_FORMAT_VERSION);
+            this.blockHeaderBuffer.flip();
+            this.write(this.blockHeaderBuffer);
+        }
+        //
+        /**
+         * Writes the given integer.
+         *
+         * @param aValue value
+         * @throws IOException if the file cannot be written
+         */
+        private void writeInt(int aValue) throws IOException {
+            this.ensureRemaining(Integer.BYTES);
+            this.blockBuffer.putInt(aValue);
+        }
+        //
+        /**
+         * Writes the given double.
+         *
+         * @param aValue value
+         * @throws IOException if the file cannot be written
+         */
+        private void writeDouble(double aValue) throws IOException {
+            this.ensureRemaining(Double.BYTES);
+            this.blockBuffer.putDouble(aValue);
+        }
+        //
+        /**
+         * Writes the lowest byte of the given integer.
+         *
+         * @param aValue value
+         * @throws IOException if the file cannot be written
+         */
+        private void writeByte(int aValue) throws IOException {
+            this.ensureRemaining(Byte.BYTES);
+            this.blockBuffer.put((byte) aValue);
+        }
+        //
+        /**
+         * Writes the number of UTF-8 bytes of the given string followed by the bytes.
+         *
+         * @param aString string, not null
+         * @throws IOException if the file cannot be written
+         */
+        private void writeString(String aString) throws IOException {
+            byte[] tmpBytes = aString.getBytes(StandardCharsets.UTF_8);
+            this.writeInt(tmpBytes.length);
+            int tmpOffset = 0;
+            while (tmpOffset < tmpBytes.length) {
+                this.ensureRemaining(Byte.BYTES);
+                int tmpLength = Math.min(this.blockBuffer.remaining(), tmpBytes.length - tmpOffset);
+                this.blockBuffer.put(tmpBytes, tmpOffset, tmpLength);
+                tmpOffset += tmpLength;
+            }
+        }
+        //
+        /**
+         * Writes the last block and closes the file.
+         *
+         * @throws IOException if the file cannot be written
+         */
+        @Override
+        public void close() throws IOException {
+            try (this.fileChannel) {
+                this.writeBlock();
+            } finally {
+                if (this.deflater != null) {
+                    this.deflater.end();
+                }
+            }
+        }
+        //
+        /**
+         * Writes the current block if it has less than the given number of bytes left.
+         *
+         * @param aNumberOfBytes number of bytes to be put into the block
+         * @throws IOException if the file cannot be written
+         */
+        private void ensureRemaining(int aNumberOfBytes) throws IOException {
+            if (this.blockBuffer.remaining() < aNumberOfBytes) {
+                this.writeBlock();
+            }
+        }
+        //
+        /**
+         * Writes the header and the bytes of the current block, deflated if the blocks are compressed and deflating
+         * makes the block smaller, and starts a new block.
+         *
+         * @throws IOException if the file cannot be written
+         */
+        private void writeBlock() throws IOException {
+            int tmpBlockLength = this.blockBuffer.position();
+            if (tmpBlockLength == 0) {
+                return;
+            }
+            ByteBuffer tmpStoredBlock = this.blockBuffer.flip();
+            if (this.deflater != null) {
+                this.deflater.reset();
+                this.deflater.setInput(this.blockBuffer.array(), 0, tmpBlockLength);
+                this.deflater.finish();
+                int tmpDeflatedLength = 0;
+                while (!this.deflater.finished() && tmpDeflatedLength < tmpBlockLength) {
+                    tmpDeflatedLength += this.deflater.deflate(this.deflatedBlock, tmpDeflatedLength,
+                            this.deflatedBlock.length - tmpDeflatedLength);
+                }
+                //a block that does not get smaller is stored as it is, which the reader recognises by equal lengths
+                if (this.deflater.finished() && tmpDeflatedLength < tmpBlockLength) {
+                    tmpStoredBlock = ByteBuffer.wrap(this.deflatedBlock, 0, tmpDeflatedLength);
+                }
+            }
+            this.blockHeaderBuffer.clear();
+            this.blockHeaderBuffer.putInt(tmpBlockLength);
+            this.blockHeaderBuffer.putInt(tmpStoredBlock.remaining());
+            this.blockHeaderBuffer.flip();
+            this.write(this.blockHeaderBuffer);
+            this.write(tmpStoredBlock);
+            this.blockBuffer.clear();
+        }
+        //
+        /**
+         * Writes all remaining bytes of the given buffer to the file.
+         *
+         * @param aBuffer buffer to write
+         * @throws IOException if the file cannot be written
+         */
+        private void write(ByteBuffer aBuffer) throws IOException {
+            while (aBuffer.hasRemaining()) {
+                this.fileChannel.write(aBuffer);
+            }
+        }
+    }
+    //
+    /**
+     * Reads the values of a session file block by block through a file channel, inflating the deflated blocks. The
+     * file is not mapped into memory, so it can be overwritten as soon as the reader is closed.
+     */
+    private static final class BlockReader implements Closeable {
+        /**
+         * Channel of the file.
+         */
+        private final FileChannel fileChannel;
+        /**
+         * Number of bytes of the file.
+         */
+        private final long fileSize;
+        /**
+         * Inflater of the deflated blocks.
+         */
+        private final Inflater inflater;
+        /**
+         * Stored bytes of the current block.
+         */
+        private final byte[] storedBlock;
+        /**
+         * Inflated bytes of the current block.
+         */
+        private final byte[] inflatedBlock;
+        /**
+         * Header of a block.
+         */
+        private final ByteBuffer blockHeaderBuffer;
+        /**
+         * Position of the next block in the file.
+         */
+        private long nextBlockPosition;
+        /**
+         * Bytes of the current block.
+         */
+        private ByteBuffer blockBuffer;
+        //
+        /**
+         * Constructor, opens the given file and checks its header.
+         *
+         * @param aFile file to read
+         * @throws IOException if the file cannot be opened or read or is no session file of a known version
+         */
+        private BlockReader(File aFile) throws IOException {
+            this.fileChannel = FileChannel.open(aFile.toPath(), StandardOpenOption.READ);
+            this.inflater = new Inflater();
+            this.storedBlock = new byte[BasicDefinitions.SESSION_FILE_BLOCK_SIZE];
+            this.inflatedBlock = new byte[BasicDefinitions.SESSION_FILE_BLOCK_SIZE];
+            this.blockHeaderBuffer = ByteBuffer.allocate(Math.max(SessionFile.FILE_HEADER_SIZE, SessionFile.BLOCK_HEADER_SIZE));
+            try {
+                this.fileSize = this.fileChannel.size();
+                this.read(this.blockHeaderBuffer, 0, SessionFile.FILE_HEADER_SIZE);
+                if (this.blockHeaderBuffer.getInt(0) != SessionFile.MAGIC_NUMBER) {
+                    throw new IOException("File " + aFile.getName() + " is no session file.");
+                }
+                int tmpVersion = this.blockHeaderBuffer.getInt(Integer.BYTES);
+                if (tmpVersion != SessionFile.FILE_FORMAT_VERSION) {
+                    throw new IOException("Unknown session file format version " + tmpVersion + ".");
+                }
+            } catch (IOException anException) {
+                this.close();
+                throw anException;
+            }
+            this.nextBlockPosition = SessionFile.FILE_HEADER_SIZE;
+            this.blockBuffer = ByteBuffer.allocate(0);
+        }
+        //
+        /**
+         * Reads an integer.
+         *
+         * @return value
+         * @throws IOException if the file cannot be read or ends unexpectedly
+         */
+        private int readInt() throws IOException {
+            this.ensureAvailable();
+            return this.blockBuffer.getInt();
+        }
+        //
+        /**
+         * Reads an integer that is a number of elements, each taking at least the given number of bytes in the file.
+         *
+         * @param aMinimumElementSize minimum number of bytes of an element
+         * @return non-negative value
+         * @throws IOException if the file cannot be read, ends unexpectedly or the value is negative or exceeds the
+         * rest of the file
+         */
+        private int readCount(int aMinimumElementSize) throws IOException {
+            int tmpCount = this.readInt();
+            if (tmpCount < 0) {
+                throw new IOException("Corrupted session file, negative number of elements.");
+            }
+            this.checkCount(tmpCount, aMinimumElementSize);
+            return tmpCount;
+        }
+        //
+        /**
+         * Checks that the given number of elements, each taking at least the given number of bytes, can be contained
+         * in the rest of the file, so a corrupted number does not lead to a huge allocation.
+         *
+         * @param aCount number of elements
+         * @param aMinimumElementSize minimum number of bytes of an element
+         * @throws IOException if the elements exceed the rest of the file
+         */
+        private void checkCount(int aCount, int aMinimumElementSize) throws IOException {
+            long tmpMaximumRemainingBytes = this.blockBuffer.remaining()
+                    + (this.fileSize - this.nextBlockPosition) * SessionFile.MAXIMUM_DEFLATE_RATIO;
+            if ((long) aCount * aMinimumElementSize > tmpMaximumRemainingBytes) {
+                throw new IOException("Corrupted session file, number of elements exceeds the file.");
+            }
+        }
+        //
+        /**
+         * Reads a double.
+         *
+         * @return value
+         * @throws IOException if the file cannot be read or ends unexpectedly
+         */
+        private double readDouble() throws IOException {
+            this.ensureAvailable();
+            return this.blockBuffer.getDouble();
+        }
+        //
+        /**
+         * Reads a byte.
+         *
+         * @return value
+         * @throws IOException if the file cannot be read or ends unexpectedly
+         */
+        private byte readByte() throws IOException {
+            this.ensureAvailable();
+            return this.blockBuffer.get();
+        }
+        //
+        /**
+         * Reads a string written as number of UTF-8 bytes followed by the bytes.
+         *
+         * @return string
+         * @throws IOException if the file cannot be read or ends unexpectedly
+         */
+        private String readString() throws IOException {
+            int tmpNumberOfBytes = this.readCount(1);
+            //most strings are within the current block and decoded from it directly
+            if (tmpNumberOfBytes <= this.blockBuffer.remaining()) {
+                int tmpPosition = this.blockBuffer.position();
+                this.blockBuffer.position(tmpPosition + tmpNumberOfBytes);
+                return new String(this.blockBuffer.array(), this.blockBuffer.arrayOffset() + tmpPosition,
+                        tmpNumberOfBytes, StandardCharsets.UTF_8);
+            }
+            byte[] tmpBytes = new byte[tmpNumberOfBytes];
+            int tmpOffset = 0;
+            while (tmpOffset < tmpBytes.length) {
+                this.ensureAvailable();
+                int tmpLength = Math.min(this.blockBuffer.remaining(), tmpBytes.length - tmpOffset);
+                this.blockBuffer.get(tmpBytes, tmpOffset, tmpLength);
+                tmpOffset += tmpLength;
+            }
+            return new String(tmpBytes, StandardCharsets.UTF_8);
+        }
+        //
+        /**
+         * Releases the inflater and closes the file.
+         *
+         * @throws IOException if the file cannot be closed
+         */
+        @Override
+        public void close() throws IOException {
+            this.inflater.end();
+            this.fileChannel.close();
+        }
+        //
+        /**
+         * Reads the next block if all bytes of the current block have been read.
+         *
+         * @throws IOException if the file cannot be read, ends unexpectedly or the block is corrupted
+         */
+        private void ensureAvailable() throws IOException {
+            if (this.blockBuffer.hasRemaining()) {
+                return;
+            }
+            this.read(this.blockHeaderBuffer, this.nextBlockPosition, SessionFile.BLOCK_HEADER_SIZE);
+            int tmpBlockLength = this.blockHeaderBuffer.getInt(0);
+            int tmpStoredLength = this.blockHeaderBuffer.getInt(Integer.BYTES);
+            if (tmpBlockLength <= 0 || tmpBlockLength > this.inflatedBlock.length || tmpStoredLength <= 0
+                    || tmpStoredLength > tmpBlockLength) {
+                throw new IOException("Corrupted session file, invalid block header.");
+            }
+            ByteBuffer tmpStoredBlock = ByteBuffer.wrap(this.storedBlock);
+            this.read(tmpStoredBlock, this.nextBlockPosition + SessionFile.BLOCK_HEADER_SIZE, tmpStoredLength);
+            this.nextBlockPosition += SessionFile.BLOCK_HEADER_SIZE + tmpStoredLength;
+            if (tmpStoredLength == tmpBlockLength) {
+                this.blockBuffer = tmpStoredBlock;
+                return;
+            }
+            this.inflater.reset();
+            this.inflater.setInput(this.storedBlock, 0, tmpStoredLength);
+            int tmpInflatedLength = 0;
+            try {
+                while (tmpInflatedLength < tmpBlockLength && !this.inflater.finished()) {
+                    int tmpLength = this.inflater.inflate(this.inflatedBlock, tmpInflatedLength, tmpBlockLength - tmpInflatedLength);
+                    if (tmpLength == 0 && (this.inflater.needsInput() || this.inflater.needsDictionary())) {
+                        break;
+                    }
+                    tmpInflatedLength += tmpLength;
+                }
+            } catch (DataFormatException anException) {
+                throw new IOException("Corrupted session file, block cannot be inflated.", anException);
+            }
+            if (tmpInflatedLength != tmpBlockLength) {
+                throw new IOException("Corrupted session file, block is incomplete.");
+            }
+            this.blockBuffer = ByteBuffer.wrap(this.inflatedBlock, 0, tmpBlockLength);
+        }
+        //
+        /**
+         * Reads the given number of bytes of the file starting at the given position into the beginning of the given
+         * buffer, whose limit is set to the number of bytes read and whose position is reset.
+         *
+         * @param aBuffer buffer to read into
+         * @param aPosition position in the file
+         * @param aLength number of bytes to read
+         * @throws IOException if the file cannot be read or ends before the given range
+         */
+        private void read(ByteBuffer aBuffer, long aPosition, int aLength) throws IOException {
+            if (aPosition + aLength > this.fileSize) {
+                throw new EOFException("Unexpected end of session file.");
+            }
+            aBuffer.clear();
+            aBuffer.limit(aLength);
+            while (aBuffer.hasRemaining()) {
+                if (this.fileChannel.read(aBuffer, aPosition + aBuffer.position()) < 0) {
+                    throw new EOFException("Unexpected end of session file.");
+                }
+            }
+            aBuffer.flip();
+        }
+    }
+    //</editor-fold>
+}
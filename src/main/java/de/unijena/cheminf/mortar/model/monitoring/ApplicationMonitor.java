@@ -0,0 +1,119 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.monitoring;
+
+import de.unijena.cheminf.mortar.model.depict.DepictionCache;
+import de.unijena.cheminf.mortar.model.depict.DepictionUtil;
+import de.unijena.cheminf.mortar.model.util.ChemUtil;
+import de.unijena.cheminf.mortar.model.util.LayoutCoordinateCache;
+import de.unijena.cheminf.mortar.model.util.LogUtil;
+
+/**
+ * Monitor of the heap use, the log queue and the caches shared by the views, registered as MBean by
+ * {@link MonitoringUtil#registerMBeans()}. All values are read when they are requested.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class ApplicationMonitor implements ApplicationMonitorMBean {
+    //<editor-fold desc="public properties" defaultstate="collapsed">
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getHeapUsed() {
+        Runtime tmpRuntime = Runtime.getRuntime();
+        return tmpRuntime.totalMemory() - tmpRuntime.freeMemory();
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getHeapCommitted() {
+        return Runtime.getRuntime().totalMemory();
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getHeapMax() {
+        return Runtime.getRuntime().maxMemory();
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getLogQueueSize() {
+        return LogUtil.getLogQueueSize();
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getDepictionCacheSize() {
+        return DepictionUtil.getDepictionCache().size();
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getDepictionCacheHitRate() {
+        DepictionCache tmpCache = DepictionUtil.getDepictionCache();
+        return ApplicationMonitor.calculateHitRate(tmpCache.getHitCount(), tmpCache.getMissCount());
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getLayoutCoordinateCacheSize() {
+        return ChemUtil.getLayoutCoordinateCache().size();
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getLayoutCoordinateCacheHitRate() {
+        LayoutCoordinateCache tmpCache = ChemUtil.getLayoutCoordinateCache();
+        return ApplicationMonitor.calculateHitRate(tmpCache.getHitCount(), tmpCache.getMissCount());
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private static methods" defaultstate="collapsed">
+    /**
+     * Returns the fraction of hits of all lookups.
+     *
+     * @param aHitCount number of hits
+     * @param aMissCount number of misses
+     * @return hit rate between 0 and 1, 0 if there were no lookups
+     */
+    private static double calculateHitRate(long aHitCount, long aMissCount) {
+        long tmpLookupCount = aHitCount + aMissCount;
+        return tmpLookupCount == 0 ? 0.0 : (double) aHitCount / tmpLookupCount;
+    }
+    //</editor-fold>
+}
@@ -0,0 +1,86 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.monitoring;
+
+/**
+ * Management interface of the {@link ApplicationMonitor}, shown under the object name
+ * {@value MonitoringUtil#APPLICATION_MBEAN_NAME} in JMX clients like jconsole.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public interface ApplicationMonitorMBean {
+    /**
+     * Returns the number of bytes of the heap in use.
+     *
+     * @return used heap in bytes
+     */
+    long getHeapUsed();
+
+    /**
+     * Returns the number of bytes of the heap reserved by the JVM.
+     *
+     * @return committed heap in bytes
+     */
+    long getHeapCommitted();
+
+    /**
+     * Returns the maximum number of bytes of the heap.
+     *
+     * @return maximum heap in bytes
+     */
+    long getHeapMax();
+
+    /**
+     * Returns the number of log records waiting to be written to the log file.
+     *
+     * @return number of queued log records
+     */
+    int getLogQueueSize();
+
+    /**
+     * Returns the number of images in the depiction cache.
+     *
+     * @return number of cached depictions
+     */
+    int getDepictionCacheSize();
+
+    /**
+     * Returns the fraction of the depiction cache lookups that found a cached image.
+     *
+     * @return hit rate between 0 and 1, 0 if there were no lookups
+     */
+    double getDepictionCacheHitRate();
+
+    /**
+     * Returns the number of layouts in the layout coordinate cache.
+     *
+     * @return number of cached layouts
+     */
+    int getLayoutCoordinateCacheSize();
+
+    /**
+     * Returns the fraction of the layout coordinate cache lookups that found matching coordinates.
+     *
+     * @return hit rate between 0 and 1, 0 if there were no lookups
+     */
+    double getLayoutCoordinateCacheHitRate();
+}
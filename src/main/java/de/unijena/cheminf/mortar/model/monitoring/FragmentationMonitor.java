@@ -0,0 +1,252 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.monitoring;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monitor of the fragmentations run by the FragmentationService, registered as MBean by
+ * {@link MonitoringUtil#registerMBeans()}. The fragmentation tasks count every molecule they are done with using
+ * {@link #moleculeProcessed()}, which only increments a striped counter, so the monitor is always active.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class FragmentationMonitor implements FragmentationMonitorMBean {
+    //<editor-fold desc="private final class variables" defaultstate="collapsed">
+    /**
+     * Number of molecules processed in the running or last fragmentation.
+     */
+    private final LongAdder moleculesProcessedCounter;
+    /**
+     * Number of molecules processed in the fragmentations completed before.
+     */
+    private final LongAdder totalMoleculesProcessedCounter;
+    /**
+     * Number of exceptions of the completed fragmentations.
+     */
+    private final LongAdder totalExceptionsCounter;
+    /**
+     * Number of completed fragmentations.
+     */
+    private final LongAdder completedFragmentationsCounter;
+    //</editor-fold>
+    //
+    //<editor-fold desc="private class variables" defaultstate="collapsed">
+    /**
+     * Name of the running or last fragmentation.
+     */
+    private volatile String fragmentationName;
+    /**
+     * Number of tasks of the running or last fragmentation.
+     */
+    private volatile int numberOfTasks;
+    /**
+     * Number of molecules to fragment in the running or last fragmentation.
+     */
+    private volatile int moleculesToFragment;
+    /**
+     * Map of the distinct fragments of the running or last fragmentation.
+     */
+    private volatile Map<String, ?> fragmentMap;
+    /**
+     * Start time of the running or last fragmentation from {@link System#nanoTime()}.
+     */
+    private volatile long startTime;
+    /**
+     * End time of the last fragmentation from {@link System#nanoTime()}.
+     */
+    private volatile long endTime;
+    /**
+     * Whether a fragmentation is running.
+     */
+    private volatile boolean isRunning;
+    //</editor-fold>
+    //
+    /**
+     * Constructor.
+     */
+    public FragmentationMonitor() {
+        this.moleculesProcessedCounter = new LongAdder();
+        this.totalMoleculesProcessedCounter = new LongAdder();
+        this.totalExceptionsCounter = new LongAdder();
+        this.completedFragmentationsCounter = new LongAdder();
+        this.fragmentationName = null;
+        this.numberOfTasks = 0;
+        this.moleculesToFragment = 0;
+        this.fragmentMap = null;
+        this.isRunning = false;
+    }
+    //
+    //<editor-fold desc="public methods" defaultstate="collapsed">
+    /**
+     * Resets the counters of the current fragmentation. To be called before the fragmentation tasks are started.
+     *
+     * @param aFragmentationName name of the fragmentation
+     * @param aNumberOfMolecules number of molecules to fragment
+     * @param aNumberOfTasks number of parallel tasks
+     * @param aFragmentMap map the tasks put the distinct fragments into, to count them
+     * @throws NullPointerException if the fragment map is null
+     */
+    public void fragmentationStarted(String aFragmentationName, int aNumberOfMolecules, int aNumberOfTasks,
+                                     Map<String, ?> aFragmentMap) throws NullPointerException {
+        Objects.requireNonNull(aFragmentMap, "aFragmentMap (instance of Map) is null");
+        this.fragmentationName = aFragmentationName;
+        this.moleculesToFragment = aNumberOfMolecules;
+        this.numberOfTasks = aNumberOfTasks;
+        this.fragmentMap = aFragmentMap;
+        this.moleculesProcessedCounter.reset();
+        this.startTime = System.nanoTime();
+        this.isRunning = true;
+    }
+    //
+    /**
+     * Counts a molecule a fragmentation task is done with, whether it was fragmented, filtered, or caused an
+     * exception.
+     */
+    public void moleculeProcessed() {
+        this.moleculesProcessedCounter.increment();
+    }
+    //
+    /**
+     * Marks the current fragmentation as complete. To be called when all tasks are done or cancelled.
+     */
+    public void fragmentationFinished() {
+        if (!this.isRunning) {
+            return;
+        }
+        this.endTime = System.nanoTime();
+        this.isRunning = false;
+        this.totalMoleculesProcessedCounter.add(this.moleculesProcessedCounter.sum());
+        this.completedFragmentationsCounter.increment();
+    }
+    //
+    /**
+     * Adds the number of exceptions of a completed fragmentation.
+     *
+     * @param aNumberOfExceptions number of exceptions
+     */
+    public void addExceptions(int aNumberOfExceptions) {
+        this.totalExceptionsCounter.add(aNumberOfExceptions);
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="public properties" defaultstate="collapsed">
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isFragmentationRunning() {
+        return this.isRunning;
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getFragmentationName() {
+        return this.fragmentationName;
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNumberOfTasks() {
+        return this.numberOfTasks;
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getMoleculesToFragment() {
+        return this.moleculesToFragment;
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMoleculesProcessed() {
+        return this.moleculesProcessedCounter.sum();
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMoleculesPending() {
+        if (!this.isRunning) {
+            return 0L;
+        }
+        return Math.max(0L, this.moleculesToFragment - this.moleculesProcessedCounter.sum());
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getFragmentsDiscovered() {
+        Map<String, ?> tmpFragmentMap = this.fragmentMap;
+        return tmpFragmentMap == null ? 0 : tmpFragmentMap.size();
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getThroughput() {
+        if (this.fragmentationName == null) {
+            return 0.0;
+        }
+        long tmpElapsedTime = (this.isRunning ? System.nanoTime() : this.endTime) - this.startTime;
+        return tmpElapsedTime <= 0 ? 0.0 : this.moleculesProcessedCounter.sum() * 1.0e9 / tmpElapsedTime;
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getTotalMoleculesProcessed() {
+        long tmpTotal = this.totalMoleculesProcessedCounter.sum();
+        return this.isRunning ? tmpTotal + this.moleculesProcessedCounter.sum() : tmpTotal;
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getTotalExceptions() {
+        return this.totalExceptionsCounter.sum();
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getCompletedFragmentations() {
+        return this.completedFragmentationsCounter.sum();
+    }
+    //</editor-fold>
+}
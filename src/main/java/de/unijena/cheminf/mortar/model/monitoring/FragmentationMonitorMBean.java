@@ -0,0 +1,107 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.monitoring;
+
+/**
+ * Management interface of the {@link FragmentationMonitor}, shown under the object name
+ * {@value MonitoringUtil#FRAGMENTATION_MBEAN_NAME} in JMX clients like jconsole.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public interface FragmentationMonitorMBean {
+    /**
+     * Returns whether a fragmentation is running.
+     *
+     * @return true if a fragmentation is running
+     */
+    boolean isFragmentationRunning();
+
+    /**
+     * Returns the name of the running or last fragmentation, for pipelines the name of the current pipeline step.
+     *
+     * @return fragmentation name or null if no fragmentation has been started
+     */
+    String getFragmentationName();
+
+    /**
+     * Returns the number of parallel tasks of the running or last fragmentation.
+     *
+     * @return number of tasks
+     */
+    int getNumberOfTasks();
+
+    /**
+     * Returns the number of molecules to fragment in the running or last fragmentation.
+     *
+     * @return number of molecules
+     */
+    int getMoleculesToFragment();
+
+    /**
+     * Returns the number of molecules processed in the running or last fragmentation.
+     *
+     * @return number of processed molecules
+     */
+    long getMoleculesProcessed();
+
+    /**
+     * Returns the number of molecules of the running fragmentation that have not been processed yet.
+     *
+     * @return number of pending molecules, 0 if no fragmentation is running
+     */
+    long getMoleculesPending();
+
+    /**
+     * Returns the number of distinct fragments found so far in the running or last fragmentation.
+     *
+     * @return number of distinct fragments
+     */
+    int getFragmentsDiscovered();
+
+    /**
+     * Returns the number of molecules processed per second in the running or last fragmentation.
+     *
+     * @return molecules per second
+     */
+    double getThroughput();
+
+    /**
+     * Returns the number of molecules processed in all fragmentations of the session.
+     *
+     * @return total number of processed molecules
+     */
+    long getTotalMoleculesProcessed();
+
+    /**
+     * Returns the number of exceptions that occurred in all completed fragmentations of the session.
+     *
+     * @return total number of exceptions
+     */
+    long getTotalExceptions();
+
+    /**
+     * Returns the number of fragmentations run in the session, every pipeline step counted separately.
+     *
+     * @return number of fragmentations
+     */
+    long getCompletedFragmentations();
+}
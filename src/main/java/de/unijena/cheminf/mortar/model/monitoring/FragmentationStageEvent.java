@@ -0,0 +1,148 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.monitoring;
+
+import de.unijena.cheminf.mortar.model.fragmentation.FragmentationStageTimer;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.util.Objects;
+
+/**
+ * Java Flight Recorder event of a fragmentation, committed by the FragmentationService for every fragmentation and
+ * every step of a pipeline fragmentation. Besides the duration of the whole fragmentation, it holds the times the
+ * fragmentation tasks spent in the pipeline stages, summed over all molecules and tasks, see
+ * {@link FragmentationStageTimer}.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+@Name("de.unijena.cheminf.mortar.FragmentationStage")
+@Label("Fragmentation Stage")
+@Category({"MORTAR", "Fragmentation"})
+@Description("Fragmentation or pipeline step with the times spent in its stages")
+@StackTrace(false)
+public class FragmentationStageEvent extends Event {
+    //<editor-fold desc="package-private class variables" defaultstate="collapsed">
+    /**
+     * Name of the fragmentation.
+     */
+    @Label("Fragmentation Name")
+    String fragmentationName;
+    /**
+     * Name of the fragmenter.
+     */
+    @Label("Fragmenter")
+    String fragmenterName;
+    /**
+     * Number of fragmented molecules.
+     */
+    @Label("Molecules")
+    int numberOfMolecules;
+    /**
+     * Number of distinct fragments.
+     */
+    @Label("Fragments")
+    int numberOfFragments;
+    /**
+     * Number of molecules that caused an exception.
+     */
+    @Label("Exceptions")
+    int numberOfExceptions;
+    /**
+     * Number of parallel tasks.
+     */
+    @Label("Tasks")
+    int numberOfTasks;
+    /**
+     * Time spent creating atom containers.
+     */
+    @Label("Atom Container Creation")
+    @Timespan(Timespan.NANOSECONDS)
+    long atomContainerCreationTime;
+    /**
+     * Time spent preprocessing molecules.
+     */
+    @Label("Preprocessing")
+    @Timespan(Timespan.NANOSECONDS)
+    long preprocessingTime;
+    /**
+     * Time spent fragmenting molecules.
+     */
+    @Label("Fragmentation")
+    @Timespan(Timespan.NANOSECONDS)
+    long fragmentationTime;
+    /**
+     * Time spent creating unique SMILES codes of fragments.
+     */
+    @Label("Unique SMILES Creation")
+    @Timespan(Timespan.NANOSECONDS)
+    long uniqueSmilesCreationTime;
+    /**
+     * Time spent aggregating fragments.
+     */
+    @Label("Aggregation")
+    @Timespan(Timespan.NANOSECONDS)
+    long aggregationTime;
+    //</editor-fold>
+    //
+    //<editor-fold desc="public methods" defaultstate="collapsed">
+    /**
+     * Ends the event and commits it with the given values, if it is recorded.
+     *
+     * @param aFragmentationName name of the fragmentation
+     * @param aFragmenterName name of the fragmenter
+     * @param aNumberOfMolecules number of fragmented molecules
+     * @param aNumberOfFragments number of distinct fragments
+     * @param aNumberOfExceptions number of molecules that caused an exception
+     * @param aNumberOfTasks number of parallel tasks
+     * @param aStageTimer merged stage times of all tasks
+     * @throws NullPointerException if the stage timer is null
+     */
+    public void commit(String aFragmentationName, String aFragmenterName, int aNumberOfMolecules, int aNumberOfFragments,
+                       int aNumberOfExceptions, int aNumberOfTasks, FragmentationStageTimer aStageTimer)
+            throws NullPointerException {
+        Objects.requireNonNull(aStageTimer, "aStageTimer (instance of FragmentationStageTimer) is null");
+        this.end();
+        if (!this.shouldCommit()) {
+            return;
+        }
+        this.fragmentationName = aFragmentationName;
+        this.fragmenterName = aFragmenterName;
+        this.numberOfMolecules = aNumberOfMolecules;
+        this.numberOfFragments = aNumberOfFragments;
+        this.numberOfExceptions = aNumberOfExceptions;
+        this.numberOfTasks = aNumberOfTasks;
+        this.atomContainerCreationTime = aStageTimer.getTotalTime(FragmentationStageTimer.Stage.ATOM_CONTAINER_CREATION);
+        this.preprocessingTime = aStageTimer.getTotalTime(FragmentationStageTimer.Stage.PREPROCESSING);
+        this.fragmentationTime = aStageTimer.getTotalTime(FragmentationStageTimer.Stage.FRAGMENTATION);
+        this.uniqueSmilesCreationTime = aStageTimer.getTotalTime(FragmentationStageTimer.Stage.UNIQUE_SMILES_CREATION);
+        this.aggregationTime = aStageTimer.getTotalTime(FragmentationStageTimer.Stage.AGGREGATION);
+        this.commit();
+    }
+    //</editor-fold>
+}
@@ -0,0 +1,311 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.monitoring;
+
+import de.unijena.cheminf.mortar.model.io.Importer;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monitor of the molecule imports of the Importer and the exports of the Exporter, registered as MBean by
+ * {@link MonitoringUtil#registerMBeans()}. The import progress and the pending batches are read from the running
+ * importer when they are requested. A molecule batch event is committed to Java Flight Recorder for every export.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class ImportExportMonitor implements ImportExportMonitorMBean {
+    //<editor-fold desc="private final class variables" defaultstate="collapsed">
+    /**
+     * Number of molecules published by the running or last import.
+     */
+    private final LongAdder moleculesImportedCounter;
+    /**
+     * Number of molecules imported in the imports completed before.
+     */
+    private final LongAdder totalMoleculesImportedCounter;
+    /**
+     * Number of completed imports.
+     */
+    private final LongAdder completedImportsCounter;
+    /**
+     * Number of items written by the completed exports.
+     */
+    private final LongAdder totalItemsExportedCounter;
+    /**
+     * Number of completed exports.
+     */
+    private final LongAdder completedExportsCounter;
+    /**
+     * Number of failed or cancelled exports.
+     */
+    private final LongAdder failedExportsCounter;
+    //</editor-fold>
+    //
+    //<editor-fold desc="private class variables" defaultstate="collapsed">
+    /**
+     * Importer of the running import, null if no import is running.
+     */
+    private volatile Importer runningImporter;
+    /**
+     * File name of the running or last import.
+     */
+    private volatile String importFileName;
+    /**
+     * Start time of the running or last import from {@link System#nanoTime()}.
+     */
+    private volatile long importStartTime;
+    /**
+     * End time of the last import from {@link System#nanoTime()}.
+     */
+    private volatile long importEndTime;
+    /**
+     * Type of the running or last export.
+     */
+    private volatile String exportType;
+    /**
+     * Number of items of the running or last export.
+     */
+    private volatile int itemsToExport;
+    /**
+     * Event of the running export, null if no export is running.
+     */
+    private volatile MoleculeBatchEvent exportEvent;
+    //</editor-fold>
+    //
+    /**
+     * Constructor.
+     */
+    public ImportExportMonitor() {
+        this.moleculesImportedCounter = new LongAdder();
+        this.totalMoleculesImportedCounter = new LongAdder();
+        this.completedImportsCounter = new LongAdder();
+        this.totalItemsExportedCounter = new LongAdder();
+        this.completedExportsCounter = new LongAdder();
+        this.failedExportsCounter = new LongAdder();
+        this.runningImporter = null;
+        this.importFileName = null;
+        this.exportType = null;
+        this.itemsToExport = 0;
+        this.exportEvent = null;
+    }
+    //
+    //<editor-fold desc="public methods" defaultstate="collapsed">
+    /**
+     * Resets the counters of the current import. To be called by the importer before it reads the first file.
+     *
+     * @param anImporter importer of the import
+     * @throws NullPointerException if the importer is null
+     */
+    public void importStarted(Importer anImporter) throws NullPointerException {
+        Objects.requireNonNull(anImporter, "anImporter (instance of Importer) is null");
+        this.importFileName = anImporter.getFileName();
+        this.moleculesImportedCounter.reset();
+        this.importStartTime = System.nanoTime();
+        this.runningImporter = anImporter;
+    }
+    //
+    /**
+     * Counts the molecules of a published batch of the running import.
+     *
+     * @param aNumberOfMolecules number of published molecules
+     */
+    public void moleculesImported(int aNumberOfMolecules) {
+        this.moleculesImportedCounter.add(aNumberOfMolecules);
+    }
+    //
+    /**
+     * Marks the running import as complete. Nothing is done if no import is running.
+     */
+    public void importFinished() {
+        Importer tmpImporter = this.runningImporter;
+        if (tmpImporter == null) {
+            return;
+        }
+        this.importEndTime = System.nanoTime();
+        this.importFileName = tmpImporter.getFileName();
+        this.runningImporter = null;
+        this.totalMoleculesImportedCounter.add(this.moleculesImportedCounter.sum());
+        this.completedImportsCounter.increment();
+    }
+    //
+    /**
+     * Marks the start of an export and begins its molecule batch event.
+     *
+     * @param anExportType type of the export, e.g. the file format
+     * @param aNumberOfItems number of molecules or fragments to export
+     */
+    public void exportStarted(String anExportType, int aNumberOfItems) {
+        this.exportType = anExportType;
+        this.itemsToExport = aNumberOfItems;
+        MoleculeBatchEvent tmpEvent = new MoleculeBatchEvent();
+        tmpEvent.begin();
+        this.exportEvent = tmpEvent;
+    }
+    //
+    /**
+     * Marks the running export as finished and commits its molecule batch event with the items that were not written
+     * as exceptions. Only completed exports are counted with their written items, failed or cancelled exports are
+     * counted separately. Nothing is done if no export is running.
+     *
+     * @param isCompleted true if the export was completed, false if it failed or was cancelled
+     * @param aNumberOfExportedItems number of molecules or fragments actually written
+     */
+    public void exportFinished(boolean isCompleted, int aNumberOfExportedItems) {
+        MoleculeBatchEvent tmpEvent = this.exportEvent;
+        if (tmpEvent == null) {
+            return;
+        }
+        this.exportEvent = null;
+        tmpEvent.commit(MoleculeBatchEvent.EXPORT_OPERATION, this.exportType, this.itemsToExport, aNumberOfExportedItems,
+                Math.max(0, this.itemsToExport - aNumberOfExportedItems));
+        if (isCompleted) {
+            this.totalItemsExportedCounter.add(aNumberOfExportedItems);
+            this.completedExportsCounter.increment();
+        } else {
+            this.failedExportsCounter.increment();
+        }
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="public properties" defaultstate="collapsed">
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isImportRunning() {
+        return this.runningImporter != null;
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getImportFileName() {
+        Importer tmpImporter = this.runningImporter;
+        return tmpImporter == null ? this.importFileName : tmpImporter.getFileName();
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getImportProgress() {
+        Importer tmpImporter = this.runningImporter;
+        return tmpImporter == null ? -1.0 : tmpImporter.getImportProgress();
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPendingImportBatches() {
+        Importer tmpImporter = this.runningImporter;
+        return tmpImporter == null ? 0 : tmpImporter.getNumberOfPublishedBatches();
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getMoleculesImported() {
+        return this.moleculesImportedCounter.sum();
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getImportThroughput() {
+        if (this.importFileName == null) {
+            return 0.0;
+        }
+        long tmpElapsedTime = (this.runningImporter != null ? System.nanoTime() : this.importEndTime) - this.importStartTime;
+        return tmpElapsedTime <= 0 ? 0.0 : this.moleculesImportedCounter.sum() * 1.0e9 / tmpElapsedTime;
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getTotalMoleculesImported() {
+        long tmpTotal = this.totalMoleculesImportedCounter.sum();
+        return this.runningImporter != null ? tmpTotal + this.moleculesImportedCounter.sum() : tmpTotal;
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getCompletedImports() {
+        return this.completedImportsCounter.sum();
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isExportRunning() {
+        return this.exportEvent != null;
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getExportType() {
+        return this.exportType;
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getItemsToExport() {
+        return this.itemsToExport;
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getTotalItemsExported() {
+        return this.totalItemsExportedCounter.sum();
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getCompletedExports() {
+        return this.completedExportsCounter.sum();
+    }
+    //
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getFailedExports() {
+        return this.failedExportsCounter.sum();
+    }
+    //</editor-fold>
+}
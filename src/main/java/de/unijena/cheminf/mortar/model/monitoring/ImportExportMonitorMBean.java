@@ -0,0 +1,128 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.monitoring;
+
+/**
+ * Management interface of the {@link ImportExportMonitor}, shown under the object name
+ * {@value MonitoringUtil#IMPORT_EXPORT_MBEAN_NAME} in JMX clients like jconsole.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public interface ImportExportMonitorMBean {
+    /**
+     * Returns whether molecules are imported.
+     *
+     * @return true if an import is running
+     */
+    boolean isImportRunning();
+
+    /**
+     * Returns the name of the file of the running or last import.
+     *
+     * @return file name or null if nothing has been imported
+     */
+    String getImportFileName();
+
+    /**
+     * Returns the fraction of the bytes of the imported files that have been read by the running import.
+     *
+     * @return progress between 0 and 1, or -1 if no import is running
+     */
+    double getImportProgress();
+
+    /**
+     * Returns the number of batches of imported molecules that have been published but not taken up by the GUI yet.
+     *
+     * @return number of pending batches, 0 if no import is running
+     */
+    int getPendingImportBatches();
+
+    /**
+     * Returns the number of molecules published by the running or last import.
+     *
+     * @return number of imported molecules
+     */
+    long getMoleculesImported();
+
+    /**
+     * Returns the number of molecules published per second by the running or last import.
+     *
+     * @return molecules per second
+     */
+    double getImportThroughput();
+
+    /**
+     * Returns the number of molecules imported in the session.
+     *
+     * @return total number of imported molecules
+     */
+    long getTotalMoleculesImported();
+
+    /**
+     * Returns the number of imports run in the session.
+     *
+     * @return number of imports
+     */
+    long getCompletedImports();
+
+    /**
+     * Returns whether an export is running.
+     *
+     * @return true if an export is running
+     */
+    boolean isExportRunning();
+
+    /**
+     * Returns the type of the running or last export.
+     *
+     * @return export type or null if nothing has been exported
+     */
+    String getExportType();
+
+    /**
+     * Returns the number of items, molecules or fragments, of the running or last export.
+     *
+     * @return number of items
+     */
+    int getItemsToExport();
+
+    /**
+     * Returns the number of items written by all completed exports of the session.
+     *
+     * @return total number of exported items
+     */
+    long getTotalItemsExported();
+
+    /**
+     * Returns the number of exports of the session that were completed.
+     *
+     * @return number of completed exports
+     */
+    long getCompletedExports();
+
+    /**
+     * Returns the number of exports of the session that failed or were cancelled.
+     *
+     * @return number of failed exports
+     */
+    long getFailedExports();
+}
@@ -0,0 +1,113 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event of a batch of molecules that has been fragmented, imported or exported. Fragmentation
+ * tasks commit an event every {@link de.unijena.cheminf.mortar.model.util.BasicDefinitions#MONITORING_MOLECULE_BATCH_SIZE}
+ * molecules, the importer one per preprocessed chunk and the exporter one per export. The events are only recorded
+ * if a recording is running, e.g. started with "jcmd &lt;pid&gt; JFR.start".
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+@Name("de.unijena.cheminf.mortar.MoleculeBatch")
+@Label("Molecule Batch")
+@Category({"MORTAR", "Molecules"})
+@Description("Batch of molecules fragmented, imported or exported")
+@StackTrace(false)
+public class MoleculeBatchEvent extends Event {
+    //<editor-fold desc="public static final constants" defaultstate="collapsed">
+    /**
+     * Operation of batches processed by a fragmentation task.
+     */
+    public static final String FRAGMENTATION_OPERATION = "Fragmentation";
+    /**
+     * Operation of batches preprocessed by the importer.
+     */
+    public static final String IMPORT_OPERATION = "Import";
+    /**
+     * Operation of exports.
+     */
+    public static final String EXPORT_OPERATION = "Export";
+    //</editor-fold>
+    //
+    //<editor-fold desc="package-private class variables" defaultstate="collapsed">
+    /**
+     * Operation the molecules were processed by.
+     */
+    @Label("Operation")
+    String operation;
+    /**
+     * Name of the fragmentation, of the imported file or of the export type.
+     */
+    @Label("Name")
+    String name;
+    /**
+     * Number of molecules of the batch.
+     */
+    @Label("Molecules")
+    int numberOfMolecules;
+    /**
+     * Number of fragments created from the molecules of a fragmentation batch or number of data models created from
+     * the molecules of an import batch, 0 for exports.
+     */
+    @Label("Results")
+    int numberOfResults;
+    /**
+     * Number of molecules that caused an exception.
+     */
+    @Label("Exceptions")
+    int numberOfExceptions;
+    //</editor-fold>
+    //
+    //<editor-fold desc="public methods" defaultstate="collapsed">
+    /**
+     * Ends the event and commits it with the given values, if it is recorded.
+     *
+     * @param anOperation operation the molecules were processed by
+     * @param aName name of the fragmentation, of the imported file or of the export type
+     * @param aNumberOfMolecules number of molecules of the batch
+     * @param aNumberOfResults number of fragments or data models created from the molecules
+     * @param aNumberOfExceptions number of molecules that caused an exception
+     */
+    public void commit(String anOperation, String aName, int aNumberOfMolecules, int aNumberOfResults,
+                       int aNumberOfExceptions) {
+        this.end();
+        if (!this.shouldCommit()) {
+            return;
+        }
+        this.operation = anOperation;
+        this.name = aName;
+        this.numberOfMolecules = aNumberOfMolecules;
+        this.numberOfResults = aNumberOfResults;
+        this.numberOfExceptions = aNumberOfExceptions;
+        this.commit();
+    }
+    //</editor-fold>
+}
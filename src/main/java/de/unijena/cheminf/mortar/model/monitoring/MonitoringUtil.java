@@ -0,0 +1,149 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.monitoring;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import java.lang.management.ManagementFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Util class holding the monitors of fragmentation, import, export and application state. After
+ * {@link #registerMBeans()} has been called, the monitors can be inspected with JMX clients like jconsole or
+ * VisualVM under the domain {@value #MBEAN_DOMAIN}. The Java Flight Recorder events of this package are recorded
+ * without registration whenever a recording is running.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public final class MonitoringUtil {
+    //<editor-fold desc="public static final constants" defaultstate="collapsed">
+    /**
+     * Domain of the object names of the MBeans.
+     */
+    public static final String MBEAN_DOMAIN = "de.unijena.cheminf.mortar";
+    /**
+     * Object name of the fragmentation monitor.
+     */
+    public static final String FRAGMENTATION_MBEAN_NAME = MonitoringUtil.MBEAN_DOMAIN + ":type=Fragmentation";
+    /**
+     * Object name of the import and export monitor.
+     */
+    public static final String IMPORT_EXPORT_MBEAN_NAME = MonitoringUtil.MBEAN_DOMAIN + ":type=ImportExport";
+    /**
+     * Object name of the application monitor.
+     */
+    public static final String APPLICATION_MBEAN_NAME = MonitoringUtil.MBEAN_DOMAIN + ":type=Application";
+    //</editor-fold>
+    //
+    //<editor-fold desc="private static final constants" defaultstate="collapsed">
+    /**
+     * Logger of this class.
+     */
+    private static final Logger LOGGER = Logger.getLogger(MonitoringUtil.class.getName());
+    /**
+     * Monitor of the fragmentations.
+     */
+    private static final FragmentationMonitor FRAGMENTATION_MONITOR = new FragmentationMonitor();
+    /**
+     * Monitor of the imports and exports.
+     */
+    private static final ImportExportMonitor IMPORT_EXPORT_MONITOR = new ImportExportMonitor();
+    /**
+     * Monitor of the heap, the log queue and the caches.
+     */
+    private static final ApplicationMonitor APPLICATION_MONITOR = new ApplicationMonitor();
+    //</editor-fold>
+    //
+    //<editor-fold desc="public static methods" defaultstate="collapsed">
+    /**
+     * Returns the monitor of the fragmentations.
+     *
+     * @return FragmentationMonitor
+     */
+    public static FragmentationMonitor getFragmentationMonitor() {
+        return MonitoringUtil.FRAGMENTATION_MONITOR;
+    }
+    //
+    /**
+     * Returns the monitor of the imports and exports.
+     *
+     * @return ImportExportMonitor
+     */
+    public static ImportExportMonitor getImportExportMonitor() {
+        return MonitoringUtil.IMPORT_EXPORT_MONITOR;
+    }
+    //
+    /**
+     * Registers the monitors as MBeans at the platform MBean server. Monitors that are registered already are skipped,
+     * so the method may be called more than once. Failures are logged, the application works without the MBeans.
+     *
+     * @return true if all monitors are registered
+     */
+    public static synchronized boolean registerMBeans() {
+        boolean tmpAreAllRegistered = true;
+        try {
+            MBeanServer tmpServer = ManagementFactory.getPlatformMBeanServer();
+            tmpAreAllRegistered &= MonitoringUtil.registerMBean(tmpServer, MonitoringUtil.FRAGMENTATION_MONITOR,
+                    MonitoringUtil.FRAGMENTATION_MBEAN_NAME);
+            tmpAreAllRegistered &= MonitoringUtil.registerMBean(tmpServer, MonitoringUtil.IMPORT_EXPORT_MONITOR,
+                    MonitoringUtil.IMPORT_EXPORT_MBEAN_NAME);
+            tmpAreAllRegistered &= MonitoringUtil.registerMBean(tmpServer, MonitoringUtil.APPLICATION_MONITOR,
+                    MonitoringUtil.APPLICATION_MBEAN_NAME);
+        } catch (SecurityException anException) {
+            MonitoringUtil.LOGGER.log(Level.WARNING, "Unable to access the platform MBean server: "
+                    + anException.toString(), anException);
+            return false;
+        }
+        return tmpAreAllRegistered;
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private static methods" defaultstate="collapsed">
+    /**
+     * Registers the given monitor under the given object name, if no MBean is registered under that name.
+     *
+     * @param aServer MBean server
+     * @param aMonitor monitor implementing its MBean interface
+     * @param anObjectName object name
+     * @return true if the monitor is registered
+     */
+    private static boolean registerMBean(MBeanServer aServer, Object aMonitor, String anObjectName) {
+        try {
+            ObjectName tmpObjectName = new ObjectName(anObjectName);
+            if (!aServer.isRegistered(tmpObjectName)) {
+                aServer.registerMBean(aMonitor, tmpObjectName);
+            }
+            return true;
+        } catch (InstanceAlreadyExistsException anException) {
+            return true;
+        } catch (JMException | SecurityException anException) {
+            MonitoringUtil.LOGGER.log(Level.WARNING, "Unable to register MBean " + anObjectName + ": "
+                    + anException.toString(), anException);
+            return false;
+        }
+    }
+    //</editor-fold>
+}
@@ -84,6 +84,22 @@ public class SettingsContainer {
      */
     public static final int ROWS_PER_PAGE_SETTING_DEFAULT = 5;
 
+    /**
+     * Default value of whether to split the tables of the molecules, fragments, and items tabs into pages.
+     */
+    public static final boolean USE_PAGINATION_SETTING_DEFAULT = true;
+
+    /**
+     * Default value of whether to persist the cache of 2D layout coordinates between sessions.
+     */
+    public static final boolean PERSIST_LAYOUT_COORDINATE_CACHE_SETTING_DEFAULT = true;
+
+    /**
+     * Default value of whether to persist structure depictions in a thumbnail store on disk between sessions; off by
+     * default because the store may take up to {@link BasicDefinitions#THUMBNAIL_STORE_MAX_NUMBER_OF_BYTES} bytes.
+     */
+    public static final boolean PERSIST_DEPICTIONS_SETTING_DEFAULT = false;
+
     /**
      * Default value of the recent directory to use when there is no last directory used by the user.
      */
@@ -94,6 +110,16 @@ public class SettingsContainer {
      */
     public static final boolean ADD_IMPLICIT_HYDROGENS_AT_IMPORT_SETTING_DEFAULT = true;
 
+    /**
+     * Default value of whether to import only the small molecules of PDB files instead of whole models.
+     */
+    public static final boolean EXTRACT_SMALL_MOLECULES_FROM_PDB_AT_IMPORT_SETTING_DEFAULT = false;
+
+    /**
+     * Default value of whether to save the stage times of every fragmentation as CSV file.
+     */
+    public static final boolean SAVE_FRAGMENTATION_TIMING_REPORTS_SETTING_DEFAULT = false;
+
     /**
      * Default value of whether to keep the atom container in the molecule/fragment data model.
      */
@@ -129,6 +155,21 @@ public class SettingsContainer {
      */
     private SimpleIntegerProperty rowsPerPageSetting;
 
+    /**
+     * Property of use pagination setting.
+     */
+    private SimpleBooleanProperty usePaginationSetting;
+
+    /**
+     * Property of persist layout coordinate cache setting.
+     */
+    private SimpleBooleanProperty persistLayoutCoordinateCacheSetting;
+
+    /**
+     * Property of persist depictions setting.
+     */
+    private SimpleBooleanProperty persistDepictionsSetting;
+
     /**
      * Property of number of fragmentation tasks setting.
      */
@@ -144,6 +185,16 @@ public class SettingsContainer {
      */
     private SimpleBooleanProperty addImplicitHydrogensAtImportSetting;
 
+    /**
+     * Property of extract small molecules from PDB files setting.
+     */
+    private SimpleBooleanProperty extractSmallMoleculesFromPDBAtImportSetting;
+
+    /**
+     * Property of save fragmentation timing reports setting.
+     */
+    private SimpleBooleanProperty saveFragmentationTimingReportsSetting;
+
     /**
      * Property of keep atom container setting.
      */
@@ -241,6 +292,60 @@ public class SettingsContainer {
         return this.rowsPerPageSetting;
     }
 
+    /**
+     * Returns the current value of the use pagination setting.
+     *
+     * @return use pagination setting value
+     */
+    public boolean getUsePaginationSetting() {
+        return this.usePaginationSetting.get();
+    }
+
+    /**
+     * Returns the property wrapping the use pagination setting.
+     *
+     * @return use pagination setting property
+     */
+    public Property usePaginationSettingProperty() {
+        return this.usePaginationSetting;
+    }
+
+    /**
+     * Returns the current value of the persist layout coordinate cache setting.
+     *
+     * @return persist layout coordinate cache setting value
+     */
+    public boolean getPersistLayoutCoordinateCacheSetting() {
+        return this.persistLayoutCoordinateCacheSetting.get();
+    }
+
+    /**
+     * Returns the property wrapping the persist layout coordinate cache setting.
+     *
+     * @return persist layout coordinate cache setting property
+     */
+    public Property persistLayoutCoordinateCacheSettingProperty() {
+        return this.persistLayoutCoordinateCacheSetting;
+    }
+
+    /**
+     * Returns the current value of the persist depictions setting.
+     *
+     * @return persist depictions setting value
+     */
+    public boolean getPersistDepictionsSetting() {
+        return this.persistDepictionsSetting.get();
+    }
+
+    /**
+     * Returns the property wrapping the persist depictions setting.
+     *
+     * @return persist depictions setting property
+     */
+    public Property persistDepictionsSettingProperty() {
+        return this.persistDepictionsSetting;
+    }
+
     /**
      * Returns the current value of the number of tasks for fragmentation setting.
      *
@@ -305,6 +410,42 @@ public class SettingsContainer {
         return this.addImplicitHydrogensAtImportSetting;
     }
 
+    /**
+     * Returns the current value of the extract small molecules from PDB files at import setting.
+     *
+     * @return extract small molecules from PDB files at import setting value
+     */
+    public boolean getExtractSmallMoleculesFromPDBAtImportSetting() {
+        return this.extractSmallMoleculesFromPDBAtImportSetting.get();
+    }
+
+    /**
+     * Returns the property wrapping the extract small molecules from PDB files at import setting.
+     *
+     * @return extract small molecules from PDB files at import setting property
+     */
+    public Property extractSmallMoleculesFromPDBAtImportSettingProperty() {
+        return this.extractSmallMoleculesFromPDBAtImportSetting;
+    }
+
+    /**
+     * Returns the current value of the save fragmentation timing reports setting.
+     *
+     * @return save fragmentation timing reports setting value
+     */
+    public boolean getSaveFragmentationTimingReportsSetting() {
+        return this.saveFragmentationTimingReportsSetting.get();
+    }
+
+    /**
+     * Returns the property wrapping the save fragmentation timing reports setting.
+     *
+     * @return save fragmentation timing reports setting property
+     */
+    public Property saveFragmentationTimingReportsSettingProperty() {
+        return this.saveFragmentationTimingReportsSetting;
+    }
+
     /**
      * Returns the current value of the keep atom container in data model setting.
      *
@@ -394,6 +535,36 @@ public class SettingsContainer {
         }
     }
 
+    /**
+     * Sets the setting for whether the tables of the molecules, fragments, and items tabs should be split into pages.
+     * If not, all rows are shown in one virtualised table view and the rows per page setting is not used.
+     *
+     * @param aBoolean whether to use pagination in the tabs
+     */
+    public void setUsePaginationSetting(boolean aBoolean) {
+        this.usePaginationSetting.set(aBoolean);
+    }
+
+    /**
+     * Sets the setting for whether the 2D layout coordinates computed for depiction and export should be saved to the
+     * application data directory on exit and loaded again on the next start.
+     *
+     * @param aBoolean whether to persist the layout coordinate cache
+     */
+    public void setPersistLayoutCoordinateCacheSetting(boolean aBoolean) {
+        this.persistLayoutCoordinateCacheSetting.set(aBoolean);
+    }
+
+    /**
+     * Sets the setting for whether structure depictions should be stored in a size-bounded pack file in the
+     * application data directory and read from it in later sessions instead of being drawn again.
+     *
+     * @param aBoolean whether to persist depictions
+     */
+    public void setPersistDepictionsSetting(boolean aBoolean) {
+        this.persistDepictionsSetting.set(aBoolean);
+    }
+
     /**
      * Sets the setting for how many parallel threads should be used for a fragmentation.
      *
@@ -438,6 +609,26 @@ public class SettingsContainer {
         this.addImplicitHydrogensAtImportSetting.set(aBoolean);
     }
 
+    /**
+     * Sets the setting for whether only the ligands and other small molecules given as HETATM records of PDB files
+     * should be imported, one molecule per residue, instead of one molecule per model.
+     *
+     * @param aBoolean whether to extract small molecules from PDB files at molecule import
+     */
+    public void setExtractSmallMoleculesFromPDBAtImportSetting(boolean aBoolean) {
+        this.extractSmallMoleculesFromPDBAtImportSetting.set(aBoolean);
+    }
+
+    /**
+     * Sets the setting for whether the times of the fragmentation stages, which are logged after every fragmentation,
+     * should also be saved as CSV file in the timing reports folder of the application data directory.
+     *
+     * @param aBoolean whether to save fragmentation timing reports
+     */
+    public void setSaveFragmentationTimingReportsSetting(boolean aBoolean) {
+        this.saveFragmentationTimingReportsSetting.set(aBoolean);
+    }
+
     /**
      * Sets the setting for whether to keep the atom container in the molecule/fragment data model.
      *
@@ -489,9 +680,14 @@ public class SettingsContainer {
      */
     public void restoreDefaultSettings() {
         this.rowsPerPageSetting.set(SettingsContainer.ROWS_PER_PAGE_SETTING_DEFAULT);
+        this.usePaginationSetting.set(SettingsContainer.USE_PAGINATION_SETTING_DEFAULT);
+        this.persistLayoutCoordinateCacheSetting.set(SettingsContainer.PERSIST_LAYOUT_COORDINATE_CACHE_SETTING_DEFAULT);
+        this.persistDepictionsSetting.set(SettingsContainer.PERSIST_DEPICTIONS_SETTING_DEFAULT);
         this.numberOfTasksForFragmentationSetting.set(this.NR_OF_TASKS_FOR_FRAGMENTATION_SETTING_DEFAULT);
         this.recentDirectoryPathSetting.set(SettingsContainer.RECENT_DIRECTORY_PATH_SETTING_DEFAULT);
         this.addImplicitHydrogensAtImportSetting.set(SettingsContainer.ADD_IMPLICIT_HYDROGENS_AT_IMPORT_SETTING_DEFAULT);
+        this.extractSmallMoleculesFromPDBAtImportSetting.set(SettingsContainer.EXTRACT_SMALL_MOLECULES_FROM_PDB_AT_IMPORT_SETTING_DEFAULT);
+        this.saveFragmentationTimingReportsSetting.set(SettingsContainer.SAVE_FRAGMENTATION_TIMING_REPORTS_SETTING_DEFAULT);
         //DEPRECATED
         //this.keepAtomContainerInDataModelSetting.set(SettingsContainer.KEEP_ATOM_CONTAINER_IN_DATA_MODEL_SETTING_DEFAULT);
         this.alwaysMDLV3000FormatAtExportSetting.set(SettingsContainer.ALWAYS_MDLV3000_FORMAT_AT_EXPORT_SETTING_DEFAULT);
@@ -611,7 +807,7 @@ public class SettingsContainer {
      * to the list of settings for display to the user.
      */
     private void initialiseSettings() {
-        int tmpNumberOfSettings = 8;
+        int tmpNumberOfSettings = 13;
         int tmpInitialCapacityForSettingNameTooltipTextMap = CollectionUtil.calculateInitialHashCollectionCapacity(
                 tmpNumberOfSettings,
                 BasicDefinitions.DEFAULT_HASH_COLLECTION_LOAD_FACTOR);
@@ -636,6 +832,33 @@ public class SettingsContainer {
             }
         };
         this.settingNameTooltipTextMap.put(this.rowsPerPageSetting.getName(), Message.get("SettingsContainer.rowsPerPageSetting.tooltip"));
+        this.usePaginationSetting = new SimpleBooleanProperty(this,
+                "Use pagination setting",
+                SettingsContainer.USE_PAGINATION_SETTING_DEFAULT) {
+            @Override
+            public void set(boolean newValue) {
+                super.set(newValue);
+            }
+        };
+        this.settingNameTooltipTextMap.put(this.usePaginationSetting.getName(), Message.get("SettingsContainer.usePaginationSetting.tooltip"));
+        this.persistLayoutCoordinateCacheSetting = new SimpleBooleanProperty(this,
+                "Persist layout coordinate cache setting",
+                SettingsContainer.PERSIST_LAYOUT_COORDINATE_CACHE_SETTING_DEFAULT) {
+            @Override
+            public void set(boolean newValue) {
+                super.set(newValue);
+            }
+        };
+        this.settingNameTooltipTextMap.put(this.persistLayoutCoordinateCacheSetting.getName(), Message.get("SettingsContainer.persistLayoutCoordinateCacheSetting.tooltip"));
+        this.persistDepictionsSetting = new SimpleBooleanProperty(this,
+                "Persist depictions setting",
+                SettingsContainer.PERSIST_DEPICTIONS_SETTING_DEFAULT) {
+            @Override
+            public void set(boolean newValue) {
+                super.set(newValue);
+            }
+        };
+        this.settingNameTooltipTextMap.put(this.persistDepictionsSetting.getName(), Message.get("SettingsContainer.persistDepictionsSetting.tooltip"));
         this.numberOfTasksForFragmentationSetting = new SimpleIntegerProperty(this,
                 "Nr of tasks for fragmentation setting",
                 this.NR_OF_TASKS_FOR_FRAGMENTATION_SETTING_DEFAULT) {
@@ -681,6 +904,24 @@ public class SettingsContainer {
             }
         };
         this.settingNameTooltipTextMap.put(this.addImplicitHydrogensAtImportSetting.getName(), Message.get("SettingsContainer.addImplicitHydrogensAtImportSetting.tooltip"));
+        this.extractSmallMoleculesFromPDBAtImportSetting = new SimpleBooleanProperty(this,
+                "Extract small molecules from PDB files at import setting",
+                SettingsContainer.EXTRACT_SMALL_MOLECULES_FROM_PDB_AT_IMPORT_SETTING_DEFAULT) {
+            @Override
+            public void set(boolean newValue) {
+                super.set(newValue);
+            }
+        };
+        this.settingNameTooltipTextMap.put(this.extractSmallMoleculesFromPDBAtImportSetting.getName(), Message.get("SettingsContainer.extractSmallMoleculesFromPDBAtImportSetting.tooltip"));
+        this.saveFragmentationTimingReportsSetting = new SimpleBooleanProperty(this,
+                "Save fragmentation timing reports setting",
+                SettingsContainer.SAVE_FRAGMENTATION_TIMING_REPORTS_SETTING_DEFAULT) {
+            @Override
+            public void set(boolean newValue) {
+                super.set(newValue);
+            }
+        };
+        this.settingNameTooltipTextMap.put(this.saveFragmentationTimingReportsSetting.getName(), Message.get("SettingsContainer.saveFragmentationTimingReportsSetting.tooltip"));
         //DEPRECATED
         /*this.keepAtomContainerInDataModelSetting = new SimpleBooleanProperty(this,
                 "Keep AtomContainers in the DataModels setting",
@@ -737,10 +978,15 @@ public class SettingsContainer {
             }
         };
         this.settingNameTooltipTextMap.put(this.keepLastFragmentSetting.getName(), Message.get("SettingsContainer.keepLastFragmentSetting.tooltip"));
-        this.settings = new ArrayList<Property>(6);
+        this.settings = new ArrayList<Property>(7);
+        this.settings.add(this.usePaginationSetting);
+        this.settings.add(this.persistLayoutCoordinateCacheSetting);
+        this.settings.add(this.persistDepictionsSetting);
         this.settings.add(this.rowsPerPageSetting);
         this.settings.add(this.numberOfTasksForFragmentationSetting);
+        this.settings.add(this.saveFragmentationTimingReportsSetting);
         this.settings.add(this.addImplicitHydrogensAtImportSetting);
+        this.settings.add(this.extractSmallMoleculesFromPDBAtImportSetting);
         //DEPRECATED
         //this.settings.add(this.keepAtomContainerInDataModelSetting);
         this.settings.add(this.alwaysMDLV3000FormatAtExportSetting);
@@ -0,0 +1,362 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * Log handler that hands the published log records through a bounded queue to a writer thread, which formats them
+ * and writes them in batches to the given target handler, so that logging threads do not wait for file I/O. Records
+ * of exceptions that occurred while processing a molecule, see
+ * {@link LogUtil#logMoleculeException(java.util.logging.Logger, Level, Exception, String)}, are counted per logger and
+ * exception type; only the first records of each type are written with stack trace and further ones are aggregated
+ * into summary lines with their count and sample molecule names. All other records are written in full, also if they
+ * have an exception. Summary lines are written
+ * at most every {@link BasicDefinitions#LOG_SUMMARY_INTERVAL} milliseconds and when the handler is closed. If the
+ * queue is full, records of level WARNING and above wait for the writer thread while records of lower levels are
+ * dropped and counted.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class AsyncLogHandler extends Handler {
+    //<editor-fold desc="private static final constants" defaultstate="collapsed">
+    /**
+     * Time in milliseconds the writer thread waits for new records before checking for due summaries.
+     */
+    private static final long POLL_TIMEOUT = 200L;
+    /**
+     * Maximum time in milliseconds to wait for the writer thread to write the remaining records when closing.
+     */
+    private static final long CLOSE_TIMEOUT = 5000L;
+    //</editor-fold>
+    //
+    //<editor-fold desc="private final class variables" defaultstate="collapsed">
+    /**
+     * Handler the formatted batches are written to.
+     */
+    private final Handler targetHandler;
+    /**
+     * Formatter of the single records.
+     */
+    private final Formatter recordFormatter;
+    /**
+     * Records waiting to be written.
+     */
+    private final BlockingQueue<LogRecord> recordQueue;
+    /**
+     * Counts of the molecule exception records per logger and exception type, in order of their first occurrence.
+     */
+    private final Map<String, ExceptionSummary> exceptionSummaryMap;
+    /**
+     * Number of records dropped because the queue was full, since the last record written.
+     */
+    private final AtomicInteger droppedRecordsCounter;
+    /**
+     * Thread writing the records.
+     */
+    private final Thread writerThread;
+    //</editor-fold>
+    //
+    //<editor-fold desc="private class variables" defaultstate="collapsed">
+    /**
+     * Whether the handler is closed.
+     */
+    private volatile boolean isClosed;
+    //</editor-fold>
+    //
+    /**
+     * Constructor, starts the writer thread. The formatter of the target handler is replaced by one that writes the
+     * batches formatted by the given formatter unchanged.
+     *
+     * @param aTargetHandler handler to write the records to, closed with this handler
+     * @param aFormatter formatter of the single records
+     * @throws NullPointerException if a parameter is null
+     */
+    public AsyncLogHandler(Handler aTargetHandler, Formatter aFormatter) throws NullPointerException {
+        Objects.requireNonNull(aTargetHandler, "aTargetHandler (instance of Handler) is null");
+        Objects.requireNonNull(aFormatter, "aFormatter (instance of Formatter) is null");
+        this.targetHandler = aTargetHandler;
+        this.targetHandler.setFormatter(new Formatter() {
+            @Override
+            public String format(LogRecord aRecord) {
+                return aRecord.getMessage();
+            }
+        });
+        this.recordFormatter = aFormatter;
+        this.setFormatter(aFormatter);
+        this.recordQueue = new ArrayBlockingQueue<>(BasicDefinitions.LOG_QUEUE_CAPACITY);
+        this.exceptionSummaryMap = new LinkedHashMap<>();
+        this.droppedRecordsCounter = new AtomicInteger(0);
+        this.isClosed = false;
+        this.writerThread = new Thread(this::writeRecords);
+        this.writerThread.setName("Log_Writer_Thread");
+        this.writerThread.setUncaughtExceptionHandler(LogUtil.getUncaughtExceptionHandler());
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+    //
+    //<editor-fold desc="public methods" defaultstate="collapsed">
+    /**
+     * Queues the given record to be written by the writer thread. Molecule exception records of a logger and type that
+     * has already been logged with stack trace often enough are only counted for the next summary line.
+     *
+     * @param aRecord record to log
+     */
+    @Override
+    public void publish(LogRecord aRecord) {
+        if (this.isClosed || !this.isLoggable(aRecord)) {
+            return;
+        }
+        Throwable tmpThrown = aRecord.getThrown();
+        //only the exceptions of single molecules are aggregated, others like uncaught exceptions are always written
+        if (tmpThrown != null && aRecord instanceof LogUtil.MoleculeLogRecord) {
+            String tmpKey = aRecord.getLoggerName() + "|" + tmpThrown.getClass().getName();
+            boolean tmpIsWrittenInFull;
+            synchronized (this.exceptionSummaryMap) {
+                ExceptionSummary tmpSummary = this.exceptionSummaryMap.computeIfAbsent(tmpKey,
+                        aKey -> new ExceptionSummary(aRecord.getLevel(), aRecord.getLoggerName(), tmpThrown.getClass().getName()));
+                tmpIsWrittenInFull = tmpSummary.count(aRecord);
+            }
+            if (!tmpIsWrittenInFull) {
+                return;
+            }
+        }
+        if (this.recordQueue.offer(aRecord)) {
+            return;
+        }
+        if (aRecord.getLevel().intValue() < Level.WARNING.intValue()) {
+            this.droppedRecordsCounter.incrementAndGet();
+            return;
+        }
+        try {
+            this.recordQueue.put(aRecord);
+        } catch (InterruptedException anException) {
+            this.droppedRecordsCounter.incrementAndGet();
+            Thread.currentThread().interrupt();
+        }
+    }
+    //
+    /**
+     * Flushes the target handler. Records still in the queue are written by the writer thread shortly.
+     */
+    @Override
+    public void flush() {
+        this.targetHandler.flush();
+    }
+    //
+    /**
+     * Waits for the writer thread to write the queued records and the pending summary lines and closes the target
+     * handler. Records published afterwards are ignored.
+     *
+     * @throws SecurityException if the target handler cannot be closed
+     */
+    @Override
+    public void close() throws SecurityException {
+        if (this.isClosed) {
+            return;
+        }
+        this.isClosed = true;
+        try {
+            this.writerThread.join(AsyncLogHandler.CLOSE_TIMEOUT);
+        } catch (InterruptedException anException) {
+            Thread.currentThread().interrupt();
+        }
+        this.targetHandler.close();
+    }
+    //
+    /**
+     * Returns the number of records waiting to be written.
+     *
+     * @return number of queued records
+     */
+    public int getQueueSize() {
+        return this.recordQueue.size();
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private methods" defaultstate="collapsed">
+    /**
+     * Run by the writer thread, takes the queued records in batches and writes each batch with one call of the target
+     * handler, together with the summary lines that are due, until the handler is closed and the queue is empty.
+     */
+    private void writeRecords() {
+        List<LogRecord> tmpBatch = new ArrayList<>(BasicDefinitions.LOG_WRITE_BATCH_SIZE);
+        StringBuilder tmpBatchText = new StringBuilder();
+        long tmpLastSummaryTime = System.currentTimeMillis();
+        while (true) {
+            LogRecord tmpFirstRecord = null;
+            try {
+                tmpFirstRecord = this.recordQueue.poll(AsyncLogHandler.POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException anException) {
+                //the writer thread is only stopped by closing the handler
+            }
+            if (tmpFirstRecord != null) {
+                tmpBatch.add(tmpFirstRecord);
+                this.recordQueue.drainTo(tmpBatch, BasicDefinitions.LOG_WRITE_BATCH_SIZE - 1);
+            }
+            boolean tmpIsLastBatch = this.isClosed && this.recordQueue.isEmpty();
+            long tmpCurrentTime = System.currentTimeMillis();
+            if (tmpIsLastBatch || tmpCurrentTime - tmpLastSummaryTime >= BasicDefinitions.LOG_SUMMARY_INTERVAL) {
+                synchronized (this.exceptionSummaryMap) {
+                    for (ExceptionSummary tmpSummary : this.exceptionSummaryMap.values()) {
+                        LogRecord tmpSummaryRecord = tmpSummary.createSummaryRecord();
+                        if (tmpSummaryRecord != null) {
+                            tmpBatch.add(tmpSummaryRecord);
+                        }
+                    }
+                }
+                tmpLastSummaryTime = tmpCurrentTime;
+            }
+            int tmpNumberOfDroppedRecords = this.droppedRecordsCounter.getAndSet(0);
+            if (tmpNumberOfDroppedRecords > 0) {
+                LogRecord tmpDroppedRecord = new LogRecord(Level.WARNING, tmpNumberOfDroppedRecords
+                        + " log records were dropped because the log queue was full.");
+                tmpDroppedRecord.setLoggerName(AsyncLogHandler.class.getName());
+                tmpDroppedRecord.setSourceClassName(AsyncLogHandler.class.getName());
+                tmpBatch.add(tmpDroppedRecord);
+            }
+            if (!tmpBatch.isEmpty()) {
+                for (LogRecord tmpRecord : tmpBatch) {
+                    try {
+                        tmpBatchText.append(this.recordFormatter.format(tmpRecord));
+                    } catch (Exception anException) {
+                        this.reportError(null, anException, ErrorManager.FORMAT_FAILURE);
+                    }
+                }
+                try {
+                    //the target handler writes and flushes the whole batch at once
+                    this.targetHandler.publish(new LogRecord(Level.SEVERE, tmpBatchText.toString()));
+                } catch (Exception anException) {
+                    this.reportError(null, anException, ErrorManager.WRITE_FAILURE);
+                }
+                tmpBatch.clear();
+                tmpBatchText.setLength(0);
+            }
+            if (tmpIsLastBatch) {
+                return;
+            }
+        }
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private static class ExceptionSummary" defaultstate="collapsed">
+    /**
+     * Counts the molecule exception records of one logger and exception type. Not thread-safe, access is synchronized
+     * on the map of summaries.
+     */
+    private static class ExceptionSummary {
+        /**
+         * Level of the first record, used for the summary lines.
+         */
+        private final Level level;
+        /**
+         * Name of the logger of the records.
+         */
+        private final String loggerName;
+        /**
+         * Class name of the exceptions.
+         */
+        private final String exceptionClassName;
+        /**
+         * Sample names of the molecules of the records counted since the last summary line.
+         */
+        private final List<String> sampleMoleculeNameList;
+        /**
+         * Number of all records.
+         */
+        private long totalCount;
+        /**
+         * Number of records counted since the last summary line that were not written.
+         */
+        private long suppressedCount;
+        //
+        /**
+         * Constructor.
+         *
+         * @param aLevel level of the first record
+         * @param aLoggerName name of the logger of the records
+         * @param anExceptionClassName class name of the exceptions
+         */
+        private ExceptionSummary(Level aLevel, String aLoggerName, String anExceptionClassName) {
+            this.level = aLevel;
+            this.loggerName = aLoggerName;
+            this.exceptionClassName = anExceptionClassName;
+            this.sampleMoleculeNameList = new ArrayList<>(BasicDefinitions.LOG_SAMPLE_MOLECULE_NAMES_PER_SUMMARY);
+            this.totalCount = 0;
+            this.suppressedCount = 0;
+        }
+        //
+        /**
+         * Counts the given record.
+         *
+         * @param aRecord molecule exception record
+         * @return true if the record should be written with stack trace, false if it is only counted
+         */
+        private boolean count(LogRecord aRecord) {
+            this.totalCount++;
+            if (this.totalCount <= BasicDefinitions.LOG_STACK_TRACES_PER_EXCEPTION_TYPE) {
+                return true;
+            }
+            this.suppressedCount++;
+            if (this.sampleMoleculeNameList.size() < BasicDefinitions.LOG_SAMPLE_MOLECULE_NAMES_PER_SUMMARY) {
+                this.sampleMoleculeNameList.add(((LogUtil.MoleculeLogRecord) aRecord).getMoleculeName());
+            }
+            return false;
+        }
+        //
+        /**
+         * Creates a summary line of the records counted since the last one and resets the count and samples.
+         *
+         * @return summary record or null if no record has been counted since the last summary line
+         */
+        private LogRecord createSummaryRecord() {
+            if (this.suppressedCount == 0) {
+                return null;
+            }
+            String tmpMessage = this.suppressedCount + " further exceptions of type " + this.exceptionClassName
+                    + " not logged individually, " + this.totalCount + " in total";
+            if (!this.sampleMoleculeNameList.isEmpty()) {
+                tmpMessage += "; sample molecule names: " + String.join(", ", this.sampleMoleculeNameList);
+            }
+            LogRecord tmpRecord = new LogRecord(this.level, tmpMessage);
+            tmpRecord.setLoggerName(this.loggerName);
+            tmpRecord.setSourceClassName(this.loggerName);
+            this.suppressedCount = 0;
+            this.sampleMoleculeNameList.clear();
+            return tmpRecord;
+        }
+    }
+    //</editor-fold>
+}
@@ -72,6 +72,32 @@ public final class BasicDefinitions {
      */
     public static final double FACTOR_TO_TRIM_LOG_FILE_FOLDER = 0.2;
 
+    /**
+     * Maximum number of log records waiting to be written to the log file by the log writer thread
+     */
+    public static final int LOG_QUEUE_CAPACITY = 8192;
+
+    /**
+     * Maximum number of log records written to the log file at a time
+     */
+    public static final int LOG_WRITE_BATCH_SIZE = 1024;
+
+    /**
+     * Number of log records with the same exception type and logger that are written with full stack trace, further
+     * records are only counted in summary lines
+     */
+    public static final int LOG_STACK_TRACES_PER_EXCEPTION_TYPE = 10;
+
+    /**
+     * Maximum number of molecule names given as samples in a summary line of repeated exceptions
+     */
+    public static final int LOG_SAMPLE_MOLECULE_NAMES_PER_SUMMARY = 5;
+
+    /**
+     * Minimum time in milliseconds between two summary lines of repeated exceptions of the same type
+     */
+    public static final long LOG_SUMMARY_INTERVAL = 10000L;
+
     /**
      * Possible SMILES file separators used to separate SMILES code from ID
      */
@@ -126,6 +152,31 @@ public final class BasicDefinitions {
      * Note, the file extension (.txt or .gzip) defines whether the preference container file is compressed or not.
      */
     public static final String PREFERENCE_CONTAINER_FILE_EXTENSION = ".txt";
+
+    /**
+     * Name of the folder where caches (e.g. 2D layout coordinates) are persisted between sessions.
+     */
+    public static final String CACHE_FILE_DIRECTORY = "Cache";
+
+    /**
+     * Name of the folder where the CSV files of the fragmentation stage times are saved.
+     */
+    public static final String FRAGMENTATION_TIMING_REPORTS_DIRECTORY = "Timing_Reports";
+
+    /**
+     * Name prefix of the CSV files of the fragmentation stage times.
+     */
+    public static final String FRAGMENTATION_TIMING_REPORT_FILE_NAME = "MORTAR_Fragmentation_Timing";
+
+    /**
+     * Name of the file that persists the 2D layout coordinate cache.
+     */
+    public static final String LAYOUT_COORDINATE_CACHE_FILE_NAME = "MORTAR_Layout_Coordinates.bin";
+
+    /**
+     * Name of the pack file that persists structure depictions.
+     */
+    public static final String THUMBNAIL_STORE_FILE_NAME = "MORTAR_Thumbnails.pack";
     //</editor-fold>
     //
     //<editor-fold desc="Session">
@@ -190,5 +241,90 @@ public final class BasicDefinitions {
      * Default load factor for HashMap and HashSet instances, defined based on default value given in the Java documentation.
      */
     public static final float DEFAULT_HASH_COLLECTION_LOAD_FACTOR = 0.75f;
+    /**
+     * Maximum number of pixels of all structure depictions held in the depiction cache, i.e. about 128 MB of image
+     * data with four bytes per pixel
+     */
+    public static final long DEPICTION_CACHE_PIXEL_BUDGET = 32000000L;
+    /**
+     * Maximum number of threads rendering structure depictions for the views in the background
+     */
+    public static final int DEPICTION_RENDERING_MAX_NUMBER_OF_THREADS = 4;
+    /**
+     * Maximum number of structures whose 2D layout coordinates are held in the layout coordinate cache
+     */
+    public static final int LAYOUT_COORDINATE_CACHE_MAX_NUMBER_OF_ENTRIES = 100000;
+    /**
+     * Maximum size in bytes of the pack file persisting structure depictions between sessions (128 MByte)
+     */
+    public static final long THUMBNAIL_STORE_MAX_NUMBER_OF_BYTES = 134217728L;
+    /**
+     * Maximum time in milliseconds to wait for pending structure depictions to be written to the pack file on exit
+     */
+    public static final long THUMBNAIL_STORE_CLOSING_TIMEOUT = 2000L;
+    /**
+     * Number of table rows after which the table of a PDF export is written to the document and removed from memory
+     */
+    public static final int PDF_EXPORT_TABLE_CHUNK_SIZE = 500;
+    /**
+     * Number of tasks per export thread, e.g. structure depictions or chunks of records, that may be processed in
+     * advance of writing them to the exported file
+     */
+    public static final int EXPORT_PENDING_TASKS_PER_THREAD = 8;
+    /**
+     * Number of fragments whose records are created together by one export thread of the single SD file export
+     */
+    public static final int SD_EXPORT_CHUNK_SIZE = 64;
+    /**
+     * Number of rows formatted together by one export thread of a CSV export; smaller exports are formatted by the
+     * exporting thread alone
+     */
+    public static final int CSV_EXPORT_CHUNK_SIZE = 4096;
+    /**
+     * Size of the direct byte buffer of the CSV file writer (1 MByte)
+     */
+    public static final int CSV_EXPORT_BUFFER_SIZE = 1048576;
+    /**
+     * Number of bytes of a chunk of lines of a SMILES file parsed by one import thread (4 MByte); smaller files are
+     * parsed by the importing thread alone
+     */
+    public static final int SMILES_IMPORT_CHUNK_SIZE = 4194304;
+    /**
+     * Number of bytes of a chunk of records of an SD file parsed by one import thread (4 MByte); smaller files are
+     * parsed by the importing thread alone
+     */
+    public static final int SD_IMPORT_CHUNK_SIZE = 4194304;
+    /**
+     * Number of imported molecules preprocessed and converted into data models by one import thread at a time; sets
+     * with at most this number of molecules are processed by the importing thread alone
+     */
+    public static final int IMPORT_PREPROCESSING_CHUNK_SIZE = 256;
+    /**
+     * Number of decompressed bytes of a gzip-compressed file handed from the decompression thread to the importing
+     * thread at a time (1 MByte)
+     */
+    public static final int DECOMPRESSION_BLOCK_SIZE = 1048576;
+    /**
+     * Maximum number of decompressed blocks of a gzip-compressed file held in memory ahead of the importing thread
+     */
+    public static final int DECOMPRESSION_PENDING_BLOCKS = 8;
+    /**
+     * Number of chunks per import thread that may be parsed in advance of adding their molecules to the imported set
+     */
+    public static final int IMPORT_PENDING_TASKS_PER_THREAD = 2;
+    /**
+     * Number of molecule data models published to the GUI at a time while molecules are imported
+     */
+    public static final int IMPORT_PUBLISH_BATCH_SIZE = 10000;
+    /**
+     * Maximum number of bytes of a block of a session file, which is deflated as a whole if the session file is
+     * compressed (1 MByte)
+     */
+    public static final int SESSION_FILE_BLOCK_SIZE = 1048576;
+    /**
+     * Number of molecules a fragmentation task processes before it commits a molecule batch event to Java Flight
+     * Recorder
+     */
+    public static final int MONITORING_MOLECULE_BATCH_SIZE = 1000;
     //</editor-fold>
 }
@@ -43,6 +43,7 @@ import org.openscience.cdk.tools.manipulator.MolecularFormulaManipulator;
 import javax.vecmath.Point2d;
 import javax.vecmath.Point3d;
 
+import java.io.File;
 import java.util.List;
 import java.util.Objects;
 import java.util.logging.Level;
@@ -60,9 +61,33 @@ public final class ChemUtil {
      * Logger of this class.
      */
     private static final Logger LOGGER = Logger.getLogger(ChemUtil.class.getName());
+    /**
+     * Cache of 2D layout coordinates shared by depiction and export.
+     */
+    private static final LayoutCoordinateCache LAYOUT_COORDINATE_CACHE = new LayoutCoordinateCache(BasicDefinitions.LAYOUT_COORDINATE_CACHE_MAX_NUMBER_OF_ENTRIES);
     //</editor-fold>
     //
     //<editor-fold defaultstate="collapsed" desc="Public static methods">
+    /**
+     * Returns the cache of 2D layout coordinates shared by depiction and export.
+     *
+     * @return LayoutCoordinateCache
+     */
+    public static LayoutCoordinateCache getLayoutCoordinateCache() {
+        return ChemUtil.LAYOUT_COORDINATE_CACHE;
+    }
+
+    /**
+     * Returns the file the layout coordinate cache is persisted in between sessions.
+     *
+     * @return layout coordinate cache file
+     * @throws SecurityException if the OS name is unknown, the AppData directory (Windows) or the user home directory
+     * path cannot be determined or data directory cannot be created
+     */
+    public static File getLayoutCoordinateCacheFile() throws SecurityException {
+        return new File(FileUtil.getCacheDirPath() + BasicDefinitions.LAYOUT_COORDINATE_CACHE_FILE_NAME);
+    }
+
     /**
      * Creates a unique SMILES string out of the given atom container or returns null, if the creation was not possible.
      * If the SMILES could not be created in the first place, it is retried with a kekulized clone of the given atom
@@ -87,7 +112,7 @@ public final class ChemUtil {
                 }
             }
         } catch (CDKException | NullPointerException | IllegalArgumentException | CloneNotSupportedException anException){
-            ChemUtil.LOGGER.log(Level.SEVERE, anException.toString() + "; molecule name: " + anAtomContainer.getProperty(Importer.MOLECULE_NAME_PROPERTY_KEY), anException);
+            LogUtil.logMoleculeException(ChemUtil.LOGGER, Level.SEVERE, anException, anAtomContainer.getProperty(Importer.MOLECULE_NAME_PROPERTY_KEY));
         }
         return tmpSmiles;
     }
@@ -154,8 +179,7 @@ public final class ChemUtil {
             IMolecularFormula tmpMolecularFormula = MolecularFormulaManipulator.getMolecularFormula(tmpAtomContainerClone);
             tmpMolecularFormulaString = MolecularFormulaManipulator.getString(tmpMolecularFormula);
         } catch (CloneNotSupportedException anException) {
-            ChemUtil.LOGGER.log(Level.WARNING, anException.toString() + " molecule name: "
-                    + anAtomContainer.getProperty(Importer.MOLECULE_NAME_PROPERTY_KEY), anException);
+            LogUtil.logMoleculeException(ChemUtil.LOGGER, Level.WARNING, anException, anAtomContainer.getProperty(Importer.MOLECULE_NAME_PROPERTY_KEY));
         }
         return tmpMolecularFormulaString;
     }
@@ -174,16 +198,7 @@ public final class ChemUtil {
             ChemUtil.LOGGER.log(Level.SEVERE, anException.toString() + "_" + aMolecule.getName(), anException);
             return false;
         }
-        boolean tmpHas3DCoords = true;
-        for(IAtom tmpAtom : tmpFragment.atoms()){
-            if(tmpAtom.getPoint3d() != null){
-                continue;
-            } else {
-                tmpHas3DCoords = false;
-                break;
-            }
-        }
-        return tmpHas3DCoords;
+        return ChemUtil.has3DCoordinates(tmpFragment);
     }
 
     /**
@@ -200,16 +215,7 @@ public final class ChemUtil {
             ChemUtil.LOGGER.log(Level.SEVERE, anException.toString() + "_" + aMolecule.getName(), anException);
             return false;
         }
-        boolean tmpHas2DCoords = true;
-        for(IAtom tmpAtom : tmpFragment.atoms()){
-            if(tmpAtom.getPoint2d() != null){
-                continue;
-            } else {
-                tmpHas2DCoords = false;
-                break;
-            }
-        }
-        return tmpHas2DCoords;
+        return ChemUtil.has2DCoordinates(tmpFragment);
     }
 
     /**
@@ -251,6 +257,64 @@ public final class ChemUtil {
         tmpStructureDiagramGenerator.generateCoordinates(aMolecule);
     }
 
+    /**
+     * Sets 2D coordinates for the atoms of the given molecule parsed from the given unique SMILES code. If a layout of
+     * the SMILES code is cached, its coordinates are reused, otherwise they are generated using the CDK
+     * StructureDiagramGenerator (see {@link #generate2DCoordinates(IAtomContainer)}) and put into the layout
+     * coordinate cache. Note that the given atom container is directly manipulated, not cloned.
+     *
+     * @param aMolecule the molecule to generate coordinates for, parsed from the given SMILES code
+     * @param aUniqueSmiles unique SMILES code of the molecule
+     * @throws NullPointerException if a parameter is null
+     * @throws CDKException if coordinates generation fails
+     */
+    public static void generate2DCoordinates(IAtomContainer aMolecule, String aUniqueSmiles) throws NullPointerException, CDKException {
+        Objects.requireNonNull(aMolecule, "Given molecule is null.");
+        Objects.requireNonNull(aUniqueSmiles, "Given SMILES code is null.");
+        if (aMolecule.isEmpty()) {
+            return;
+        }
+        if (ChemUtil.LAYOUT_COORDINATE_CACHE.applyCoordinates(aUniqueSmiles, aMolecule)) {
+            return;
+        }
+        ChemUtil.generate2DCoordinates(aMolecule);
+        ChemUtil.LAYOUT_COORDINATE_CACHE.putCoordinates(aUniqueSmiles, aMolecule);
+    }
+
+    /**
+     * Checks whether all atoms of the given atom container have 3D coordinates.
+     *
+     * @param anAtomContainer atom container to check
+     * @return true if no atom lacks 3D coordinates
+     * @throws NullPointerException if given atom container is null
+     */
+    public static boolean has3DCoordinates(IAtomContainer anAtomContainer) throws NullPointerException {
+        Objects.requireNonNull(anAtomContainer, "Given atom container is null.");
+        for (IAtom tmpAtom : anAtomContainer.atoms()) {
+            if (tmpAtom.getPoint3d() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether all atoms of the given atom container have 2D coordinates.
+     *
+     * @param anAtomContainer atom container to check
+     * @return true if no atom lacks 2D coordinates
+     * @throws NullPointerException if given atom container is null
+     */
+    public static boolean has2DCoordinates(IAtomContainer anAtomContainer) throws NullPointerException {
+        Objects.requireNonNull(anAtomContainer, "Given atom container is null.");
+        for (IAtom tmpAtom : anAtomContainer.atoms()) {
+            if (tmpAtom.getPoint2d() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Generates pseudo-3D coordinates for the atoms of the given molecule by retrieving their 2D coordinates and
      * setting z=0. Note that the given atm container is directly manipulated, not cloned.
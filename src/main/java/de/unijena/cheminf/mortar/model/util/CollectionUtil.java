@@ -23,92 +23,177 @@ package de.unijena.cheminf.mortar.model.util;
 import de.unijena.cheminf.mortar.model.data.FragmentDataModel;
 import de.unijena.cheminf.mortar.model.data.MoleculeDataModel;
 
-import java.util.Collections;
+import javafx.collections.ObservableList;
+
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
 
 /**
  * Util class for collections.
  *
  * @author Felix Baensch, Jonas Schaub
- * @version 1.0.1.0
+ * @version 1.0.2.0
  */
 public final class CollectionUtil {
+    //<editor-fold desc="private static final constants" defaultstate="collapsed">
+    /**
+     * Comparator for the absolute frequency of fragments in ascending order.
+     */
+    private static final Comparator<MoleculeDataModel> ABSOLUTE_FREQUENCY_COMPARATOR
+            = Comparator.comparingInt(aMolecule -> ((FragmentDataModel) aMolecule).getAbsoluteFrequency());
+    /**
+     * Comparator for the absolute percentage of fragments in ascending order.
+     */
+    private static final Comparator<MoleculeDataModel> ABSOLUTE_PERCENTAGE_COMPARATOR
+            = Comparator.comparingDouble(aMolecule -> ((FragmentDataModel) aMolecule).getAbsolutePercentage());
+    /**
+     * Comparator for the molecule frequency of fragments in ascending order.
+     */
+    private static final Comparator<MoleculeDataModel> MOLECULE_FREQUENCY_COMPARATOR
+            = Comparator.comparingInt(aMolecule -> ((FragmentDataModel) aMolecule).getMoleculeFrequency());
+    /**
+     * Comparator for the molecule percentage of fragments in ascending order.
+     */
+    private static final Comparator<MoleculeDataModel> MOLECULE_PERCENTAGE_COMPARATOR
+            = Comparator.comparingDouble(aMolecule -> ((FragmentDataModel) aMolecule).getMoleculePercentage());
+    /**
+     * Comparator for the name of molecules and fragments in ascending order.
+     */
+    private static final Comparator<MoleculeDataModel> NAME_COMPARATOR
+            = Comparator.comparing(MoleculeDataModel::getName, Comparator.nullsFirst(Comparator.naturalOrder()));
+    /**
+     * Comparator for the unique SMILES of molecules and fragments in ascending order.
+     */
+    private static final Comparator<MoleculeDataModel> UNIQUE_SMILES_COMPARATOR
+            = Comparator.comparing(MoleculeDataModel::getUniqueSmiles, Comparator.nullsFirst(Comparator.naturalOrder()));
+    /**
+     * Comparator for the name of the first parent molecule of fragments in ascending order.
+     */
+    private static final Comparator<MoleculeDataModel> PARENT_MOLECULE_NAME_COMPARATOR
+            = Comparator.comparing(aMolecule -> ((FragmentDataModel) aMolecule).getParentMoleculeName(),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+    /**
+     * Minimum number of elements for which a parallel sort is used.
+     */
+    private static final int PARALLEL_SORT_THRESHOLD = 10000;
+    //</editor-fold>
+    //
     //<editor-fold desc="public static methods" defaultstate="collapsed">
-    //TODO: check parameters, change params to enum values (and bools?), throw exceptions!
+    /**
+     * Returns the comparator for the given property and sort type. The comparators are created once and do not evaluate
+     * the property or sort type per comparison. The properties absoluteFrequency, absolutePercentage,
+     * moleculeFrequency, moleculePercentage, and parentMoleculeName are only available for fragments.
+     *
+     * @param aProperty name of the property to compare, i.e. the property name used in the table column
+     * @param aSortType "ASCENDING" or "DESCENDING"
+     * @return Comparator
+     * @throws NullPointerException if a parameter is null
+     * @throws IllegalArgumentException if the property or the sort type is unknown
+     */
+    public static Comparator<MoleculeDataModel> getComparatorByPropertyAndSortType(String aProperty, String aSortType)
+            throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(aProperty, "aProperty (instance of String) is null");
+        Objects.requireNonNull(aSortType, "aSortType (instance of String) is null");
+        Comparator<MoleculeDataModel> tmpComparator;
+        switch (aProperty) {
+            case "absoluteFrequency":
+                tmpComparator = CollectionUtil.ABSOLUTE_FREQUENCY_COMPARATOR;
+                break;
+            case "absolutePercentage":
+                tmpComparator = CollectionUtil.ABSOLUTE_PERCENTAGE_COMPARATOR;
+                break;
+            case "moleculeFrequency":
+                tmpComparator = CollectionUtil.MOLECULE_FREQUENCY_COMPARATOR;
+                break;
+            case "moleculePercentage":
+                tmpComparator = CollectionUtil.MOLECULE_PERCENTAGE_COMPARATOR;
+                break;
+            case "name":
+                tmpComparator = CollectionUtil.NAME_COMPARATOR;
+                break;
+            case "uniqueSmiles":
+                tmpComparator = CollectionUtil.UNIQUE_SMILES_COMPARATOR;
+                break;
+            case "parentMoleculeName":
+                tmpComparator = CollectionUtil.PARENT_MOLECULE_NAME_COMPARATOR;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown property to sort by: " + aProperty);
+        }
+        switch (aSortType) {
+            case "ASCENDING":
+                return tmpComparator;
+            case "DESCENDING":
+                return tmpComparator.reversed();
+            default:
+                throw new IllegalArgumentException("Unknown sort type: " + aSortType);
+        }
+    }
+    //
+    /**
+     * Returns a sorted copy of the given list as array. Large lists are sorted in parallel, the sort is stable.
+     *
+     * @param aList List to sort, is not changed
+     * @param aComparator Comparator to sort with
+     * @return sorted array containing the elements of the given list
+     * @throws NullPointerException if a parameter is null
+     */
+    public static MoleculeDataModel[] getSortedArray(List<? extends MoleculeDataModel> aList, Comparator<MoleculeDataModel> aComparator)
+            throws NullPointerException {
+        Objects.requireNonNull(aList, "aList (instance of List) is null");
+        Objects.requireNonNull(aComparator, "aComparator (instance of Comparator) is null");
+        MoleculeDataModel[] tmpArray = aList.toArray(new MoleculeDataModel[0]);
+        if (tmpArray.length >= CollectionUtil.PARALLEL_SORT_THRESHOLD) {
+            Arrays.parallelSort(tmpArray, aComparator);
+        } else {
+            Arrays.sort(tmpArray, aComparator);
+        }
+        return tmpArray;
+    }
+    //
+    /**
+     * Replaces the content of the given list with the content of the given array. Observable lists are updated with a
+     * single change.
+     *
+     * @param aList List to replace the content of
+     * @param anArray elements to set, must be of the same size as the list
+     * @throws NullPointerException if a parameter is null
+     * @throws IllegalArgumentException if list and array differ in size
+     */
+    public static void setListContent(List<? extends MoleculeDataModel> aList, MoleculeDataModel[] anArray)
+            throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(aList, "aList (instance of List) is null");
+        Objects.requireNonNull(anArray, "anArray (instance of MoleculeDataModel[]) is null");
+        if (aList.size() != anArray.length) {
+            throw new IllegalArgumentException("List and array differ in size.");
+        }
+        List<MoleculeDataModel> tmpList = (List<MoleculeDataModel>) aList;
+        if (tmpList instanceof ObservableList) {
+            ((ObservableList<MoleculeDataModel>) tmpList).setAll(anArray);
+        } else {
+            ListIterator<MoleculeDataModel> tmpIterator = tmpList.listIterator();
+            for (MoleculeDataModel tmpElement : anArray) {
+                tmpIterator.next();
+                tmpIterator.set(tmpElement);
+            }
+        }
+    }
+    //
     /**
      * Sorts given list by property and sort type.
      *
      * @param aList List
      * @param aProperty String
      * @param aSortType String
+     * @throws IllegalArgumentException if the property or the sort type is unknown
      */
-    public static void sortGivenFragmentListByPropertyAndSortType(List<? extends MoleculeDataModel> aList, String aProperty, String aSortType) {
-        Collections.sort(aList, (m1, m2) -> {
-            FragmentDataModel f1;
-            FragmentDataModel f2;
-            switch (aProperty) {
-                case "absoluteFrequency":
-                    f1 = (FragmentDataModel) m1;
-                    f2 = (FragmentDataModel) m2;
-                    switch (aSortType) {
-                        case "ASCENDING":
-                            return (Integer.compare(f1.getAbsoluteFrequency(), f2.getAbsoluteFrequency()));
-                        case "DESCENDING":
-                            return (f1.getAbsoluteFrequency() > f2.getAbsoluteFrequency() ? -1 : (f1.getAbsoluteFrequency() == f2.getAbsoluteFrequency() ? 0 : 1));
-                    }
-                case "absolutePercentage":
-                    f1 = (FragmentDataModel) m1;
-                    f2 = (FragmentDataModel) m2;
-                    switch (aSortType) {
-                        case "ASCENDING":
-                            return (Double.compare(f1.getAbsolutePercentage(), f2.getAbsolutePercentage()));
-                        case "DESCENDING":
-                            return (f1.getAbsolutePercentage() > f2.getAbsolutePercentage() ? -1 : (f1.getAbsolutePercentage() == f2.getAbsolutePercentage() ? 0 : 1));
-                    }
-                case "moleculeFrequency":
-                    f1 = (FragmentDataModel) m1;
-                    f2 = (FragmentDataModel) m2;
-                    switch (aSortType) {
-                        case "ASCENDING":
-                            return (Double.compare(f1.getMoleculeFrequency(), f2.getMoleculeFrequency()));
-                        case "DESCENDING":
-                            return (f1.getMoleculeFrequency() > f2.getMoleculeFrequency() ? -1 : (f1.getMoleculeFrequency() == f2.getMoleculeFrequency() ? 0 : 1));
-                    }
-                case "moleculePercentage":
-                    f1 = (FragmentDataModel) m1;
-                    f2 = (FragmentDataModel) m2;
-                    switch (aSortType) {
-                        case "ASCENDING":
-                            return (Double.compare(f1.getMoleculePercentage(), f2.getMoleculePercentage()));
-                        case "DESCENDING":
-                            return (f1.getMoleculePercentage() > f2.getMoleculePercentage() ? -1 : (f1.getMoleculePercentage() == f2.getMoleculePercentage() ? 0 : 1));
-                    }
-                case "name":
-                    switch (aSortType) {
-                        case "ASCENDING":
-                            return m1.getName().compareTo(m2.getName());
-                        case "DESCENDING":
-                            return m2.getName().compareTo(m1.getName());
-                    }
-                case "uniqueSmiles":
-                    switch (aSortType) {
-                        case "ASCENDING":
-                            return m1.getUniqueSmiles().compareTo(m2.getUniqueSmiles());
-                        case "DESCENDING":
-                            return m2.getUniqueSmiles().compareTo(m1.getUniqueSmiles());
-                    }
-                case "parentMoleculeName":
-                    f1 = (FragmentDataModel) m1;
-                    f2 = (FragmentDataModel) m2;
-                    switch (aSortType) {
-                        case "ASCENDING":
-                            return f1.getParentMoleculeName().compareTo(f2.getParentMoleculeName());
-                        case "DESCENDING":
-                            return f2.getParentMoleculeName().compareTo(f1.getParentMoleculeName());
-                    }
-            }
-            return 0;
-        });
+    public static void sortGivenFragmentListByPropertyAndSortType(List<? extends MoleculeDataModel> aList, String aProperty, String aSortType)
+            throws IllegalArgumentException {
+        Comparator<MoleculeDataModel> tmpComparator = CollectionUtil.getComparatorByPropertyAndSortType(aProperty, aSortType);
+        CollectionUtil.setListContent(aList, CollectionUtil.getSortedArray(aList, tmpComparator));
     }
     //
     /**
@@ -255,6 +255,18 @@ public final class FileUtil {
         return FileUtil.getAppDirPath() + File.separator + BasicDefinitions.SETTINGS_CONTAINER_FILE_DIRECTORY + File.separator;
     }
 
+    /**
+     * Returns the path to the folder where caches (layout coordinates, structure depictions) are persisted between
+     * sessions.
+     *
+     * @return cache folder path
+     * @throws SecurityException if the OS name is unknown, the AppData directory (Windows) or the user home directory
+     * path cannot be determined or data directory cannot be created
+     */
+    public static String getCacheDirPath() throws SecurityException {
+        return FileUtil.getAppDirPath() + File.separator + BasicDefinitions.CACHE_FILE_DIRECTORY + File.separator;
+    }
+
     /**
      * Returns a timestamp to add to a filename.
      *
@@ -0,0 +1,352 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.util;
+
+import org.openscience.cdk.exception.CDKException;
+import org.openscience.cdk.interfaces.IAtom;
+import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.cdk.smiles.SmiFlavor;
+import org.openscience.cdk.smiles.SmilesGenerator;
+
+import javax.vecmath.Point2d;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Least recently used cache of 2D layout coordinates, stored under the unique SMILES code of the laid out structure.
+ * The coordinates are stored in the canonical atom order of the unique SMILES code. Before they are applied to an atom
+ * container, its unique SMILES code is generated again together with the canonical atom order, so the coordinates are
+ * only reused for the identical structure and are mapped to its atoms independent of their order in the container,
+ * e.g. for atom containers kept from an imported file. This saves the expensive structure diagram generation when the
+ * same structure is depicted or exported again.
+ * The cache can be written to and read from a binary file to reuse the layouts in later sessions. All methods are
+ * synchronized, so the cache can be shared by the GUI thread and background threads.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class LayoutCoordinateCache {
+    //<editor-fold desc="private static final constants" defaultstate="collapsed">
+    /**
+     * Version of the binary file format, files with another version are ignored.
+     */
+    private static final int FILE_FORMAT_VERSION = 2;
+    /**
+     * Maximum number of bytes of a SMILES code written to file, longer SMILES codes are not persisted.
+     */
+    private static final int MAX_SMILES_BYTE_LENGTH = 65535;
+    /**
+     * Minimum number of bytes of an entry in the file, i.e. the length of an empty SMILES code and the number of
+     * coordinates.
+     */
+    private static final int MINIMUM_ENTRY_SIZE = Short.BYTES + Integer.BYTES;
+    //</editor-fold>
+    //
+    //<editor-fold desc="private class variables" defaultstate="collapsed">
+    /**
+     * Cached x and y coordinates of all atoms in access order, the first entry is the least recently used one.
+     */
+    private final LinkedHashMap<String, float[]> coordinateMap;
+    /**
+     * Maximum number of cached layouts.
+     */
+    private final int maxNumberOfEntries;
+    /**
+     * Whether the cache has been changed since it was last read from or written to file.
+     */
+    private boolean hasChanged;
+    /**
+     * Number of lookups that found matching coordinates.
+     */
+    private long hitCount;
+    /**
+     * Number of lookups that found no matching coordinates.
+     */
+    private long missCount;
+    //</editor-fold>
+    //
+    /**
+     * Constructor, creates an empty cache that holds at most the given number of layouts.
+     *
+     * @param aMaxNumberOfEntries maximum number of cached layouts
+     * @throws IllegalArgumentException if the maximum number of entries is not positive
+     */
+    public LayoutCoordinateCache(int aMaxNumberOfEntries) throws IllegalArgumentException {
+        if (aMaxNumberOfEntries <= 0) {
+            throw new IllegalArgumentException("aMaxNumberOfEntries must be positive.");
+        }
+        this.maxNumberOfEntries = aMaxNumberOfEntries;
+        this.coordinateMap = new LinkedHashMap<>(16, BasicDefinitions.DEFAULT_HASH_COLLECTION_LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, float[]> anEldestEntry) {
+                return this.size() > LayoutCoordinateCache.this.maxNumberOfEntries;
+            }
+        };
+        this.hasChanged = false;
+        this.hitCount = 0L;
+        this.missCount = 0L;
+    }
+    //
+    //<editor-fold desc="public methods" defaultstate="collapsed">
+    /**
+     * Sets the cached 2D coordinates of the given unique SMILES code on the atoms of the given atom container. Nothing
+     * is done if no coordinates are cached for the SMILES code or if the unique SMILES code of the atom container does
+     * not match the given one, i.e. it represents another structure.
+     *
+     * @param aUniqueSmiles unique SMILES code the atom container was parsed from
+     * @param anAtomContainer atom container to set the coordinates on
+     * @return true if the coordinates were applied
+     * @throws NullPointerException if a parameter is null
+     */
+    public boolean applyCoordinates(String aUniqueSmiles, IAtomContainer anAtomContainer) throws NullPointerException {
+        Objects.requireNonNull(aUniqueSmiles, "aUniqueSmiles (instance of String) is null");
+        Objects.requireNonNull(anAtomContainer, "anAtomContainer (instance of IAtomContainer) is null");
+        float[] tmpCoordinates;
+        synchronized (this) {
+            tmpCoordinates = this.coordinateMap.get(aUniqueSmiles);
+        }
+        int[] tmpCanonicalOrder = null;
+        if (tmpCoordinates != null && tmpCoordinates.length == 2 * anAtomContainer.getAtomCount()) {
+            tmpCanonicalOrder = LayoutCoordinateCache.getCanonicalAtomOrder(aUniqueSmiles, anAtomContainer);
+        }
+        synchronized (this) {
+            if (tmpCanonicalOrder == null) {
+                this.missCount++;
+                return false;
+            }
+            this.hitCount++;
+        }
+        int tmpAtomIndex = 0;
+        for (IAtom tmpAtom : anAtomContainer.atoms()) {
+            int tmpIndex = 2 * tmpCanonicalOrder[tmpAtomIndex];
+            tmpAtom.setPoint2d(new Point2d(tmpCoordinates[tmpIndex], tmpCoordinates[tmpIndex + 1]));
+            tmpAtomIndex++;
+        }
+        return true;
+    }
+    //
+    /**
+     * Puts the 2D coordinates of the atoms of the given atom container into the cache. Nothing is done if at least
+     * one atom has no 2D coordinates or if the unique SMILES code of the atom container does not match the given one.
+     *
+     * @param aUniqueSmiles unique SMILES code the atom container was parsed from
+     * @param anAtomContainer atom container with 2D coordinates
+     * @throws NullPointerException if a parameter is null
+     */
+    public void putCoordinates(String aUniqueSmiles, IAtomContainer anAtomContainer) throws NullPointerException {
+        Objects.requireNonNull(aUniqueSmiles, "aUniqueSmiles (instance of String) is null");
+        Objects.requireNonNull(anAtomContainer, "anAtomContainer (instance of IAtomContainer) is null");
+        int[] tmpCanonicalOrder = LayoutCoordinateCache.getCanonicalAtomOrder(aUniqueSmiles, anAtomContainer);
+        if (tmpCanonicalOrder == null) {
+            return;
+        }
+        float[] tmpCoordinates = new float[2 * anAtomContainer.getAtomCount()];
+        int tmpAtomIndex = 0;
+        for (IAtom tmpAtom : anAtomContainer.atoms()) {
+            Point2d tmpPoint = tmpAtom.getPoint2d();
+            if (tmpPoint == null) {
+                return;
+            }
+            int tmpIndex = 2 * tmpCanonicalOrder[tmpAtomIndex];
+            tmpCoordinates[tmpIndex] = (float) tmpPoint.x;
+            tmpCoordinates[tmpIndex + 1] = (float) tmpPoint.y;
+            tmpAtomIndex++;
+        }
+        synchronized (this) {
+            this.coordinateMap.put(aUniqueSmiles, tmpCoordinates);
+            this.hasChanged = true;
+        }
+    }
+    //
+    /**
+     * Removes all layouts from the cache.
+     */
+    public synchronized void clear() {
+        this.hasChanged = this.hasChanged || !this.coordinateMap.isEmpty();
+        this.coordinateMap.clear();
+    }
+    //
+    /**
+     * Reads the layouts persisted in the given file and adds them to the cache; layouts already in the cache are kept.
+     * Nothing is done if the file does not exist. Files written in another file format version are ignored and the
+     * cache is marked as changed so that the file is overwritten on the next write. The numbers of entries and
+     * coordinates read are checked against the remaining file size, so a truncated or corrupt file causes an
+     * IOException instead of huge or negative array sizes; the entries read before are kept.
+     *
+     * @param aFile file written by {@link #writeToFile(File)}
+     * @throws NullPointerException if the given file is null
+     * @throws IOException if the file cannot be read or is corrupt
+     */
+    public void readFromFile(File aFile) throws NullPointerException, IOException {
+        Objects.requireNonNull(aFile, "aFile (instance of File) is null");
+        if (!aFile.isFile()) {
+            return;
+        }
+        try (DataInputStream tmpInputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(aFile), BasicDefinitions.BUFFER_SIZE))) {
+            int tmpVersion = tmpInputStream.readInt();
+            if (tmpVersion != LayoutCoordinateCache.FILE_FORMAT_VERSION) {
+                synchronized (this) {
+                    this.hasChanged = true;
+                }
+                return;
+            }
+            //upper bound of the bytes not read yet, every character of a SMILES code takes at least one byte
+            long tmpRemainingBytes = aFile.length() - 2L * Integer.BYTES;
+            int tmpNumberOfEntries = tmpInputStream.readInt();
+            if (tmpNumberOfEntries < 0 || tmpNumberOfEntries > tmpRemainingBytes / LayoutCoordinateCache.MINIMUM_ENTRY_SIZE) {
+                throw new IOException("Corrupt layout coordinate cache file, invalid number of entries: " + tmpNumberOfEntries);
+            }
+            for (int i = 0; i < tmpNumberOfEntries; i++) {
+                String tmpSmiles = tmpInputStream.readUTF();
+                int tmpNumberOfCoordinates = tmpInputStream.readInt();
+                tmpRemainingBytes -= LayoutCoordinateCache.MINIMUM_ENTRY_SIZE + tmpSmiles.length();
+                if (tmpNumberOfCoordinates < 0 || tmpNumberOfCoordinates > tmpRemainingBytes / Float.BYTES) {
+                    throw new IOException("Corrupt layout coordinate cache file, invalid number of coordinates: " + tmpNumberOfCoordinates);
+                }
+                tmpRemainingBytes -= (long) tmpNumberOfCoordinates * Float.BYTES;
+                float[] tmpCoordinates = new float[tmpNumberOfCoordinates];
+                for (int j = 0; j < tmpCoordinates.length; j++) {
+                    tmpCoordinates[j] = tmpInputStream.readFloat();
+                }
+                synchronized (this) {
+                    //entries put in the meantime are more recent than the persisted ones
+                    this.coordinateMap.putIfAbsent(tmpSmiles, tmpCoordinates);
+                }
+            }
+        }
+    }
+    //
+    /**
+     * Writes all cached layouts to the given file, the file is overwritten if it exists. Layouts of SMILES codes that
+     * are too long for the file format are left out.
+     *
+     * @param aFile file to write to
+     * @throws NullPointerException if the given file is null
+     * @throws IOException if the file cannot be written
+     */
+    public void writeToFile(File aFile) throws NullPointerException, IOException {
+        Objects.requireNonNull(aFile, "aFile (instance of File) is null");
+        List<Map.Entry<String, float[]>> tmpEntryList;
+        synchronized (this) {
+            tmpEntryList = new ArrayList<>(this.coordinateMap.size());
+            for (Map.Entry<String, float[]> tmpEntry : this.coordinateMap.entrySet()) {
+                if (tmpEntry.getKey().getBytes(StandardCharsets.UTF_8).length <= LayoutCoordinateCache.MAX_SMILES_BYTE_LENGTH) {
+                    tmpEntryList.add(Map.entry(tmpEntry.getKey(), tmpEntry.getValue()));
+                }
+            }
+            this.hasChanged = false;
+        }
+        File tmpParentDirectory = aFile.getParentFile();
+        if (tmpParentDirectory != null && !tmpParentDirectory.isDirectory() && !tmpParentDirectory.mkdirs()) {
+            throw new IOException("Unable to create directory " + tmpParentDirectory.getPath() + ".");
+        }
+        try (DataOutputStream tmpOutputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(aFile), BasicDefinitions.BUFFER_SIZE))) {
+            tmpOutputStream.writeInt(LayoutCoordinateCache.FILE_FORMAT_VERSION);
+            tmpOutputStream.writeInt(tmpEntryList.size());
+            for (Map.Entry<String, float[]> tmpEntry : tmpEntryList) {
+                tmpOutputStream.writeUTF(tmpEntry.getKey());
+                float[] tmpCoordinates = tmpEntry.getValue();
+                tmpOutputStream.writeInt(tmpCoordinates.length);
+                for (float tmpCoordinate : tmpCoordinates) {
+                    tmpOutputStream.writeFloat(tmpCoordinate);
+                }
+            }
+        }
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="private static methods" defaultstate="collapsed">
+    /**
+     * Generates the unique SMILES code of the given atom container and returns the position of each of its atoms in
+     * the canonical atom order of the SMILES code, i.e. in the order of an atom container parsed from it. Null is
+     * returned if the generated SMILES code differs from the given one or cannot be generated.
+     *
+     * @param aUniqueSmiles expected unique SMILES code of the atom container
+     * @param anAtomContainer atom container
+     * @return canonical position of each atom in the order of the atom container or null
+     */
+    private static int[] getCanonicalAtomOrder(String aUniqueSmiles, IAtomContainer anAtomContainer) {
+        int[] tmpCanonicalOrder = new int[anAtomContainer.getAtomCount()];
+        try {
+            //same flavor as in ChemUtil.createUniqueSmiles()
+            SmilesGenerator tmpSmilesGenerator = new SmilesGenerator(SmiFlavor.Unique | SmiFlavor.UseAromaticSymbols);
+            if (!aUniqueSmiles.equals(tmpSmilesGenerator.create(anAtomContainer, tmpCanonicalOrder))) {
+                return null;
+            }
+        } catch (CDKException | IllegalArgumentException anException) {
+            //the structure is laid out without the cache
+            return null;
+        }
+        return tmpCanonicalOrder;
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="public properties" defaultstate="collapsed">
+    /**
+     * Returns the number of cached layouts.
+     *
+     * @return number of cached layouts
+     */
+    public synchronized int size() {
+        return this.coordinateMap.size();
+    }
+    //
+    /**
+     * Returns whether the cache has been changed since it was last written to file.
+     *
+     * @return true if there are layouts that have not been persisted yet
+     */
+    public synchronized boolean hasChanged() {
+        return this.hasChanged;
+    }
+    //
+    /**
+     * Returns the number of lookups that found matching coordinates.
+     *
+     * @return number of cache hits
+     */
+    public synchronized long getHitCount() {
+        return this.hitCount;
+    }
+    //
+    /**
+     * Returns the number of lookups that found no matching coordinates.
+     *
+     * @return number of cache misses
+     */
+    public synchronized long getMissCount() {
+        return this.missCount;
+    }
+    //</editor-fold>
+}
@@ -40,6 +40,7 @@ import java.util.logging.FileHandler;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 import java.util.logging.SimpleFormatter;
 
@@ -101,10 +102,15 @@ public final class LogUtil {
     //
     //<editor-fold defaultstate="collapsed" desc="Private static class variables">
     /**
-     * File handler added to the root logger
+     * File handler the log records are written to by the asynchronous log handler
      */
     private static FileHandler fileHandler;
 
+    /**
+     * Asynchronous log handler added to the root logger
+     */
+    private static AsyncLogHandler asyncLogHandler;
+
     /**
      * Log file that is currently logged in
      */
@@ -119,7 +125,8 @@ public final class LogUtil {
     //<editor-fold defaultstate="collapsed" desc="Public static synchronized methods">
     /**
      * Configures the root logger called by all other loggers in the application not to print to console but to write
-     * all logs to the log file specified in preferences. Also logs session start and sets as
+     * all logs to the log file specified in preferences. The logs are written by a background thread in batches and
+     * repeated exceptions are aggregated, see {@link AsyncLogHandler}. Also logs session start and sets as
      * default uncaught exception handler for the main JavaFX GUI thread an object calling the root logger upon invocation. This method
      * should be invoked once upon starting the application. Then logging can be done by the individual class loggers
      * that will pass their logging messages to the root logger as default.
@@ -160,8 +167,8 @@ public final class LogUtil {
             }
             LogUtil.logFile = tmpLogFile;
             LogUtil.fileHandler = new FileHandler(tmpFinalLogFilePathName, true);
-            LogUtil.fileHandler.setFormatter(new SimpleFormatter());
-            LogUtil.ROOT_LOGGER.addHandler(LogUtil.fileHandler);
+            LogUtil.asyncLogHandler = new AsyncLogHandler(LogUtil.fileHandler, new SimpleFormatter());
+            LogUtil.ROOT_LOGGER.addHandler(LogUtil.asyncLogHandler);
             //sets the uncaught exception handler configured above as default for this thread (the main/JavaFX thread)
             Thread.setDefaultUncaughtExceptionHandler(LogUtil.UNCAUGHT_EXCEPTION_HANDLER);
             //exceptions that occurred during managing log files at start up are logged now
@@ -192,11 +199,12 @@ public final class LogUtil {
             if (Objects.isNull(LogUtil.logFile) || !LogUtil.logFile.isFile()) {
                 return false;
             }
-            if (Objects.isNull(LogUtil.fileHandler)) {
+            if (Objects.isNull(LogUtil.asyncLogHandler)) {
                 return false;
             }
-            LogUtil.fileHandler.flush();
-            LogUtil.fileHandler.close();
+            //writes the queued records and closes the file handler
+            LogUtil.ROOT_LOGGER.removeHandler(LogUtil.asyncLogHandler);
+            LogUtil.asyncLogHandler.close();
             boolean tmpFileWasDeleted = FileUtil.deleteSingleFile(LogUtil.logFile.getAbsolutePath());
             if (tmpFileWasDeleted) {
                 boolean tmpWasLogEnvInitialized = LogUtil.initializeLoggingEnvironment();
@@ -215,6 +223,33 @@ public final class LogUtil {
     // </editor-fold>
     //
     //<editor-fold defaultstate="collapsed" desc="Public static methods">
+    /**
+     * Logs the given exception that occurred while processing the molecule with the given name. Repeated exceptions of
+     * the same type are only written with stack trace for the first molecules and then aggregated into summary lines
+     * giving some of the molecule names as samples, see {@link AsyncLogHandler}.
+     *
+     * @param aLogger logger of the class the exception occurred in
+     * @param aLevel level of the log record
+     * @param anException exception to log
+     * @param aMoleculeName name of the molecule, may be null
+     * @throws NullPointerException if the logger, level, or exception is null
+     */
+    public static void logMoleculeException(Logger aLogger, Level aLevel, Exception anException, String aMoleculeName)
+            throws NullPointerException {
+        Objects.requireNonNull(aLogger, "aLogger (instance of Logger) is null");
+        Objects.requireNonNull(aLevel, "aLevel (instance of Level) is null");
+        Objects.requireNonNull(anException, "anException (instance of Exception) is null");
+        if (!aLogger.isLoggable(aLevel)) {
+            return;
+        }
+        MoleculeLogRecord tmpRecord = new MoleculeLogRecord(aLevel, anException.toString() + "; molecule name: "
+                + aMoleculeName, aMoleculeName);
+        tmpRecord.setThrown(anException);
+        tmpRecord.setLoggerName(aLogger.getName());
+        tmpRecord.setSourceClassName(aLogger.getName());
+        aLogger.log(tmpRecord);
+    }
+    //
     /**
      * Manages the folder in which the log files get saved if it exists.
      * If the folder contains more *.txt files than a specific limit or a minimum of *.txt files while exceeding a maximum
@@ -318,5 +353,48 @@ public final class LogUtil {
     public static Thread.UncaughtExceptionHandler getUncaughtExceptionHandler() {
         return LogUtil.UNCAUGHT_EXCEPTION_HANDLER;
     }
+    //
+    /**
+     * Returns the number of log records waiting to be written to the log file.
+     *
+     * @return number of queued log records, 0 if the logging environment is not initialised
+     */
+    public static int getLogQueueSize() {
+        AsyncLogHandler tmpHandler = LogUtil.asyncLogHandler;
+        return tmpHandler == null ? 0 : tmpHandler.getQueueSize();
+    }
+    //</editor-fold>
+    //
+    //<editor-fold desc="static class MoleculeLogRecord" defaultstate="collapsed">
+    /**
+     * Log record of an exception that occurred while processing a molecule, holding the name of the molecule.
+     */
+    static final class MoleculeLogRecord extends LogRecord {
+        /**
+         * Name of the molecule, may be null.
+         */
+        private final String moleculeName;
+        //
+        /**
+         * Constructor.
+         *
+         * @param aLevel level of the record
+         * @param aMessage message of the record
+         * @param aMoleculeName name of the molecule, may be null
+         */
+        private MoleculeLogRecord(Level aLevel, String aMessage, String aMoleculeName) {
+            super(aLevel, aMessage);
+            this.moleculeName = aMoleculeName;
+        }
+        //
+        /**
+         * Returns the name of the molecule.
+         *
+         * @return molecule name, may be null
+         */
+        String getMoleculeName() {
+            return this.moleculeName;
+        }
+    }
     //</editor-fold>
 }
@@ -0,0 +1,66 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+
+/**
+ * Test class for MoleculeSelectionModel.
+ */
+public class MoleculeSelectionModelTest {
+    /**
+     * Tests that registered molecules delegate their selection state to the shared model and that the running count
+     * is kept correct through single changes, select all, deselect all and invert.
+     */
+    @Test
+    public void testSelectionModelBasics() {
+        MoleculeSelectionModel tmpSelectionModel = new MoleculeSelectionModel();
+        MoleculeDataModel[] tmpMolecules = new MoleculeDataModel[5];
+        for (int i = 0; i < tmpMolecules.length; i++) {
+            tmpMolecules[i] = new MoleculeDataModel("CCO", "Molecule" + i, new HashMap<>());
+        }
+        tmpMolecules[4].setSelection(false);
+        for (MoleculeDataModel tmpMolecule : tmpMolecules) {
+            tmpSelectionModel.register(tmpMolecule);
+        }
+        Assertions.assertEquals(5, tmpSelectionModel.size());
+        Assertions.assertEquals(4, tmpSelectionModel.getSelectedCount());
+        Assertions.assertFalse(tmpMolecules[4].isSelected());
+        tmpMolecules[0].setSelection(false);
+        tmpMolecules[0].setSelection(false);
+        Assertions.assertEquals(3, tmpSelectionModel.getSelectedCount());
+        Assertions.assertFalse(tmpSelectionModel.isSelected(0));
+        tmpSelectionModel.invertSelection();
+        Assertions.assertEquals(2, tmpSelectionModel.getSelectedCount());
+        Assertions.assertTrue(tmpMolecules[0].isSelected());
+        Assertions.assertTrue(tmpMolecules[4].isSelected());
+        Assertions.assertFalse(tmpMolecules[1].isSelected());
+        tmpSelectionModel.selectAll();
+        Assertions.assertTrue(tmpSelectionModel.isAllSelected());
+        tmpSelectionModel.clearSelection();
+        Assertions.assertEquals(0, tmpSelectionModel.getSelectedCount());
+        Assertions.assertFalse(tmpMolecules[2].isSelected());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tmpSelectionModel.register(tmpMolecules[0]));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.depict;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the DepictionCache class.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class DepictionCacheTest {
+    /**
+     * Tests that the least recently used images are removed if the pixel budget is exceeded and that images larger
+     * than the whole budget are not cached.
+     */
+    @Test
+    public void pixelBudgetTest() {
+        DepictionCache tmpCache = new DepictionCache(1000L);
+        for (int i = 0; i < 10; i++) {
+            tmpCache.put("Key " + i, new WritableImage(10, 10));
+        }
+        Assertions.assertEquals(10, tmpCache.size());
+        Assertions.assertEquals(1000L, tmpCache.getPixelCount());
+        //marks the first image as most recently used
+        Assertions.assertNotNull(tmpCache.get("Key 0"));
+        tmpCache.put("Key 10", new WritableImage(10, 10));
+        Assertions.assertEquals(10, tmpCache.size());
+        Assertions.assertNotNull(tmpCache.get("Key 0"));
+        Assertions.assertNull(tmpCache.get("Key 1"));
+        Assertions.assertNotNull(tmpCache.get("Key 10"));
+        tmpCache.put("Too large", new WritableImage(40, 40));
+        Assertions.assertNull(tmpCache.get("Too large"));
+        Assertions.assertEquals(1000L, tmpCache.getPixelCount());
+        Assertions.assertEquals(3L, tmpCache.getHitCount());
+        Assertions.assertEquals(2L, tmpCache.getMissCount());
+        tmpCache.clear();
+        Assertions.assertEquals(0, tmpCache.size());
+        Assertions.assertEquals(0L, tmpCache.getPixelCount());
+    }
+    //
+    /**
+     * Tests that replacing an image under the same key updates the pixel count and that computeIfAbsent only creates
+     * missing images.
+     */
+    @Test
+    public void replaceAndComputeIfAbsentTest() {
+        DepictionCache tmpCache = new DepictionCache(1000L);
+        tmpCache.put("Key", new WritableImage(10, 10));
+        tmpCache.put("Key", new WritableImage(20, 10));
+        Assertions.assertEquals(1, tmpCache.size());
+        Assertions.assertEquals(200L, tmpCache.getPixelCount());
+        Image tmpImage = tmpCache.get("Key");
+        Assertions.assertSame(tmpImage, tmpCache.computeIfAbsent("Key", () -> {
+            throw new AssertionError("Cached image is created again.");
+        }));
+        Image tmpNewImage = tmpCache.computeIfAbsent("New key", () -> new WritableImage(10, 10));
+        Assertions.assertSame(tmpNewImage, tmpCache.get("New key"));
+    }
+    //
+    /**
+     * Tests that peek and contains lookups are not counted as hits or misses and that only peek marks an image as most
+     * recently used.
+     */
+    @Test
+    public void uncountedLookupTest() {
+        DepictionCache tmpCache = new DepictionCache(200L);
+        tmpCache.put("Key 0", new WritableImage(10, 10));
+        tmpCache.put("Key 1", new WritableImage(10, 10));
+        Assertions.assertTrue(tmpCache.contains("Key 0"));
+        Assertions.assertFalse(tmpCache.contains("Missing key"));
+        Assertions.assertNull(tmpCache.peek("Missing key"));
+        Assertions.assertEquals(0L, tmpCache.getHitCount());
+        Assertions.assertEquals(0L, tmpCache.getMissCount());
+        //contains does not change the order, so the first image is removed
+        tmpCache.put("Key 2", new WritableImage(10, 10));
+        Assertions.assertFalse(tmpCache.contains("Key 0"));
+        //peek marks the second image as most recently used, so the third one is removed
+        Assertions.assertNotNull(tmpCache.peek("Key 1"));
+        tmpCache.put("Key 3", new WritableImage(10, 10));
+        Assertions.assertTrue(tmpCache.contains("Key 1"));
+        Assertions.assertFalse(tmpCache.contains("Key 2"));
+        Assertions.assertEquals(0L, tmpCache.getHitCount());
+        Assertions.assertEquals(0L, tmpCache.getMissCount());
+    }
+    //
+    /**
+     * Tests that keys differ for all depiction parameters.
+     */
+    @Test
+    public void createKeyTest() {
+        String tmpKey = DepictionCache.createKey("CCO", 1.0, 300.0, 50.0, true, false);
+        Assertions.assertEquals(tmpKey, DepictionCache.createKey("CCO", 1.0, 300.0, 50.0, true, false));
+        Assertions.assertNotEquals(tmpKey, DepictionCache.createKey("CCO", 2.0, 300.0, 50.0, true, false));
+        Assertions.assertNotEquals(tmpKey, DepictionCache.createKey("CCO", 1.0, 310.0, 50.0, true, false));
+        Assertions.assertNotEquals(tmpKey, DepictionCache.createKey("CCO", 1.0, 300.0, 55.0, true, false));
+        Assertions.assertNotEquals(tmpKey, DepictionCache.createKey("CCO", 1.0, 300.0, 50.0, false, false));
+        Assertions.assertNotEquals(tmpKey, DepictionCache.createKey("CCO", 1.0, 300.0, 50.0, true, true));
+        Assertions.assertNotEquals(tmpKey, DepictionCache.createKey("CCN", 1.0, 300.0, 50.0, true, false));
+    }
+}
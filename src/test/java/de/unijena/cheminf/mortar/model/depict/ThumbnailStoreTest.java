@@ -0,0 +1,114 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.depict;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+/**
+ * Test class for the ThumbnailStore class.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class ThumbnailStoreTest {
+    /**
+     * Tests that stored depictions are found again after the store was closed and reopened and that a truncated last
+     * entry is removed when the pack file is opened.
+     *
+     * @throws IOException if the pack file cannot be written or read
+     */
+    @Test
+    public void persistenceTest() throws IOException {
+        File tmpPackFile = Files.createTempFile("mortar_thumbnail_store_test", ".pack").toFile();
+        try {
+            ThumbnailStore tmpStore = new ThumbnailStore(tmpPackFile, 1048576L);
+            for (int i = 0; i < 10; i++) {
+                tmpStore.put("C".repeat(i + 1), new BufferedImage(20, 20, BufferedImage.TYPE_INT_ARGB));
+            }
+            tmpStore.close(10000L);
+            tmpStore = new ThumbnailStore(tmpPackFile, 1048576L);
+            Assertions.assertEquals(10, tmpStore.size());
+            for (int i = 0; i < 10; i++) {
+                Assertions.assertNotNull(tmpStore.getPngBytes("C".repeat(i + 1)));
+            }
+            Assertions.assertNull(tmpStore.getPngBytes("N"));
+            tmpStore.close(10000L);
+            try (RandomAccessFile tmpFile = new RandomAccessFile(tmpPackFile, "rw")) {
+                tmpFile.setLength(tmpFile.length() - 1);
+            }
+            tmpStore = new ThumbnailStore(tmpPackFile, 1048576L);
+            Assertions.assertEquals(9, tmpStore.size());
+            Assertions.assertNull(tmpStore.getPngBytes("C".repeat(10)));
+            tmpStore.close(10000L);
+        } finally {
+            Files.deleteIfExists(tmpPackFile.toPath());
+        }
+    }
+    //
+    /**
+     * Tests that the pack file is compacted to its size limit with the most recently used depictions, also for keys
+     * with characters that take more than one byte in the file.
+     *
+     * @throws IOException if the pack file cannot be written or read
+     */
+    @Test
+    public void compactionTest() throws IOException {
+        File tmpPackFile = Files.createTempFile("mortar_thumbnail_store_test", ".pack").toFile();
+        try {
+            long tmpMaxNumberOfBytes = 8192L;
+            ThumbnailStore tmpStore = new ThumbnailStore(tmpPackFile, tmpMaxNumberOfBytes);
+            for (int i = 0; i < 200; i++) {
+                tmpStore.put("\u00e4\u00f6\u00fc".repeat(20) + i, new BufferedImage(20, 20, BufferedImage.TYPE_INT_ARGB));
+            }
+            tmpStore.close(10000L);
+            Assertions.assertTrue(tmpPackFile.length() <= tmpMaxNumberOfBytes);
+            tmpStore = new ThumbnailStore(tmpPackFile, tmpMaxNumberOfBytes);
+            Assertions.assertTrue(tmpStore.size() > 0 && tmpStore.size() < 200);
+            Assertions.assertNotNull(tmpStore.getPngBytes("\u00e4\u00f6\u00fc".repeat(20) + 199));
+            Assertions.assertNull(tmpStore.getPngBytes("\u00e4\u00f6\u00fc".repeat(20) + 0));
+            tmpStore.clear();
+            Assertions.assertEquals(0, tmpStore.size());
+            Assertions.assertEquals(Integer.BYTES, tmpPackFile.length());
+            tmpStore.close(10000L);
+        } finally {
+            Files.deleteIfExists(tmpPackFile.toPath());
+        }
+    }
+    //
+    /**
+     * Tests that depictions of slightly different sizes share a key while other sizes and parameters do not.
+     */
+    @Test
+    public void createKeyTest() {
+        String tmpKey = ThumbnailStore.createKey("CCO", 1.0, 300.0, 50.0, true, false);
+        Assertions.assertEquals(tmpKey, ThumbnailStore.createKey("CCO", 1.0, 310.0, 55.0, true, false));
+        Assertions.assertNotEquals(tmpKey, ThumbnailStore.createKey("CCO", 1.0, 400.0, 50.0, true, false));
+        Assertions.assertNotEquals(tmpKey, ThumbnailStore.createKey("CCO", 1.0, 300.0, 50.0, false, false));
+        Assertions.assertNotEquals(tmpKey, ThumbnailStore.createKey("CCN", 1.0, 300.0, 50.0, true, false));
+    }
+}
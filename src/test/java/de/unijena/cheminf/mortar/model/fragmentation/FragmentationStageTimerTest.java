@@ -0,0 +1,61 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.fragmentation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the FragmentationStageTimer class.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class FragmentationStageTimerTest {
+    /**
+     * Tests that the samples of two merged timers are counted and summed up and that the percentiles lie within the
+     * relative error of the histogram buckets.
+     */
+    @Test
+    public void mergeAndPercentileTest() {
+        FragmentationStageTimer tmpFirstTimer = new FragmentationStageTimer();
+        FragmentationStageTimer tmpSecondTimer = new FragmentationStageTimer();
+        long tmpTotalTime = 0;
+        for (int i = 1; i <= 10000; i++) {
+            long tmpTime = i * 1000L;
+            (i % 2 == 0 ? tmpFirstTimer : tmpSecondTimer).addSample(FragmentationStageTimer.Stage.FRAGMENTATION, tmpTime);
+            tmpTotalTime += tmpTime;
+        }
+        tmpFirstTimer.merge(tmpSecondTimer);
+        Assertions.assertEquals(10000, tmpFirstTimer.getCount(FragmentationStageTimer.Stage.FRAGMENTATION));
+        Assertions.assertEquals(tmpTotalTime, tmpFirstTimer.getTotalTime(FragmentationStageTimer.Stage.FRAGMENTATION));
+        Assertions.assertEquals(10000000L, tmpFirstTimer.getMaxTime(FragmentationStageTimer.Stage.FRAGMENTATION));
+        Assertions.assertEquals(0, tmpFirstTimer.getCount(FragmentationStageTimer.Stage.PREPROCESSING));
+        double[] tmpPercentiles = new double[]{50.0, 90.0, 99.0};
+        for (double tmpPercentile : tmpPercentiles) {
+            double tmpExpectedTime = tmpPercentile * 100000.0;
+            long tmpPercentileTime = tmpFirstTimer.getPercentileTime(FragmentationStageTimer.Stage.FRAGMENTATION, tmpPercentile);
+            Assertions.assertEquals(tmpExpectedTime, tmpPercentileTime, tmpExpectedTime * 0.07);
+        }
+        Assertions.assertEquals(0L, tmpFirstTimer.getPercentileTime(FragmentationStageTimer.Stage.PREPROCESSING, 50.0));
+        System.out.println(tmpFirstTimer.createReport("Test", 10000, tmpTotalTime / 4));
+    }
+}
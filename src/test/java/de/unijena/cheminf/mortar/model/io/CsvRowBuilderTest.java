@@ -0,0 +1,90 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.io;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Test class for the CsvRowBuilder class.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class CsvRowBuilderTest {
+    /**
+     * Static initializer to set default locale to british english, so that the decimal separator is known.
+     */
+    static {
+        Locale.setDefault(new Locale("en", "GB"));
+    }
+    //
+    /**
+     * Tests that decimals are formatted exactly like String.format() formats them, including ties, negative zero,
+     * large values, and random percentages.
+     */
+    @Test
+    public void appendDecimalTest() {
+        double[] tmpValues = new double[]{0.0, -0.0, 0.0005, 1.0005, 0.15, 2.675, 99.9995, 100.0, 12345678.9876,
+                1.0e12, -3.14159, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 1.0 / 3.0};
+        for (double tmpValue : tmpValues) {
+            for (int tmpDecimalPlaces = 0; tmpDecimalPlaces <= 3; tmpDecimalPlaces++) {
+                this.assertSameAsFormat(tmpValue, tmpDecimalPlaces);
+            }
+        }
+        Random tmpRandom = new Random(42L);
+        for (int i = 0; i < 100000; i++) {
+            double tmpPercentage = tmpRandom.nextInt(100000) / (double) (tmpRandom.nextInt(100000) + 1) * 100.0;
+            this.assertSameAsFormat(tmpPercentage, 2);
+            this.assertSameAsFormat(tmpPercentage, 3);
+        }
+    }
+    //
+    /**
+     * Tests that a row is built from text, separators, integers, and decimals.
+     */
+    @Test
+    public void buildRowTest() {
+        CsvRowBuilder tmpRowBuilder = new CsvRowBuilder(";", 16);
+        tmpRowBuilder.appendText("c1ccccc1").appendSeparator().appendInteger(-42).appendSeparator()
+                .appendDecimal(12.3456, 3).endRow();
+        Assertions.assertEquals("c1ccccc1;-42;12.346\n", tmpRowBuilder.getContent().toString());
+        tmpRowBuilder.clear();
+        Assertions.assertEquals(0, tmpRowBuilder.length());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> tmpRowBuilder.appendDecimal(1.0, 10));
+    }
+    //
+    /**
+     * Asserts that the given value is appended like String.format() formats it with the given number of decimal places.
+     *
+     * @param aValue value to format
+     * @param aNumberOfDecimalPlaces number of decimal places
+     */
+    private void assertSameAsFormat(double aValue, int aNumberOfDecimalPlaces) {
+        CsvRowBuilder tmpRowBuilder = new CsvRowBuilder(",", 16);
+        tmpRowBuilder.appendDecimal(aValue, aNumberOfDecimalPlaces);
+        Assertions.assertEquals(String.format("%." + aNumberOfDecimalPlaces + "f", aValue),
+                tmpRowBuilder.getContent().toString(), "value " + aValue);
+    }
+}
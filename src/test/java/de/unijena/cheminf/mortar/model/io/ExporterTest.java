@@ -0,0 +1,65 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.io;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Test class for the Exporter class.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class ExporterTest {
+    /**
+     * Tests that the names of the entries of the ZIP archive export are unique and numbered per molecular formula
+     * like the files of the folder exports, also if many fragments share a formula.
+     */
+    @Test
+    public void createUniqueEntryNameTest() {
+        Set<String> tmpTakenNameSet = new HashSet<>();
+        Map<String, Integer> tmpNextSuffixMap = new HashMap<>();
+        Assertions.assertEquals("C6H6.sdf", Exporter.createUniqueEntryName("C6H6", ".sdf", tmpTakenNameSet, tmpNextSuffixMap));
+        Assertions.assertEquals("C6H6(1).sdf", Exporter.createUniqueEntryName("C6H6", ".sdf", tmpTakenNameSet, tmpNextSuffixMap));
+        Assertions.assertEquals("CH4.sdf", Exporter.createUniqueEntryName("CH4", ".sdf", tmpTakenNameSet, tmpNextSuffixMap));
+        Assertions.assertEquals("C6H6(2).sdf", Exporter.createUniqueEntryName("C6H6", ".sdf", tmpTakenNameSet, tmpNextSuffixMap));
+        Assertions.assertEquals("CH4(1).sdf", Exporter.createUniqueEntryName("CH4", ".sdf", tmpTakenNameSet, tmpNextSuffixMap));
+        //a name already taken by another base name is skipped
+        tmpTakenNameSet.add("C2H6(1).sdf");
+        Assertions.assertEquals("C2H6.sdf", Exporter.createUniqueEntryName("C2H6", ".sdf", tmpTakenNameSet, tmpNextSuffixMap));
+        Assertions.assertEquals("C2H6(2).sdf", Exporter.createUniqueEntryName("C2H6", ".sdf", tmpTakenNameSet, tmpNextSuffixMap));
+        Set<String> tmpNameSet = new HashSet<>();
+        tmpTakenNameSet.clear();
+        tmpNextSuffixMap.clear();
+        for (int i = 0; i < 100000; i++) {
+            Assertions.assertTrue(tmpNameSet.add(Exporter.createUniqueEntryName("C" + (i % 3) + "H4", ".pdb",
+                    tmpTakenNameSet, tmpNextSuffixMap)));
+        }
+        Assertions.assertEquals(100000, tmpNameSet.size());
+        Assertions.assertTrue(tmpNameSet.contains("C0H4(33333).pdb"));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.io;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Test class for the GzipDecompressionChannel class.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class GzipDecompressionChannelTest {
+    /**
+     * Tests that the decompressed bytes of files of one and of two concatenated gzip members are read completely and
+     * in order, with blocks and buffers smaller and larger than each other.
+     *
+     * @throws IOException if a temporary file cannot be written or read
+     */
+    @Test
+    public void readTest() throws IOException {
+        Random tmpRandom = new Random(42L);
+        File tmpFile = File.createTempFile("mortar_gzip_test", ".sdf.gz");
+        try {
+            for (int i = 0; i < 50; i++) {
+                byte[] tmpContent = new byte[tmpRandom.nextInt(10000)];
+                tmpRandom.nextBytes(tmpContent);
+                try (GZIPOutputStream tmpOutputStream = new GZIPOutputStream(new FileOutputStream(tmpFile))) {
+                    tmpOutputStream.write(tmpContent);
+                }
+                ByteArrayOutputStream tmpExpectedContent = new ByteArrayOutputStream();
+                tmpExpectedContent.write(tmpContent);
+                if (i % 2 == 1) {
+                    try (GZIPOutputStream tmpOutputStream = new GZIPOutputStream(new FileOutputStream(tmpFile, true))) {
+                        tmpOutputStream.write(tmpContent);
+                    }
+                    tmpExpectedContent.write(tmpContent);
+                }
+                try (GzipDecompressionChannel tmpChannel = new GzipDecompressionChannel(tmpFile,
+                        1 + tmpRandom.nextInt(1000), 1 + tmpRandom.nextInt(3))) {
+                    Assertions.assertArrayEquals(tmpExpectedContent.toByteArray(),
+                            this.readAll(tmpChannel, 1 + tmpRandom.nextInt(1000)));
+                    Assertions.assertEquals(-1, tmpChannel.read(ByteBuffer.allocate(1)));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+    }
+    //
+    /**
+     * Tests that files that are not in gzip format are rejected when the channel is opened and that the exception of
+     * a truncated file is thrown to the reading thread.
+     *
+     * @throws IOException if a temporary file cannot be written
+     */
+    @Test
+    public void invalidFileTest() throws IOException {
+        File tmpFile = File.createTempFile("mortar_gzip_test", ".smi.gz");
+        try {
+            Files.writeString(tmpFile.toPath(), "c1ccccc1 benzene");
+            Assertions.assertThrows(IOException.class, () -> new GzipDecompressionChannel(tmpFile, 100, 2));
+            byte[] tmpContent = new byte[100000];
+            new Random(42L).nextBytes(tmpContent);
+            ByteArrayOutputStream tmpCompressedContent = new ByteArrayOutputStream();
+            try (GZIPOutputStream tmpOutputStream = new GZIPOutputStream(tmpCompressedContent)) {
+                tmpOutputStream.write(tmpContent);
+            }
+            //only the first half of the compressed bytes, the gzip header is complete
+            Files.write(tmpFile.toPath(), Arrays.copyOf(tmpCompressedContent.toByteArray(), tmpCompressedContent.size() / 2));
+            try (GzipDecompressionChannel tmpChannel = new GzipDecompressionChannel(tmpFile, 100, 2)) {
+                Assertions.assertThrows(IOException.class, () -> this.readAll(tmpChannel, 1000));
+            }
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+    }
+    //
+    /**
+     * Reads all bytes of the given channel through a buffer of the given size.
+     *
+     * @param aChannel channel to read
+     * @param aBufferSize size of the buffer
+     * @return bytes read
+     * @throws IOException if the channel throws an exception
+     */
+    private byte[] readAll(GzipDecompressionChannel aChannel, int aBufferSize) throws IOException {
+        ByteArrayOutputStream tmpOutputStream = new ByteArrayOutputStream();
+        ByteBuffer tmpBuffer = ByteBuffer.allocate(aBufferSize);
+        while (aChannel.read(tmpBuffer) >= 0) {
+            tmpOutputStream.write(tmpBuffer.array(), 0, tmpBuffer.position());
+            tmpBuffer.clear();
+        }
+        return tmpOutputStream.toByteArray();
+    }
+}
@@ -20,16 +20,29 @@
 
 package de.unijena.cheminf.mortar.model.io;
 
+import de.unijena.cheminf.mortar.model.data.MoleculeDataModel;
 import de.unijena.cheminf.mortar.model.settings.SettingsContainer;
+import de.unijena.cheminf.mortar.model.util.ChemUtil;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.cdk.io.SDFWriter;
+import org.openscience.cdk.tools.manipulator.AtomContainerManipulator;
 
+import java.io.BufferedWriter;
+import java.io.File;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 
 /**
- * Test class for the ImportSMILESFile() method of the Importer class.
+ * Test class for the Importer class.
  *
  * @author Samuel Behr
  * @version 1.0.0.0
@@ -114,4 +127,202 @@ public class ImporterTest extends Importer {
         tmpURL = this.getClass().getResource("SMILESTestFileFour.txt");
         this.importSMILESFile(Paths.get(tmpURL.toURI()).toFile());
     }
+    //
+    /**
+     * Tests that the molecules of several files are imported in the order of the files and each file in the order of
+     * its lines, that each molecule carries the name of its file as source file property, and that a file that cannot
+     * be imported is skipped and reported.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void importMultipleFilesTest() throws Exception {
+        Path tmpDirectory = Files.createTempDirectory("ImporterTest");
+        List<File> tmpFileList = new ArrayList<>(4);
+        try {
+            for (int i = 0; i < 3; i++) {
+                File tmpFile = tmpDirectory.resolve("molecules_" + i + ".smi").toFile();
+                Files.writeString(tmpFile.toPath(), "c1ccccc1O\tphenol_" + i + "\nCCO\tethanol_" + i + "\n", StandardCharsets.UTF_8);
+                tmpFileList.add(tmpFile);
+            }
+            File tmpNotImportableFile = tmpDirectory.resolve("molecules.xyz").toFile();
+            Files.writeString(tmpNotImportableFile.toPath(), "1\n\nC 0.0 0.0 0.0\n", StandardCharsets.UTF_8);
+            tmpFileList.add(1, tmpNotImportableFile);
+            List<MoleculeDataModel> tmpMoleculeList = this.importMoleculeDataModels(tmpFileList);
+            Assertions.assertEquals(6, tmpMoleculeList.size());
+            for (int i = 0; i < 3; i++) {
+                MoleculeDataModel tmpPhenol = tmpMoleculeList.get(2 * i);
+                MoleculeDataModel tmpEthanol = tmpMoleculeList.get(2 * i + 1);
+                Assertions.assertEquals("phenol_" + i, tmpPhenol.getName());
+                Assertions.assertEquals("ethanol_" + i, tmpEthanol.getName());
+                Assertions.assertEquals("molecules_" + i + ".smi", tmpPhenol.getProperties().get(Importer.SOURCE_FILE_PROPERTY_KEY));
+                Assertions.assertEquals("molecules_" + i + ".smi", tmpEthanol.getProperties().get(Importer.SOURCE_FILE_PROPERTY_KEY));
+            }
+            Assertions.assertEquals(1, this.getFailedFiles().size());
+            Assertions.assertTrue(this.getFailedFiles().containsKey(tmpNotImportableFile));
+        } finally {
+            this.deleteFiles(tmpDirectory, tmpFileList);
+        }
+    }
+    //
+    /**
+     * Tests that the small molecules extracted from a PDB file are not split by the ANISOU records between the HETATM
+     * records of a ligand, and that the protein and water residues are left out.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void extractSmallMoleculesFromPDBFileTest() throws Exception {
+        String tmpRecords = """
+                ATOM      1  N   GLY A   1       0.000   0.000   0.000  1.00 20.00           N
+                ATOM      2  CA  GLY A   1       1.450   0.000   0.000  1.00 20.00           C
+                TER       3      GLY A   1
+                HETATM    4  C1  EOH A 101      10.000  10.000  10.000  1.00 20.00           C
+                ANISOU    4  C1  EOH A 101        2406   1892   -125   -210   1100    370       C
+                HETATM    5  C2  EOH A 101      11.520  10.000  10.000  1.00 20.00           C
+                ANISOU    5  C2  EOH A 101        2406   1892   -125   -210   1100    370       C
+                HETATM    6  O   EOH A 101      12.950  10.000  10.000  1.00 20.00           O
+                ANISOU    6  O   EOH A 101        2406   1892   -125   -210   1100    370       O
+                HETATM    7  O   HOH A 201      20.000  20.000  20.000  1.00 20.00           O
+                CONECT    4    5
+                CONECT    5    4    6
+                CONECT    6    5
+                END
+                """;
+        Path tmpDirectory = Files.createTempDirectory("ImporterTest");
+        File tmpFile = tmpDirectory.resolve("ligand.pdb").toFile();
+        try {
+            Files.writeString(tmpFile.toPath(), tmpRecords, StandardCharsets.ISO_8859_1);
+            SettingsContainer tmpSettingsContainer = new SettingsContainer();
+            tmpSettingsContainer.setExtractSmallMoleculesFromPDBAtImportSetting(true);
+            List<MoleculeDataModel> tmpMoleculeList = new Importer(tmpSettingsContainer).importMoleculeDataModels(tmpFile);
+            Assertions.assertEquals(1, tmpMoleculeList.size());
+            Assertions.assertEquals("ligand_EOH_A101", tmpMoleculeList.get(0).getName());
+            Assertions.assertEquals(3, AtomContainerManipulator.getHeavyAtoms(tmpMoleculeList.get(0).getAtomContainer()).size());
+        } finally {
+            this.deleteFiles(tmpDirectory, List.of(tmpFile));
+        }
+    }
+    //
+    /**
+     * Tests that a SMILES file large enough to be parsed in chunks by several threads yields the same molecules in the
+     * same order as its parts imported one after another, each parsed by the calling thread, and as the parts imported
+     * together, parsed by the pool shared by the files.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void parallelSMILESImportTest() throws Exception {
+        String[] tmpSmilesArray = {"c1ccccc1O", "CCO", "CC(=O)O", "C1CCNCC1", "OC(=O)c1ccccc1N", "CCCCCCCC"};
+        String tmpPadding = "_" + "x".repeat(90);
+        Path tmpDirectory = Files.createTempDirectory("ImporterTest");
+        List<File> tmpPartFileList = new ArrayList<>(3);
+        File tmpFile = tmpDirectory.resolve("molecules.smi").toFile();
+        try {
+            int tmpCounter = 0;
+            try (BufferedWriter tmpFileWriter = Files.newBufferedWriter(tmpFile.toPath(), StandardCharsets.UTF_8)) {
+                for (int i = 0; i < 3; i++) {
+                    File tmpPartFile = tmpDirectory.resolve("molecules_" + i + ".smi").toFile();
+                    tmpPartFileList.add(tmpPartFile);
+                    try (BufferedWriter tmpPartFileWriter = Files.newBufferedWriter(tmpPartFile.toPath(), StandardCharsets.UTF_8)) {
+                        //about 3 MB per part
+                        for (int j = 0; j < 30000; j++) {
+                            String tmpLine = tmpSmilesArray[tmpCounter % tmpSmilesArray.length] + "\tmolecule_" + tmpCounter + tmpPadding + "\n";
+                            tmpFileWriter.write(tmpLine);
+                            tmpPartFileWriter.write(tmpLine);
+                            tmpCounter++;
+                        }
+                    }
+                }
+            }
+            this.assertSameMolecules(tmpFile, tmpPartFileList, tmpCounter);
+        } finally {
+            tmpPartFileList.add(tmpFile);
+            this.deleteFiles(tmpDirectory, tmpPartFileList);
+        }
+    }
+    //
+    /**
+     * Tests that an SD file large enough to be parsed in chunks by several threads yields the same molecules in the
+     * same order as its parts imported one after another, each parsed by the calling thread, and as the parts imported
+     * together, parsed by the pool shared by the files.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void parallelSDFImportTest() throws Exception {
+        String[] tmpSmilesArray = {"c1ccccc1O", "CCO", "CC(=O)O", "C1CCNCC1", "OC(=O)c1ccccc1N", "CCCCCCCC"};
+        String tmpPadding = "x".repeat(1000);
+        Path tmpDirectory = Files.createTempDirectory("ImporterTest");
+        List<File> tmpPartFileList = new ArrayList<>(3);
+        File tmpFile = tmpDirectory.resolve("molecules.sdf").toFile();
+        try {
+            int tmpCounter = 0;
+            try (SDFWriter tmpFileWriter = new SDFWriter(Files.newBufferedWriter(tmpFile.toPath(), StandardCharsets.UTF_8))) {
+                for (int i = 0; i < 3; i++) {
+                    File tmpPartFile = tmpDirectory.resolve("molecules_" + i + ".sdf").toFile();
+                    tmpPartFileList.add(tmpPartFile);
+                    try (SDFWriter tmpPartFileWriter = new SDFWriter(Files.newBufferedWriter(tmpPartFile.toPath(), StandardCharsets.UTF_8))) {
+                        //about 3 MB per part
+                        for (int j = 0; j < 2500; j++) {
+                            IAtomContainer tmpMolecule = ChemUtil.parseSmilesToAtomContainer(tmpSmilesArray[tmpCounter % tmpSmilesArray.length]);
+                            tmpMolecule.setTitle("molecule_" + tmpCounter + "_sd");
+                            tmpMolecule.setProperty("PADDING", tmpPadding);
+                            tmpFileWriter.write(tmpMolecule);
+                            tmpPartFileWriter.write(tmpMolecule);
+                            tmpCounter++;
+                        }
+                    }
+                }
+            }
+            this.assertSameMolecules(tmpFile, tmpPartFileList, tmpCounter);
+        } finally {
+            tmpPartFileList.add(tmpFile);
+            this.deleteFiles(tmpDirectory, tmpPartFileList);
+        }
+    }
+    //
+    /**
+     * Asserts that the given file, which is imported in parallel chunks, yields the same molecules as its given parts
+     * imported one after another and as the parts imported together.
+     *
+     * @param aFile file larger than one chunk
+     * @param aPartFileList parts of the file, each smaller than one chunk
+     * @param aNumberOfMolecules number of molecules in the file
+     * @throws Exception if anything goes wrong
+     */
+    private void assertSameMolecules(File aFile, List<File> aPartFileList, int aNumberOfMolecules) throws Exception {
+        List<MoleculeDataModel> tmpSequentialList = new ArrayList<>(aNumberOfMolecules);
+        for (File tmpPartFile : aPartFileList) {
+            tmpSequentialList.addAll(this.importMoleculeDataModels(tmpPartFile));
+        }
+        List<MoleculeDataModel> tmpParallelList = this.importMoleculeDataModels(aFile);
+        List<MoleculeDataModel> tmpMultiFileList = this.importMoleculeDataModels(aPartFileList);
+        Assertions.assertEquals(aNumberOfMolecules, tmpSequentialList.size());
+        Assertions.assertEquals(aNumberOfMolecules, tmpParallelList.size());
+        Assertions.assertEquals(aNumberOfMolecules, tmpMultiFileList.size());
+        Assertions.assertTrue(this.getFailedFiles().isEmpty());
+        for (int i = 0; i < aNumberOfMolecules; i++) {
+            MoleculeDataModel tmpSequentialMolecule = tmpSequentialList.get(i);
+            Assertions.assertTrue(tmpSequentialMolecule.getName().startsWith("molecule_" + i + "_"));
+            Assertions.assertEquals(tmpSequentialMolecule.getName(), tmpParallelList.get(i).getName());
+            Assertions.assertEquals(tmpSequentialMolecule.getUniqueSmiles(), tmpParallelList.get(i).getUniqueSmiles());
+            Assertions.assertEquals(tmpSequentialMolecule.getName(), tmpMultiFileList.get(i).getName());
+            Assertions.assertEquals(tmpSequentialMolecule.getUniqueSmiles(), tmpMultiFileList.get(i).getUniqueSmiles());
+        }
+    }
+    //
+    /**
+     * Deletes the given files and the given directory.
+     *
+     * @param aDirectory directory of the files
+     * @param aFileList files to delete
+     * @throws Exception if a file cannot be deleted
+     */
+    private void deleteFiles(Path aDirectory, List<File> aFileList) throws Exception {
+        for (File tmpFile : aFileList) {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+        Files.deleteIfExists(aDirectory);
+    }
 }
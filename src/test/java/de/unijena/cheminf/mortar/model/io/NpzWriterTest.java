@@ -0,0 +1,159 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.io;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Test class for the NpzWriter class.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class NpzWriterTest {
+    /**
+     * Tests that a small sparse matrix in the CSR layout is written as .npy entries with aligned headers, the expected
+     * type descriptors and shapes, and the little-endian values of the arrays.
+     *
+     * @throws IOException if the temporary archive cannot be written or read
+     */
+    @Test
+    public void writeSparseMatrixTest() throws IOException {
+        //2 x 3 matrix [[5, 0, 1], [0, 7, 0]]
+        File tmpFile = Files.createTempFile("NpzWriterTest", ".npz").toFile();
+        try {
+            try (NpzWriter tmpNpzWriter = new NpzWriter(tmpFile)) {
+                tmpNpzWriter.writeByteString("format", "csr");
+                tmpNpzWriter.beginLongArray("shape", 2);
+                tmpNpzWriter.writeLong(2L);
+                tmpNpzWriter.writeLong(3L);
+                tmpNpzWriter.beginLongArray("indptr", 3);
+                for (long tmpOffset : new long[]{0L, 2L, 3L}) {
+                    tmpNpzWriter.writeLong(tmpOffset);
+                }
+                tmpNpzWriter.beginIntArray("indices", 3);
+                for (int tmpIndex : new int[]{0, 2, 1}) {
+                    tmpNpzWriter.writeInt(tmpIndex);
+                }
+                tmpNpzWriter.beginIntArray("data", 3);
+                for (int tmpValue : new int[]{5, 1, 7}) {
+                    tmpNpzWriter.writeInt(tmpValue);
+                }
+            }
+            try (ZipFile tmpZipFile = new ZipFile(tmpFile)) {
+                List<String> tmpEntryNames = new ArrayList<>();
+                Collections.list(tmpZipFile.entries()).forEach(anEntry -> tmpEntryNames.add(anEntry.getName()));
+                Assertions.assertEquals(List.of("format.npy", "shape.npy", "indptr.npy", "indices.npy", "data.npy"), tmpEntryNames);
+                ByteBuffer tmpFormat = this.readArray(tmpZipFile, "format", "|S3", "()");
+                Assertions.assertEquals("csr", StandardCharsets.US_ASCII.decode(tmpFormat).toString());
+                ByteBuffer tmpShape = this.readArray(tmpZipFile, "shape", "<i8", "(2,)");
+                Assertions.assertEquals(2L, tmpShape.getLong());
+                Assertions.assertEquals(3L, tmpShape.getLong());
+                Assertions.assertFalse(tmpShape.hasRemaining());
+                ByteBuffer tmpIndptr = this.readArray(tmpZipFile, "indptr", "<i8", "(3,)");
+                for (long tmpOffset : new long[]{0L, 2L, 3L}) {
+                    Assertions.assertEquals(tmpOffset, tmpIndptr.getLong());
+                }
+                Assertions.assertFalse(tmpIndptr.hasRemaining());
+                ByteBuffer tmpIndices = this.readArray(tmpZipFile, "indices", "<i4", "(3,)");
+                for (int tmpIndex : new int[]{0, 2, 1}) {
+                    Assertions.assertEquals(tmpIndex, tmpIndices.getInt());
+                }
+                Assertions.assertFalse(tmpIndices.hasRemaining());
+                ByteBuffer tmpData = this.readArray(tmpZipFile, "data", "<i4", "(3,)");
+                for (int tmpValue : new int[]{5, 1, 7}) {
+                    Assertions.assertEquals(tmpValue, tmpData.getInt());
+                }
+                Assertions.assertFalse(tmpData.hasRemaining());
+            }
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+    }
+    //
+    /**
+     * Tests that an array cannot be started before the previous one is complete and that closing the archive with an
+     * incomplete array fails.
+     *
+     * @throws IOException if the temporary archive cannot be written
+     */
+    @Test
+    public void incompleteArrayTest() throws IOException {
+        File tmpFile = Files.createTempFile("NpzWriterTest", ".npz").toFile();
+        try {
+            NpzWriter tmpNpzWriter = new NpzWriter(tmpFile);
+            tmpNpzWriter.beginIntArray("data", 2);
+            tmpNpzWriter.writeInt(1);
+            Assertions.assertThrows(IllegalStateException.class, () -> tmpNpzWriter.writeLong(1L));
+            Assertions.assertThrows(IllegalStateException.class, () -> tmpNpzWriter.beginIntArray("indices", 1));
+            Assertions.assertThrows(IOException.class, tmpNpzWriter::close);
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+    }
+    //
+    /**
+     * Reads the .npy entry of the given array, asserts its magic string, header alignment, type descriptor, and shape,
+     * and returns its data.
+     *
+     * @param aZipFile archive to read
+     * @param aName name of the array
+     * @param aDescriptor expected NumPy type descriptor
+     * @param aShape expected shape as Python tuple
+     * @return little-endian data of the array
+     * @throws IOException if the entry cannot be read
+     */
+    private ByteBuffer readArray(ZipFile aZipFile, String aName, String aDescriptor, String aShape) throws IOException {
+        ZipEntry tmpEntry = aZipFile.getEntry(aName + ".npy");
+        Assertions.assertNotNull(tmpEntry, aName);
+        byte[] tmpBytes;
+        try (InputStream tmpInputStream = aZipFile.getInputStream(tmpEntry)) {
+            tmpBytes = tmpInputStream.readAllBytes();
+        }
+        ByteBuffer tmpBuffer = ByteBuffer.wrap(tmpBytes).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] tmpMagic = new byte[8];
+        tmpBuffer.get(tmpMagic);
+        Assertions.assertArrayEquals(new byte[]{(byte) 0x93, 'N', 'U', 'M', 'P', 'Y', 1, 0}, tmpMagic);
+        int tmpHeaderLength = tmpBuffer.getShort() & 0xFFFF;
+        Assertions.assertEquals(0, (10 + tmpHeaderLength) % 64, "header of " + aName + " is not aligned");
+        byte[] tmpHeaderBytes = new byte[tmpHeaderLength];
+        tmpBuffer.get(tmpHeaderBytes);
+        String tmpHeader = new String(tmpHeaderBytes, StandardCharsets.US_ASCII);
+        Assertions.assertEquals("{'descr': '" + aDescriptor + "', 'fortran_order': False, 'shape': " + aShape + ", }",
+                tmpHeader.trim());
+        Assertions.assertTrue(tmpHeader.endsWith("\n"));
+        return tmpBuffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.io;
+
+import de.unijena.cheminf.mortar.model.data.FragmentDataModel;
+import de.unijena.cheminf.mortar.model.data.MoleculeDataModel;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Test class for the SessionFile class.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class SessionFileTest {
+    /**
+     * Tests that molecules, fragments and the fragments of the molecules are read as they were written, with and
+     * without compression and with more data than fits into one block.
+     *
+     * @throws IOException if a temporary file cannot be written or read
+     */
+    @Test
+    public void writeAndReadTest() throws IOException {
+        Random tmpRandom = new Random(42L);
+        List<MoleculeDataModel> tmpMoleculeList = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            Map<Object, Object> tmpPropertyMap = new HashMap<>();
+            tmpPropertyMap.put("ID", "Mol_" + i);
+            tmpPropertyMap.put("Mass", (double) i);
+            MoleculeDataModel tmpMolecule = new MoleculeDataModel(this.createRandomString(tmpRandom, 20, 60),
+                    i % 7 == 0 ? null : "Molecule " + i, tmpPropertyMap);
+            tmpMolecule.setSelection(i % 3 != 0);
+            tmpMoleculeList.add(tmpMolecule);
+        }
+        List<FragmentDataModel> tmpFragmentList = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            FragmentDataModel tmpFragment = new FragmentDataModel("C" + "C".repeat(i), null, new HashMap<>(0));
+            tmpFragment.setAbsoluteFrequency(i);
+            tmpFragment.setMoleculeFrequency(i / 2);
+            tmpFragment.setAbsolutePercentage(i / 1000.0);
+            tmpFragment.setMoleculePercentage(i / 2000.0);
+            tmpFragmentList.add(tmpFragment);
+        }
+        for (int i = 0; i < tmpMoleculeList.size(); i++) {
+            //every tenth molecule has not undergone the fragmentation
+            if (i % 10 == 0) {
+                continue;
+            }
+            MoleculeDataModel tmpMolecule = tmpMoleculeList.get(i);
+            List<FragmentDataModel> tmpFragmentsOfMoleculeList = new ArrayList<>();
+            HashMap<String, Integer> tmpFrequencyMap = new HashMap<>();
+            for (int j = tmpRandom.nextInt(4); j > 0; j--) {
+                FragmentDataModel tmpFragment = tmpFragmentList.get(tmpRandom.nextInt(tmpFragmentList.size()));
+                if (!tmpFrequencyMap.containsKey(tmpFragment.getUniqueSmiles())) {
+                    tmpFragmentsOfMoleculeList.add(tmpFragment);
+                    tmpFrequencyMap.put(tmpFragment.getUniqueSmiles(), 1 + tmpRandom.nextInt(5));
+                }
+            }
+            tmpMolecule.getAllFragments().put("Fragmenter", tmpFragmentsOfMoleculeList);
+            tmpMolecule.getFragmentFrequencies().put("Fragmenter", tmpFrequencyMap);
+        }
+        LinkedHashMap<String, List<FragmentDataModel>> tmpFragmentMap = new LinkedHashMap<>();
+        tmpFragmentMap.put("Fragmenter", tmpFragmentList);
+        tmpFragmentMap.put("Empty fragmentation", new ArrayList<>(0));
+        File tmpFile = File.createTempFile("mortar_session_test", SessionFile.SESSION_FILE_EXTENSION);
+        try {
+            for (boolean tmpIsCompressed : new boolean[] {false, true}) {
+                new SessionFile("Data set", tmpMoleculeList, tmpFragmentMap).writeToFile(tmpFile, tmpIsCompressed);
+                SessionFile tmpSession = SessionFile.readFromFile(tmpFile);
+                Assertions.assertEquals("Data set", tmpSession.getDataSetName());
+                Assertions.assertEquals(new ArrayList<>(tmpFragmentMap.keySet()),
+                        new ArrayList<>(tmpSession.getFragmentDataModelListMap().keySet()));
+                Assertions.assertTrue(tmpSession.getFragmentDataModelListMap().get("Empty fragmentation").isEmpty());
+                List<FragmentDataModel> tmpReadFragmentList = tmpSession.getFragmentDataModelListMap().get("Fragmenter");
+                Assertions.assertEquals(tmpFragmentList.size(), tmpReadFragmentList.size());
+                for (int i = 0; i < tmpFragmentList.size(); i++) {
+                    FragmentDataModel tmpFragment = tmpFragmentList.get(i);
+                    FragmentDataModel tmpReadFragment = tmpReadFragmentList.get(i);
+                    Assertions.assertEquals(tmpFragment.getUniqueSmiles(), tmpReadFragment.getUniqueSmiles());
+                    Assertions.assertEquals(tmpFragment.getAbsoluteFrequency(), tmpReadFragment.getAbsoluteFrequency());
+                    Assertions.assertEquals(tmpFragment.getMoleculeFrequency(), tmpReadFragment.getMoleculeFrequency());
+                    Assertions.assertEquals(tmpFragment.getAbsolutePercentage(), tmpReadFragment.getAbsolutePercentage());
+                    Assertions.assertEquals(tmpFragment.getMoleculePercentage(), tmpReadFragment.getMoleculePercentage());
+                }
+                List<MoleculeDataModel> tmpReadMoleculeList = tmpSession.getMoleculeDataModelList();
+                Assertions.assertEquals(tmpMoleculeList.size(), tmpReadMoleculeList.size());
+                for (int i = 0; i < tmpMoleculeList.size(); i++) {
+                    MoleculeDataModel tmpMolecule = tmpMoleculeList.get(i);
+                    MoleculeDataModel tmpReadMolecule = tmpReadMoleculeList.get(i);
+                    Assertions.assertEquals(tmpMolecule.getUniqueSmiles(), tmpReadMolecule.getUniqueSmiles());
+                    Assertions.assertEquals(tmpMolecule.getName(), tmpReadMolecule.getName());
+                    Assertions.assertEquals(tmpMolecule.isSelected(), tmpReadMolecule.isSelected());
+                    Assertions.assertEquals("Mol_" + i, tmpReadMolecule.getProperties().get("ID"));
+                    //properties that are no strings are not written
+                    Assertions.assertFalse(tmpReadMolecule.getProperties().containsKey("Mass"));
+                    Assertions.assertEquals(tmpMolecule.getFragmentFrequencyOfSpecificAlgorithm("Fragmenter"),
+                            tmpReadMolecule.getFragmentFrequencyOfSpecificAlgorithm("Fragmenter"));
+                    List<FragmentDataModel> tmpFragmentsOfMoleculeList = tmpMolecule.getFragmentsOfSpecificAlgorithm("Fragmenter");
+                    List<FragmentDataModel> tmpReadFragmentsOfMoleculeList = tmpReadMolecule.getFragmentsOfSpecificAlgorithm("Fragmenter");
+                    if (tmpFragmentsOfMoleculeList == null) {
+                        Assertions.assertNull(tmpReadFragmentsOfMoleculeList);
+                        continue;
+                    }
+                    Assertions.assertEquals(tmpFragmentsOfMoleculeList.size(), tmpReadFragmentsOfMoleculeList.size());
+                    for (int j = 0; j < tmpFragmentsOfMoleculeList.size(); j++) {
+                        FragmentDataModel tmpReadFragment = tmpReadFragmentsOfMoleculeList.get(j);
+                        Assertions.assertEquals(tmpFragmentsOfMoleculeList.get(j).getUniqueSmiles(), tmpReadFragment.getUniqueSmiles());
+                        //the fragments of the molecules are the fragments of the fragmentation
+                        Assertions.assertSame(tmpReadFragmentList.get(tmpFragmentList.indexOf(tmpFragmentsOfMoleculeList.get(j))), tmpReadFragment);
+                        Assertions.assertTrue(tmpReadFragment.getParentMolecules().contains(tmpReadMolecule));
+                    }
+                }
+            }
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+    }
+    //
+    /**
+     * Tests that files that are no session files or that are truncated are rejected with an IOException.
+     *
+     * @throws IOException if a temporary file cannot be written
+     */
+    @Test
+    public void invalidFileTest() throws IOException {
+        File tmpFile = File.createTempFile("mortar_session_test", SessionFile.SESSION_FILE_EXTENSION);
+        try {
+            Files.writeString(tmpFile.toPath(), "CCO Ethanol\n");
+            Assertions.assertThrows(IOException.class, () -> SessionFile.readFromFile(tmpFile));
+            List<MoleculeDataModel> tmpMoleculeList = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                tmpMoleculeList.add(new MoleculeDataModel("C".repeat(i + 1), "Molecule " + i, new HashMap<>(0)));
+            }
+            new SessionFile(null, tmpMoleculeList, new LinkedHashMap<>()).writeToFile(tmpFile, true);
+            try (RandomAccessFile tmpRandomAccessFile = new RandomAccessFile(tmpFile, "rw")) {
+                tmpRandomAccessFile.setLength(tmpRandomAccessFile.length() / 2);
+            }
+            Assertions.assertThrows(IOException.class, () -> SessionFile.readFromFile(tmpFile));
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+    }
+    //
+    /**
+     * Tests that numbers of elements exceeding the rest of the file are rejected with an IOException instead of being
+     * allocated.
+     *
+     * @throws IOException if a temporary file cannot be written
+     */
+    @Test
+    public void corruptedCountTest() throws IOException {
+        File tmpFile = File.createTempFile("mortar_session_test", SessionFile.SESSION_FILE_EXTENSION);
+        try {
+            List<MoleculeDataModel> tmpMoleculeList = new ArrayList<>();
+            tmpMoleculeList.add(new MoleculeDataModel("CCO", "Ethanol", new HashMap<>(0)));
+            //file header and block header are followed by the size of the string table and the length of its first string
+            for (long tmpPosition : new long[] {16L, 20L}) {
+                new SessionFile("Data set", tmpMoleculeList, new LinkedHashMap<>()).writeToFile(tmpFile, false);
+                try (RandomAccessFile tmpRandomAccessFile = new RandomAccessFile(tmpFile, "rw")) {
+                    tmpRandomAccessFile.seek(tmpPosition);
+                    tmpRandomAccessFile.writeInt(Integer.MAX_VALUE - 8);
+                }
+                Assertions.assertThrows(IOException.class, () -> SessionFile.readFromFile(tmpFile));
+            }
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+    }
+    //
+    /**
+     * Tests that a session file that has just been read can be overwritten and that no temporary file is left behind.
+     *
+     * @throws IOException if a temporary file cannot be written or read
+     */
+    @Test
+    public void overwriteReadFileTest() throws IOException {
+        File tmpDirectory = Files.createTempDirectory("mortar_session_test").toFile();
+        File tmpFile = new File(tmpDirectory, "Session" + SessionFile.SESSION_FILE_EXTENSION);
+        try {
+            List<MoleculeDataModel> tmpMoleculeList = new ArrayList<>();
+            tmpMoleculeList.add(new MoleculeDataModel("CCO", "Ethanol", new HashMap<>(0)));
+            new SessionFile("First", tmpMoleculeList, new LinkedHashMap<>()).writeToFile(tmpFile, true);
+            SessionFile tmpSession = SessionFile.readFromFile(tmpFile);
+            Assertions.assertEquals("First", tmpSession.getDataSetName());
+            new SessionFile("Second", tmpSession.getMoleculeDataModelList(), new LinkedHashMap<>()).writeToFile(tmpFile, true);
+            Assertions.assertEquals("Second", SessionFile.readFromFile(tmpFile).getDataSetName());
+            Assertions.assertArrayEquals(new String[] {tmpFile.getName()}, tmpDirectory.list());
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+            Files.deleteIfExists(tmpDirectory.toPath());
+        }
+    }
+    //
+    /**
+     * Creates a random string of SMILES characters with a length in the given range.
+     *
+     * @param aRandom random number generator
+     * @param aMinLength minimum length
+     * @param aMaxLength maximum length, exclusive
+     * @return random string
+     */
+    private String createRandomString(Random aRandom, int aMinLength, int aMaxLength) {
+        String tmpCharacters = "CNOSPcnos()=#[]@+-123456789";
+        StringBuilder tmpBuilder = new StringBuilder();
+        for (int i = aMinLength + aRandom.nextInt(aMaxLength - aMinLength); i > 0; i--) {
+            tmpBuilder.append(tmpCharacters.charAt(aRandom.nextInt(tmpCharacters.length())));
+        }
+        return tmpBuilder.toString();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.monitoring;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Test class for the FragmentationMonitor class.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class FragmentationMonitorTest {
+    /**
+     * Tests the counters of a running fragmentation and that they are added to the totals of the session when the
+     * fragmentation is finished.
+     */
+    @Test
+    public void fragmentationCountersTest() {
+        FragmentationMonitor tmpMonitor = new FragmentationMonitor();
+        Assertions.assertFalse(tmpMonitor.isFragmentationRunning());
+        Assertions.assertEquals(0.0, tmpMonitor.getThroughput());
+        Map<String, Object> tmpFragmentMap = new HashMap<>();
+        tmpMonitor.fragmentationStarted("Fragmentation", 10, 2, tmpFragmentMap);
+        Assertions.assertTrue(tmpMonitor.isFragmentationRunning());
+        Assertions.assertEquals("Fragmentation", tmpMonitor.getFragmentationName());
+        Assertions.assertEquals(10, tmpMonitor.getMoleculesToFragment());
+        Assertions.assertEquals(2, tmpMonitor.getNumberOfTasks());
+        for (int i = 0; i < 4; i++) {
+            tmpMonitor.moleculeProcessed();
+        }
+        tmpFragmentMap.put("CCO", null);
+        tmpFragmentMap.put("c1ccccc1", null);
+        Assertions.assertEquals(4L, tmpMonitor.getMoleculesProcessed());
+        Assertions.assertEquals(6L, tmpMonitor.getMoleculesPending());
+        Assertions.assertEquals(2, tmpMonitor.getFragmentsDiscovered());
+        Assertions.assertEquals(4L, tmpMonitor.getTotalMoleculesProcessed());
+        tmpMonitor.addExceptions(1);
+        tmpMonitor.fragmentationFinished();
+        Assertions.assertFalse(tmpMonitor.isFragmentationRunning());
+        Assertions.assertEquals(0L, tmpMonitor.getMoleculesPending());
+        Assertions.assertEquals(4L, tmpMonitor.getMoleculesProcessed());
+        Assertions.assertEquals(4L, tmpMonitor.getTotalMoleculesProcessed());
+        Assertions.assertEquals(1L, tmpMonitor.getTotalExceptions());
+        Assertions.assertEquals(1L, tmpMonitor.getCompletedFragmentations());
+        //finishing again has no effect
+        tmpMonitor.fragmentationFinished();
+        Assertions.assertEquals(1L, tmpMonitor.getCompletedFragmentations());
+        Assertions.assertEquals(4L, tmpMonitor.getTotalMoleculesProcessed());
+        //the counters of the current fragmentation are reset, the totals are kept
+        tmpMonitor.fragmentationStarted("Second fragmentation", 3, 1, new HashMap<>());
+        Assertions.assertEquals(0L, tmpMonitor.getMoleculesProcessed());
+        Assertions.assertEquals(3L, tmpMonitor.getMoleculesPending());
+        Assertions.assertEquals(0, tmpMonitor.getFragmentsDiscovered());
+        for (int i = 0; i < 3; i++) {
+            tmpMonitor.moleculeProcessed();
+        }
+        Assertions.assertEquals(7L, tmpMonitor.getTotalMoleculesProcessed());
+        tmpMonitor.fragmentationFinished();
+        Assertions.assertEquals(7L, tmpMonitor.getTotalMoleculesProcessed());
+        Assertions.assertEquals(2L, tmpMonitor.getCompletedFragmentations());
+    }
+}
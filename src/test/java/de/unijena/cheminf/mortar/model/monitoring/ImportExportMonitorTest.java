@@ -0,0 +1,106 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.monitoring;
+
+import de.unijena.cheminf.mortar.model.io.Importer;
+import de.unijena.cheminf.mortar.model.settings.SettingsContainer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the ImportExportMonitor class.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class ImportExportMonitorTest {
+    /**
+     * Tests that completed exports are counted with the items actually written, while failed or cancelled exports
+     * are counted separately without any items.
+     */
+    @Test
+    public void exportCountersTest() {
+        ImportExportMonitor tmpMonitor = new ImportExportMonitor();
+        //finishing without a running export has no effect
+        tmpMonitor.exportFinished(true, 5);
+        Assertions.assertEquals(0L, tmpMonitor.getCompletedExports());
+        Assertions.assertEquals(0L, tmpMonitor.getTotalItemsExported());
+        tmpMonitor.exportStarted("CSV", 10);
+        Assertions.assertTrue(tmpMonitor.isExportRunning());
+        Assertions.assertEquals("CSV", tmpMonitor.getExportType());
+        Assertions.assertEquals(10, tmpMonitor.getItemsToExport());
+        tmpMonitor.exportFinished(true, 8);
+        Assertions.assertFalse(tmpMonitor.isExportRunning());
+        Assertions.assertEquals(1L, tmpMonitor.getCompletedExports());
+        Assertions.assertEquals(8L, tmpMonitor.getTotalItemsExported());
+        Assertions.assertEquals(0L, tmpMonitor.getFailedExports());
+        tmpMonitor.exportStarted("PDF", 20);
+        tmpMonitor.exportFinished(false, 0);
+        Assertions.assertFalse(tmpMonitor.isExportRunning());
+        Assertions.assertEquals(1L, tmpMonitor.getCompletedExports());
+        Assertions.assertEquals(8L, tmpMonitor.getTotalItemsExported());
+        Assertions.assertEquals(1L, tmpMonitor.getFailedExports());
+        Assertions.assertEquals("PDF", tmpMonitor.getExportType());
+        //finishing the same export again has no effect
+        tmpMonitor.exportFinished(true, 20);
+        Assertions.assertEquals(1L, tmpMonitor.getCompletedExports());
+        Assertions.assertEquals(8L, tmpMonitor.getTotalItemsExported());
+    }
+    //
+    /**
+     * Tests the counters of a running import and that they are added to the totals of the session when the import is
+     * finished.
+     */
+    @Test
+    public void importCountersTest() {
+        ImportExportMonitor tmpMonitor = new ImportExportMonitor();
+        Assertions.assertFalse(tmpMonitor.isImportRunning());
+        Assertions.assertEquals(-1.0, tmpMonitor.getImportProgress());
+        Assertions.assertEquals(0.0, tmpMonitor.getImportThroughput());
+        Importer tmpImporter = new Importer(new SettingsContainer());
+        tmpMonitor.importStarted(tmpImporter);
+        Assertions.assertTrue(tmpMonitor.isImportRunning());
+        Assertions.assertEquals(0, tmpMonitor.getPendingImportBatches());
+        tmpMonitor.moleculesImported(5);
+        tmpMonitor.moleculesImported(3);
+        Assertions.assertEquals(8L, tmpMonitor.getMoleculesImported());
+        Assertions.assertEquals(8L, tmpMonitor.getTotalMoleculesImported());
+        Assertions.assertEquals(0L, tmpMonitor.getCompletedImports());
+        tmpMonitor.importFinished();
+        Assertions.assertFalse(tmpMonitor.isImportRunning());
+        Assertions.assertEquals(-1.0, tmpMonitor.getImportProgress());
+        Assertions.assertEquals(8L, tmpMonitor.getMoleculesImported());
+        Assertions.assertEquals(8L, tmpMonitor.getTotalMoleculesImported());
+        Assertions.assertEquals(1L, tmpMonitor.getCompletedImports());
+        //finishing again has no effect
+        tmpMonitor.importFinished();
+        Assertions.assertEquals(1L, tmpMonitor.getCompletedImports());
+        //the counter of the current import is reset, the total is kept
+        tmpMonitor.importStarted(tmpImporter);
+        Assertions.assertEquals(0L, tmpMonitor.getMoleculesImported());
+        tmpMonitor.moleculesImported(2);
+        Assertions.assertEquals(10L, tmpMonitor.getTotalMoleculesImported());
+        tmpMonitor.importFinished();
+        Assertions.assertEquals(10L, tmpMonitor.getTotalMoleculesImported());
+        Assertions.assertEquals(2L, tmpMonitor.getCompletedImports());
+    }
+}
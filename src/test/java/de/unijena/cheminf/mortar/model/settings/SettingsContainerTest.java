@@ -59,8 +59,13 @@ public class SettingsContainerTest {
                 + tmpSettingsContainer.recentDirectoryPathSettingProperty().getValue());
         System.out.println();
         Assertions.assertEquals(SettingsContainer.ROWS_PER_PAGE_SETTING_DEFAULT, tmpSettingsContainer.getRowsPerPageSetting());
+        Assertions.assertEquals(SettingsContainer.USE_PAGINATION_SETTING_DEFAULT, tmpSettingsContainer.getUsePaginationSetting());
+        Assertions.assertEquals(SettingsContainer.PERSIST_LAYOUT_COORDINATE_CACHE_SETTING_DEFAULT, tmpSettingsContainer.getPersistLayoutCoordinateCacheSetting());
+        Assertions.assertEquals(SettingsContainer.PERSIST_DEPICTIONS_SETTING_DEFAULT, tmpSettingsContainer.getPersistDepictionsSetting());
         Assertions.assertEquals(SettingsContainer.ADD_IMPLICIT_HYDROGENS_AT_IMPORT_SETTING_DEFAULT, tmpSettingsContainer.getAddImplicitHydrogensAtImportSetting());
+        Assertions.assertEquals(SettingsContainer.EXTRACT_SMALL_MOLECULES_FROM_PDB_AT_IMPORT_SETTING_DEFAULT, tmpSettingsContainer.getExtractSmallMoleculesFromPDBAtImportSetting());
         Assertions.assertEquals(tmpSettingsContainer.getNumberOfTasksForFragmentationSettingDefault(), tmpSettingsContainer.getNumberOfTasksForFragmentationSetting());
+        Assertions.assertEquals(SettingsContainer.SAVE_FRAGMENTATION_TIMING_REPORTS_SETTING_DEFAULT, tmpSettingsContainer.getSaveFragmentationTimingReportsSetting());
         Assertions.assertEquals(SettingsContainer.RECENT_DIRECTORY_PATH_SETTING_DEFAULT, tmpSettingsContainer.getRecentDirectoryPathSetting());
         Assertions.assertEquals(SettingsContainer.KEEP_ATOM_CONTAINER_IN_DATA_MODEL_SETTING_DEFAULT, tmpSettingsContainer.getKeepAtomContainerInDataModelSetting());
         Assertions.assertEquals(SettingsContainer.ALWAYS_MDLV3000_FORMAT_AT_EXPORT_SETTING_DEFAULT, tmpSettingsContainer.getAlwaysMDLV3000FormatAtExportSetting());
@@ -0,0 +1,192 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * Test class for the AsyncLogHandler class.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class AsyncLogHandlerTest {
+    /**
+     * Tests that all records are written in order and that the records queued while the target handler is busy are
+     * written in batches of at most {@link BasicDefinitions#LOG_WRITE_BATCH_SIZE} records.
+     */
+    @Test
+    public void batchingTest() {
+        CountDownLatch tmpReleaseLatch = new CountDownLatch(1);
+        CollectingHandler tmpTargetHandler = new CollectingHandler(tmpReleaseLatch);
+        Logger tmpLogger = this.createLogger("AsyncLogHandlerTest.batching", tmpTargetHandler);
+        int tmpNumberOfRecords = 5 * BasicDefinitions.LOG_WRITE_BATCH_SIZE;
+        for (int i = 0; i < tmpNumberOfRecords; i++) {
+            tmpLogger.log(Level.WARNING, "Record " + i + ";");
+        }
+        //the writer thread waits in the first batch until all records are queued
+        tmpReleaseLatch.countDown();
+        this.closeHandlers(tmpLogger);
+        Assertions.assertTrue(tmpTargetHandler.isClosed);
+        //the first batch is taken before the other records are queued
+        Assertions.assertEquals(1 + (tmpNumberOfRecords - 1 + BasicDefinitions.LOG_WRITE_BATCH_SIZE - 1) / BasicDefinitions.LOG_WRITE_BATCH_SIZE,
+                tmpTargetHandler.batchList.size());
+        String tmpText = String.join("", tmpTargetHandler.batchList);
+        int tmpIndex = -1;
+        for (int i = 0; i < tmpNumberOfRecords; i++) {
+            int tmpNextIndex = tmpText.indexOf("Record " + i + ";");
+            Assertions.assertTrue(tmpNextIndex > tmpIndex);
+            tmpIndex = tmpNextIndex;
+        }
+    }
+    //
+    /**
+     * Tests that only the first molecule exception records of a type are written with stack trace and the further
+     * ones are aggregated into a summary line, while other records with an exception of the same type are always
+     * written in full.
+     */
+    @Test
+    public void aggregationTest() {
+        CollectingHandler tmpTargetHandler = new CollectingHandler(new CountDownLatch(0));
+        Logger tmpLogger = this.createLogger("AsyncLogHandlerTest.aggregation", tmpTargetHandler);
+        int tmpNumberOfSuppressedRecords = 7;
+        for (int i = 0; i < BasicDefinitions.LOG_STACK_TRACES_PER_EXCEPTION_TYPE + tmpNumberOfSuppressedRecords; i++) {
+            LogUtil.logMoleculeException(tmpLogger, Level.WARNING, new IOException("Molecule failure"), "Molecule " + i);
+        }
+        int tmpNumberOfOtherRecords = 2 * BasicDefinitions.LOG_STACK_TRACES_PER_EXCEPTION_TYPE;
+        for (int i = 0; i < tmpNumberOfOtherRecords; i++) {
+            tmpLogger.log(Level.SEVERE, "Other failure " + i + ";", new IOException("Other failure"));
+        }
+        this.closeHandlers(tmpLogger);
+        String tmpText = String.join("", tmpTargetHandler.batchList);
+        Assertions.assertEquals(BasicDefinitions.LOG_STACK_TRACES_PER_EXCEPTION_TYPE,
+                this.countOccurrences(tmpText, "java.io.IOException: Molecule failure" + System.lineSeparator()));
+        Assertions.assertEquals(tmpNumberOfOtherRecords,
+                this.countOccurrences(tmpText, "java.io.IOException: Other failure" + System.lineSeparator()));
+        for (int i = 0; i < tmpNumberOfOtherRecords; i++) {
+            Assertions.assertTrue(tmpText.contains("Other failure " + i + ";"));
+        }
+        Assertions.assertTrue(tmpText.contains(tmpNumberOfSuppressedRecords + " further exceptions of type java.io.IOException"));
+        Assertions.assertTrue(tmpText.contains((BasicDefinitions.LOG_STACK_TRACES_PER_EXCEPTION_TYPE + tmpNumberOfSuppressedRecords) + " in total"));
+        Assertions.assertTrue(tmpText.contains("sample molecule names: Molecule " + BasicDefinitions.LOG_STACK_TRACES_PER_EXCEPTION_TYPE + ", "));
+        Assertions.assertEquals(1, this.countOccurrences(tmpText, "further exceptions of type"));
+    }
+    //
+    /**
+     * Creates a logger that logs only to a new asynchronous handler writing to the given target handler.
+     *
+     * @param aLoggerName name of the logger
+     * @param aTargetHandler target handler
+     * @return logger
+     */
+    private Logger createLogger(String aLoggerName, Handler aTargetHandler) {
+        Logger tmpLogger = Logger.getLogger(aLoggerName);
+        tmpLogger.setUseParentHandlers(false);
+        tmpLogger.setLevel(Level.ALL);
+        tmpLogger.addHandler(new AsyncLogHandler(aTargetHandler, new SimpleFormatter()));
+        return tmpLogger;
+    }
+    //
+    /**
+     * Closes and removes the handlers of the given logger, which writes the remaining records.
+     *
+     * @param aLogger logger
+     */
+    private void closeHandlers(Logger aLogger) {
+        for (Handler tmpHandler : aLogger.getHandlers()) {
+            tmpHandler.close();
+            aLogger.removeHandler(tmpHandler);
+        }
+    }
+    //
+    /**
+     * Counts the occurrences of the given string in the given text.
+     *
+     * @param aText text
+     * @param aString string to count
+     * @return number of occurrences
+     */
+    private int countOccurrences(String aText, String aString) {
+        int tmpCount = 0;
+        for (int i = aText.indexOf(aString); i >= 0; i = aText.indexOf(aString, i + aString.length())) {
+            tmpCount++;
+        }
+        return tmpCount;
+    }
+    //
+    /**
+     * Handler collecting the texts of the batches written to it, which waits for a latch before writing.
+     */
+    private static class CollectingHandler extends Handler {
+        /**
+         * Latch released when batches may be written.
+         */
+        private final CountDownLatch releaseLatch;
+        /**
+         * Texts of the written batches.
+         */
+        private final List<String> batchList = new ArrayList<>();
+        /**
+         * Whether the handler has been closed.
+         */
+        private volatile boolean isClosed = false;
+        //
+        /**
+         * Constructor.
+         *
+         * @param aReleaseLatch latch released when batches may be written
+         */
+        private CollectingHandler(CountDownLatch aReleaseLatch) {
+            this.releaseLatch = aReleaseLatch;
+        }
+        //
+        @Override
+        public synchronized void publish(LogRecord aRecord) {
+            try {
+                this.releaseLatch.await();
+            } catch (InterruptedException anException) {
+                Thread.currentThread().interrupt();
+            }
+            this.batchList.add(this.getFormatter().format(aRecord));
+        }
+        //
+        @Override
+        public void flush() {
+            //nothing to flush
+        }
+        //
+        @Override
+        public void close() {
+            this.isClosed = true;
+        }
+    }
+}
@@ -20,9 +20,16 @@
 
 package de.unijena.cheminf.mortar.model.util;
 
+import de.unijena.cheminf.mortar.model.data.FragmentDataModel;
+import de.unijena.cheminf.mortar.model.data.MoleculeDataModel;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
 /**
  * Test class for CollectionUtil routines.
  */
@@ -48,4 +55,29 @@ public class CollectionUtilTest {
             Assertions.assertEquals(tmpExpectedInitialCapacity[i], tmpCalculatedInitialHashMapCapacity);
         }
     }
+    //
+    /**
+     * Tests that a fragment list is sorted by absolute frequency in both directions using the precompiled comparators
+     * and that unknown properties are rejected.
+     */
+    @Test
+    public void sortGivenFragmentListByPropertyAndSortTypeTest() {
+        int[] tmpFrequencies = new int[]{5, 1, 3, 4, 2};
+        List<MoleculeDataModel> tmpFragmentList = new ArrayList<>(tmpFrequencies.length);
+        for (int tmpFrequency : tmpFrequencies) {
+            FragmentDataModel tmpFragment = new FragmentDataModel("C", "Fragment" + tmpFrequency, new HashMap<>());
+            tmpFragment.setAbsoluteFrequency(tmpFrequency);
+            tmpFragmentList.add(tmpFragment);
+        }
+        CollectionUtil.sortGivenFragmentListByPropertyAndSortType(tmpFragmentList, "absoluteFrequency", "ASCENDING");
+        for (int i = 0; i < tmpFragmentList.size(); i++) {
+            Assertions.assertEquals(i + 1, ((FragmentDataModel) tmpFragmentList.get(i)).getAbsoluteFrequency());
+        }
+        CollectionUtil.sortGivenFragmentListByPropertyAndSortType(tmpFragmentList, "absoluteFrequency", "DESCENDING");
+        for (int i = 0; i < tmpFragmentList.size(); i++) {
+            Assertions.assertEquals(tmpFragmentList.size() - i, ((FragmentDataModel) tmpFragmentList.get(i)).getAbsoluteFrequency());
+        }
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> CollectionUtil.getComparatorByPropertyAndSortType("structure", "ASCENDING"));
+    }
 }
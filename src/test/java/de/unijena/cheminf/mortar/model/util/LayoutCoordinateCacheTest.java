@@ -0,0 +1,155 @@
+/*
+ * MORTAR - MOlecule fRagmenTAtion fRamework
+ * Copyright (C) 2023  Felix Baensch, Jonas Schaub (felix.baensch@w-hs.de, jonas.schaub@uni-jena.de)
+ *
+ * Source code is available at <https://github.com/FelixBaensch/MORTAR>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package de.unijena.cheminf.mortar.model.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openscience.cdk.exception.CDKException;
+import org.openscience.cdk.interfaces.IAtom;
+import org.openscience.cdk.interfaces.IAtomContainer;
+import org.openscience.cdk.interfaces.IBond;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Test class for the LayoutCoordinateCache class.
+ *
+ * @author Felix Baensch, Jonas Schaub
+ * @version 1.0.0.0
+ */
+public class LayoutCoordinateCacheTest {
+    /**
+     * Tests that cached coordinates are applied to the same structure with another atom order, so that all bonds keep
+     * their length, and not to another structure with the same number of atoms.
+     *
+     * @throws CDKException if a SMILES code cannot be parsed or laid out
+     */
+    @Test
+    public void applyCoordinatesTest() throws CDKException {
+        LayoutCoordinateCache tmpCache = new LayoutCoordinateCache(10);
+        String tmpUniqueSmiles = ChemUtil.createUniqueSmiles(ChemUtil.parseSmilesToAtomContainer("OCC(=O)N"));
+        IAtomContainer tmpLaidOutMolecule = ChemUtil.parseSmilesToAtomContainer(tmpUniqueSmiles);
+        ChemUtil.generate2DCoordinates(tmpLaidOutMolecule);
+        tmpCache.putCoordinates(tmpUniqueSmiles, tmpLaidOutMolecule);
+        Assertions.assertEquals(1, tmpCache.size());
+        IAtomContainer tmpReorderedMolecule = ChemUtil.parseSmilesToAtomContainer("NC(=O)CO");
+        Assertions.assertTrue(tmpCache.applyCoordinates(tmpUniqueSmiles, tmpReorderedMolecule));
+        Assertions.assertTrue(ChemUtil.has2DCoordinates(tmpReorderedMolecule));
+        for (IBond tmpBond : tmpReorderedMolecule.bonds()) {
+            Assertions.assertEquals(tmpLaidOutMolecule.getBond(0).getBegin().getPoint2d().distance(
+                    tmpLaidOutMolecule.getBond(0).getEnd().getPoint2d()),
+                    tmpBond.getBegin().getPoint2d().distance(tmpBond.getEnd().getPoint2d()), 0.01);
+        }
+        IAtomContainer tmpOtherMolecule = ChemUtil.parseSmilesToAtomContainer("OCC(=O)C");
+        Assertions.assertEquals(tmpReorderedMolecule.getAtomCount(), tmpOtherMolecule.getAtomCount());
+        Assertions.assertFalse(tmpCache.applyCoordinates(tmpUniqueSmiles, tmpOtherMolecule));
+        for (IAtom tmpAtom : tmpOtherMolecule.atoms()) {
+            Assertions.assertNull(tmpAtom.getPoint2d());
+        }
+        Assertions.assertEquals(1L, tmpCache.getHitCount());
+        Assertions.assertEquals(1L, tmpCache.getMissCount());
+    }
+    //
+    /**
+     * Tests that the cached layouts are read as they were written and that files of another format version are ignored.
+     *
+     * @throws CDKException if a SMILES code cannot be parsed or laid out
+     * @throws IOException if a temporary file cannot be written or read
+     */
+    @Test
+    public void writeAndReadTest() throws CDKException, IOException {
+        LayoutCoordinateCache tmpCache = new LayoutCoordinateCache(10);
+        String tmpUniqueSmiles = ChemUtil.createUniqueSmiles(ChemUtil.parseSmilesToAtomContainer("c1ccccc1CCN"));
+        IAtomContainer tmpLaidOutMolecule = ChemUtil.parseSmilesToAtomContainer(tmpUniqueSmiles);
+        ChemUtil.generate2DCoordinates(tmpLaidOutMolecule);
+        tmpCache.putCoordinates(tmpUniqueSmiles, tmpLaidOutMolecule);
+        Assertions.assertTrue(tmpCache.hasChanged());
+        File tmpFile = Files.createTempFile("mortar_layout_coordinate_cache_test", ".bin").toFile();
+        try {
+            tmpCache.writeToFile(tmpFile);
+            Assertions.assertFalse(tmpCache.hasChanged());
+            LayoutCoordinateCache tmpReadCache = new LayoutCoordinateCache(10);
+            tmpReadCache.readFromFile(tmpFile);
+            Assertions.assertEquals(1, tmpReadCache.size());
+            Assertions.assertFalse(tmpReadCache.hasChanged());
+            IAtomContainer tmpMolecule = ChemUtil.parseSmilesToAtomContainer(tmpUniqueSmiles);
+            Assertions.assertTrue(tmpReadCache.applyCoordinates(tmpUniqueSmiles, tmpMolecule));
+            for (int i = 0; i < tmpMolecule.getAtomCount(); i++) {
+                Assertions.assertEquals(tmpLaidOutMolecule.getAtom(i).getPoint2d().x, tmpMolecule.getAtom(i).getPoint2d().x, 0.001);
+                Assertions.assertEquals(tmpLaidOutMolecule.getAtom(i).getPoint2d().y, tmpMolecule.getAtom(i).getPoint2d().y, 0.001);
+            }
+            try (DataOutputStream tmpOutputStream = new DataOutputStream(new FileOutputStream(tmpFile))) {
+                tmpOutputStream.writeInt(1);
+                tmpOutputStream.writeInt(0);
+            }
+            LayoutCoordinateCache tmpOutdatedCache = new LayoutCoordinateCache(10);
+            tmpOutdatedCache.readFromFile(tmpFile);
+            Assertions.assertEquals(0, tmpOutdatedCache.size());
+            Assertions.assertTrue(tmpOutdatedCache.hasChanged());
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+    }
+    //
+    /**
+     * Tests that numbers of entries and coordinates that do not fit into the remaining file size cause an IOException
+     * and that the entries read before are kept.
+     *
+     * @throws IOException if a temporary file cannot be written
+     */
+    @Test
+    public void corruptFileTest() throws IOException {
+        File tmpFile = Files.createTempFile("mortar_layout_coordinate_cache_test", ".bin").toFile();
+        try {
+            try (DataOutputStream tmpOutputStream = new DataOutputStream(new FileOutputStream(tmpFile))) {
+                tmpOutputStream.writeInt(2);
+                tmpOutputStream.writeInt(Integer.MAX_VALUE);
+            }
+            Assertions.assertThrows(IOException.class, () -> new LayoutCoordinateCache(10).readFromFile(tmpFile));
+            try (DataOutputStream tmpOutputStream = new DataOutputStream(new FileOutputStream(tmpFile))) {
+                tmpOutputStream.writeInt(2);
+                tmpOutputStream.writeInt(2);
+                tmpOutputStream.writeUTF("CC");
+                tmpOutputStream.writeInt(2);
+                tmpOutputStream.writeFloat(0.0f);
+                tmpOutputStream.writeFloat(1.0f);
+                tmpOutputStream.writeUTF("CCO");
+                tmpOutputStream.writeInt(-1);
+            }
+            LayoutCoordinateCache tmpCache = new LayoutCoordinateCache(10);
+            Assertions.assertThrows(IOException.class, () -> tmpCache.readFromFile(tmpFile));
+            Assertions.assertEquals(1, tmpCache.size());
+            try (DataOutputStream tmpOutputStream = new DataOutputStream(new FileOutputStream(tmpFile))) {
+                tmpOutputStream.writeInt(2);
+                tmpOutputStream.writeInt(1);
+                tmpOutputStream.writeUTF("CC");
+                tmpOutputStream.writeInt(Integer.MAX_VALUE);
+            }
+            Assertions.assertThrows(IOException.class, () -> new LayoutCoordinateCache(10).readFromFile(tmpFile));
+        } finally {
+            Files.deleteIfExists(tmpFile.toPath());
+        }
+    }
+}